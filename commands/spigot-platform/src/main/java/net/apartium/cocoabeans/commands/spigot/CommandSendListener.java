@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.spigot;
+
+import net.apartium.cocoabeans.commands.CommandManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Set;
+
+/**
+ * Hides commands of a command manager players can't use from the root commands sent to them, using {@link net.apartium.cocoabeans.commands.CommandVisibility}.
+ * Players sharing a requirement profile reuse the same computed set, so a wave of joins doesn't evaluate every command for every player.
+ */
+@ApiStatus.Internal
+public class CommandSendListener implements Listener {
+
+    private final CommandManager commandManager;
+    private final Set<String> labels;
+    private final String fallbackPrefix;
+
+    /**
+     * Constructs a new listener
+     * @param commandManager command manager to filter commands of
+     * @param labels lowercase labels and aliases registered by the command manager
+     * @param fallbackPrefix prefix commands of the command manager are namespaced with
+     */
+    public CommandSendListener(CommandManager commandManager, Set<String> labels, String fallbackPrefix) {
+        this.commandManager = commandManager;
+        this.labels = labels;
+        this.fallbackPrefix = fallbackPrefix;
+    }
+
+    @EventHandler
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        Set<String> visible = commandManager.getCommandVisibility().getVisibleCommands(new SpigotSender<>(event.getPlayer()));
+
+        event.getCommands().removeIf(label -> {
+            int separator = label.indexOf(':');
+            if (separator >= 0 && (separator != fallbackPrefix.length() || !label.regionMatches(true, 0, fallbackPrefix, 0, separator)))
+                return false; // namespaced by another plugin
+
+            String commandName = label.substring(separator + 1).toLowerCase();
+            return labels.contains(commandName) && !visible.contains(commandName);
+        });
+    }
+
+}
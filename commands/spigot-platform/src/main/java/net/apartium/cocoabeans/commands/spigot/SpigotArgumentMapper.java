@@ -10,10 +10,12 @@
 
 package net.apartium.cocoabeans.commands.spigot;
 
+import net.apartium.cocoabeans.commands.BufferedSender;
 import net.apartium.cocoabeans.commands.CommandContext;
 import net.apartium.cocoabeans.commands.ArgumentMapper;
 import net.apartium.cocoabeans.commands.RegisteredCommandVariant;
 import net.apartium.cocoabeans.commands.Sender;
+import net.apartium.cocoabeans.commands.SimpleArgumentMapper;
 import net.apartium.cocoabeans.utils.OptionalFloat;
 import org.bukkit.command.CommandSender;
 
@@ -41,10 +43,15 @@ public class SpigotArgumentMapper implements ArgumentMapper {
             Class<?> type = parameters[i - 1].type();
             int index = counterMap.computeIfAbsent(type, (k) -> 0);
 
-            if (handleResult(counterMap, result, get(type, counterMap, mapOfObjects, sender, Sender.class, -1)))
+            Sender parameterSender = Sender.class.isAssignableFrom(type) ? BufferedSender.forParameter(sender, type) : sender;
+            if (handleResult(counterMap, result, get(type, counterMap, mapOfObjects, parameterSender, Sender.class, -1)))
                 continue;
 
-            if (handleResult(counterMap, result, get(type, counterMap, mapOfObjects, sender.getSender(), CommandSender.class, -1)))
+            Result platformSender = get(type, counterMap, mapOfObjects, sender.getSender(), CommandSender.class, -1);
+            if (platformSender != null && platformSender.result() == sender.getSender())
+                BufferedSender.stream(sender); // messages sent to the platform sender can't be buffered, keeps them in order
+
+            if (handleResult(counterMap, result, platformSender))
                 continue;
 
             if (type.equals(CommandContext.class)) {
@@ -135,7 +142,7 @@ public class SpigotArgumentMapper implements ArgumentMapper {
             if (objects == null || objects.isEmpty() || objects.size() <= index)
                 throw new RuntimeException("No argument found for type " + type);
 
-            Object obj = objects.get(index);
+            Object obj = SimpleArgumentMapper.orEmptyArray(type, objects.get(index));
 
             result.add(obj);
             counterMap.put(type, index + 1);
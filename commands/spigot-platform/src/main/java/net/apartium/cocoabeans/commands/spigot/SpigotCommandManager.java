@@ -13,20 +13,24 @@ package net.apartium.cocoabeans.commands.spigot;
 import net.apartium.cocoabeans.commands.*;
 import net.apartium.cocoabeans.commands.exception.ExceptionArgumentMapper;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.spigot.brigadier.BrigadierArgumentMappings;
+import net.apartium.cocoabeans.commands.spigot.brigadier.BrigadierCommandListener;
 import net.apartium.cocoabeans.commands.spigot.exception.SpigotExceptionArgumentMapper;
 import net.apartium.cocoabeans.commands.spigot.parsers.LocationParser;
 import net.apartium.cocoabeans.commands.spigot.parsers.MaterialParser;
 import net.apartium.cocoabeans.commands.spigot.parsers.OfflinePlayerParser;
+import net.apartium.cocoabeans.commands.spigot.parsers.OfflinePlayerIndex;
+import net.apartium.cocoabeans.commands.spigot.parsers.OnlinePlayerIndex;
 import net.apartium.cocoabeans.commands.spigot.parsers.PlayerParser;
 import net.apartium.cocoabeans.commands.spigot.requirements.Permission;
 import net.apartium.cocoabeans.spigot.Commands;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A command manager implementation for Spigot and Spigot-based platforms.
@@ -42,6 +46,11 @@ public class SpigotCommandManager extends CommandManager {
 
     private final JavaPlugin plugin;
 
+    // identity of bukkit commands registered by this manager
+    private final Set<org.bukkit.command.Command> registeredCommands = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<String> registeredLabels = ConcurrentHashMap.newKeySet();
+    private final @Nullable BrigadierArgumentMappings brigadierMappings;
+
     /**
      * Create a new command manager instance for specified plugin
      * @param plugin plugin to own this command manager
@@ -58,6 +67,27 @@ public class SpigotCommandManager extends CommandManager {
     public SpigotCommandManager(JavaPlugin plugin, ArgumentMapper argumentMapper, ExceptionArgumentMapper exceptionArgumentMapper) {
         super(argumentMapper, exceptionArgumentMapper);
         this.plugin = plugin;
+
+        OnlinePlayerIndex.getInstance().register(plugin);
+        OfflinePlayerIndex.getInstance().register(plugin);
+
+        plugin.getServer().getPluginManager().registerEvents(new CommandSendListener(this, registeredLabels, plugin.getName().toLowerCase()), plugin);
+
+        if (BrigadierCommandListener.isSupported()) {
+            brigadierMappings = new BrigadierArgumentMappings();
+            plugin.getServer().getPluginManager().registerEvents(new BrigadierCommandListener(this, registeredCommands, brigadierMappings), plugin);
+        } else {
+            brigadierMappings = null;
+        }
+    }
+
+    /**
+     * Returns the mappings of parsers to the argument types commands are sent to clients with, register mappings of custom parsers here
+     * @return brigadier mappings, or null if the server doesn't support sending custom command trees
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable BrigadierArgumentMappings getBrigadierMappings() {
+        return brigadierMappings;
     }
 
     @Override
@@ -96,6 +126,11 @@ public class SpigotCommandManager extends CommandManager {
         Optional.ofNullable(commandNode.getClass().getAnnotation(Permission.class))
                 .map(Permission::value).ifPresent(cmd::setPermission);
 
+        registeredCommands.add(cmd);
+        registeredLabels.add(command.value().toLowerCase());
+        for (String alias : command.aliases())
+            registeredLabels.add(alias.toLowerCase());
+
         Commands.getCommandMap().register(plugin.getName().toLowerCase(), cmd);
     }
 
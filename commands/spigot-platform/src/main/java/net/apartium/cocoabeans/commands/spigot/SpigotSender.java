@@ -12,7 +12,15 @@ package net.apartium.cocoabeans.commands.spigot;
 
 
 import net.apartium.cocoabeans.commands.Sender;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 public class SpigotSender<T extends CommandSender> implements Sender {
 
@@ -37,4 +45,23 @@ public class SpigotSender<T extends CommandSender> implements Sender {
         this.sender.sendMessage(args);
     }
 
+    /**
+     * Sends all lines as a single chat message, instead of a message per line.
+     * Each line is deserialized on its own, so formatting doesn't carry over to the next line
+     * @param lines messages as text
+     */
+    @Override
+    public void sendLines(List<String> lines) {
+        List<Component> components = new ArrayList<>(lines.size());
+        for (String line : lines)
+            components.add(LegacyComponentSerializer.legacySection().deserialize(line));
+
+        this.sender.sendMessage(Component.join(JoinConfiguration.newlines(), components));
+    }
+
+    @Override
+    public UUID getUniqueId() {
+        return sender instanceof Entity entity ? entity.getUniqueId() : null;
+    }
+
 }
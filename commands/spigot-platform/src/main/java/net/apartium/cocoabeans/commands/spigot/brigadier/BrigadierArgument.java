@@ -0,0 +1,24 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.spigot.brigadier;
+
+import com.mojang.brigadier.arguments.ArgumentType;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * A single Brigadier argument node an argument parser is exported as
+ * @param name name of the node, shown to the client
+ * @param type argument type the client validates with
+ * @param serverSuggestions whether the client should ask the server for suggestions instead of using the ones of the type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record BrigadierArgument(String name, ArgumentType<?> type, boolean serverSuggestions) {
+
+}
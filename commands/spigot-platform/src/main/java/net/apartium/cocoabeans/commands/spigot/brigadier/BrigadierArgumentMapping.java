@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.spigot.brigadier;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+
+/**
+ * Maps an argument parser to Brigadier argument nodes
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@FunctionalInterface
+public interface BrigadierArgumentMapping {
+
+    /**
+     * Maps an argument parser, parsers consuming a varying amount of args can be mapped to multiple alternatives
+     * @param parser parser to map
+     * @return alternative sequences of argument nodes matching the same input as the parser, the rest of the command follows each of them
+     */
+    List<List<BrigadierArgument>> map(ArgumentParser<?> parser);
+
+    /**
+     * Creates a mapping to a single argument node
+     * @param argument argument node
+     * @return mapping
+     */
+    static BrigadierArgumentMapping of(BrigadierArgument argument) {
+        List<List<BrigadierArgument>> result = List.of(List.of(argument));
+        return parser -> result;
+    }
+
+}
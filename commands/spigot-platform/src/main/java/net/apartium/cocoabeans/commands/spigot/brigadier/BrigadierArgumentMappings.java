@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.spigot.brigadier;
+
+import com.mojang.brigadier.arguments.*;
+import net.apartium.cocoabeans.commands.CommandTreeNode;
+import net.apartium.cocoabeans.commands.parsers.*;
+import net.apartium.cocoabeans.commands.spigot.parsers.LocationParser;
+import net.apartium.cocoabeans.commands.spigot.parsers.OfflinePlayerParser;
+import net.apartium.cocoabeans.commands.spigot.parsers.PlayerParser;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps argument parsers to Brigadier argument types.
+ * Built-in parsers are mapped to native argument types so clients validate them locally,
+ * other parsers are mapped to strings completed by the server.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class BrigadierArgumentMappings {
+
+    // [world] x y z [yaw pitch]
+    private static final List<List<BrigadierArgument>> LOCATION;
+
+    static {
+        BrigadierArgument world = new BrigadierArgument("world", StringArgumentType.word(), true);
+        List<BrigadierArgument> coordinates = List.of(
+                new BrigadierArgument("x", DoubleArgumentType.doubleArg(), false),
+                new BrigadierArgument("y", DoubleArgumentType.doubleArg(), false),
+                new BrigadierArgument("z", DoubleArgumentType.doubleArg(), false)
+        );
+        List<BrigadierArgument> rotation = List.of(
+                new BrigadierArgument("yaw", FloatArgumentType.floatArg(), false),
+                new BrigadierArgument("pitch", FloatArgumentType.floatArg(), false)
+        );
+
+        List<List<BrigadierArgument>> paths = new ArrayList<>();
+        for (boolean withWorld : new boolean[] {false, true}) {
+            for (boolean withRotation : new boolean[] {false, true}) {
+                List<BrigadierArgument> path = new ArrayList<>();
+                if (withWorld)
+                    path.add(world);
+
+                path.addAll(coordinates);
+                if (withRotation)
+                    path.addAll(rotation);
+
+                paths.add(List.copyOf(path));
+            }
+        }
+
+        LOCATION = List.copyOf(paths);
+    }
+
+    private final Map<Class<?>, BrigadierArgumentMapping> mappings = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs new mappings of the built-in parsers
+     */
+    public BrigadierArgumentMappings() {
+        registerMapping(IntParser.class, parser -> single(parser, IntegerArgumentType.integer(), false));
+        registerMapping(LongParser.class, parser -> single(parser, LongArgumentType.longArg(), false));
+        registerMapping(FloatParser.class, parser -> single(parser, FloatArgumentType.floatArg(), false));
+        registerMapping(DoubleParser.class, parser -> single(parser, DoubleArgumentType.doubleArg(), false));
+        registerMapping(BooleanParser.class, parser -> single(parser, BoolArgumentType.bool(), false));
+        registerMapping(StringParser.class, parser -> single(parser, StringArgumentType.word(), false));
+        registerMapping(StringsParser.class, parser -> single(parser, StringArgumentType.greedyString(), false));
+        registerMapping(EnumParser.class, parser -> single(parser, StringArgumentType.word(), true));
+        registerMapping(PlayerParser.class, parser -> single(parser, StringArgumentType.word(), true));
+        registerMapping(OfflinePlayerParser.class, parser -> single(parser, StringArgumentType.word(), true));
+        registerMapping(LocationParser.class, parser -> LOCATION);
+    }
+
+    /**
+     * Registers how parsers of given class, or classes extending it, are exported
+     * @param parserClass parser class
+     * @param mapping mapping of parsers of the class
+     */
+    public void registerMapping(Class<? extends ArgumentParser> parserClass, BrigadierArgumentMapping mapping) {
+        mappings.put(parserClass, mapping);
+    }
+
+    /**
+     * Returns the mapping of an argument node, by the class of its parser or the closest super class with a mapping
+     * @param node argument node
+     * @return mapping of the node
+     */
+    public BrigadierArgumentMapping mapping(CommandTreeNode node) {
+        for (Class<?> clazz = node.getParser().getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            BrigadierArgumentMapping mapping = mappings.get(clazz);
+            if (mapping != null)
+                return mapping;
+        }
+
+        // greedy only if nothing may follow, as it would consume it
+        ArgumentType<String> type = node.getChildren().isEmpty() ? StringArgumentType.greedyString() : StringArgumentType.word();
+        return parser -> single(parser, type, true);
+    }
+
+    private static List<List<BrigadierArgument>> single(ArgumentParser<?> parser, ArgumentType<?> type, boolean serverSuggestions) {
+        return List.of(List.of(new BrigadierArgument(parser.getKeyword(), type, serverSuggestions)));
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.spigot.brigadier;
+
+import com.destroystokyo.paper.brigadier.BukkitBrigadierCommandSource;
+import com.destroystokyo.paper.event.brigadier.CommandRegisteredEvent;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.spigot.SpigotSender;
+import org.bukkit.command.Command;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Set;
+
+/**
+ * Replaces the generic Brigadier nodes Paper creates for commands of a command manager with exported ones.
+ * Only loaded on Paper based servers.
+ */
+@ApiStatus.Internal
+public class BrigadierCommandListener implements Listener {
+
+    private static final String EVENT_CLASS = "com.destroystokyo.paper.event.brigadier.CommandRegisteredEvent";
+
+    private final Set<Command> commands;
+    private final BrigadierExporter<BukkitBrigadierCommandSource> exporter;
+
+    /**
+     * Constructs a new listener
+     * @param commandManager command manager to export commands of
+     * @param commands bukkit commands registered by the command manager
+     * @param mappings mappings of parsers to argument types
+     */
+    public BrigadierCommandListener(CommandManager commandManager, Set<Command> commands, BrigadierArgumentMappings mappings) {
+        this.commands = commands;
+        this.exporter = new BrigadierExporter<>(
+                commandManager,
+                source -> new SpigotSender<>(source.getBukkitSender()),
+                mappings
+        );
+    }
+
+    /**
+     * Checks whether the server fires the events this listener depends on
+     * @return true if supported
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName(EVENT_CLASS);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @EventHandler
+    public void onCommandRegistered(CommandRegisteredEvent<BukkitBrigadierCommandSource> event) {
+        if (!commands.contains(event.getCommand()))
+            return;
+
+        String label = event.getCommandLabel();
+        String commandName = label.substring(label.indexOf(':') + 1);
+
+        LiteralCommandNode<BukkitBrigadierCommandSource> literal = exporter.export(label, commandName, event.getBrigadierCommand());
+        if (literal != null)
+            event.setLiteral(literal);
+    }
+
+}
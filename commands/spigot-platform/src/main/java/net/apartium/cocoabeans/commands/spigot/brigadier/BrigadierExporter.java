@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.spigot.brigadier;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.CommandTreeNode;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Exports registered command trees to Brigadier nodes, so clients can validate and complete commands locally.
+ * Parsers are mapped to argument types by {@link BrigadierArgumentMappings}.
+ * Nodes are only hidden by requirements, the server stays authoritative for running commands through given executor.
+ * @param <S> command source type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class BrigadierExporter<S> {
+
+    // marks names taken by literals
+    private static final Object LITERAL = new Object();
+
+    private final CommandManager commandManager;
+    private final Function<S, Sender> senderMapper;
+    private final BrigadierArgumentMappings mappings;
+
+    /**
+     * Constructs a new exporter
+     * @param commandManager command manager to export commands of
+     * @param senderMapper maps command sources to senders, used for requirements & suggestions
+     * @param mappings mappings of parsers to argument types
+     */
+    public BrigadierExporter(CommandManager commandManager, Function<S, Sender> senderMapper, BrigadierArgumentMappings mappings) {
+        this.commandManager = commandManager;
+        this.senderMapper = senderMapper;
+        this.mappings = mappings;
+    }
+
+    /**
+     * Exports a registered command
+     * @param literal name of the exported node, for example a namespaced label
+     * @param commandName label of the command
+     * @param executor command run by executable nodes
+     * @return exported node, or null if there is no such command
+     */
+    public @Nullable LiteralCommandNode<S> export(String literal, String commandName, Command<S> executor) {
+        CommandTreeNode root = commandManager.getCommandTree(commandName);
+        if (root == null)
+            return null;
+
+        LiteralArgumentBuilder<S> builder = LiteralArgumentBuilder.<S>literal(literal)
+                .requires(requirement(root, commandName));
+
+        if (attachChildren(builder, root, commandName, executor, new HashMap<>()))
+            builder.executes(executor);
+
+        return builder.build();
+    }
+
+    // attaches children of node to builder, inlining children of optional arguments, returns whether builder is executable
+    private boolean attachChildren(ArgumentBuilder<S, ?> builder, CommandTreeNode node, String commandName, Command<S> executor, Map<String, Object> names) {
+        boolean executable = node.isExecutable();
+
+        // literals first, so arguments are the ones renamed on conflicts
+        for (CommandTreeNode child : node.getChildren()) {
+            if (child.getType() == CommandTreeNode.Type.LITERAL)
+                attach(builder, child, commandName, executor, names);
+        }
+
+        for (CommandTreeNode child : node.getChildren()) {
+            if (child.getType() == CommandTreeNode.Type.LITERAL)
+                continue;
+
+            attach(builder, child, commandName, executor, names);
+            if (child.isOptional() && attachChildren(builder, child, commandName, executor, names))
+                executable = true;
+        }
+
+        return executable;
+    }
+
+    private void attach(ArgumentBuilder<S, ?> builder, CommandTreeNode child, String commandName, Command<S> executor, Map<String, Object> names) {
+        for (CommandNode<S> exported : export(child, commandName, executor, names))
+            builder.then(exported);
+    }
+
+    private List<CommandNode<S>> export(CommandTreeNode node, String commandName, Command<S> executor, Map<String, Object> names) {
+        Predicate<S> requirement = requirement(node, commandName);
+
+        if (node.getType() != CommandTreeNode.Type.ARGUMENT) {
+            names.put(node.getName(), LITERAL);
+            LiteralArgumentBuilder<S> builder = LiteralArgumentBuilder.<S>literal(node.getName()).requires(requirement);
+            if (attachChildren(builder, node, commandName, executor, new HashMap<>()))
+                builder.executes(executor);
+
+            return List.of(builder.build());
+        }
+
+        // children are exported once and shared by the last node of every alternative
+        LiteralArgumentBuilder<S> holder = LiteralArgumentBuilder.literal(node.getName());
+        boolean executable = attachChildren(holder, node, commandName, executor, new HashMap<>());
+        Collection<CommandNode<S>> children = holder.getArguments();
+
+        List<CommandNode<S>> result = new ArrayList<>();
+        for (List<BrigadierArgument> path : mappings.mapping(node).map(node.getParser())) {
+            CommandNode<S> next = null;
+            for (int i = path.size() - 1; i >= 0; i--) {
+                BrigadierArgument argument = path.get(i);
+                RequiredArgumentBuilder<S, ?> builder = RequiredArgumentBuilder.argument(
+                        i == 0 ? uniqueName(argument, names) : argument.name(),
+                        argument.type()
+                );
+
+                if (argument.serverSuggestions())
+                    builder.suggests(suggestions(commandName));
+
+                if (next == null) {
+                    for (CommandNode<S> child : children)
+                        builder.then(child);
+
+                    if (executable)
+                        builder.executes(executor);
+                } else {
+                    builder.then(next);
+                }
+
+                if (i == 0)
+                    builder.requires(requirement);
+
+                next = builder.build();
+            }
+
+            if (next != null)
+                result.add(next);
+        }
+
+        return result;
+    }
+
+    // siblings of the same name are merged by brigadier, so only same typed ones may share it
+    private static String uniqueName(BrigadierArgument argument, Map<String, Object> names) {
+        String name = argument.name();
+        for (int i = 2; ; i++) {
+            Object existing = names.putIfAbsent(name, argument.type());
+            if (existing == null || existing.equals(argument.type()))
+                return name;
+
+            name = argument.name() + i;
+        }
+    }
+
+    private Predicate<S> requirement(CommandTreeNode node, String commandName) {
+        return source -> node.meetsRequirements(senderMapper.apply(source), commandName);
+    }
+
+    private SuggestionProvider<S> suggestions(String commandName) {
+        return (context, builder) -> {
+            String input = builder.getInput();
+            int labelEnd = input.indexOf(' ');
+            if (labelEnd == -1)
+                return builder.buildFuture();
+
+            String[] args = input.substring(labelEnd + 1).split(" ", -1);
+            SuggestionsBuilder offset = builder.createOffset(input.lastIndexOf(' ') + 1);
+            for (String completion : commandManager.handleTabComplete(senderMapper.apply(context.getSource()), commandName, args))
+                offset.suggest(completion);
+
+            return offset.buildFuture();
+        };
+    }
+
+}
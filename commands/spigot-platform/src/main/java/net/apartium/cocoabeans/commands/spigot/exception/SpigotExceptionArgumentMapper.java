@@ -1,5 +1,6 @@
 package net.apartium.cocoabeans.commands.spigot.exception;
 
+import net.apartium.cocoabeans.commands.BufferedSender;
 import net.apartium.cocoabeans.commands.CommandContext;
 import net.apartium.cocoabeans.commands.Sender;
 import net.apartium.cocoabeans.commands.exception.BadCommandResponse;
@@ -26,11 +27,12 @@ public class SpigotExceptionArgumentMapper implements ExceptionArgumentMapper {
 
         for (Class<?> type : parameters) {
             if (Sender.class.isAssignableFrom(type)) {
-                result.add(sender);
+                result.add(BufferedSender.forParameter(sender, type));
                 continue;
             }
 
             if (CommandSender.class.isAssignableFrom(type)) {
+                BufferedSender.stream(sender); // messages sent to the platform sender can't be buffered, keeps them in order
                 result.add(sender.getSender());
                 continue;
             }
@@ -13,6 +13,7 @@ package net.apartium.cocoabeans.commands.spigot.parsers;
 import net.apartium.cocoabeans.StringHelpers;
 import net.apartium.cocoabeans.commands.CommandProcessingContext;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.NumericCompletions;
 import net.apartium.cocoabeans.utils.OptionalFloat;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -89,9 +90,9 @@ public class LocationParser extends ArgumentParser<Location> {
         if (args.size() - index < 4)
             return OptionalInt.empty();
 
-        if (StringHelpers.parseDouble(args.get(index + 1)).isEmpty() ||
-                StringHelpers.parseDouble(args.get(index + 2)).isEmpty() ||
-                StringHelpers.parseDouble(args.get(index + 3)).isEmpty()
+        if (!StringHelpers.isDouble(args.get(index + 1)) ||
+                !StringHelpers.isDouble(args.get(index + 2)) ||
+                !StringHelpers.isDouble(args.get(index + 3))
         ) return OptionalInt.empty();
 
         if (Bukkit.getWorld(args.get(index)) == null)
@@ -131,17 +132,17 @@ public class LocationParser extends ArgumentParser<Location> {
             return tabDouble(args.get(index + 1), index + 2);
 
         if (args.size() - index == 3) {
-            if (StringHelpers.parseDouble(args.get(index + 1)).isEmpty())
+            if (!StringHelpers.isDouble(args.get(index + 1)))
                 return Optional.empty();
 
             return tabDouble(args.get(index + 2), index + 3);
         }
 
         if (args.size() - index == 4) {
-            if (StringHelpers.parseDouble(args.get(index + 1)).isEmpty())
+            if (!StringHelpers.isDouble(args.get(index + 1)))
                 return Optional.empty();
 
-            if (StringHelpers.parseDouble(args.get(index + 2)).isEmpty())
+            if (!StringHelpers.isDouble(args.get(index + 2)))
                 return Optional.empty();
 
             return tabDouble(args.get(index + 3), index + 4);
@@ -151,49 +152,9 @@ public class LocationParser extends ArgumentParser<Location> {
     }
 
     private Optional<TabCompletionResult> tabDouble(String s, int resultIndex) {
-        if (s.isEmpty())
-            return Optional.of(new TabCompletionResult(
-                    Set.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "-", "."),
-                    resultIndex
-            ));
-
-        boolean onlyZero = true;
-        boolean hasDot = false;
-
-        for (int i = 0; i < s.length(); i++) {
-            if (s.charAt(i) == '-' || s.charAt(i) == '+') {
-                if (i != 0)
-                    return Optional.empty();
-                continue;
-            }
-
-            if (s.charAt(i) == '.') {
-                if (hasDot)
-                    return Optional.empty();
-                hasDot = true;
-                onlyZero = false;
-                continue;
-            }
-
-            if (s.charAt(i) == '0') {
-                onlyZero = false;
-                continue;
-            }
-
-            if (s.charAt(i) >= '0' && s.charAt('9') <= 9)
-                continue;
-
+        Set<String> result = NumericCompletions.decimals(s, true);
+        if (result.isEmpty())
             return Optional.empty();
-        }
-
-        Set<String> result = new HashSet<>();
-
-        for (int i = onlyZero ? 1 : 0; i < 10; i++) {
-            result.add(s + i);
-        }
-
-        if (!hasDot)
-            result.add(s + ".");
 
         return Optional.of(new TabCompletionResult(
                 result,
@@ -10,55 +10,13 @@
 
 package net.apartium.cocoabeans.commands.spigot.parsers;
 
-import net.apartium.cocoabeans.commands.CommandProcessingContext;
-import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.EnumParser;
 import org.bukkit.Material;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalInt;
-import java.util.stream.Collectors;
-
-public class MaterialParser extends ArgumentParser<Material> {
+public class MaterialParser extends EnumParser<Material> {
 
     public MaterialParser(int priority) {
         super("material", Material.class, priority);
     }
 
-    @Override
-    public Optional<ParseResult<Material>> parse(CommandProcessingContext processingContext) {
-        List<String> args = processingContext.args();
-        int startIndex = processingContext.index();
-
-        Material material = Material.getMaterial(args.get(startIndex));
-        if (material == null) return Optional.empty();
-        return Optional.of(new ParseResult<>(
-                material,
-                startIndex + 1
-        ));
-    }
-
-    @Override
-    public OptionalInt tryParse(CommandProcessingContext processingContext) {
-        List<String> args = processingContext.args();
-        int startIndex = processingContext.index();
-
-        if (Material.getMaterial(args.get(startIndex)) == null) return OptionalInt.empty();
-        return OptionalInt.of(startIndex + 1);
-    }
-
-    @Override
-    public Optional<TabCompletionResult> tabCompletion(CommandProcessingContext processingContext) {
-        List<String> args = processingContext.args();
-        int startIndex = processingContext.index();
-
-        return Optional.of(new TabCompletionResult(
-                Arrays.stream(Material.values())
-                        .map(Material::name)
-                        .filter(s -> s.toLowerCase().startsWith(args.get(startIndex).toLowerCase()))
-                        .collect(Collectors.toSet()),
-                startIndex + 1
-        ));
-    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.spigot.parsers;
+
+import net.apartium.cocoabeans.collect.MappedNameIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Persistent case-insensitive index of names of players who have played on the server, stored in the data folder of its owning plugin.
+ * The index is built once from {@link Bukkit#getOfflinePlayers()} and then updated incrementally as players join,
+ * so lookups and completions never load offline player data from disk.
+ * @see OfflinePlayerParser
+ * @see MappedNameIndex
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class OfflinePlayerIndex implements Listener {
+
+    private static final String DIRECTORY = "offline-players";
+
+    private static final OfflinePlayerIndex INSTANCE = new OfflinePlayerIndex();
+
+    /**
+     * Returns the server wide index
+     * @return index instance
+     */
+    public static OfflinePlayerIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private volatile MappedNameIndex index;
+    private volatile boolean ready;
+    private volatile Plugin owner;
+
+    private OfflinePlayerIndex() {}
+
+    /**
+     * Starts maintaining the index using listeners owned by given plugin, unless it is already maintained by an enabled plugin.
+     * If the index doesn't exist yet it is built asynchronously, until then {@link #index()} returns null.
+     * @param plugin enabled plugin to own the listeners and the index files
+     */
+    public synchronized void register(Plugin plugin) {
+        if (isActive() || !plugin.isEnabled())
+            return;
+
+        MappedNameIndex index;
+        try {
+            index = MappedNameIndex.open(plugin.getDataFolder().toPath().resolve(DIRECTORY));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to open offline player index, falling back to bukkit lookups", e);
+            return;
+        }
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        this.index = index;
+        this.owner = plugin;
+
+        if (!index.isEmpty()) {
+            this.ready = true;
+            return;
+        }
+
+        this.ready = false;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> build(plugin, index));
+    }
+
+    /**
+     * Checks whether the index is being maintained, listeners are dropped when their owning plugin is disabled
+     * @return true if the index is up to date, else false
+     */
+    public boolean isActive() {
+        Plugin plugin = this.owner;
+        return plugin != null && plugin.isEnabled();
+    }
+
+    /**
+     * Returns the underlying index if it is maintained and fully built
+     * @return index, or null if lookups should fall back to bukkit
+     */
+    public @Nullable MappedNameIndex index() {
+        return ready && isActive() ? index : null;
+    }
+
+    private void build(Plugin plugin, MappedNameIndex index) {
+        Map<String, UUID> names = new HashMap<>();
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+            String name = player.getName();
+            if (name != null && !name.isEmpty())
+                names.put(name, player.getUniqueId());
+        }
+
+        try {
+            index.rebuild(names);
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to build offline player index, falling back to bukkit lookups", e);
+            return;
+        }
+
+        if (this.index == index)
+            this.ready = true;
+    }
+
+    private void compact(Plugin plugin, MappedNameIndex index) {
+        try {
+            index.compact();
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact offline player index", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        MappedNameIndex index = this.index;
+        Plugin plugin = this.owner;
+        if (index == null || plugin == null)
+            return;
+
+        Player player = event.getPlayer();
+        try {
+            index.put(player.getName(), player.getUniqueId());
+        } catch (UncheckedIOException | IllegalStateException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to add " + player.getName() + " to offline player index", e);
+            return;
+        }
+
+        if (index.needsCompaction() && compacting.compareAndSet(false, true))
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> compact(plugin, index));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (event.getPlugin() != owner)
+            return;
+
+        synchronized (this) {
+            MappedNameIndex index = this.index;
+            this.index = null;
+            this.ready = false;
+            this.owner = null;
+
+            try {
+                if (index != null)
+                    index.close();
+            } catch (IOException e) {
+                event.getPlugin().getLogger().log(Level.WARNING, "Failed to close offline player index", e);
+            }
+        }
+    }
+
+}
@@ -10,16 +10,28 @@
 
 package net.apartium.cocoabeans.commands.spigot.parsers;
 
+import net.apartium.cocoabeans.collect.MappedNameIndex;
 import net.apartium.cocoabeans.commands.CommandProcessingContext;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Parses names of players who have played on the server.
+ * Lookups and completions are served from {@link OfflinePlayerIndex} once it is built, falling back to bukkit until then.
+ */
 public class OfflinePlayerParser extends ArgumentParser<OfflinePlayer> {
 
+    /**
+     * Max amount of completions returned for a single argument
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static final int MAX_COMPLETIONS = 1000;
+
     public OfflinePlayerParser(int priority) {
         super("offlineplayer", OfflinePlayer.class, priority);
     }
@@ -29,7 +41,7 @@ public class OfflinePlayerParser extends ArgumentParser<OfflinePlayer> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        OfflinePlayer player = Bukkit.getOfflinePlayerIfCached(args.get(startIndex));
+        OfflinePlayer player = lookup(args.get(startIndex));
         if (player == null)
             return Optional.empty();
 
@@ -45,7 +57,12 @@ public class OfflinePlayerParser extends ArgumentParser<OfflinePlayer> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        if (Bukkit.getOfflinePlayerIfCached(args.get(startIndex)) == null)
+        MappedNameIndex index = OfflinePlayerIndex.getInstance().index();
+        boolean found = index != null
+                ? index.get(args.get(startIndex)) != null
+                : Bukkit.getOfflinePlayerIfCached(args.get(startIndex)) != null;
+
+        if (!found)
             return OptionalInt.empty();
 
         return OptionalInt.of(startIndex + 1);
@@ -53,16 +70,45 @@ public class OfflinePlayerParser extends ArgumentParser<OfflinePlayer> {
 
     @Override
     public Optional<TabCompletionResult> tabCompletion(CommandProcessingContext processingContext) {
-        // TODO optimize it so player name will be cache and not need to be loaded from disk each time that can be slow!!!
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
+        String prefix = args.get(startIndex);
+
+        MappedNameIndex index = OfflinePlayerIndex.getInstance().index();
+        Set<String> result = index != null
+                ? new HashSet<>(index.namesStartingWith(prefix, MAX_COMPLETIONS))
+                : scanOfflinePlayers(prefix);
 
         return Optional.of(new TabCompletionResult(
-                Arrays.stream(Bukkit.getOfflinePlayers())
-                        .map(OfflinePlayer::getName)
-                        .filter(Objects::nonNull)
-                        .filter(s -> s.toLowerCase().startsWith(args.get(startIndex).toLowerCase()))
-                        .collect(Collectors.toSet()),
+                result,
                 startIndex + 1
-        ));    }
+        ));
+    }
+
+    private static @Nullable OfflinePlayer lookup(String name) {
+        MappedNameIndex index = OfflinePlayerIndex.getInstance().index();
+        if (index == null)
+            return Bukkit.getOfflinePlayerIfCached(name);
+
+        UUID uuid = index.get(name);
+        return uuid == null ? null : Bukkit.getOfflinePlayer(uuid);
+    }
+
+    // used while the index is being built
+    private static Set<String> scanOfflinePlayers(String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+
+        Set<String> result = new HashSet<>();
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+            String name = player.getName();
+            if (name != null && name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                result.add(name);
+
+            if (result.size() >= MAX_COMPLETIONS)
+                break;
+        }
+
+        return result;
+    }
+
 }
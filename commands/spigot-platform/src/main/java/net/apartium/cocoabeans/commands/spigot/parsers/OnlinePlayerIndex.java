@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.spigot.parsers;
+
+import net.apartium.cocoabeans.collect.PrefixIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Case-insensitive index of online player names, kept up to date by join and quit listeners.
+ * Snapshots are immutable and therefore safe to read from async tab completion threads.
+ * @see PlayerParser
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class OnlinePlayerIndex implements Listener {
+
+    private static final OnlinePlayerIndex INSTANCE = new OnlinePlayerIndex();
+
+    /**
+     * Returns the server wide index
+     * @return index instance
+     */
+    public static OnlinePlayerIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private volatile PrefixIndex<UUID> snapshot = PrefixIndex.of();
+    private volatile Plugin owner;
+
+    private OnlinePlayerIndex() {}
+
+    /**
+     * Starts maintaining the index using listeners owned by given plugin, unless it is already maintained by an enabled plugin
+     * @param plugin enabled plugin to own the listeners
+     */
+    public synchronized void register(Plugin plugin) {
+        if (isActive() || !plugin.isEnabled())
+            return;
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        this.owner = plugin;
+        rebuild();
+    }
+
+    /**
+     * Checks whether the index is being maintained, listeners are dropped when their owning plugin is disabled
+     * @return true if the index is up to date, else false
+     */
+    public boolean isActive() {
+        Plugin plugin = this.owner;
+        return plugin != null && plugin.isEnabled();
+    }
+
+    /**
+     * Returns an immutable snapshot of online player names mapped to their unique ids
+     * @return current snapshot
+     */
+    public PrefixIndex<UUID> snapshot() {
+        return snapshot;
+    }
+
+    private synchronized void rebuild() {
+        Map<String, UUID> names = new HashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers())
+            names.put(player.getName(), player.getUniqueId());
+
+        this.snapshot = PrefixIndex.of(names);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        synchronized (this) {
+            this.snapshot = this.snapshot.with(player.getName(), player.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        synchronized (this) {
+            this.snapshot = this.snapshot.without(event.getPlayer().getName());
+        }
+    }
+
+}
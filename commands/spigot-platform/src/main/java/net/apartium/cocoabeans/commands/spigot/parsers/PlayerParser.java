@@ -11,14 +11,13 @@
 package net.apartium.cocoabeans.commands.spigot.parsers;
 
 
+import net.apartium.cocoabeans.collect.PrefixIndex;
 import net.apartium.cocoabeans.commands.CommandProcessingContext;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalInt;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,7 +51,24 @@ public class PlayerParser extends ArgumentParser<Player> {
 
     @Override
     public OptionalInt tryParse(CommandProcessingContext processingContext) {
-        return parse(processingContext).map(ParseResult::newIndex).map(OptionalInt::of).orElse(OptionalInt.empty());
+        List<String> args = processingContext.args();
+        int startIndex = processingContext.index();
+
+        OnlinePlayerIndex index = OnlinePlayerIndex.getInstance();
+        if (!index.isActive())
+            return parse(processingContext).map(ParseResult::newIndex).map(OptionalInt::of).orElse(OptionalInt.empty());
+
+        UUID uuid = index.snapshot().getIgnoreCase(args.get(startIndex));
+        if (uuid == null)
+            return OptionalInt.empty();
+
+        if (processingContext.sender().getSender() instanceof Player sender) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null || !sender.canSee(player))
+                return OptionalInt.empty();
+        }
+
+        return OptionalInt.of(startIndex + 1);
     }
 
     @Override
@@ -60,16 +76,39 @@ public class PlayerParser extends ArgumentParser<Player> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
+        OnlinePlayerIndex index = OnlinePlayerIndex.getInstance();
+        if (!index.isActive())
+            return Optional.of(new TabCompletionResult(scanOnlinePlayers(processingContext, args.get(startIndex)), startIndex + 1));
+
+        Player sender = processingContext.sender().getSender() instanceof Player player ? player : null;
+
+        Set<String> result = new HashSet<>();
+        index.snapshot().forEachStartingWith(args.get(startIndex), (name, uuid) -> {
+            if (sender != null) {
+                Player player = Bukkit.getPlayer(uuid);
+                if (player == null || !sender.canSee(player))
+                    return;
+            }
+
+            result.add(name);
+        });
+
+        return Optional.of(new TabCompletionResult(
+                result,
+                startIndex + 1
+        ));
+    }
+
+    private static Set<String> scanOnlinePlayers(CommandProcessingContext processingContext, String prefix) {
         Stream<? extends Player> stream = Bukkit.getOnlinePlayers().stream();
 
-        if (processingContext.sender() instanceof Player sender)
+        if (processingContext.sender().getSender() instanceof Player sender)
             stream = stream.filter(sender::canSee);
 
-        return Optional.of(new TabCompletionResult(stream
+        String foldedPrefix = PrefixIndex.fold(prefix);
+        return stream
                 .map(Player::getName)
-                .filter(s -> s.toLowerCase().startsWith(args.get(startIndex).toLowerCase()))
-                .collect(Collectors.toSet()),
-                startIndex + 1
-        ));
+                .filter(s -> PrefixIndex.fold(s).startsWith(foldedPrefix))
+                .collect(Collectors.toSet());
     }
 }
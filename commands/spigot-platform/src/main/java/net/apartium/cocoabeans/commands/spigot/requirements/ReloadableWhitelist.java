@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.spigot.requirements;
+
+import net.apartium.cocoabeans.collect.UUIDSet;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Whitelist source holding a snapshot of uuids which can be replaced at runtime, for example when a staff list is reloaded from a database.
+ * Snapshots are stored compactly and swapped atomically, evaluations never see a partially reloaded list.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class ReloadableWhitelist implements WhitelistSource {
+
+    private final boolean bloomFilter;
+    private volatile UUIDSet snapshot = UUIDSet.of();
+
+    /**
+     * Constructs a new empty whitelist
+     */
+    public ReloadableWhitelist() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new empty whitelist
+     * @param bloomFilter true to keep a bloom filter in front of snapshots, rejecting most players that aren't whitelisted quicker
+     */
+    public ReloadableWhitelist(boolean bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Replaces the whitelisted uuids
+     * @param uuids new whitelisted uuids
+     */
+    public void reload(Collection<UUID> uuids) {
+        snapshot = UUIDSet.of(uuids, bloomFilter);
+    }
+
+    /**
+     * Returns the current snapshot of whitelisted uuids
+     * @return whitelisted uuids
+     */
+    public UUIDSet getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean contains(UUID uuid) {
+        return snapshot.contains(uuid);
+    }
+
+}
@@ -13,6 +13,7 @@ package net.apartium.cocoabeans.commands.spigot.requirements;
 
 import net.apartium.cocoabeans.commands.requirements.CommandRequirementType;
 import net.apartium.cocoabeans.commands.spigot.requirements.factory.WhitelistRequirementFactory;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -24,7 +25,15 @@ import java.lang.annotation.Target;
 @CommandRequirementType(WhitelistRequirementFactory.class)
 public @interface Whitelist {
 
-    String[] value();
+    String[] value() default {};
+
+    /**
+     * Name of a {@link WhitelistSource} also allowing players, registered with {@link WhitelistRequirementFactory#registerSource(String, WhitelistSource)}
+     * @return source name, or empty for none
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    String source() default "";
+
     boolean consoleBypass() default true;
     boolean invert() default false;
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.spigot.requirements;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.UUID;
+
+/**
+ * Source of uuids allowed by {@link Whitelist}, registered by name with {@link net.apartium.cocoabeans.commands.spigot.requirements.factory.WhitelistRequirementFactory#registerSource(String, WhitelistSource)}.
+ * Checked on every evaluation, so implementations should be fast and thread safe, see {@link ReloadableWhitelist}
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@FunctionalInterface
+public interface WhitelistSource {
+
+    /**
+     * Checks whether given uuid is whitelisted
+     * @param uuid uuid of the player
+     * @return true if whitelisted
+     */
+    boolean contains(UUID uuid);
+
+}
@@ -10,35 +10,61 @@
 
 package net.apartium.cocoabeans.commands.spigot.requirements.factory;
 
+import net.apartium.cocoabeans.collect.UUIDSet;
 import net.apartium.cocoabeans.commands.CommandNode;
 import net.apartium.cocoabeans.commands.requirements.*;
 import net.apartium.cocoabeans.commands.spigot.exception.WhitelistException;
 import net.apartium.cocoabeans.commands.spigot.requirements.Whitelist;
+import net.apartium.cocoabeans.commands.spigot.requirements.WhitelistSource;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
- * Allows to specify a hard-coded uuid whitelist for sender allowed to run a command
+ * Allows to specify a hard-coded uuid whitelist for sender allowed to run a command, or a named {@link WhitelistSource} for large lists changing at runtime.
+ * Sources must be registered before commands using them, by installing a factory with {@link net.apartium.cocoabeans.commands.CommandManager#addRequirementFactory(RequirementFactory)}
  */
 public class WhitelistRequirementFactory implements RequirementFactory {
 
+    private final Map<String, WhitelistSource> sources = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a whitelist source referenced by {@link Whitelist#source()}
+     * @param name name of the source
+     * @param source source to register
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void registerSource(String name, WhitelistSource source) {
+        sources.put(name, Objects.requireNonNull(source, "source"));
+    }
+
     @Nullable
     @Override
     public Requirement getRequirement(CommandNode node, Object obj) {
         if (!(obj instanceof Whitelist whitelist))
             return null;
 
+        WhitelistSource source = null;
+        if (!whitelist.source().isEmpty()) {
+            source = sources.get(whitelist.source());
+            if (source == null)
+                throw new IllegalArgumentException("Unknown whitelist source " + whitelist.source() + " used by " + node.getClass().getName());
+        }
+
         return new WhitelistRequirementImpl(
                 whitelist,
-                Arrays.stream(whitelist.value())
+                UUIDSet.of(Arrays.stream(whitelist.value())
                         .map(UUID::fromString)
-                        .collect(Collectors.toSet()),
+                        .collect(Collectors.toSet())),
+                source,
                 whitelist.consoleBypass(),
                 whitelist.invert()
         );
@@ -47,13 +73,15 @@ public class WhitelistRequirementFactory implements RequirementFactory {
     private static class WhitelistRequirementImpl implements Requirement {
 
         private final Whitelist whitelist;
-        private final Set<UUID> uuids;
+        private final UUIDSet uuids;
+        private final @Nullable WhitelistSource source;
         private final boolean consoleBypass;
         private final boolean invert;
 
-        public WhitelistRequirementImpl(Whitelist whitelist, Set<UUID> uuids, boolean consoleBypass, boolean invert) {
+        public WhitelistRequirementImpl(Whitelist whitelist, UUIDSet uuids, @Nullable WhitelistSource source, boolean consoleBypass, boolean invert) {
             this.whitelist = whitelist;
             this.uuids = uuids;
+            this.source = source;
             this.consoleBypass = consoleBypass;
             this.invert = invert;
         }
@@ -81,7 +109,7 @@ public class WhitelistRequirementFactory implements RequirementFactory {
                         )
                 );
 
-            return uuids.contains(player.getUniqueId()) != invert
+            return isWhitelisted(player.getUniqueId()) != invert
                     ? RequirementResult.meet()
                     : RequirementResult.error(
                     new UnmetWhitelistResponse(
@@ -91,6 +119,10 @@ public class WhitelistRequirementFactory implements RequirementFactory {
                     ));
         }
 
+        private boolean isWhitelisted(UUID uuid) {
+            return uuids.contains(uuid) || (source != null && source.contains(uuid));
+        }
+
         private class UnmetWhitelistResponse extends UnmetRequirementResponse {
             public UnmetWhitelistResponse(Requirement requirement, RequirementEvaluationContext context, String message) {
                 super(requirement, context, message, whitelist);
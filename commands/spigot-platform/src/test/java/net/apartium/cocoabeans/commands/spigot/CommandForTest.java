@@ -3,6 +3,7 @@ package net.apartium.cocoabeans.commands.spigot;
 import net.apartium.cocoabeans.commands.Command;
 import net.apartium.cocoabeans.commands.CommandContext;
 import net.apartium.cocoabeans.commands.CommandNode;
+import net.apartium.cocoabeans.commands.Sender;
 import net.apartium.cocoabeans.commands.SubCommand;
 import net.apartium.cocoabeans.commands.exception.ExceptionHandle;
 import net.apartium.cocoabeans.commands.exception.InvalidUsageResponse;
@@ -12,6 +13,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
 import java.util.OptionalInt;
 
 @Command("test")
@@ -27,6 +29,26 @@ public class CommandForTest implements CommandNode {
         sender.sendMessage("Cool!");
     }
 
+    @SubCommand("buffered")
+    public void buffered(Sender sender) {
+        sender.sendMessage("Buffered");
+    }
+
+    @SubCommand("me")
+    public void me(Player player) {
+        player.sendMessage("You are " + player.getName());
+    }
+
+    @SubCommand("spigot")
+    public void spigot(SpigotSender<?> sender) {
+        sender.sendMessage("Spigot sender " + sender.getSender().getName());
+    }
+
+    @SubCommand("sum <?int...>")
+    public void sum(CommandSender sender, int[] values) {
+        sender.sendMessage("Sum " + Arrays.stream(values).sum() + " of " + values.length);
+    }
+
     @SubCommand("tp <player> <player>")
     public void teleportToOther(CommandSender sender, Player from, Player to) {
         from.teleport(to.getLocation());
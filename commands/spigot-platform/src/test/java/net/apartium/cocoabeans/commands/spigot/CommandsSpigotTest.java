@@ -7,6 +7,8 @@ import org.bukkit.Material;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CommandsSpigotTest extends CommandsSpigotTestBase {
@@ -27,6 +29,26 @@ public class CommandsSpigotTest extends CommandsSpigotTestBase {
         assertNotNull(commandManager);
     }
 
+    @Test
+    void bufferedConcreteSenders() {
+        commandManager.setMessageBuffering(true);
+
+        commandManager.handleBatch(new SpigotSender<>(ikfir), List.of("test buffered", "test me", "test spigot"));
+        assertEquals("Buffered", ikfir.nextMessage());
+        assertEquals("You are ikfir", ikfir.nextMessage());
+        assertEquals("Spigot sender ikfir", ikfir.nextMessage());
+        assertNull(ikfir.nextMessage());
+    }
+
+    @Test
+    void optionalVariadic() {
+        execute(ikfir, "test sum 1 2");
+        assertEquals("Sum 3 of 2", ikfir.nextMessage());
+
+        execute(ikfir, "test sum");
+        assertEquals("Sum 0 of 0", ikfir.nextMessage());
+    }
+
     @Test
     void coolTest() {
         execute(ikfir, "test cool");
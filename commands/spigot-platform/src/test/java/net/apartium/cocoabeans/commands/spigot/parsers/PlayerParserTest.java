@@ -0,0 +1,86 @@
+package net.apartium.cocoabeans.commands.spigot.parsers;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import net.apartium.cocoabeans.commands.Command;
+import net.apartium.cocoabeans.commands.CommandNode;
+import net.apartium.cocoabeans.commands.SubCommand;
+import net.apartium.cocoabeans.commands.spigot.CommandsSpigotTestBase;
+import net.apartium.cocoabeans.commands.spigot.SpigotSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerParserTest extends CommandsSpigotTestBase {
+
+    private PlayerMock steve;
+    private PlayerMock stella;
+    private PlayerMock alex;
+
+    @BeforeEach
+    @Override
+    public void setup() {
+        super.setup();
+
+        commandManager.addCommand(new PlayerCommandForTest());
+
+        steve = server.addPlayer("Steve");
+        stella = server.addPlayer("Stella");
+        alex = server.addPlayer("alex");
+    }
+
+    @Test
+    void indexActive() {
+        assertTrue(OnlinePlayerIndex.getInstance().isActive());
+        assertEquals(List.of("alex", "Stella", "Steve"), OnlinePlayerIndex.getInstance().snapshot().keysStartingWith(""));
+    }
+
+    @Test
+    void tabCompletion() {
+        assertEquals(Set.of("Stella", "Steve"), Set.copyOf(tabComplete(alex, "ST")));
+        assertEquals(Set.of("Steve"), Set.copyOf(tabComplete(alex, "stev")));
+        assertEquals(List.of(), tabComplete(alex, "x"));
+    }
+
+    @Test
+    void hiddenPlayers() {
+        alex.hidePlayer(plugin, steve);
+
+        assertEquals(Set.of("Stella"), Set.copyOf(tabComplete(alex, "st")));
+        assertEquals(Set.of("Stella", "Steve"), Set.copyOf(tabComplete(steve, "st")));
+    }
+
+    @Test
+    void parse() {
+        execute(alex, "find STEVE");
+        assertEquals("found Steve", alex.nextMessage());
+    }
+
+    @Test
+    void quit() {
+        server.getPluginManager().callEvent(new PlayerQuitEvent(steve, "bye"));
+
+        assertEquals(Set.of("Stella"), Set.copyOf(tabComplete(alex, "st")));
+    }
+
+    private List<String> tabComplete(CommandSender sender, String args) {
+        return commandManager.handleTabComplete(new SpigotSender<>(sender), "find", new String[]{args});
+    }
+
+    @Command("find")
+    public static class PlayerCommandForTest implements CommandNode {
+
+        @SubCommand("<player>")
+        public void find(CommandSender sender, Player player) {
+            sender.sendMessage("found " + player.getName());
+        }
+
+    }
+
+}
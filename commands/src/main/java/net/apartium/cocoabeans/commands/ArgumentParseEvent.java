@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of a single argument parser call while dispatching
+ */
+@Name("cocoabeans.ArgumentParse")
+@Label("Argument Parse")
+@Category({"Cocoa Beans", "Commands"})
+@Description("Call of an argument parser while matching the args of a dispatch")
+@Threshold("20 us")
+@StackTrace(false)
+/* package-private */ final class ArgumentParseEvent extends Event {
+
+    static final EventType TYPE = EventType.getEventType(ArgumentParseEvent.class);
+
+    @Label("Command")
+    String commandName;
+
+    @Label("Depth")
+    @Description("Index of the arg being parsed")
+    int depth;
+
+    @Label("Parser")
+    @Description("Keyword of the parser")
+    String parser;
+
+    @Label("Matched")
+    boolean matched;
+
+}
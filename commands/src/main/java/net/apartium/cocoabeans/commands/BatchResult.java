@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of a single command line of a batch
+ * @param line the command line
+ * @param sender sender the line was run as
+ * @param outcome outcome of the line
+ * @param error error the line failed with, null unless outcome is {@link Outcome#FAILED}
+ * @see CommandManager#handleBatch(Sender, java.util.List)
+ * @see CommandManager#handleFanOut(java.util.Collection, String)
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record BatchResult(
+        String line,
+        Sender sender,
+        Outcome outcome,
+        @Nullable Throwable error
+) {
+
+    /**
+     * Returns whether the line was handled
+     * @return true if the outcome is {@link Outcome#HANDLED}
+     */
+    public boolean isHandled() {
+        return outcome == Outcome.HANDLED;
+    }
+
+    public enum Outcome {
+
+        /**
+         * The command handled the line
+         */
+        HANDLED,
+
+        /**
+         * The command exists but didn't handle the line
+         */
+        UNHANDLED,
+
+        /**
+         * No command is registered for the label of the line
+         */
+        UNKNOWN_COMMAND,
+
+        /**
+         * Handling the line threw an error which the command didn't handle, such as invalid usage or unmet requirements
+         */
+        FAILED
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Sender decorator collecting messages and sending them together with {@link Sender#sendLines(List)} once flushed.
+ * Commands printing many lines then cost a single message instead of one per line.
+ * The command manager wraps senders of dispatches with it while {@link CommandManager#setMessageBuffering(boolean)} is enabled, flushing and closing it once the dispatch finishes.
+ * Commands streaming output over time, such as progress reports, should opt out with {@link #stream(Sender)}.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class BufferedSender implements Sender {
+
+    private final Sender delegate;
+    private final List<String> buffer = new ArrayList<>(); // guarded by this
+
+    private boolean streaming; // guarded by this
+
+    /**
+     * Constructs a new buffered sender
+     * @param delegate sender to send flushed messages to
+     */
+    public BufferedSender(Sender delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Makes given sender send messages right away from now on, if it is buffered
+     * @param sender sender passed to a command
+     */
+    public static void stream(Sender sender) {
+        if (sender instanceof BufferedSender bufferedSender)
+            bufferedSender.setStreaming(true);
+    }
+
+    /**
+     * Returns the sender to pass to a handler parameter of given type.
+     * A buffered sender which is not an instance of the type is unwrapped, for example for handlers taking a platform specific sender.
+     * Messages sent to the unwrapped sender can't be buffered, so the buffered sender starts streaming to keep messages in order
+     * @param sender sender of the dispatch
+     * @param type type of the parameter
+     * @return sender, or the sender it wraps
+     */
+    public static Sender forParameter(Sender sender, Class<?> type) {
+        if (type.isInstance(sender) || !(sender instanceof BufferedSender bufferedSender))
+            return sender;
+
+        bufferedSender.setStreaming(true);
+        return bufferedSender.getDelegate();
+    }
+
+    /**
+     * Returns the sender messages are sent to
+     * @return wrapped sender
+     */
+    public Sender getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Object getSender() {
+        return delegate.getSender();
+    }
+
+    @Override
+    public @Nullable UUID getUniqueId() {
+        return delegate.getUniqueId();
+    }
+
+    @Override
+    public void sendMessage(@NotNull String text) {
+        synchronized (this) {
+            if (!streaming) {
+                buffer.add(text);
+                return;
+            }
+        }
+
+        delegate.sendMessage(text);
+    }
+
+    @Override
+    public void sendMessage(String... args) {
+        synchronized (this) {
+            if (!streaming) {
+                buffer.addAll(Arrays.asList(args));
+                return;
+            }
+        }
+
+        delegate.sendMessage(args);
+    }
+
+    @Override
+    public void sendLines(List<String> lines) {
+        synchronized (this) {
+            if (!streaming) {
+                buffer.addAll(lines);
+                return;
+            }
+        }
+
+        delegate.sendLines(lines);
+    }
+
+    /**
+     * Sets whether messages are sent right away instead of being buffered, enabling it flushes buffered messages first
+     * @param streaming true to stop buffering
+     */
+    public void setStreaming(boolean streaming) {
+        synchronized (this) {
+            this.streaming = streaming;
+        }
+
+        if (streaming)
+            flush();
+    }
+
+    /**
+     * Returns whether messages are sent right away
+     * @return true if messages are not buffered
+     */
+    public synchronized boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Returns the amount of buffered messages
+     * @return buffered messages
+     */
+    public synchronized int getBuffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Sends buffered messages
+     */
+    public void flush() {
+        List<String> lines;
+        synchronized (this) {
+            if (buffer.isEmpty())
+                return;
+
+            lines = List.copyOf(buffer);
+            buffer.clear();
+        }
+
+        if (lines.size() == 1)
+            delegate.sendMessage(lines.get(0));
+        else
+            delegate.sendLines(lines);
+    }
+
+    /**
+     * Sends buffered messages and stops buffering, messages sent later, for example by async commands, are sent right away
+     */
+    public void close() {
+        setStreaming(true);
+    }
+
+}
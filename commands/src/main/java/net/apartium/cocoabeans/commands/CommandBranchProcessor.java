@@ -23,6 +23,9 @@ import java.util.List;
 
 /* package-private */ class CommandBranchProcessor {
 
+    // set only while matching a dispatch whose requirements were evaluated upstream, nested branches are matched on the same thread
+    private static final ThreadLocal<Boolean> PREAUTHORIZED = new ThreadLocal<>();
+
     private final CommandManager commandManager;
 
     /* package-private */ final List<Entry<RequirementSet, CommandOption>> objectMap = new ArrayList<>();
@@ -31,16 +34,31 @@ import java.util.List;
         this.commandManager = commandManager;
     }
 
+    /**
+     * Matches a dispatch like {@link #handle(RegisteredCommand, String, String[], Sender, int)}, considering requirements of branches met and not applying them
+     */
+    /* package-private */ @Nullable CommandContext handlePreauthorized(RegisteredCommand commandWrapper, String commandName, String[] args, Sender sender, int index) {
+        PREAUTHORIZED.set(Boolean.TRUE);
+        try {
+            return handle(commandWrapper, commandName, args, sender, index);
+        } finally {
+            PREAUTHORIZED.remove();
+        }
+    }
+
     /* package-private */ @Nullable CommandContext handle(RegisteredCommand commandWrapper, String commandName, String[] args, Sender sender, int index) {
 
         BadCommandResponse commandError = null;
+        DispatchMeasurement measurement = commandManager.getMetrics() == null ? null : DispatchMeasurement.current();
 
         for (Entry<RequirementSet, CommandOption> entry : objectMap) {
             CommandOption commandOption = entry.value();
             if (commandOption == null)
                 continue;
 
-            RequirementResult requirementResult = entry.key().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, index));
+            RequirementResult requirementResult = entry.key().isEmpty()
+                    ? RequirementResult.meet()
+                    : meetsRequirements(entry.key(), sender, commandName, args, index, measurement);
 
             if (requirementResult.hasError()) {
                 if (commandError == null || commandError.getDepth() < requirementResult.getError().getDepth())
@@ -67,7 +85,7 @@ import java.util.List;
                         continue;
                     }
 
-                    return commandContext;
+                    return withRequirements(commandContext, entry.key(), index);
                 }
 
                 if (entry.value().getRegisteredCommandVariants().isEmpty())
@@ -79,7 +97,8 @@ import java.util.List;
                         null,
                         args,
                         commandName,
-                        new HashMap<>()
+                        new HashMap<>(),
+                        entry.key().isEmpty() || PREAUTHORIZED.get() != null ? null : new RequirementPath(entry.key(), index, null)
                 );
             }
 
@@ -100,7 +119,7 @@ import java.util.List;
                 continue;
             }
 
-            return result;
+            return withRequirements(result, entry.key(), index);
         }
 
         if (commandError != null)
@@ -118,8 +137,13 @@ import java.util.List;
             if (commandOption == null)
                 continue;
 
-            if (!entry.key().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, index)).meetRequirement())
-                continue;
+            if (!entry.key().isEmpty()) {
+                RequirementCheckEvent event = begin();
+                boolean met = entry.key().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, index)).meetRequirement();
+                commit(event, commandName, index, met, false);
+                if (!met)
+                    continue;
+            }
 
             result.addAll(commandOption.handleTabCompletion(commandWrapper, commandName, args, sender, index));
         }
@@ -127,13 +151,64 @@ import java.util.List;
         return result;
     }
 
+    // the side effects of met requirements are applied once a sub command of the matched branch is invoked
+    private static CommandContext withRequirements(CommandContext context, RequirementSet requirements, int index) {
+        if (requirements.isEmpty() || PREAUTHORIZED.get() != null)
+            return context;
+
+        return new CommandContext(
+                context.sender(),
+                context.option(),
+                context.error(),
+                context.args(),
+                context.commandName(),
+                context.parsedArgs(),
+                new RequirementPath(requirements, index, context.requirementPath())
+        );
+    }
+
+    // empty requirement sets are skipped by callers, so the common case of no requirements doesn't allocate a context
+    private static RequirementResult meetsRequirements(RequirementSet requirements, Sender sender, String commandName, String[] args, int index, @Nullable DispatchMeasurement measurement) {
+        if (PREAUTHORIZED.get() != null)
+            return RequirementResult.meet();
+
+        long requirementStart = measurement == null ? 0 : System.nanoTime();
+        RequirementCheckEvent event = begin();
+        RequirementResult requirementResult = requirements.meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, index, true));
+        commit(event, commandName, index, requirementResult.meetRequirement(), true);
+        if (measurement != null)
+            measurement.requirementNanos += System.nanoTime() - requirementStart;
+
+        return requirementResult;
+    }
+
+    private static @Nullable RequirementCheckEvent begin() {
+        if (!RequirementCheckEvent.TYPE.isEnabled())
+            return null;
+
+        RequirementCheckEvent event = new RequirementCheckEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commit(@Nullable RequirementCheckEvent event, String commandName, int depth, boolean met, boolean dispatching) {
+        if (event == null || !event.shouldCommit())
+            return;
+
+        event.commandName = commandName;
+        event.depth = depth;
+        event.met = met;
+        event.dispatching = dispatching;
+        event.commit();
+    }
+
     /* package-private */ boolean haveAnyRequirementsMeet(Sender sender, String commandName, String[] args, int depth) {
         for (Entry<RequirementSet, CommandOption> entry : objectMap) {
             CommandOption commandOption = entry.value();
             if (commandOption == null)
                 continue;
 
-            if (entry.key().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, depth)).meetRequirement())
+            if (entry.key().isEmpty() || entry.key().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, depth)).meetRequirement())
                     return true;
 
         }
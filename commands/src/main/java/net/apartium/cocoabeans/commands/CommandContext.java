@@ -11,6 +11,7 @@
 package net.apartium.cocoabeans.commands;
 
 import net.apartium.cocoabeans.commands.exception.BadCommandResponse;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.Map;
  * @param args commands raw args
  * @param commandName command name
  * @param parsedArgs parsed args
+ * @param requirementPath requirements met along the matched branches, null if there are none
  */
 // TODO change to interface
 public record CommandContext(Sender sender,
@@ -30,9 +32,14 @@ public record CommandContext(Sender sender,
                              @Nullable BadCommandResponse error,
                              String[] args,
                              String commandName,
-                             Map<Class<?>, List<Object>> parsedArgs
+                             Map<Class<?>, List<Object>> parsedArgs,
+                             @ApiStatus.AvailableSince("0.0.29") @Nullable RequirementPath requirementPath
 ) {
 
+    public CommandContext(Sender sender, @Nullable CommandOption option, @Nullable BadCommandResponse error, String[] args, String commandName, Map<Class<?>, List<Object>> parsedArgs) {
+        this(sender, option, error, args, commandName, parsedArgs, null);
+    }
+
     boolean hasError() {
         return error != null;
     }
@@ -11,16 +11,30 @@
 package net.apartium.cocoabeans.commands;
 
 import net.apartium.cocoabeans.Dispensers;
+import net.apartium.cocoabeans.commands.audit.CommandAuditLog;
 import net.apartium.cocoabeans.commands.exception.BadCommandResponse;
 import net.apartium.cocoabeans.commands.exception.ExceptionArgumentMapper;
 import net.apartium.cocoabeans.commands.exception.HandleExceptionVariant;
+import net.apartium.cocoabeans.commands.exception.RequirementException;
 import net.apartium.cocoabeans.commands.exception.UnknownCommandResponse;
+import net.apartium.cocoabeans.commands.forward.CommandForwarder;
+import net.apartium.cocoabeans.commands.metrics.CommandMetrics;
+import net.apartium.cocoabeans.commands.metrics.CommandOutcome;
 import net.apartium.cocoabeans.commands.parsers.*;
 import net.apartium.cocoabeans.commands.parsers.factory.ParserFactory;
 import net.apartium.cocoabeans.commands.requirements.*;
+import net.apartium.cocoabeans.commands.trace.CommandTraceRecorder;
+import net.apartium.cocoabeans.commands.trace.TraceEvent;
+import net.apartium.cocoabeans.commands.watchdog.CommandWatchdog;
+import net.apartium.cocoabeans.commands.watchdog.ExecutionBudget;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 @ApiStatus.NonExtendable
 public abstract class CommandManager {
@@ -35,17 +49,30 @@ public abstract class CommandManager {
             new StringsParser(0)
     );
 
+    // set by handlePreauthorized, consumed by the dispatch it starts
+    private static final ThreadLocal<Boolean> PREAUTHORIZED = new ThreadLocal<>();
 
     protected final Map<String, RegisteredCommand> commandMap = new HashMap<>();
     private final ArgumentMapper argumentMapper;
     private final ExceptionArgumentMapper exceptionArgumentMapper;
 
-    /* package-private */ final Map<Class<? extends ParserFactory>, ParserFactory> parserFactories = new HashMap<>();
-    /* package-private */ final Map<Class<? extends ArgumentRequirementFactory>, ArgumentRequirementFactory> argumentRequirementFactories = new HashMap<>();
-    /* package-private */ final Map<Class<? extends RequirementFactory>, RequirementFactory> requirementFactories = new HashMap<>();
+    // concurrent as they may be populated by parallel registration, see addCommands
+    /* package-private */ final Map<Class<? extends ParserFactory>, ParserFactory> parserFactories = new ConcurrentHashMap<>();
+    /* package-private */ final Map<Class<? extends ArgumentRequirementFactory>, ArgumentRequirementFactory> argumentRequirementFactories = new ConcurrentHashMap<>();
+    /* package-private */ final Map<Class<? extends RequirementFactory>, RequirementFactory> requirementFactories = new ConcurrentHashMap<>();
 
     /* package-private */ final Map<String, ArgumentParser<?>> argumentTypeHandlerMap = new HashMap<>();
 
+    private volatile Executor sourceParserExecutor = ForkJoinPool.commonPool();
+    private volatile @Nullable CommandWatchdog watchdog;
+    private volatile @Nullable CommandTraceRecorder traceRecorder;
+    private volatile @Nullable CommandAuditLog auditLog;
+    private volatile @Nullable CommandMetrics metrics;
+    private volatile @Nullable CommandForwarder forwarder;
+    private volatile boolean messageBuffering;
+
+    private final CommandVisibility visibility = new CommandVisibility(this);
+
     public CommandManager(ArgumentMapper argumentMapper, ExceptionArgumentMapper exceptionArgumentMapper) {
         this.argumentMapper = argumentMapper;
         this.exceptionArgumentMapper = exceptionArgumentMapper;
@@ -60,31 +87,330 @@ public abstract class CommandManager {
             registerArgumentTypeHandler(argumentTypeHandler);
     }
 
+    /**
+     * Installs a requirement factory instance, used instead of constructing one for annotations declaring its type.
+     * Must be called before registering commands using it
+     * @param requirementFactory requirement factory to install
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void addRequirementFactory(RequirementFactory requirementFactory) {
+        requirementFactories.put(requirementFactory.getClass(), requirementFactory);
+    }
+
 
     public List<String> handleTabComplete(Sender sender, String commandName, String[] args) {
+        CommandTraceRecorder traceRecorder = this.traceRecorder;
+        if (traceRecorder != null)
+            traceRecorder.record(TraceEvent.Kind.TAB_COMPLETE, sender, commandName, args);
+
         RegisteredCommand registeredCommand = commandMap.get(commandName.toLowerCase());
         if (registeredCommand == null) return List.of();
         if (args.length == 0) args = new String[0];
-        return registeredCommand.getCommandBranchProcessor().handleTabCompletion(registeredCommand, commandName, args, sender, 0);
+
+        CommandMetrics metrics = this.metrics;
+        if (metrics == null && !TabCompleteEvent.TYPE.isEnabled())
+            return registeredCommand.getCommandBranchProcessor().handleTabCompletion(registeredCommand, commandName, args, sender, 0);
+
+        TabCompleteEvent event = new TabCompleteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<String> completions = null;
+        try {
+            completions = registeredCommand.getCommandBranchProcessor().handleTabCompletion(registeredCommand, commandName, args, sender, 0);
+            return completions;
+        } finally {
+            if (metrics != null) {
+                try {
+                    metrics.onTabComplete(commandName, System.nanoTime() - start);
+                } catch (Throwable e) {
+                    SharedSecrets.LOGGER.log(System.Logger.Level.WARNING, "Command metrics failed", e);
+                }
+            }
+
+            if (event.shouldCommit()) {
+                event.commandName = commandName;
+                event.depth = Math.max(0, args.length - 1);
+                event.completions = completions == null ? 0 : completions.size();
+                event.commit();
+            }
+        }
     }
 
 
-    public boolean handle(Sender sender, String commandName, String[] args) throws Throwable {
+    /**
+     * Returns a snapshot of a registered command tree
+     * @param commandName label of the command
+     * @return root node of the command, or null if there is no such command
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandTreeNode getCommandTree(String commandName) {
         RegisteredCommand registeredCommand = commandMap.get(commandName.toLowerCase());
         if (registeredCommand == null)
+            return null;
+
+        return CommandTreeNode.of(commandName, registeredCommand.getCommandBranchProcessor());
+    }
+
+    public boolean handle(Sender sender, String commandName, String[] args) throws Throwable {
+        // consumed by the outermost dispatch only, dispatches started by its handlers are never trusted
+        boolean preauthorized = PREAUTHORIZED.get() != null;
+        if (preauthorized)
+            PREAUTHORIZED.remove();
+
+        BufferedSender bufferedSender = buffer(sender);
+        if (bufferedSender == null)
+            return handleCommand(sender, commandName, args, preauthorized);
+
+        try {
+            return handleCommand(bufferedSender, commandName, args, preauthorized);
+        } finally {
+            bufferedSender.close();
+        }
+    }
+
+    /**
+     * Runs a dispatch whose requirements were already evaluated upstream, such as one forwarded by another server.
+     * Requirements of the matched branches are considered met and are not applied, argument requirements are still checked
+     * @param sender sender of the dispatch
+     * @param commandName label the command was invoked with
+     * @param args raw args of the dispatch
+     * @return true if the dispatch was handled
+     * @throws Throwable if the dispatch failed and no handler handled the error
+     * @see net.apartium.cocoabeans.commands.forward.ForwardedCommandReceiver
+     */
+    @ApiStatus.Internal
+    @ApiStatus.AvailableSince("0.0.29")
+    public boolean handlePreauthorized(Sender sender, String commandName, String[] args) throws Throwable {
+        PREAUTHORIZED.set(Boolean.TRUE);
+        try {
+            return handle(sender, commandName, args);
+        } finally {
+            PREAUTHORIZED.remove();
+        }
+    }
+
+    private boolean handleCommand(Sender sender, String commandName, String[] args, boolean preauthorized) throws Throwable {
+        CommandTraceRecorder traceRecorder = this.traceRecorder;
+        if (traceRecorder != null)
+            traceRecorder.record(TraceEvent.Kind.DISPATCH, sender, commandName, args);
+
+        RegisteredCommand registeredCommand = commandMap.get(commandName.toLowerCase());
+
+        CommandAuditLog auditLog = this.auditLog;
+        if (auditLog != null && auditLog.shouldRecord(sender, commandName))
+            return handleAudited(auditLog, sender, commandName, args, registeredCommand, preauthorized);
+
+        if (registeredCommand == null) {
+            reportUnknownCommand();
             throw new UnknownCommandResponse(commandName).getError();
+        }
+
+        return handle(sender, commandName, args, registeredCommand, preauthorized);
+    }
+
+    private boolean handleAudited(CommandAuditLog auditLog, Sender sender, String commandName, String[] args, @Nullable RegisteredCommand registeredCommand, boolean preauthorized) throws Throwable {
+        long start = System.nanoTime();
+        BatchResult.Outcome outcome = BatchResult.Outcome.FAILED;
+        try {
+            if (registeredCommand == null) {
+                outcome = BatchResult.Outcome.UNKNOWN_COMMAND;
+                reportUnknownCommand();
+                throw new UnknownCommandResponse(commandName).getError();
+            }
+
+            boolean handled = handle(sender, commandName, args, registeredCommand, preauthorized);
+            outcome = handled ? BatchResult.Outcome.HANDLED : BatchResult.Outcome.UNHANDLED;
+            return handled;
+        } finally {
+            auditLog.record(sender, commandName, args, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs multiple command lines as a single sender, in order.
+     * Each line is a label followed by space separated args, a leading slash is ignored.
+     * Lines don't throw, errors are returned in their result instead.
+     * Requirements are evaluated for each line as earlier lines may affect them.
+     * @param sender sender to run the lines as
+     * @param lines command lines to run
+     * @return result of each line, in the order of lines
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public List<BatchResult> handleBatch(Sender sender, List<String> lines) {
+        List<BatchResult> results = new ArrayList<>(lines.size());
+        Map<String, RegisteredCommand> resolved = new HashMap<>();
+
+        // a batch is buffered as a whole, so its output is sent at once
+        BufferedSender bufferedSender = buffer(sender);
+        try {
+            for (String line : lines) {
+                String[] tokens = tokenize(line);
+                RegisteredCommand registeredCommand = resolved.computeIfAbsent(tokens[0], label -> commandMap.get(label.toLowerCase()));
+                results.add(handleLine(sender, bufferedSender, line, tokens, registeredCommand));
+            }
+        } finally {
+            if (bufferedSender != null)
+                bufferedSender.close();
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs a single command line as multiple senders, in order.
+     * The line is parsed and its command is looked up once, see {@link #handleBatch(Sender, List)} for the line format.
+     * @param senders senders to run the line as
+     * @param line command line to run
+     * @return result of each sender, in the order of senders
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public List<BatchResult> handleFanOut(Collection<? extends Sender> senders, String line) {
+        List<BatchResult> results = new ArrayList<>(senders.size());
+
+        String[] tokens = tokenize(line);
+        RegisteredCommand registeredCommand = commandMap.get(tokens[0].toLowerCase());
+
+        for (Sender sender : senders) {
+            BufferedSender bufferedSender = buffer(sender);
+            try {
+                results.add(handleLine(sender, bufferedSender, line, tokens, registeredCommand));
+            } finally {
+                if (bufferedSender != null)
+                    bufferedSender.close();
+            }
+        }
+
+        return results;
+    }
+
+    private BatchResult handleLine(Sender sender, @Nullable BufferedSender bufferedSender, String line, String[] tokens, @Nullable RegisteredCommand registeredCommand) {
+        if (bufferedSender == null)
+            return handleLine(sender, line, tokens, registeredCommand);
+
+        // results report the sender the line was run as, not its buffer
+        BatchResult result = handleLine(bufferedSender, line, tokens, registeredCommand);
+        return new BatchResult(result.line(), sender, result.outcome(), result.error());
+    }
+
+    private BatchResult handleLine(Sender sender, String line, String[] tokens, @Nullable RegisteredCommand registeredCommand) {
+        // args are copied as parsers and handlers may keep or modify them
+        String[] args = Arrays.copyOfRange(tokens, 1, tokens.length);
+
+        CommandTraceRecorder traceRecorder = this.traceRecorder;
+        if (traceRecorder != null)
+            traceRecorder.record(TraceEvent.Kind.DISPATCH, sender, tokens[0], args);
+
+        CommandAuditLog auditLog = this.auditLog;
+        if (auditLog == null || !auditLog.shouldRecord(sender, tokens[0]))
+            return handleLine(sender, line, tokens[0], args, registeredCommand);
+
+        long start = System.nanoTime();
+        BatchResult result = handleLine(sender, line, tokens[0], args, registeredCommand);
+        auditLog.record(sender, tokens[0], args, result.outcome(), System.nanoTime() - start);
+        return result;
+    }
+
+    private @Nullable BufferedSender buffer(Sender sender) {
+        return messageBuffering && !(sender instanceof BufferedSender) ? new BufferedSender(sender) : null;
+    }
+
+    private void reportUnknownCommand() {
+        CommandMetrics metrics = this.metrics;
+        if (metrics != null)
+            reportDispatch(metrics, CommandMetrics.UNKNOWN_COMMAND, null, CommandOutcome.UNKNOWN_COMMAND, 0, 0, 0, 0);
+    }
+
+    private BatchResult handleLine(Sender sender, String line, String commandName, String[] args, @Nullable RegisteredCommand registeredCommand) {
+        if (registeredCommand == null) {
+            reportUnknownCommand();
+            return new BatchResult(line, sender, BatchResult.Outcome.UNKNOWN_COMMAND, null);
+        }
+
+        try {
+            return new BatchResult(line, sender, handle(sender, commandName, args, registeredCommand, false) ? BatchResult.Outcome.HANDLED : BatchResult.Outcome.UNHANDLED, null);
+        } catch (Throwable e) {
+            return new BatchResult(line, sender, BatchResult.Outcome.FAILED, e);
+        }
+    }
+
+    // label followed by args, split on single spaces like command lines typed in game
+    private static String[] tokenize(String line) {
+        int start = line.startsWith("/") ? 1 : 0;
+
+        int count = 1;
+        for (int i = start; i < line.length(); i++) {
+            if (line.charAt(i) == ' ')
+                count++;
+        }
 
-        CommandContext context = registeredCommand.getCommandBranchProcessor().handle(
-                registeredCommand,
-                commandName,
-                args,
-                sender,
-                0
-        );
+        String[] tokens = new String[count];
+        int index = 0;
+        for (int i = start; i < line.length(); i++) {
+            if (line.charAt(i) != ' ')
+                continue;
+
+            tokens[index++] = line.substring(start, i);
+            start = i + 1;
+        }
+
+        tokens[index] = line.substring(start);
+        return tokens;
+    }
+
+    private boolean handle(Sender sender, String commandName, String[] args, RegisteredCommand registeredCommand, boolean preauthorized) throws Throwable {
+        CommandMetrics metrics = this.metrics;
+        // checked before creating an event, so dispatches don't allocate one while nothing records it
+        if (metrics == null && !CommandDispatchEvent.TYPE.isEnabled())
+            return dispatch(sender, commandName, args, registeredCommand, preauthorized, null);
+
+        CommandDispatchEvent event = new CommandDispatchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        DispatchMeasurement measurement = DispatchMeasurement.begin();
+        try {
+            return dispatch(sender, commandName, args, registeredCommand, preauthorized, measurement);
+        } finally {
+            measurement.end();
+            CommandOutcome outcome = measurement.outcome == null ? CommandOutcome.ERROR : measurement.outcome;
+            if (metrics != null)
+                reportDispatch(
+                        metrics,
+                        commandName,
+                        measurement.subCommand,
+                        outcome,
+                        measurement.parseNanos,
+                        measurement.requirementNanos,
+                        measurement.handlerNanos,
+                        System.nanoTime() - start
+                );
+
+            if (event.shouldCommit()) {
+                event.commandName = commandName;
+                event.args = args.length;
+                event.subCommand = measurement.subCommand;
+                event.outcome = outcome.name();
+                event.commit();
+            }
+        }
+    }
+
+    private boolean dispatch(Sender sender, String commandName, String[] args, RegisteredCommand registeredCommand, boolean preauthorized, @Nullable DispatchMeasurement measurement) throws Throwable {
+        long parseStart = measurement == null ? 0 : System.nanoTime();
+        CommandBranchProcessor branchProcessor = registeredCommand.getCommandBranchProcessor();
+        CommandContext context = preauthorized
+                ? branchProcessor.handlePreauthorized(registeredCommand, commandName, args, sender, 0)
+                : branchProcessor.handle(registeredCommand, commandName, args, sender, 0);
+
+        if (measurement != null)
+            measurement.parseNanos = System.nanoTime() - parseStart - measurement.requirementNanos;
 
         if (context == null) {
+            long requirementStart = measurement == null ? 0 : System.nanoTime();
             BadCommandResponse badCommandResponse = null;
+            // a preauthorized dispatch was already decided upstream, only the fallback is left to run
             for (RegisteredCommand.RegisteredCommandNode listener : registeredCommand.getCommands()) {
+                if (preauthorized)
+                    break;
 
                 RequirementResult requirementResult = listener.requirements().meetsRequirements(new RequirementEvaluationContext(sender, commandName, args, 0));
                 if (requirementResult.hasError()) {
@@ -93,11 +419,19 @@ public abstract class CommandManager {
                 }
             }
 
+            if (measurement != null) {
+                measurement.requirementNanos += System.nanoTime() - requirementStart;
+                measurement.outcome = badCommandResponse == null ? CommandOutcome.UNHANDLED : CommandOutcome.UNMET_REQUIREMENT;
+            }
 
              // fall back will be called even if sender doesn't meet requirements
             for (RegisteredCommand.RegisteredCommandNode listener : registeredCommand.getCommands()) {
-                if (listener.listener().fallbackHandle(sender, commandName, args))
+                if (listener.listener().fallbackHandle(sender, commandName, args)) {
+                    if (measurement != null)
+                        measurement.outcome = CommandOutcome.HANDLED;
+
                     return true;
+                }
 
             }
 
@@ -113,6 +447,9 @@ public abstract class CommandManager {
         }
 
         if (context.hasError()) {
+            if (measurement != null)
+                measurement.outcome = context.error() instanceof UnmetRequirementResponse ? CommandOutcome.UNMET_REQUIREMENT : CommandOutcome.INVALID_USAGE;
+
             if (handleError(context, sender, commandName, args, registeredCommand, context.error().getError()))
                 return true;
 
@@ -121,11 +458,25 @@ public abstract class CommandManager {
         }
         
 
-        for (RegisteredCommandVariant method : context.option().getRegisteredCommandVariants()) {
+        List<RegisteredCommandVariant> variants = context.option().getRegisteredCommandVariants();
+        for (int i = 0; i < variants.size(); i++) {
+            RegisteredCommandVariant method = variants.get(i);
             try {
-                if (invoke(context, sender, method))
+                if (invoke(context, sender, registeredCommand, method, measurement)) {
+                    if (measurement != null) {
+                        measurement.outcome = CommandOutcome.HANDLED;
+                        measurement.subCommand = method.budget().getName();
+                    }
+
                     return true;
+                }
             } catch (Throwable e) {
+                if (measurement != null) {
+                    // requirements met while matching may no longer be met once applied
+                    measurement.outcome = e instanceof RequirementException ? CommandOutcome.UNMET_REQUIREMENT : CommandOutcome.ERROR;
+                    measurement.subCommand = method.budget().getName();
+                }
+
                 if (handleError(context, sender, commandName, args, registeredCommand, e)) return true;
 
                 throw e;
@@ -133,11 +484,36 @@ public abstract class CommandManager {
         }
 
         for (RegisteredCommand.RegisteredCommandNode listener : registeredCommand.getCommands()) {
-            if (listener.listener().fallbackHandle(sender, commandName, args))
+            if (listener.listener().fallbackHandle(sender, commandName, args)) {
+                if (measurement != null)
+                    measurement.outcome = CommandOutcome.HANDLED;
+
                 return true;
+            }
 
         }
 
+        // an unmet argument requirement is kept as the outcome
+        if (measurement != null && measurement.outcome == null)
+            measurement.outcome = CommandOutcome.UNHANDLED;
+
+        return false;
+    }
+
+    private void reportDispatch(CommandMetrics metrics, String commandName, @Nullable String subCommand, CommandOutcome outcome, long parseNanos, long requirementNanos, long handlerNanos, long totalNanos) {
+        try {
+            metrics.onDispatch(commandName, subCommand, outcome, parseNanos, requirementNanos, handlerNanos, totalNanos);
+        } catch (Throwable e) {
+            SharedSecrets.LOGGER.log(System.Logger.Level.WARNING, "Command metrics failed", e);
+        }
+    }
+
+    private static boolean fallbackHandle(Sender sender, String commandName, String[] args, RegisteredCommand registeredCommand) {
+        for (RegisteredCommand.RegisteredCommandNode listener : registeredCommand.getCommands()) {
+            if (listener.listener().fallbackHandle(sender, commandName, args))
+                return true;
+        }
+
         return false;
     }
 
@@ -179,23 +555,70 @@ public abstract class CommandManager {
         return true;
     }
 
-    private boolean invoke(CommandContext context, Sender sender, RegisteredCommandVariant registeredCommandVariant) {
+    private boolean invoke(CommandContext context, Sender sender, RegisteredCommand registeredCommand, RegisteredCommandVariant registeredCommandVariant, @Nullable DispatchMeasurement measurement) {
         List<Object> parameters = argumentMapper.map(context, sender, registeredCommandVariant);
 
+        long requirementStart = measurement == null ? 0 : System.nanoTime();
         for (int i = 0; i < registeredCommandVariant.parameters().length; i++) {
             Object obj = parameters.get(i + 1); // first element is class instance
             for (ArgumentRequirement argumentRequirement : registeredCommandVariant.parameters()[i].argumentRequirements()) {
-                if (!argumentRequirement.meetsRequirement(sender, context, obj))
+                if (!meetsRequirement(argumentRequirement, sender, context, obj)) {
+                    if (measurement != null) {
+                        measurement.requirementNanos += System.nanoTime() - requirementStart;
+                        measurement.outcome = CommandOutcome.UNMET_REQUIREMENT;
+                    }
+
                     return false;
+                }
             }
         }
 
+        // permits and such are only taken once the invoked sub command is known
+        RequirementPath requirementPath = context.requirementPath();
+        if (requirementPath != null) {
+            RequirementResult requirementResult = requirementPath.apply(sender, context.commandName(), context.args());
+            if (!requirementResult.meetRequirement()) {
+                if (measurement != null)
+                    measurement.requirementNanos += System.nanoTime() - requirementStart;
+
+                if (requirementResult.hasError())
+                    Dispensers.dispense(requirementResult.getError().getError());
+
+                return false;
+            }
+        }
+
+        if (measurement != null)
+            measurement.requirementNanos += System.nanoTime() - requirementStart;
+
+        // matched and allowed locally, only the invocation runs on the central server
+        CommandForwarder forwarder = this.forwarder;
+        if (forwarder != null && registeredCommand.isRemote()) {
+            forwarder.forward(sender, context.commandName(), context.args());
+            return true;
+        }
+
+        CommandWatchdog watchdog = this.watchdog;
+        Executor asyncExecutor = watchdog == null ? null : watchdog.offloadExecutor(registeredCommandVariant.budget());
+        if (asyncExecutor != null)
+            return invokeAsync(watchdog, asyncExecutor, context, sender, registeredCommand, registeredCommandVariant, parameters);
+
+        long start = watchdog == null && measurement == null ? 0 : System.nanoTime();
         Object output;
         try {
-            output = registeredCommandVariant.method().invokeWithArguments(parameters);
+            output = (Object) registeredCommandVariant.invoker().invokeExact(parameters.toArray());
         } catch (Throwable e) {
             Dispensers.dispense(e);
             return false; // never going to reach this place
+        } finally {
+            if (watchdog != null || measurement != null) {
+                long elapsed = System.nanoTime() - start;
+                if (watchdog != null)
+                    watchdog.record(context.commandName(), registeredCommandVariant.budget(), elapsed, false);
+
+                if (measurement != null)
+                    measurement.handlerNanos += elapsed;
+            }
         }
 
         if (output != null && output.getClass().equals(Boolean.class))
@@ -204,29 +627,270 @@ public abstract class CommandManager {
         return true;
     }
 
+    // the dispatch is handled once submitted, a false return can only reach the fallback handlers
+    private boolean invokeAsync(CommandWatchdog watchdog, Executor executor, CommandContext context, Sender sender, RegisteredCommand registeredCommand, RegisteredCommandVariant registeredCommandVariant, List<Object> parameters) {
+        ExecutionBudget budget = registeredCommandVariant.budget();
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                Object output = (Object) registeredCommandVariant.invoker().invokeExact(parameters.toArray());
+                if (Boolean.FALSE.equals(output))
+                    fallbackHandle(sender, context.commandName(), context.args(), registeredCommand);
+            } catch (Throwable e) {
+                if (!handleError(context, sender, context.commandName(), context.args(), registeredCommand, e))
+                    SharedSecrets.LOGGER.log(System.Logger.Level.ERROR, "Unhandled error in async command /" + context.commandName() + " (" + budget.getName() + ")", e);
+            } finally {
+                watchdog.record(context.commandName(), budget, System.nanoTime() - start, true);
+            }
+        });
+
+        return true;
+    }
+
+    // unboxes once here so specialized requirements are checked on primitives
+    private static boolean meetsRequirement(ArgumentRequirement requirement, Sender sender, CommandContext context, Object argument) {
+        if (argument instanceof Integer value && requirement instanceof IntArgumentRequirement intRequirement)
+            return intRequirement.meetsRequirement(sender, context, value.intValue());
+
+        if (argument instanceof Long value && requirement instanceof LongArgumentRequirement longRequirement)
+            return longRequirement.meetsRequirement(sender, context, value.longValue());
+
+        if ((argument instanceof Double || argument instanceof Float) && requirement instanceof DoubleArgumentRequirement doubleRequirement)
+            return doubleRequirement.meetsRequirement(sender, context, ((Number) argument).doubleValue());
+
+        return requirement.meetsRequirement(sender, context, argument);
+    }
+
     public void addCommand(CommandNode commandNode) {
-        if (commandNode == null) return;
+        Command handler = getCommandAnnotation(commandNode);
+        if (handler == null) return;
 
-        Class<?> c = commandNode.getClass();
-        if (c.isAnnotation()) return;
+        addCommand(handler, new CommandNodeAnalyzer(this).analyze(commandNode));
+    }
+
+    /**
+     * Registers multiple command nodes at once.
+     * The reflective analysis of the nodes runs in parallel on the common fork join pool,
+     * while merging them into the command trees is done on the calling thread in iteration order.
+     * Parser and requirement factories used by the nodes must be thread safe.
+     * @param commandNodes command nodes to register
+     * @see #addCommands(Collection, ForkJoinPool)
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void addCommands(Collection<? extends CommandNode> commandNodes) {
+        addCommands(commandNodes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Registers multiple command nodes at once.
+     * The reflective analysis of the nodes runs in parallel on given pool,
+     * while merging them into the command trees is done on the calling thread in iteration order.
+     * Parser and requirement factories used by the nodes must be thread safe.
+     * If any of the nodes fails analysis, none of the nodes will be registered and the first failure in iteration order is thrown.
+     * @param commandNodes command nodes to register
+     * @param pool pool to run analysis on
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void addCommands(Collection<? extends CommandNode> commandNodes, ForkJoinPool pool) {
+        CommandNodeAnalyzer analyzer = new CommandNodeAnalyzer(this);
+
+        List<Command> handlers = new ArrayList<>(commandNodes.size());
+        List<ForkJoinTask<AnalysisResult>> tasks = new ArrayList<>(commandNodes.size());
+
+        for (CommandNode commandNode : commandNodes) {
+            Command handler = getCommandAnnotation(commandNode);
+            if (handler == null) continue;
+
+            handlers.add(handler);
+            tasks.add(pool.submit(() -> {
+                try {
+                    return new AnalysisResult(analyzer.analyze(commandNode), null);
+                } catch (RuntimeException e) {
+                    return new AnalysisResult(null, e);
+                }
+            }));
+        }
 
-        Command handler = c.getAnnotation(Command.class);
-        if (handler == null)  return;
+        List<CommandNodeAnalyzer.AnalyzedNode> analyzedNodes = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<AnalysisResult> task : tasks) {
+            AnalysisResult result = task.join();
+            if (result.error() != null)
+                throw result.error();
 
+            analyzedNodes.add(result.analyzedNode());
+        }
+
+        for (int i = 0; i < analyzedNodes.size(); i++)
+            addCommand(handlers.get(i), analyzedNodes.get(i));
+    }
 
+    private void addCommand(Command handler, CommandNodeAnalyzer.AnalyzedNode analyzedNode) {
         RegisteredCommand registeredCommand = commandMap.computeIfAbsent(handler.value().toLowerCase(), (cmd) -> new RegisteredCommand(this));
-        registeredCommand.addNode(commandNode);
+        registeredCommand.addNode(analyzedNode);
 
         for (String alias : handler.aliases()) {
             commandMap.computeIfAbsent(alias.toLowerCase(), (cmd) -> new RegisteredCommand(this))
-                    .addNode(commandNode);
+                    .addNode(analyzedNode);
         }
 
-        addCommand(commandNode, handler);
+        visibility.invalidate();
+        addCommand(analyzedNode.node(), handler);
     }
 
+    private static Command getCommandAnnotation(CommandNode commandNode) {
+        if (commandNode == null) return null;
+
+        Class<?> c = commandNode.getClass();
+        if (c.isAnnotation()) return null;
+
+        return c.getAnnotation(Command.class);
+    }
+
+    private record AnalysisResult(CommandNodeAnalyzer.AnalyzedNode analyzedNode, RuntimeException error) {}
+
     protected abstract void addCommand(CommandNode commandNode, Command command);
 
+    /**
+     * Returns the executor refresh ahead source parsers refresh their results on
+     * @return source parser executor
+     * @see SourceParser#refreshAhead()
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public Executor getSourceParserExecutor() {
+        return sourceParserExecutor;
+    }
+
+    /**
+     * Sets the executor refresh ahead source parsers refresh their results on, defaults to the common fork join pool
+     * Only affects source parsers of commands registered afterwards
+     * @param sourceParserExecutor source parser executor
+     * @see SourceParser#refreshAhead()
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setSourceParserExecutor(Executor sourceParserExecutor) {
+        this.sourceParserExecutor = Objects.requireNonNull(sourceParserExecutor, "sourceParserExecutor");
+    }
+
+    /**
+     * Returns the watchdog measuring sub command execution times
+     * @return watchdog, or null if none is installed
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandWatchdog getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * Installs a watchdog measuring sub command execution times, sub commands aren't measured while none is installed
+     * @param watchdog watchdog to install, or null to remove the current one
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setWatchdog(@Nullable CommandWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Returns the recorder tracing calls to this manager
+     * @return trace recorder, or null if none is installed
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandTraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    /**
+     * Installs a recorder tracing calls to {@link #handle(Sender, String, String[])}, {@link #handleTabComplete(Sender, String, String[])} and batches
+     * @param traceRecorder recorder to install, or null to stop tracing
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setTraceRecorder(@Nullable CommandTraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Returns the audit log recording dispatches of this manager
+     * @return audit log, or null if none is installed
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandAuditLog getAuditLog() {
+        return auditLog;
+    }
+
+    /**
+     * Installs an audit log recording dispatches of {@link #handle(Sender, String, String[])} and batches
+     * @param auditLog audit log to install, or null to stop recording
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setAuditLog(@Nullable CommandAuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Returns the metrics listener of this manager
+     * @return metrics listener, or null if none is installed
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Installs a listener receiving phase timings and outcomes of dispatches and tab completions, nothing is measured while none is installed
+     * @param metrics metrics listener to install, or null to stop measuring
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setMetrics(@Nullable CommandMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the forwarder of this manager
+     * @return forwarder, or null if none is installed
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public @Nullable CommandForwarder getForwarder() {
+        return forwarder;
+    }
+
+    /**
+     * Installs a forwarder sending dispatches of commands marked with {@link net.apartium.cocoabeans.commands.forward.Remote} to a central server instead of running them.
+     * Dispatches are still matched and their requirements evaluated locally, only the matched invocation is forwarded.
+     * Forwarded dispatches are considered handled, their result is reported by the forwarder
+     * @param forwarder forwarder to install, or null to run remote commands locally
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setForwarder(@Nullable CommandForwarder forwarder) {
+        this.forwarder = forwarder;
+    }
+
+    /**
+     * Returns the cache of commands senders may use, invalidated whenever a command is registered
+     * @return command visibility
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public CommandVisibility getCommandVisibility() {
+        return visibility;
+    }
+
+    /**
+     * Returns whether messages sent during dispatches are buffered
+     * @return true if messages are buffered
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public boolean isMessageBuffering() {
+        return messageBuffering;
+    }
+
+    /**
+     * Sets whether senders are wrapped with a {@link BufferedSender} while dispatching, sending their messages at once when the dispatch finishes.
+     * A batch is buffered as a whole, commands may opt out with {@link BufferedSender#stream(Sender)}
+     * @param messageBuffering true to buffer messages
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public void setMessageBuffering(boolean messageBuffering) {
+        this.messageBuffering = messageBuffering;
+    }
+
     public ExceptionArgumentMapper getExceptionArgumentMapper() {
         return exceptionArgumentMapper;
     }
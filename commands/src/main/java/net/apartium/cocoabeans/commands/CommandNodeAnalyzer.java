@@ -0,0 +1,515 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.exception.ExceptionHandle;
+import net.apartium.cocoabeans.commands.exception.HandleExceptionVariant;
+import net.apartium.cocoabeans.commands.parsers.*;
+import net.apartium.cocoabeans.commands.parsers.factory.ParserFactory;
+import net.apartium.cocoabeans.commands.parsers.factory.WithParserFactory;
+import net.apartium.cocoabeans.commands.requirements.*;
+import net.apartium.cocoabeans.commands.watchdog.ExecutionBudget;
+import net.apartium.cocoabeans.commands.watchdog.TimeBudget;
+import net.apartium.cocoabeans.reflect.ClassUtils;
+import net.apartium.cocoabeans.reflect.MethodUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Performs the reflective analysis of a command node.
+ * The analysis doesn't touch any command tree, so it's safe to run concurrently for different nodes,
+ * the result is later merged into the tree by {@link RegisteredCommand#addNode(AnalyzedNode)}
+ */
+/* package-private */ class CommandNodeAnalyzer {
+
+    /**
+     * Result of analyzing a single command node
+     * @param node the analyzed node
+     * @param requirements class level requirements
+     * @param fallbackRequirements requirements of the node fallback handle
+     * @param subCommands all sub commands found, in registration order
+     * @param handleExceptionVariants all exception handles found, in registration order
+     */
+    /* package-private */ record AnalyzedNode(
+            CommandNode node,
+            RequirementSet requirements,
+            RequirementSet fallbackRequirements,
+            List<AnalyzedSubCommand> subCommands,
+            List<HandleExceptionVariant> handleExceptionVariants
+    ) {}
+
+    /**
+     * A single sub command variant, with its label already resolved into keywords and parsers
+     * @param requirements method level requirements
+     * @param path resolved label, empty for the root variant
+     * @param ignoreCase whether keywords should be matched ignoring case
+     * @param variant the variant to register at the end of the path
+     */
+    /* package-private */ record AnalyzedSubCommand(
+            RequirementSet requirements,
+            List<PathElement> path,
+            boolean ignoreCase,
+            RegisteredCommandVariant variant
+    ) {}
+
+    /**
+     * Single element of a sub command label, either a keyword or an argument parser
+     */
+    /* package-private */ record PathElement(@Nullable String keyword, @Nullable RegisterArgumentParser<?> parser) {}
+
+    private final CommandManager commandManager;
+
+    CommandNodeAnalyzer(CommandManager commandManager) {
+        this.commandManager = commandManager;
+    }
+
+    public AnalyzedNode analyze(CommandNode node) {
+        Class<?> clazz = node.getClass();
+        RequirementSet requirementSet = new RequirementSet(findAllRequirements(node, clazz));
+
+        Method fallbackHandle;
+        try {
+            fallbackHandle = clazz.getMethod("fallbackHandle", Sender.class, String.class, String[].class);
+        } catch (Exception e) {
+            throw new RuntimeException("What is going on here", e);
+        }
+
+        RequirementSet fallbackRequirements = new RequirementSet(
+                requirementSet,
+                createRequirementSet(node, fallbackHandle.getAnnotations())
+        );
+
+        Map<String, ArgumentParser<?>> classParsers = new HashMap<>();
+        MethodHandles.Lookup publicLookup = MethodHandles.publicLookup();
+        Method[] methods = clazz.getMethods();
+
+        // Add class parsers & source parser
+        for (Class<?> c : ClassUtils.getSuperClassAndInterfaces(clazz)) {
+            for (var entry : serializeArgumentTypeHandler(node, c.getAnnotations()).entrySet()) {
+                classParsers.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+
+            for (Method method : methods) {
+                try {
+                    addSourceParser(
+                            node,
+                            classParsers,
+                            publicLookup,
+                            method,
+                            c.getMethod(method.getName(), method.getParameterTypes())
+                    );
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+            }
+        }
+
+        ParserScope classScope = ParserScope.of(classParsers, ParserScope.root(commandManager.argumentTypeHandlerMap));
+
+        List<AnalyzedSubCommand> subCommands = new ArrayList<>();
+        List<HandleExceptionVariant> handleExceptionVariants = new ArrayList<>();
+
+        for (Method method : methods) {
+            Set<Method> targetMethods = MethodUtils.getMethodsFromSuperClassAndInterface(method);
+
+            // shared by all sub command variants declared on this method
+            MethodScope methodScope = null;
+
+            for (SubCommand subCommand : method.getAnnotationsByType(SubCommand.class)) {
+                if (methodScope == null)
+                    methodScope = createMethodScope(method, clazz, classScope, requirementSet, publicLookup, node, targetMethods);
+
+                parseSubCommand(method, subCommand, clazz, node, methodScope, subCommands);
+            }
+
+            addExceptionHandle(node, publicLookup, method, method, handleExceptionVariants);
+
+            for (Method targetMethod : targetMethods) {
+                if (targetMethod == null)
+                    continue;
+
+                for (SubCommand subCommand : targetMethod.getAnnotationsByType(SubCommand.class)) {
+                    if (methodScope == null)
+                        methodScope = createMethodScope(method, clazz, classScope, requirementSet, publicLookup, node, targetMethods);
+
+                    parseSubCommand(method, subCommand, clazz, node, methodScope, subCommands);
+                }
+
+                addExceptionHandle(node, publicLookup, method, targetMethod, handleExceptionVariants);
+            }
+
+        }
+
+        return new AnalyzedNode(
+                node,
+                requirementSet,
+                fallbackRequirements,
+                subCommands,
+                handleExceptionVariants
+        );
+    }
+
+    private void addExceptionHandle(CommandNode node, MethodHandles.Lookup publicLookup, Method method, Method targetMethod, List<HandleExceptionVariant> handleExceptionVariants) {
+        ExceptionHandle exceptionHandle = targetMethod.getAnnotation(ExceptionHandle.class);
+        if (exceptionHandle == null)
+            return;
+
+        try {
+            handleExceptionVariants.add(new HandleExceptionVariant(
+                    publicLookup.unreflect(method),
+                    Arrays.stream(method.getParameters()).map(Parameter::getType).toArray(Class[]::new),
+                    node,
+                    exceptionHandle.priority()
+            ));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void addSourceParser(CommandNode node, Map<String, ArgumentParser<?>> argumentTypeHandlerMap, MethodHandles.Lookup publicLookup, Method method, Method targetMethod) {
+        SourceParser sourceParser = targetMethod.getAnnotation(SourceParser.class);
+        if (sourceParser == null)
+            return;
+
+        if (!method.getReturnType().equals(Map.class))
+            throw new RuntimeException("Wrong return type: " + method.getReturnType());
+
+        try {
+            argumentTypeHandlerMap.putIfAbsent(sourceParser.keyword(), new SourceParserImpl<>(
+                    node,
+                    sourceParser.keyword(),
+                    sourceParser.clazz(),
+                    sourceParser.priority(),
+                    publicLookup.unreflect(method),
+                    sourceParser.resultMaxAgeInMills(),
+                    sourceParser.jitterInMills(),
+                    sourceParser.refreshAhead(),
+                    commandManager.getSourceParserExecutor()
+            ));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Everything a sub command variant needs from its method, computed once per method
+     * @param parsers method parser scope, or null if method can't declare sub commands
+     * @param requirements method level requirements
+     * @param handle method handle
+     * @param parameters serialized method parameters
+     * @param budget execution budget of the method
+     */
+    private record MethodScope(
+            @Nullable ParserScope parsers,
+            RequirementSet requirements,
+            MethodHandle handle,
+            RegisteredCommandVariant.Parameter[] parameters,
+            ExecutionBudget budget
+    ) {}
+
+    private MethodScope createMethodScope(Method method, Class<?> clazz, ParserScope classScope, RequirementSet requirementSet, MethodHandles.Lookup publicLookup, CommandNode node, Set<Method> targetMethods) {
+        if (!Modifier.isPublic(method.getModifiers()))
+            return new MethodScope(null, null, null, null, null);
+
+        // TODO replace to warning?
+        if (Modifier.isStatic(method.getModifiers()))
+            throw new RuntimeException("Static method " + clazz.getName() + "#" + method.getName() + " is not supported");
+
+        Map<String, ArgumentParser<?>> methodParsers = serializeArgumentTypeHandler(node, method.getAnnotations());
+
+        for (Method targetMethod : targetMethods) {
+            Map<String, ArgumentParser<?>> withParserMap = serializeArgumentTypeHandler(node, targetMethod.getAnnotations());
+            if (withParserMap.isEmpty())
+                continue;
+
+            if (methodParsers.isEmpty()) {
+                methodParsers = withParserMap;
+                continue;
+            }
+
+            for (var entry : withParserMap.entrySet()) {
+                methodParsers.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+
+        RequirementSet methodRequirements = new RequirementSet(
+                findAllRequirements(node, method),
+                requirementSet
+        );
+
+        try {
+            return new MethodScope(
+                    ParserScope.of(methodParsers, classScope),
+                    methodRequirements,
+                    publicLookup.unreflect(method),
+                    serializeParameters(node, method.getParameters()),
+                    createExecutionBudget(clazz, method, targetMethods)
+            );
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Error accessing method", e);
+        }
+    }
+
+    private void parseSubCommand(Method method, SubCommand subCommand, Class<?> clazz, CommandNode node, MethodScope methodScope, List<AnalyzedSubCommand> subCommands) {
+        if (subCommand == null)
+            return;
+
+        ParserScope parserScope = methodScope.parsers();
+        if (parserScope == null)
+            return;
+
+        String[] split = subCommand.value().split("\\s+");
+        List<PathElement> path = new ArrayList<>(split.length);
+
+        if (!(split.length == 0 || split.length == 1 && split[0].isEmpty())) {
+            for (String cmd : split) {
+                if (cmd.startsWith("<") && cmd.endsWith(">")) {
+                    boolean isOptional = cmd.startsWith("<?") || cmd.startsWith("<!?");
+                    boolean isInvalid = cmd.startsWith("<!") || cmd.startsWith("<?!");
+
+                    String keyword = cmd.substring(1 + (isInvalid ? 1 : 0) + (isOptional ? 1 : 0), cmd.length() - 1);
+                    boolean isVariadic = keyword.endsWith(VariadicParser.SUFFIX);
+                    if (isVariadic)
+                        keyword = keyword.substring(0, keyword.length() - VariadicParser.SUFFIX.length());
+
+                    ArgumentParser<?> typeParser = parserScope.get(keyword);
+                    if (typeParser != null && isVariadic)
+                        typeParser = VariadicParser.of(typeParser);
+
+                    if (typeParser == null)
+                        throw new RuntimeException("Couldn't resolve " + clazz.getName() + "#" + method.getName() + " parser: " + cmd.substring(1, cmd.length() - 1));
+
+                    path.add(new PathElement(null, new RegisterArgumentParser<>(
+                            typeParser,
+                            isInvalid,
+                            isOptional
+                    )));
+                    continue;
+                }
+
+                path.add(new PathElement(subCommand.ignoreCase() ? cmd.toLowerCase() : cmd, null));
+            }
+        }
+
+        subCommands.add(new AnalyzedSubCommand(
+                methodScope.requirements(),
+                path,
+                subCommand.ignoreCase(),
+                new RegisteredCommandVariant(
+                        methodScope.handle(),
+                        methodScope.parameters(),
+                        node,
+                        subCommand.priority(),
+                        methodScope.budget()
+                )
+        ));
+    }
+
+    private ExecutionBudget createExecutionBudget(Class<?> clazz, Method method, Set<Method> targetMethods) {
+        TimeBudget timeBudget = method.getAnnotation(TimeBudget.class);
+        for (Method targetMethod : targetMethods) {
+            if (timeBudget != null)
+                break;
+
+            if (targetMethod != null)
+                timeBudget = targetMethod.getAnnotation(TimeBudget.class);
+        }
+
+        if (timeBudget == null)
+            timeBudget = clazz.getAnnotation(TimeBudget.class);
+
+        String name = clazz.getName() + "#" + method.getName();
+        if (timeBudget == null)
+            return new ExecutionBudget(name, ExecutionBudget.DEFAULT_BUDGET, false);
+
+        if (timeBudget.value() <= 0)
+            throw new RuntimeException("Time budget of " + name + " must be positive");
+
+        return new ExecutionBudget(name, timeBudget.unit().toNanos(timeBudget.value()), timeBudget.async());
+    }
+
+    private RegisteredCommandVariant.Parameter[] serializeParameters(CommandNode commandNode, Parameter[] parameters) {
+        RegisteredCommandVariant.Parameter[] result = new RegisteredCommandVariant.Parameter[parameters.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new RegisteredCommandVariant.Parameter(
+                    parameters[i].getType(),
+                    parameters[i].getParameterizedType(),
+                    serializeArgumentRequirement(commandNode, parameters[i].getAnnotations())
+            );
+        }
+        return result;
+    }
+
+    private ArgumentRequirement[] serializeArgumentRequirement(CommandNode commandNode, Annotation[] annotations) {
+        List<ArgumentRequirement> result = new ArrayList<>();
+
+        for (Annotation annotation : annotations) {
+            ArgumentRequirementType argumentRequirementType = annotation.annotationType().getAnnotation(ArgumentRequirementType.class);
+            if (argumentRequirementType == null)
+                continue;
+
+            ArgumentRequirementFactory factory = commandManager.argumentRequirementFactories.computeIfAbsent(argumentRequirementType.value(), (clazz) -> {
+                try {
+                    return argumentRequirementType.value().getConstructor().newInstance();
+                } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+                    return null;
+                }
+            });
+
+            if (factory == null)
+                continue;
+
+            ArgumentRequirement argumentRequirement = factory.getArgumentRequirement(commandNode, annotation);
+            if (argumentRequirement == null)
+                continue;
+
+            result.add(argumentRequirement);
+        }
+
+        return result.toArray(new ArgumentRequirement[0]);
+    }
+
+    private Set<Requirement> findAllRequirements(CommandNode commandNode, Class<?> clazz) {
+        Set<Requirement> requirements = new HashSet<>();
+
+        for (Class<?> c : ClassUtils.getSuperClassAndInterfaces(clazz)) {
+            requirements.addAll(createRequirementSet(commandNode, c.getAnnotations()));
+        }
+
+        return requirements;
+    }
+
+    private Set<Requirement> findAllRequirements(CommandNode commandNode, Method method) {
+        Set<Requirement> requirements = new HashSet<>(createRequirementSet(commandNode, method.getAnnotations()));
+        for (Method target : MethodUtils.getMethodsFromSuperClassAndInterface(method)) {
+            requirements.addAll(createRequirementSet(commandNode, target.getAnnotations()));
+        }
+
+        return requirements;
+    }
+
+    private Requirement getRequirement(CommandNode commandNode, Annotation annotation) {
+        CommandRequirementType commandRequirementType = annotation.annotationType().getAnnotation(CommandRequirementType.class);
+        if (commandRequirementType == null)
+            return null;
+
+        RequirementFactory requirementFactory = commandManager.requirementFactories.computeIfAbsent(commandRequirementType.value(), (clazz) -> {
+            try {
+                return commandRequirementType.value().getConstructor().newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+                return null;
+            }
+        });
+
+        if (requirementFactory == null)
+            return null;
+
+        return requirementFactory.getRequirement(commandNode, annotation);
+    }
+
+
+    private Set<Requirement> createRequirementSet(CommandNode commandNode, Annotation[] annotations) {
+        if (annotations == null || annotations.length == 0)
+            return Collections.emptySet();
+
+        Set<Requirement> requirements = new HashSet<>();
+
+        for (Annotation annotation : annotations) {
+            Requirement requirement = getRequirement(commandNode, annotation);
+            if (requirement == null)
+                continue;
+
+            requirements.add(requirement);
+        }
+
+        return requirements;
+    }
+
+    private Map<String, ArgumentParser<?>> serializeArgumentTypeHandler(CommandNode commandNode, Annotation[] annotations) {
+        Map<String, ArgumentParser<?>> argumentTypeHandlerMap = new HashMap<>();
+
+
+        if (annotations == null || annotations.length == 0) {
+            return argumentTypeHandlerMap;
+        }
+
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof WithParser withParser) {
+                ArgumentParser<?> argumentTypeHandler;
+                try {
+                    Constructor<? extends ArgumentParser<?>>[] ctors = (Constructor<? extends ArgumentParser<?>>[]) withParser.value().getDeclaredConstructors();
+                    argumentTypeHandler = newInstance((Constructor<ArgumentParser<?>>[]) ctors, withParser.priority());
+                } catch (InstantiationException |  IllegalAccessException | InvocationTargetException e) {
+                    continue;
+                }
+
+                argumentTypeHandlerMap.put(argumentTypeHandler.getKeyword(), argumentTypeHandler);
+                continue;
+            }
+
+            WithParserFactory withParserFactory = annotation.annotationType().getAnnotation(WithParserFactory.class);
+            if (withParserFactory == null)
+                continue;
+
+            ParserFactory parserFactory = commandManager.parserFactories.computeIfAbsent(withParserFactory.value(), (clazz) -> {
+                try {
+                    return withParserFactory.value().getConstructor().newInstance();
+                } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+                    return null;
+                }
+            });
+
+            if (parserFactory == null)
+                continue;
+
+
+            ArgumentParser<?> argumentParser = parserFactory.getArgumentParser(commandNode, annotation);
+            if (argumentParser == null)
+                continue;
+
+            argumentTypeHandlerMap.put(argumentParser.getKeyword(), argumentParser);
+        }
+
+        return argumentTypeHandlerMap;
+    }
+
+    private static <T> T newInstance(Constructor<T>[] ctors, int priority) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        Constructor<?> constructor = null;
+
+        if (ctors.length > 1) {
+            for (Constructor<T> ctor : ctors) {
+                if (ctor.getParameterCount() == 1 && ctor.getParameterTypes()[0].equals(int.class))
+                    constructor = ctor;
+            }
+
+        }
+
+        if (constructor == null)
+            constructor = ctors[0];
+
+        Object[] params;
+        if (constructor.getParameterCount() == 1) {
+            params = new Object[] {priority};
+        } else {
+            if (priority > 0)
+                SharedSecrets.LOGGER.log(System.Logger.Level.WARNING, "Registered parser {} with priority, but it doesn't support it", constructor.getDeclaringClass().getName());
+
+            params = new Object[0];
+        }
+        return (T) constructor.newInstance(params);
+    }
+
+}
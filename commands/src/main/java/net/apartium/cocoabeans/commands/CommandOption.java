@@ -12,6 +12,7 @@ package net.apartium.cocoabeans.commands;
 
 import net.apartium.cocoabeans.commands.exception.InvalidUsageResponse;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.VariadicParser;
 import net.apartium.cocoabeans.structs.Entry;
 import org.jetbrains.annotations.Nullable;
 
@@ -75,7 +76,19 @@ import java.util.*;
 
         for (Entry<RegisterArgumentParser<?>, CommandBranchProcessor> entry : argumentTypeHandlerMap) {
             ArgumentParser<?> typeParser = entry.key().parser();
+
+            ArgumentParseEvent event = ArgumentParseEvent.TYPE.isEnabled() ? new ArgumentParseEvent() : null;
+            if (event != null)
+                event.begin();
+
             Optional<? extends ArgumentParser.ParseResult<?>> parse = typeParser.parse(new AbstractCommandProcessingContext(sender, commandName, args, index));
+            if (event != null && event.shouldCommit()) {
+                event.commandName = commandName;
+                event.depth = index;
+                event.parser = typeParser.getKeyword();
+                event.matched = parse.isPresent();
+                event.commit();
+            }
 
             if (parse.isEmpty()) {
                 if (!entry.key().optionalNotMatch())
@@ -306,7 +319,10 @@ import java.util.*;
                     if (tabCompletionResult.isPresent()) {
                         if (tabCompletionResult.get().newIndex() >= args.length) {
                             result.addAll(tabCompletionResult.get().result().stream().toList());
-                            continue;
+
+                            // the arg being typed may be another element or what comes after the elements
+                            if (!(entry.key().parser() instanceof VariadicParser<?>))
+                                continue;
                         }
                     }
                 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.requirements.RequirementEvaluationContext;
+import net.apartium.cocoabeans.commands.requirements.RequirementSet;
+import net.apartium.cocoabeans.structs.Entry;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of a registered command tree, for exporting it to other command systems such as Brigadier.
+ * Nodes reached by the same keyword or parser through different sub commands are merged.
+ * @see CommandManager#getCommandTree(String)
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public final class CommandTreeNode {
+
+    private static final String[] NO_ARGS = new String[0];
+
+    public enum Type {
+
+        /**
+         * The command label itself
+         */
+        ROOT,
+
+        /**
+         * A keyword, see {@link #getName()}
+         */
+        LITERAL,
+
+        /**
+         * An argument, see {@link #getParser()}
+         */
+        ARGUMENT
+
+    }
+
+    private final Type type;
+    private final String name;
+    private final @Nullable ArgumentParser<?> parser;
+    private final boolean ignoreCase;
+    private final boolean optional;
+    private final int depth;
+
+    private RequirementSet[] requirements;
+    private boolean executable;
+    private List<CommandTreeNode> children;
+
+    private CommandTreeNode(Type type, String name, @Nullable ArgumentParser<?> parser, boolean ignoreCase, boolean optional, int depth) {
+        this.type = type;
+        this.name = name;
+        this.parser = parser;
+        this.ignoreCase = ignoreCase;
+        this.optional = optional;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the type of the node
+     * @return node type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the label for a root, the keyword for a literal, lower case if it ignores case, or the parser keyword for an argument
+     * @return node name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the parser of an argument node
+     * @return parser, or null if not an argument
+     */
+    public @Nullable ArgumentParser<?> getParser() {
+        return parser;
+    }
+
+    /**
+     * Returns whether a literal ignores case
+     * @return true if the literal ignores case
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Returns whether an argument is optional, if so its children may also follow its parent directly
+     * @return true if the argument is optional
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+    /**
+     * Returns whether some sub command ends at this node
+     * @return true if executable
+     */
+    public boolean isExecutable() {
+        return executable;
+    }
+
+    /**
+     * Returns the index of the arg this node starts at, -1 for the root
+     * @return depth of the node
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the nodes which may follow this one, in the order they are matched
+     * @return children
+     */
+    public List<CommandTreeNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * Checks whether given sender may reach this node, without side effects
+     * @param sender sender to check
+     * @param commandName label the command is used with
+     * @return true if any of the sub commands through this node is available to the sender
+     */
+    public boolean meetsRequirements(Sender sender, String commandName) {
+        RequirementEvaluationContext context = new RequirementEvaluationContext(sender, commandName, NO_ARGS, Math.max(0, depth));
+        for (RequirementSet requirementSet : requirements) {
+            if (requirementSet.meetsRequirements(context).meetRequirement())
+                return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandTreeNode{" +
+                "type=" + type +
+                ", name='" + name + '\'' +
+                ", executable=" + executable +
+                ", children=" + children +
+                '}';
+    }
+
+    /* package-private */ static CommandTreeNode of(String label, CommandBranchProcessor processor) {
+        CommandTreeNode root = new CommandTreeNode(Type.ROOT, label, null, false, false, -1);
+        root.populate(List.of(processor));
+        return root;
+    }
+
+    private record Key(Type type, String name, @Nullable ArgumentParser<?> parser, boolean ignoreCase, boolean optional) {}
+
+    // fills requirements, executable & children from the processors reaching this node
+    private void populate(List<CommandBranchProcessor> processors) {
+        Map<Key, List<CommandBranchProcessor>> branches = new LinkedHashMap<>();
+        Set<RequirementSet> requirements = new LinkedHashSet<>();
+        int childDepth = depth + 1;
+
+        for (CommandBranchProcessor processor : processors) {
+            for (Entry<RequirementSet, CommandOption> entry : processor.objectMap) {
+                CommandOption option = entry.value();
+                if (option == null)
+                    continue;
+
+                // sub command requirements are kept by the options of the processor its first element leads to
+                requirements.add(entry.key());
+
+                if (!option.getRegisteredCommandVariants().isEmpty())
+                    executable = true;
+
+                for (Map.Entry<String, CommandBranchProcessor> keyword : option.getKeywordMap().entrySet())
+                    branches.computeIfAbsent(new Key(Type.LITERAL, keyword.getKey(), null, false, false), key -> new ArrayList<>())
+                            .add(keyword.getValue());
+
+                for (Map.Entry<String, CommandBranchProcessor> keyword : option.getKeywordIgnoreCaseMap().entrySet())
+                    branches.computeIfAbsent(new Key(Type.LITERAL, keyword.getKey(), null, true, false), key -> new ArrayList<>())
+                            .add(keyword.getValue());
+
+                for (Entry<RegisterArgumentParser<?>, CommandBranchProcessor> argument : option.getArgumentTypeHandlerMap()) {
+                    ArgumentParser<?> parser = argument.key().parser();
+                    branches.computeIfAbsent(new Key(Type.ARGUMENT, parser.getKeyword(), parser, false, argument.key().isOptional()), key -> new ArrayList<>())
+                            .add(argument.value());
+                }
+            }
+        }
+
+        this.requirements = requirements.toArray(new RequirementSet[0]);
+
+        List<CommandTreeNode> children = new ArrayList<>(branches.size());
+        for (Map.Entry<Key, List<CommandBranchProcessor>> branch : branches.entrySet()) {
+            Key key = branch.getKey();
+            CommandTreeNode child = new CommandTreeNode(
+                    key.type(),
+                    key.name(),
+                    key.parser(),
+                    key.ignoreCase(),
+                    key.optional(),
+                    childDepth
+            );
+
+            child.populate(branch.getValue().stream().distinct().toList());
+            children.add(child);
+        }
+
+        this.children = Collections.unmodifiableList(children);
+    }
+
+}
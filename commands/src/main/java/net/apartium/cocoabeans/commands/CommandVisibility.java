@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.Requirement;
+import net.apartium.cocoabeans.commands.requirements.RequirementEvaluationContext;
+import net.apartium.cocoabeans.commands.requirements.RequirementSet;
+import net.apartium.cocoabeans.structs.Entry;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes which commands of a command manager senders may use, such as the root commands sent to players when they join.
+ * Each distinct root requirement is evaluated once per sender, without side effects, and the visible commands are cached per combination of results.
+ * Senders with the same requirement profile, for example players with the same permissions, share the computed set.
+ * Requirements are deduplicated by {@link Object#equals(Object)}, so requirements of different commands should be equal when they check the same.
+ * {@link Requirement#isStateful() Stateful} requirements such as rate limits are considered met, so the visible commands don't depend on timing.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandVisibility {
+
+    /**
+     * Max amount of cached profiles, sets of profiles beyond it are computed each time
+     */
+    public static final int MAX_PROFILES = 1024;
+
+    private static final String[] NO_ARGS = new String[0];
+
+    private final CommandManager commandManager;
+    private volatile @Nullable Snapshot snapshot;
+
+    /* package-private */ CommandVisibility(CommandManager commandManager) {
+        this.commandManager = commandManager;
+    }
+
+    /**
+     * Returns the labels of all commands given sender may use, including aliases
+     * @param sender sender to check
+     * @return lowercase labels of visible commands
+     */
+    public Set<String> getVisibleCommands(Sender sender) {
+        Snapshot snapshot = snapshot();
+
+        BitSet profile = new BitSet(snapshot.requirements.length);
+        for (int i = 0; i < snapshot.requirements.length; i++) {
+            RequirementEvaluationContext context = new RequirementEvaluationContext(sender, snapshot.requirementLabels[i], NO_ARGS, 0);
+            if (snapshot.requirements[i].meetsRequirement(context).meetRequirement())
+                profile.set(i);
+        }
+
+        Set<String> visible = snapshot.profiles.get(profile);
+        if (visible != null)
+            return visible;
+
+        visible = snapshot.resolve(profile);
+        if (snapshot.profiles.size() < MAX_PROFILES)
+            snapshot.profiles.putIfAbsent(profile, visible);
+
+        return visible;
+    }
+
+    /**
+     * Checks whether given sender may use a command
+     * @param sender sender to check
+     * @param commandName label of the command
+     * @return true if the command is visible to the sender, false if it is not or there is no such command
+     */
+    public boolean isVisible(Sender sender, String commandName) {
+        return getVisibleCommands(sender).contains(commandName.toLowerCase());
+    }
+
+    /**
+     * Returns the amount of cached requirement profiles
+     * @return cached profiles
+     */
+    public int getProfiles() {
+        Snapshot snapshot = this.snapshot;
+        return snapshot == null ? 0 : snapshot.profiles.size();
+    }
+
+    /**
+     * Drops cached profiles, they are recomputed from the registered commands when next needed
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot != null)
+            return snapshot;
+
+        synchronized (this) {
+            snapshot = this.snapshot;
+            if (snapshot == null) {
+                snapshot = new Snapshot(commandManager.commandMap);
+                this.snapshot = snapshot;
+            }
+
+            return snapshot;
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Requirement[] requirements;
+        private final String[] requirementLabels;
+
+        private final String[] labels;
+        // per label, the requirement indexes of each of its root requirement sets
+        private final int[][][] requirementSets;
+
+        private final Map<BitSet, Set<String>> profiles = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, RegisteredCommand> commandMap) {
+            Map<Requirement, Integer> indexes = new LinkedHashMap<>();
+            List<String> requirementLabels = new ArrayList<>();
+
+            this.labels = new String[commandMap.size()];
+            this.requirementSets = new int[commandMap.size()][][];
+
+            int label = 0;
+            for (Map.Entry<String, RegisteredCommand> command : commandMap.entrySet()) {
+                List<int[]> sets = new ArrayList<>();
+                for (Entry<RequirementSet, CommandOption> entry : command.getValue().getCommandBranchProcessor().objectMap) {
+                    if (entry.value() == null)
+                        continue;
+
+                    int[] set = new int[entry.key().size()];
+                    int i = 0;
+                    for (Requirement requirement : entry.key()) {
+                        // a cooldown would make the profile, and the cached set, depend on timing
+                        if (requirement.isStateful())
+                            continue;
+
+                        set[i++] = indexes.computeIfAbsent(requirement, key -> {
+                            requirementLabels.add(command.getKey());
+                            return requirementLabels.size() - 1;
+                        });
+                    }
+
+                    sets.add(i == set.length ? set : Arrays.copyOf(set, i));
+                }
+
+                labels[label] = command.getKey();
+                requirementSets[label] = sets.toArray(new int[0][]);
+                label++;
+            }
+
+            this.requirements = indexes.keySet().toArray(new Requirement[0]);
+            this.requirementLabels = requirementLabels.toArray(new String[0]);
+        }
+
+        Set<String> resolve(BitSet profile) {
+            Set<String> visible = new HashSet<>();
+            for (int label = 0; label < labels.length; label++) {
+                for (int[] set : requirementSets[label]) {
+                    if (meets(profile, set)) {
+                        visible.add(labels[label]);
+                        break;
+                    }
+                }
+            }
+
+            return Collections.unmodifiableSet(visible);
+        }
+
+        private static boolean meets(BitSet profile, int[] set) {
+            for (int requirement : set) {
+                if (!profile.get(requirement))
+                    return false;
+            }
+
+            return true;
+        }
+
+    }
+
+}
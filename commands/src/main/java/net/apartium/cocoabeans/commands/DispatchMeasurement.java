@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.metrics.CommandOutcome;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Phase timings of the dispatch running on the current thread, only tracked while metrics are installed.
+ * Reused by following dispatches of the thread, a nested dispatch from a sub command body gets its own measurement.
+ */
+/* package-private */ final class DispatchMeasurement {
+
+    private static final ThreadLocal<DispatchMeasurement> CURRENT = new ThreadLocal<>();
+
+    private @Nullable DispatchMeasurement parent;
+    private boolean active;
+
+    long parseNanos;
+    long requirementNanos;
+    long handlerNanos;
+    @Nullable String subCommand;
+    @Nullable CommandOutcome outcome;
+
+    private DispatchMeasurement(@Nullable DispatchMeasurement parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts measuring a dispatch on the current thread
+     * @return measurement of the dispatch, call {@link #end()} once done
+     */
+    static DispatchMeasurement begin() {
+        DispatchMeasurement measurement = CURRENT.get();
+        if (measurement == null || measurement.active) {
+            measurement = new DispatchMeasurement(measurement);
+            CURRENT.set(measurement);
+        } else {
+            measurement.parent = null;
+        }
+
+        measurement.parseNanos = 0;
+        measurement.requirementNanos = 0;
+        measurement.handlerNanos = 0;
+        measurement.subCommand = null;
+        measurement.outcome = null;
+        measurement.active = true;
+        return measurement;
+    }
+
+    /**
+     * Returns the measurement of the dispatch running on the current thread
+     * @return active measurement, or null if none
+     */
+    static @Nullable DispatchMeasurement current() {
+        DispatchMeasurement measurement = CURRENT.get();
+        return measurement != null && measurement.active ? measurement : null;
+    }
+
+    void end() {
+        active = false;
+        if (parent != null && parent.active)
+            CURRENT.set(parent);
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Chained parser lookup used while registering commands.
+ * Each scope only holds the parsers declared at its own level (method, class or command manager),
+ * lookups fall through to the parent scope when a keyword isn't declared locally, so scopes never need to be copied.
+ */
+/* package-private */ class ParserScope {
+
+    private final Map<String, ArgumentParser<?>> parsers;
+    private final @Nullable ParserScope parent;
+
+    private ParserScope(Map<String, ArgumentParser<?>> parsers, @Nullable ParserScope parent) {
+        this.parsers = parsers;
+        this.parent = parent;
+    }
+
+    /**
+     * Create a root scope, backed by given map.
+     * The map is not copied, so changes to it will be visible through the scope
+     * @param parsers parsers by keyword
+     * @return new scope
+     */
+    /* package-private */ static ParserScope root(Map<String, ArgumentParser<?>> parsers) {
+        return new ParserScope(parsers, null);
+    }
+
+    /**
+     * Create a child scope of given parent, if there are no parsers declared the parent will be returned as is
+     * @param parsers parsers declared in the child scope
+     * @param parent parent scope
+     * @return child scope, or parent if parsers is empty
+     */
+    /* package-private */ static ParserScope of(Map<String, ArgumentParser<?>> parsers, ParserScope parent) {
+        if (parsers.isEmpty())
+            return parent;
+
+        return new ParserScope(parsers, parent);
+    }
+
+    /**
+     * Find a parser by keyword, starting at this scope and walking up to the root
+     * @param keyword parser keyword
+     * @return parser if found, otherwise null
+     */
+    /* package-private */ @Nullable ArgumentParser<?> get(String keyword) {
+        for (ParserScope scope = this; scope != null; scope = scope.parent) {
+            ArgumentParser<?> parser = scope.parsers.get(keyword);
+            if (parser != null)
+                return parser;
+        }
+
+        return null;
+    }
+
+}
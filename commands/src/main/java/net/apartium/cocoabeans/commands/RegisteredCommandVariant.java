@@ -11,8 +11,11 @@
 package net.apartium.cocoabeans.commands;
 
 import net.apartium.cocoabeans.commands.requirements.ArgumentRequirement;
+import net.apartium.cocoabeans.commands.watchdog.ExecutionBudget;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 
@@ -20,9 +23,31 @@ public record RegisteredCommandVariant(
         MethodHandle method,
         Parameter[] parameters,
         CommandNode commandNode,
-        int priority
+        int priority,
+        @ApiStatus.AvailableSince("0.0.29") ExecutionBudget budget,
+        @ApiStatus.AvailableSince("0.0.29") MethodHandle invoker
 ) {
 
+    public RegisteredCommandVariant(MethodHandle method, Parameter[] parameters, CommandNode commandNode, int priority, ExecutionBudget budget) {
+        this(method, parameters, commandNode, priority, budget, spreadInvoker(method));
+    }
+
+    public RegisteredCommandVariant(MethodHandle method, Parameter[] parameters, CommandNode commandNode, int priority) {
+        this(method, parameters, commandNode, priority, new ExecutionBudget(commandNode.getClass().getName(), ExecutionBudget.DEFAULT_BUDGET, false));
+    }
+
+    /**
+     * Adapts a handler to take all of its arguments as an array and return an object.
+     * Unlike {@link MethodHandle#invokeWithArguments(java.util.List)}, invoking the adapted handle doesn't adapt it again on every call
+     * @param method handler
+     * @return invoker of the handler, to be invoked exactly with an object array
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static MethodHandle spreadInvoker(MethodHandle method) {
+        return method.asSpreader(Object[].class, method.type().parameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
     public record Parameter(
             Class<?> type,
             Type parameterizedType,
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.Requirement;
+import net.apartium.cocoabeans.commands.requirements.RequirementEvaluationContext;
+import net.apartium.cocoabeans.commands.requirements.RequirementResult;
+import net.apartium.cocoabeans.commands.requirements.RequirementSet;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Requirement sets met along the branches of a matched command, outermost first.
+ * Their side effects are applied once a sub command is about to be invoked, see {@link Requirement#apply(RequirementEvaluationContext)}.
+ */
+@ApiStatus.Internal
+public final class RequirementPath {
+
+    private final RequirementSet requirements;
+    private final int depth;
+    private final @Nullable RequirementPath next;
+
+    private boolean applied;
+
+    /* package-private */ RequirementPath(RequirementSet requirements, int depth, @Nullable RequirementPath next) {
+        this.requirements = requirements;
+        this.depth = depth;
+        this.next = next;
+    }
+
+    /**
+     * Applies the side effects of all requirements on the path, only the first call has an effect
+     * @param sender sender of the command
+     * @param commandName name of the command
+     * @param args raw args of the command
+     * @return meet, or the result of the first requirement which is no longer met
+     */
+    /* package-private */ RequirementResult apply(Sender sender, String commandName, String[] args) {
+        if (applied)
+            return RequirementResult.meet();
+
+        applied = true;
+        for (RequirementPath path = this; path != null; path = path.next) {
+            RequirementResult result = path.requirements.apply(new RequirementEvaluationContext(sender, commandName, args, path.depth, true));
+            if (!result.meetRequirement())
+                return result;
+        }
+
+        return RequirementResult.meet();
+    }
+
+}
@@ -12,6 +12,10 @@ package net.apartium.cocoabeans.commands;
 
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Represents a command sender
@@ -38,4 +42,22 @@ public interface Sender {
      */
     void sendMessage(String... args);
 
+    /**
+     * Sends multiple lines at once, platforms may send them as a single message instead of one message per line
+     * @param lines messages as text
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    default void sendLines(List<String> lines) {
+        sendMessage(lines.toArray(String[]::new));
+    }
+
+    /**
+     * Returns a unique id identifying the sender across commands, used to key per sender state such as rate limits
+     * @return unique id of the sender, or null if it has none, for example the console
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    default @Nullable UUID getUniqueId() {
+        return null;
+    }
+
 }
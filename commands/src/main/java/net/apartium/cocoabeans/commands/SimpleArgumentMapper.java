@@ -11,9 +11,10 @@
 package net.apartium.cocoabeans.commands;
 
 import net.apartium.cocoabeans.utils.OptionalFloat;
+import org.jetbrains.annotations.ApiStatus;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.Function;
 
@@ -99,31 +100,26 @@ public class SimpleArgumentMapper implements ArgumentMapper {
         List<Object> result = new ArrayList<>(parameters.length + 1);
         result.add(registeredCommandVariant.commandNode());
 
-        Map<Class<?>, Integer> counterMap = new HashMap<>();
         Map<Class<?>, List<Object>> mapOfObjects = context.parsedArgs();
 
         for (int i = 1; i < parameters.length + 1; i++) {
             Class<?> type = parameters[i - 1].type();
-            boolean optional = false;
-            boolean optionalPrimitive = false;
-
-            if (type == Optional.class) {
-                optional = true;
-                Type parameterizedType = parameters[i - 1].parameterizedType();
-                Type[] actualTypeArguments = ((ParameterizedType) parameterizedType).getActualTypeArguments();
-                type = (Class<?>) actualTypeArguments[0];
-            } else if (OPTIONAL_TO_PRIMITIVE_MAP.containsKey(type)) {
-                type = OPTIONAL_TO_PRIMITIVE_MAP.get(type);
-                optionalPrimitive = true;
+            boolean optional = type == Optional.class;
+            boolean optionalPrimitive = !optional && OPTIONAL_TO_PRIMITIVE_MAP.containsKey(type);
+            type = resolveType(parameters[i - 1]);
+
+            // index of this parameter among the previous ones of the same type, counted instead of kept in a map to not allocate
+            int index = 0;
+            for (int j = 0; j < i - 1; j++) {
+                if (resolveType(parameters[j]) == type)
+                    index++;
             }
 
-            int index = counterMap.computeIfAbsent(type, (k) -> 0);
-
             if (Sender.class.isAssignableFrom(type)) {
                 if (index != 0 && mapOfObjects.get(type) != null) {
                     result.add(mapOfObjects.get(type).get(index - 1));
                 } else {
-                    result.add(sender);
+                    result.add(BufferedSender.forParameter(sender, type));
                 }
             } else if (type.equals(CommandContext.class)) {
                 if (index == 1) throw new RuntimeException("Shouldn't have two command context");
@@ -138,6 +134,9 @@ public class SimpleArgumentMapper implements ArgumentMapper {
                     throw new RuntimeException("No argument found for type " + type);
 
                 Object obj = objects.get(index);
+                if (!optional)
+                    obj = orEmptyArray(type, obj);
+
                 if (optional) {
                     if (obj == null || (obj instanceof Optional<?> && ((Optional<?>) obj).isEmpty()))
                         obj = Optional.empty();
@@ -155,10 +154,32 @@ public class SimpleArgumentMapper implements ArgumentMapper {
                 result.add(obj);
             }
 
-            counterMap.put(type, index + 1);
         }
 
         return result;
     }
 
+    /**
+     * Converts an absent optional variadic argument to an empty array, as handlers take variadic arguments as arrays
+     * @param type type of the parameter
+     * @param obj parsed value of the argument
+     * @return an empty array of the parameter type if the value is an empty optional and the parameter an array, otherwise the value
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static Object orEmptyArray(Class<?> type, Object obj) {
+        if (type.isArray() && obj instanceof Optional<?> absent && absent.isEmpty())
+            return Array.newInstance(type.getComponentType(), 0);
+
+        return obj;
+    }
+
+    private static Class<?> resolveType(RegisteredCommandVariant.Parameter parameter) {
+        Class<?> type = parameter.type();
+        if (type == Optional.class)
+            return (Class<?>) ((ParameterizedType) parameter.parameterizedType()).getActualTypeArguments()[0];
+
+        Class<?> primitive = OPTIONAL_TO_PRIMITIVE_MAP.get(type);
+        return primitive == null ? type : primitive;
+    }
+
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.audit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed layout of audit log records and segments.
+ * A segment starts with a header of magic, version, record size and record count, followed by records of:
+ * epoch millis, uuid msb, uuid lsb, duration nanos, outcome byte, flags byte, text length short and text.
+ * The text is the utf-8 label followed by each arg, separated by a zero byte, truncated to fit the record.
+ * An epoch millis of zero marks an unused record.
+ */
+/* package-private */ final class AuditFormat {
+
+    static final int MAGIC = 0x43424155; // CBAU
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 256;
+
+    static final int TIMESTAMP = 0;
+    static final int UUID_MSB = 8;
+    static final int UUID_LSB = 16;
+    static final int DURATION = 24;
+    static final int OUTCOME = 32;
+    static final int FLAGS = 33;
+    static final int TEXT_LENGTH = 34;
+    static final int TEXT = 36;
+    static final int MAX_TEXT_LENGTH = RECORD_SIZE - TEXT;
+
+    static final int FLAG_UUID = 1;
+    static final int FLAG_TRUNCATED = 2;
+
+    static final byte SEPARATOR = 0;
+
+    static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private AuditFormat() {}
+
+    static String segmentName(long index) {
+        return String.format("audit-%08d.log", index);
+    }
+
+    static long segmentIndex(String fileName) {
+        if (!fileName.startsWith("audit-") || !fileName.endsWith(".log"))
+            return -1;
+
+        try {
+            return Long.parseLong(fileName.substring(6, fileName.length() - 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Encodes a string as utf-8 into given array without allocating
+     * @return new position, or its complement if the string didn't fit entirely, in which case the chars which fit were written
+     */
+    static int encode(CharSequence value, byte[] target, int position, int limit) {
+        for (int i = 0; i < value.length(); i++) {
+            int c = value.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                if (position + 4 > limit)
+                    return ~position;
+
+                int codePoint = Character.toCodePoint((char) c, value.charAt(++i));
+                target[position++] = (byte) (0xF0 | codePoint >> 18);
+                target[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint & 0x3F);
+                continue;
+            }
+
+            if (Character.isSurrogate((char) c))
+                c = '?'; // unpaired surrogate
+
+            if (c < 0x80) {
+                if (position + 1 > limit)
+                    return ~position;
+
+                target[position++] = (byte) c;
+            } else if (c < 0x800) {
+                if (position + 2 > limit)
+                    return ~position;
+
+                target[position++] = (byte) (0xC0 | c >> 6);
+                target[position++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                if (position + 3 > limit)
+                    return ~position;
+
+                target[position++] = (byte) (0xE0 | c >> 12);
+                target[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return position;
+    }
+
+}
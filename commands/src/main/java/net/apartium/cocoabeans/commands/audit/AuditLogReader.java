@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.audit;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static net.apartium.cocoabeans.commands.audit.AuditFormat.*;
+
+/**
+ * Queries segment files written by {@link CommandAuditLog}, including ones of a log which is still open
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class AuditLogReader {
+
+    private static final BatchResult.Outcome[] OUTCOMES = BatchResult.Outcome.values();
+
+    private AuditLogReader() {}
+
+    /**
+     * Returns the records of given time range, in the order they were written
+     * @param directory directory of the segment files
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @param senderId unique id of the sender to return records of, or null to return records of all senders
+     * @return matching records
+     * @throws IOException if a segment could not be read
+     */
+    public static List<AuditRecord> query(Path directory, Instant from, Instant to, @Nullable UUID senderId) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        forEach(directory, from, to, senderId, records::add);
+        return records;
+    }
+
+    /**
+     * Passes the records of given time range to a consumer, in the order they were written
+     * @param directory directory of the segment files
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @param senderId unique id of the sender to return records of, or null to return records of all senders
+     * @param consumer consumer of matching records
+     * @throws IOException if a segment could not be read
+     */
+    public static void forEach(Path directory, Instant from, Instant to, @Nullable UUID senderId, Consumer<AuditRecord> consumer) throws IOException {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+
+        for (long index : segments(directory)) {
+            MappedByteBuffer segment = map(directory.resolve(segmentName(index)));
+            if (segment == null)
+                continue;
+
+            int records = segment.getInt(12);
+            for (int i = 0; i < records; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                long timestamp = segment.getLong(offset + TIMESTAMP);
+                if (timestamp == 0)
+                    break; // rest of the segment is unused
+
+                if (timestamp < fromMillis || timestamp >= toMillis)
+                    continue;
+
+                boolean hasSender = (segment.get(offset + FLAGS) & FLAG_UUID) != 0;
+                if (senderId != null && (!hasSender
+                        || segment.getLong(offset + UUID_MSB) != senderId.getMostSignificantBits()
+                        || segment.getLong(offset + UUID_LSB) != senderId.getLeastSignificantBits()))
+                    continue;
+
+                AuditRecord record = read(segment, offset, timestamp, hasSender);
+                if (record != null)
+                    consumer.accept(record);
+            }
+        }
+    }
+
+    private static @Nullable AuditRecord read(MappedByteBuffer segment, int offset, long timestamp, boolean hasSender) {
+        int length = segment.getShort(offset + TEXT_LENGTH);
+        if (length < 0 || length > MAX_TEXT_LENGTH)
+            return null; // torn or corrupt record
+
+        byte[] text = new byte[length];
+        segment.get(offset + TEXT, text);
+
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && text[i] != SEPARATOR)
+                continue;
+
+            parts.add(new String(text, start, i - start, StandardCharsets.UTF_8));
+            start = i + 1;
+        }
+
+        int outcome = segment.get(offset + OUTCOME);
+        return new AuditRecord(
+                Instant.ofEpochMilli(timestamp),
+                hasSender ? new UUID(segment.getLong(offset + UUID_MSB), segment.getLong(offset + UUID_LSB)) : null,
+                parts.get(0),
+                parts.subList(1, parts.size()).toArray(new String[0]),
+                outcome >= 0 && outcome < OUTCOMES.length ? OUTCOMES[outcome] : BatchResult.Outcome.FAILED,
+                Duration.ofNanos(segment.getLong(offset + DURATION)),
+                (segment.get(offset + FLAGS) & FLAG_TRUNCATED) != 0
+        );
+    }
+
+    private static @Nullable MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE)
+                return null;
+
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int records = segment.getInt(12);
+            if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION || segment.getInt(8) != RECORD_SIZE
+                    || records <= 0 || channel.size() < HEADER_SIZE + (long) records * RECORD_SIZE)
+                return null;
+
+            return segment;
+        }
+    }
+
+    /**
+     * Lists the indexes of segment files in a directory
+     * @return segment indexes in ascending order
+     */
+    /* package-private */ static List<Long> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))
+            return List.of();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .mapToLong(file -> segmentIndex(file.getFileName().toString()))
+                    .filter(index -> index >= 0)
+                    .sorted()
+                    .boxed()
+                    .toList();
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.audit;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A command dispatch read from an audit log
+ * @param timestamp time the dispatch finished
+ * @param senderId unique id of the sender, or null if it has none
+ * @param commandName label the command was invoked with
+ * @param args raw args of the dispatch
+ * @param outcome outcome of the dispatch
+ * @param duration time the dispatch took
+ * @param truncated true if the label and args didn't fit the record and were cut
+ * @see AuditLogReader
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record AuditRecord(
+        Instant timestamp,
+        @Nullable UUID senderId,
+        String commandName,
+        String[] args,
+        BatchResult.Outcome outcome,
+        Duration duration,
+        boolean truncated
+) {
+
+}
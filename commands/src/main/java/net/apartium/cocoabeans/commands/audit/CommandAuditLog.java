@@ -0,0 +1,482 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.audit;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiPredicate;
+
+import static net.apartium.cocoabeans.commands.audit.AuditFormat.*;
+
+/**
+ * Records command dispatches to rolling memory mapped files, read them back with {@link AuditLogReader}.
+ * Dispatching threads only copy a fixed size record into a lock free ring buffer, a background thread copies records to the current segment file.
+ * When the ring buffer is full records are dropped rather than blocking the dispatching thread, see {@link #getDropped()}.
+ * Install on a command manager with {@link net.apartium.cocoabeans.commands.CommandManager#setAuditLog(CommandAuditLog)}.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandAuditLog implements Closeable {
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
+    private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FORCE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final long CLOSED = 1L << 62;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+
+    private final byte[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // has CLOSED set once closing started, so no slot is claimed after the final drain
+    private volatile long head;
+    private volatile long written; // only incremented by the writer thread
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile BiPredicate<Sender, String> filter = (sender, commandName) -> true;
+    private volatile boolean closed;
+    private volatile @Nullable IOException error;
+
+    private final Thread writer;
+
+    // owned by the writer thread
+    private @Nullable FileChannel channel;
+    private @Nullable MappedByteBuffer segment;
+    private long segmentIndex;
+    private int segmentCapacity;
+    private int segmentPosition;
+
+    /**
+     * Constructs a new audit log
+     * @param directory directory of the segment files, appended to if it already contains segments
+     * @param bufferCapacity amount of records the ring buffer holds, rounded up to a power of two
+     * @param segmentRecords amount of records per segment file
+     * @param maxSegments amount of segment files to keep, older ones are deleted
+     * @throws IOException if the current segment could not be opened
+     */
+    public CommandAuditLog(Path directory, int bufferCapacity, int segmentRecords, int maxSegments) throws IOException {
+        if (bufferCapacity <= 0 || bufferCapacity > 1 << 20)
+            throw new IllegalArgumentException("Buffer capacity must be between 1 and " + (1 << 20) + ": " + bufferCapacity);
+
+        if (segmentRecords <= 0 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE)
+            throw new IllegalArgumentException("Segment records must be between 1 and " + (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + ": " + segmentRecords);
+
+        if (maxSegments <= 0)
+            throw new IllegalArgumentException("Max segments must be positive: " + maxSegments);
+
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+
+        int capacity = Integer.highestOneBit(bufferCapacity);
+        if (capacity < bufferCapacity)
+            capacity <<= 1;
+
+        this.buffer = new byte[capacity * RECORD_SIZE];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++)
+            sequences.set(i, i);
+
+        Files.createDirectories(directory);
+        resume();
+
+        this.writer = new Thread(this::run, "command-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates an audit log with default sizes
+     * @param directory directory of the segment files
+     * @return new audit log
+     * @throws IOException if the current segment could not be opened
+     */
+    public static CommandAuditLog open(Path directory) throws IOException {
+        return new CommandAuditLog(directory, DEFAULT_BUFFER_CAPACITY, DEFAULT_SEGMENT_RECORDS, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Sets which dispatches are recorded, for example only commands of staff
+     * @param filter tests a sender and label, dispatches are recorded if it returns true
+     */
+    public void setFilter(BiPredicate<Sender, String> filter) {
+        this.filter = Objects.requireNonNull(filter, "filter");
+    }
+
+    /**
+     * Returns whether a dispatch should be recorded
+     * @param sender sender of the dispatch
+     * @param commandName label the command was invoked with
+     * @return true if the dispatch should be recorded
+     */
+    public boolean shouldRecord(Sender sender, String commandName) {
+        return !closed && filter.test(sender, commandName);
+    }
+
+    /**
+     * Records a dispatch, the label and args are truncated if they don't fit a record.
+     * Doesn't allocate, unless the sender does to return its unique id.
+     * Records of a closed or closing log are counted as dropped
+     * @param sender sender of the dispatch
+     * @param commandName label the command was invoked with
+     * @param args raw args of the dispatch
+     * @param outcome outcome of the dispatch
+     * @param durationNanos time the dispatch took
+     */
+    public void record(Sender sender, String commandName, String[] args, BatchResult.Outcome outcome, long durationNanos) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+
+        // everything that may throw is read before claiming, a claimed slot must always be published
+        Objects.requireNonNull(commandName, "commandName");
+        Objects.requireNonNull(args, "args");
+        byte ordinal = (byte) outcome.ordinal();
+        UUID senderId = sender.getUniqueId();
+        long timestamp = System.currentTimeMillis();
+
+        long position = claim();
+        if (position < 0) {
+            dropped.increment();
+            return;
+        }
+
+        int index = (int) (position & mask);
+        int offset = index * RECORD_SIZE;
+        int limit = offset + RECORD_SIZE;
+
+        LONG.set(buffer, offset + TIMESTAMP, timestamp);
+        LONG.set(buffer, offset + UUID_MSB, senderId == null ? 0L : senderId.getMostSignificantBits());
+        LONG.set(buffer, offset + UUID_LSB, senderId == null ? 0L : senderId.getLeastSignificantBits());
+        LONG.set(buffer, offset + DURATION, durationNanos);
+        buffer[offset + OUTCOME] = ordinal;
+
+        int end = encode(commandName, buffer, offset + TEXT, limit);
+        for (int i = 0; i < args.length && end >= 0; i++) {
+            if (end == limit) {
+                end = ~end;
+                break;
+            }
+
+            buffer[end++] = SEPARATOR;
+            end = encode(args[i] == null ? "null" : args[i], buffer, end, limit);
+        }
+
+        boolean truncated = end < 0;
+        if (truncated)
+            end = ~end;
+
+        buffer[offset + FLAGS] = (byte) ((senderId == null ? 0 : FLAG_UUID) | (truncated ? FLAG_TRUNCATED : 0));
+        SHORT.set(buffer, offset + TEXT_LENGTH, (short) (end - offset - TEXT));
+
+        sequences.set(index, position + 1);
+    }
+
+    // claims a slot of the ring buffer, multiple producers single consumer
+    private long claim() {
+        long position = tail.get();
+        while (true) {
+            if ((position & CLOSED) != 0)
+                return -1; // closing
+
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1))
+                    return position;
+            } else if (difference < 0) {
+                return -1; // full
+            }
+
+            position = tail.get();
+        }
+    }
+
+    private void run() {
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+
+        while (true) {
+            if (drain()) {
+                dirty = true;
+                continue;
+            }
+
+            if (closed && head == (tail.get() & ~CLOSED))
+                break;
+
+            if (dirty && System.nanoTime() - lastForce >= FORCE_INTERVAL) {
+                force();
+                dirty = false;
+                lastForce = System.nanoTime();
+            }
+
+            LockSupport.parkNanos(this, IDLE_WAIT);
+        }
+
+        force();
+        closeSegment();
+    }
+
+    private boolean drain() {
+        long position = head;
+        long start = position;
+        while (position - start < sequences.length()) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1)
+                break;
+
+            write(index * RECORD_SIZE);
+            sequences.set(index, position + sequences.length());
+            position++;
+        }
+
+        head = position;
+        return position != start;
+    }
+
+    private void write(int offset) {
+        try {
+            if (segment != null && segmentPosition == segmentCapacity)
+                roll();
+        } catch (IOException e) {
+            fail(e);
+        }
+
+        if (segment == null) {
+            dropped.increment();
+            return;
+        }
+
+        segment.put(HEADER_SIZE + segmentPosition * RECORD_SIZE, buffer, offset, RECORD_SIZE);
+        segmentPosition++;
+        written++;
+    }
+
+    private void resume() throws IOException {
+        long last = -1;
+        for (long index : AuditLogReader.segments(directory))
+            last = Math.max(last, index);
+
+        if (last >= 0) {
+            openSegment(last);
+            if (segment != null && segmentPosition < segmentCapacity)
+                return;
+
+            closeSegment();
+        }
+
+        createSegment(last + 1);
+    }
+
+    // maps an existing segment and finds its first unused record, leaves no segment if it's not usable
+    private void openSegment(long index) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(segmentName(index)), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            channel.close();
+            return;
+        }
+
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        int records = header.getInt(12);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE
+                || records <= 0 || channel.size() < HEADER_SIZE + (long) records * RECORD_SIZE) {
+            channel.close();
+            return;
+        }
+
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        int position = 0;
+        while (position < records && segment.getLong(HEADER_SIZE + position * RECORD_SIZE + TIMESTAMP) != 0)
+            position++;
+
+        this.channel = channel;
+        this.segment = segment;
+        this.segmentIndex = index;
+        this.segmentCapacity = records;
+        this.segmentPosition = position;
+    }
+
+    private void createSegment(long index) throws IOException {
+        Path file = directory.resolve(segmentName(index));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        MappedByteBuffer segment;
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) segmentRecords * RECORD_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, RECORD_SIZE);
+        segment.putInt(12, segmentRecords);
+
+        this.channel = channel;
+        this.segment = segment;
+        this.segmentIndex = index;
+        this.segmentCapacity = segmentRecords;
+        this.segmentPosition = 0;
+
+        deleteOldSegments();
+    }
+
+    private void roll() throws IOException {
+        long index = segmentIndex;
+        force();
+        closeSegment();
+        createSegment(index + 1);
+    }
+
+    private void deleteOldSegments() {
+        List<Long> segments;
+        try {
+            segments = AuditLogReader.segments(directory);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to list audit log segments", e);
+            return;
+        }
+
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            try {
+                Files.deleteIfExists(directory.resolve(segmentName(segments.get(i))));
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to delete audit log segment " + segments.get(i), e);
+            }
+        }
+    }
+
+    private void force() {
+        if (segment != null)
+            segment.force();
+    }
+
+    private void closeSegment() {
+        segment = null;
+        if (channel == null)
+            return;
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to close audit log segment", e);
+        }
+
+        channel = null;
+    }
+
+    private void fail(IOException e) {
+        if (error == null)
+            LOGGER.log(System.Logger.Level.ERROR, "Audit log failed, further records are dropped", e);
+
+        error = e;
+        closeSegment();
+    }
+
+    /**
+     * Waits until all records recorded so far are written to the current segment.
+     * Written records are visible to readers, they are forced to storage about every second and on close
+     * @param timeout max time to wait
+     * @return true if all records were written in time
+     */
+    public boolean flush(Duration timeout) {
+        long target = tail.get() & ~CLOSED;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (head < target) {
+            if (!writer.isAlive() || System.nanoTime() - deadline >= 0)
+                return false;
+
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the amount of records written to segments so far
+     * @return written records
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Returns the amount of records dropped, because the ring buffer was full, writing failed or the log was closed
+     * @return dropped records
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the error which stopped writing
+     * @return write error, or null if there was none
+     */
+    public @Nullable IOException getError() {
+        return error;
+    }
+
+    /**
+     * Stops recording, writes remaining records and closes the current segment
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        tail.getAndUpdate(position -> position | CLOSED); // slots claimed before this are still written
+        LockSupport.unpark(writer);
+
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+}
@@ -0,0 +1,30 @@
+package net.apartium.cocoabeans.commands.exception;
+
+import net.apartium.cocoabeans.commands.requirements.UnmetRequirementResponse;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+
+/**
+ * Thrown when a sender runs a command too often, see {@link net.apartium.cocoabeans.commands.requirements.ratelimit.RateLimit}
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class RateLimitException extends RequirementException {
+
+    private final Duration remaining;
+
+    public RateLimitException(UnmetRequirementResponse response, Annotation requirement, Duration remaining) {
+        super(response, requirement);
+        this.remaining = remaining;
+    }
+
+    /**
+     * Returns the time left until the sender may run the command again
+     * @return remaining time
+     */
+    public Duration getRemaining() {
+        return remaining;
+    }
+
+}
@@ -1,5 +1,6 @@
 package net.apartium.cocoabeans.commands.exception;
 
+import net.apartium.cocoabeans.commands.BufferedSender;
 import net.apartium.cocoabeans.commands.CommandContext;
 import net.apartium.cocoabeans.commands.Sender;
 import org.jetbrains.annotations.ApiStatus;
@@ -21,7 +22,7 @@ public class SimpleExceptionArgumentMapper implements ExceptionArgumentMapper {
 
         for (Class<?> type : parameters) {
             if (Sender.class.isAssignableFrom(type)) {
-                result.add(sender);
+                result.add(BufferedSender.forParameter(sender, type));
                 continue;
             }
 
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Forwards dispatches of {@link Remote} commands to a central server over a {@link CommandTransport}.
+ * Requests are coalesced into batches: the first request of a batch schedules a flush on the flush executor,
+ * and a batch is sent right away once it reaches the max batch size.
+ * With a flush executor running tasks on the next server tick, all requests of a tick are sent as a single batch.
+ * Install on a command manager with {@link net.apartium.cocoabeans.commands.CommandManager#setForwarder(CommandForwarder)}.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandForwarder {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    /**
+     * Sends the error of failed dispatches to their sender
+     */
+    public static final BiConsumer<Sender, ForwardResult> REPORT_FAILURES = (sender, result) -> {
+        if (result.error() != null)
+            sender.sendMessage(result.error());
+    };
+
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
+    private final CommandTransport transport;
+    private final Executor flushExecutor;
+    private final int maxBatchSize;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final ForwardingProtocol.BatchWriter writer = new ForwardingProtocol.BatchWriter(); // guarded by itself
+    private long[] batchIds = new long[16]; // ids of the requests in writer, guarded by writer
+
+    private volatile BiConsumer<Sender, ForwardResult> resultListener = REPORT_FAILURES;
+    private volatile Function<Sender, String> senderNames = sender -> String.valueOf(sender.getSender());
+
+    /**
+     * Constructs a new forwarder sending each request right away
+     * @param transport transport to the central server
+     */
+    public CommandForwarder(CommandTransport transport) {
+        this(transport, Runnable::run, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new forwarder
+     * @param transport transport to the central server
+     * @param flushExecutor executor the flush of a new batch is scheduled on
+     * @param maxBatchSize amount of requests a batch is sent at without waiting for its flush
+     */
+    public CommandForwarder(CommandTransport transport, Executor flushExecutor, int maxBatchSize) {
+        if (maxBatchSize <= 0)
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+
+        this.transport = Objects.requireNonNull(transport, "transport");
+        this.flushExecutor = Objects.requireNonNull(flushExecutor, "flushExecutor");
+        this.maxBatchSize = maxBatchSize;
+
+        transport.setReceiver(this::receive);
+    }
+
+    /**
+     * Sets the listener called with the result of each forwarded dispatch, by default {@link #REPORT_FAILURES}
+     * @param resultListener listener receiving the original sender and the result
+     */
+    public void setResultListener(BiConsumer<Sender, ForwardResult> resultListener) {
+        this.resultListener = Objects.requireNonNull(resultListener, "resultListener");
+    }
+
+    /**
+     * Sets how senders are named on the central server, by default the string form of their platform sender
+     * @param senderNames returns the name of a sender
+     */
+    public void setSenderNames(Function<Sender, String> senderNames) {
+        this.senderNames = Objects.requireNonNull(senderNames, "senderNames");
+    }
+
+    /**
+     * Forwards a dispatch, messages the central server sends back are passed to the sender as they arrive
+     * @param sender sender of the dispatch
+     * @param commandName label the command was invoked with
+     * @param args raw args of the dispatch
+     * @return result of the dispatch, completed once the central server reports it, or exceptionally if it could not be sent
+     */
+    public CompletableFuture<ForwardResult> forward(Sender sender, String commandName, String[] args) {
+        long id = nextId.incrementAndGet();
+        PendingRequest request = new PendingRequest(sender, new CompletableFuture<>(), System.nanoTime());
+        pending.put(id, request);
+
+        UUID uniqueId = sender.getUniqueId();
+        String name = senderNames.apply(sender);
+
+        byte[] full = null;
+        long[] fullIds = null;
+        boolean first;
+        synchronized (writer) {
+            if (writer.frames() == batchIds.length)
+                batchIds = Arrays.copyOf(batchIds, batchIds.length * 2);
+
+            batchIds[writer.frames()] = id;
+            writer.request(id, commandName, args, uniqueId, name);
+            first = writer.frames() == 1;
+            if (writer.frames() >= maxBatchSize) {
+                fullIds = Arrays.copyOf(batchIds, writer.frames());
+                full = writer.drain();
+            }
+        }
+
+        if (full != null)
+            send(full, fullIds);
+        else if (first)
+            flushExecutor.execute(this::flush);
+
+        return request.future();
+    }
+
+    /**
+     * Sends the current batch, if it has any requests
+     */
+    public void flush() {
+        byte[] batch;
+        long[] ids;
+        synchronized (writer) {
+            if (writer.frames() == 0)
+                return;
+
+            ids = Arrays.copyOf(batchIds, writer.frames());
+            batch = writer.drain();
+        }
+
+        send(batch, ids);
+    }
+
+    // fails the requests of the batch if it could not be sent, the central server never answers them
+    private void send(byte[] batch, long[] ids) {
+        try {
+            transport.send(batch);
+        } catch (Throwable e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to send forwarded commands", e);
+            for (long id : ids) {
+                PendingRequest request = pending.remove(id);
+                if (request == null)
+                    continue;
+
+                report(request, new ForwardResult(BatchResult.Outcome.FAILED, "Failed to forward command"));
+                request.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void receive(byte[] batch) {
+        try {
+            ForwardingProtocol.read(batch, new ForwardingProtocol.FrameHandler() {
+                @Override
+                public void request(long id, String commandName, String[] args, @Nullable UUID uniqueId, String name) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Ignoring forwarded command sent to a forwarder: /" + commandName);
+                }
+
+                @Override
+                public void message(long id, String text) {
+                    PendingRequest request = pending.get(id);
+                    if (request != null)
+                        request.sender().sendMessage(text);
+                }
+
+                @Override
+                public void result(long id, BatchResult.Outcome outcome, @Nullable String error) {
+                    PendingRequest request = pending.remove(id);
+                    if (request != null)
+                        complete(request, new ForwardResult(outcome, error));
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Received a malformed forwarding batch", e);
+        }
+    }
+
+    private void complete(PendingRequest request, ForwardResult result) {
+        report(request, result);
+        request.future().complete(result);
+    }
+
+    private void report(PendingRequest request, ForwardResult result) {
+        try {
+            resultListener.accept(request.sender(), result);
+        } catch (Throwable e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Forwarding result listener failed", e);
+        }
+    }
+
+    /**
+     * Fails requests the central server didn't answer in time, for example because it was restarted
+     * @param timeout max age of a request
+     * @return amount of failed requests
+     */
+    public int expire(Duration timeout) {
+        long now = System.nanoTime();
+        int expired = 0;
+
+        Iterator<Map.Entry<Long, PendingRequest>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, PendingRequest> entry = iterator.next();
+            if (now - entry.getValue().createdAt() < timeout.toNanos())
+                continue;
+
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                complete(entry.getValue(), new ForwardResult(BatchResult.Outcome.FAILED, "Command timed out"));
+                expired++;
+            }
+        }
+
+        return expired;
+    }
+
+    /**
+     * Returns the amount of requests waiting for their result
+     * @return pending requests
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    private record PendingRequest(Sender sender, CompletableFuture<ForwardResult> future, long createdAt) {}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.function.Consumer;
+
+/**
+ * One end of a link between a server forwarding commands and the central server running them, such as plugin messaging or a message broker.
+ * Batches are opaque byte arrays, a transport only has to deliver them in order.
+ * @see LoopbackTransport
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public interface CommandTransport {
+
+    /**
+     * Sends a batch to the other end
+     * @param batch batch to send, not modified after the call
+     */
+    void send(byte[] batch);
+
+    /**
+     * Sets the receiver of batches sent by the other end, called by the forwarder or receiver using this transport.
+     * Batches should be passed to the receiver one at a time, in order
+     * @param receiver receiver of incoming batches
+     */
+    void setReceiver(Consumer<byte[]> receiver);
+
+}
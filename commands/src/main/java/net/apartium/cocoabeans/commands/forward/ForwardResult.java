@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of a forwarded dispatch, as reported by the central server
+ * @param outcome outcome of the dispatch
+ * @param error message of the error the dispatch failed with, null unless outcome is {@link BatchResult.Outcome#FAILED}
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record ForwardResult(BatchResult.Outcome outcome, @Nullable String error) {
+
+    /**
+     * Returns whether the dispatch was handled
+     * @return true if the outcome is {@link BatchResult.Outcome#HANDLED}
+     */
+    public boolean isHandled() {
+        return outcome == BatchResult.Outcome.HANDLED;
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.Sender;
+import net.apartium.cocoabeans.commands.exception.UnknownCommandResponse;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs dispatches forwarded by {@link CommandForwarder}s on the central server, and sends their messages and results back.
+ * Responses to a batch are sent as a single batch once all of its requests ran, messages sent later, for example by async sub commands, are sent right away.
+ * The command manager running forwarded dispatches should not forward them again.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class ForwardedCommandReceiver {
+
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
+    private final CommandManager commandManager;
+    private final CommandTransport transport;
+
+    private final ForwardingProtocol.BatchWriter responses = new ForwardingProtocol.BatchWriter(); // guarded by itself
+    private int processing; // guarded by responses
+
+    private volatile ForwardedSenderFactory senderFactory = ForwardedSender::new;
+
+    /**
+     * Constructs a new receiver running dispatches on the thread batches are received on
+     * @param commandManager command manager to run dispatches with
+     * @param transport transport to the forwarding servers
+     */
+    public ForwardedCommandReceiver(CommandManager commandManager, CommandTransport transport) {
+        this(commandManager, transport, Runnable::run);
+    }
+
+    /**
+     * Constructs a new receiver
+     * @param commandManager command manager to run dispatches with
+     * @param transport transport to the forwarding servers
+     * @param executor executor to run received batches on, such as the main thread of the server
+     */
+    public ForwardedCommandReceiver(CommandManager commandManager, CommandTransport transport, Executor executor) {
+        this.commandManager = Objects.requireNonNull(commandManager, "commandManager");
+        this.transport = Objects.requireNonNull(transport, "transport");
+        Objects.requireNonNull(executor, "executor");
+
+        transport.setReceiver(batch -> executor.execute(() -> process(batch)));
+    }
+
+    /**
+     * Sets the factory of senders forwarded dispatches run as, by default creating a {@link ForwardedSender}
+     * @param senderFactory sender factory
+     */
+    public void setSenderFactory(ForwardedSenderFactory senderFactory) {
+        this.senderFactory = Objects.requireNonNull(senderFactory, "senderFactory");
+    }
+
+    private void process(byte[] batch) {
+        synchronized (responses) {
+            processing++;
+        }
+
+        try {
+            ForwardingProtocol.read(batch, new ForwardingProtocol.FrameHandler() {
+                @Override
+                public void request(long id, String commandName, String[] args, @Nullable UUID uniqueId, String name) {
+                    run(id, commandName, args, uniqueId, name);
+                }
+
+                @Override
+                public void message(long id, String text) {
+                    // only sent to forwarders
+                }
+
+                @Override
+                public void result(long id, BatchResult.Outcome outcome, @Nullable String error) {
+                    // only sent to forwarders
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Received a malformed forwarding batch", e);
+        } finally {
+            synchronized (responses) {
+                processing--;
+            }
+
+            flush();
+        }
+    }
+
+    private void run(long id, String commandName, String[] args, @Nullable UUID uniqueId, String name) {
+        Sender sender = senderFactory.create(uniqueId, name, text -> output(id, text));
+
+        BatchResult.Outcome outcome;
+        String error = null;
+        try {
+            outcome = commandManager.handlePreauthorized(sender, commandName, args) ? BatchResult.Outcome.HANDLED : BatchResult.Outcome.UNHANDLED;
+        } catch (UnknownCommandResponse.UnknownCommandException e) {
+            outcome = BatchResult.Outcome.UNKNOWN_COMMAND;
+        } catch (Throwable e) {
+            outcome = BatchResult.Outcome.FAILED;
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }
+
+        synchronized (responses) {
+            responses.result(id, outcome, error);
+        }
+    }
+
+    private void output(long id, String text) {
+        boolean flush;
+        synchronized (responses) {
+            responses.message(id, text);
+            flush = processing == 0;
+        }
+
+        if (flush)
+            flush();
+    }
+
+    /**
+     * Sends pending responses
+     */
+    public void flush() {
+        byte[] batch;
+        synchronized (responses) {
+            if (responses.frames() == 0)
+                return;
+
+            batch = responses.drain();
+        }
+
+        try {
+            transport.send(batch);
+        } catch (Throwable e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to send forwarded command responses", e);
+        }
+    }
+
+}
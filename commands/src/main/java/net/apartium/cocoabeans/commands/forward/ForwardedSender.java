@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Default sender of forwarded dispatches, sending messages back to the original sender
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class ForwardedSender implements Sender {
+
+    private final @Nullable UUID uniqueId;
+    private final String name;
+    private final Consumer<String> output;
+
+    public ForwardedSender(@Nullable UUID uniqueId, String name, Consumer<String> output) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.output = output;
+    }
+
+    /**
+     * Returns the name of the original sender
+     * @return sender name
+     */
+    @Override
+    public String getSender() {
+        return name;
+    }
+
+    @Override
+    public void sendMessage(@NotNull String text) {
+        output.accept(text);
+    }
+
+    @Override
+    public void sendMessage(String... args) {
+        for (String text : args)
+            output.accept(text);
+    }
+
+    @Override
+    public @Nullable UUID getUniqueId() {
+        return uniqueId;
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Creates the sender a forwarded dispatch is run as on the central server.
+ * Requirements of the dispatch are not evaluated again for the created sender, whatever its type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@FunctionalInterface
+public interface ForwardedSenderFactory {
+
+    /**
+     * Creates a sender for a forwarded dispatch
+     * @param uniqueId unique id of the original sender, or null if it has none
+     * @param name name of the original sender
+     * @param output sends a message back to the original sender, thread safe
+     * @return sender to run the dispatch as
+     */
+    Sender create(@Nullable UUID uniqueId, String name, Consumer<String> output);
+
+}
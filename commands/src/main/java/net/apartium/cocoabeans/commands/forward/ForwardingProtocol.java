@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Wire format of forwarding batches: a version byte followed by frames until the end of the batch.
+ * Frames start with their type and request id, requests carry the label, args and original sender, messages a text and results an outcome and optional error.
+ */
+/* package-private */ final class ForwardingProtocol {
+
+    static final int VERSION = 1;
+
+    static final int REQUEST = 0;
+    static final int MESSAGE = 1;
+    static final int RESULT = 2;
+
+    private static final BatchResult.Outcome[] OUTCOMES = BatchResult.Outcome.values();
+
+    private ForwardingProtocol() {}
+
+    /**
+     * Handles frames read from a batch
+     */
+    interface FrameHandler {
+
+        void request(long id, String commandName, String[] args, @Nullable UUID uniqueId, String name);
+
+        void message(long id, String text);
+
+        void result(long id, BatchResult.Outcome outcome, @Nullable String error);
+
+    }
+
+    static void read(byte[] batch, FrameHandler handler) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch));
+        int version = in.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("Unsupported forwarding batch version: " + version);
+
+        int type;
+        while ((type = in.read()) != -1) {
+            long id = in.readLong();
+            switch (type) {
+                case REQUEST -> {
+                    String commandName = readString(in);
+                    String[] args = new String[in.readInt()];
+                    for (int i = 0; i < args.length; i++)
+                        args[i] = readString(in);
+
+                    UUID uniqueId = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+                    handler.request(id, commandName, args, uniqueId, readString(in));
+                }
+                case MESSAGE -> handler.message(id, readString(in));
+                case RESULT -> {
+                    int outcome = in.readUnsignedByte();
+                    if (outcome >= OUTCOMES.length)
+                        throw new IOException("Unknown outcome: " + outcome);
+
+                    handler.result(id, OUTCOMES[outcome], in.readBoolean() ? readString(in) : null);
+                }
+                default -> throw new IOException("Unknown frame type: " + type);
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available())
+            throw new IOException("Malformed string length: " + length);
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Accumulates frames of a batch, not thread safe
+     */
+    static final class BatchWriter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int frames;
+
+        BatchWriter() {
+            bytes.write(VERSION);
+        }
+
+        void request(long id, String commandName, String[] args, @Nullable UUID uniqueId, String name) {
+            try {
+                out.writeByte(REQUEST);
+                out.writeLong(id);
+                writeString(commandName);
+                out.writeInt(args.length);
+                for (String arg : args)
+                    writeString(arg);
+
+                out.writeBoolean(uniqueId != null);
+                if (uniqueId != null) {
+                    out.writeLong(uniqueId.getMostSignificantBits());
+                    out.writeLong(uniqueId.getLeastSignificantBits());
+                }
+
+                writeString(name);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // never thrown by byte array streams
+            }
+
+            frames++;
+        }
+
+        void message(long id, String text) {
+            try {
+                out.writeByte(MESSAGE);
+                out.writeLong(id);
+                writeString(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            frames++;
+        }
+
+        void result(long id, BatchResult.Outcome outcome, @Nullable String error) {
+            try {
+                out.writeByte(RESULT);
+                out.writeLong(id);
+                out.writeByte(outcome.ordinal());
+                out.writeBoolean(error != null);
+                if (error != null)
+                    writeString(error);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            frames++;
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+
+        int frames() {
+            return frames;
+        }
+
+        /**
+         * Returns the batch and starts a new one
+         * @return batch bytes
+         */
+        byte[] drain() {
+            byte[] batch = bytes.toByteArray();
+            bytes.reset();
+            bytes.write(VERSION);
+            frames = 0;
+            return batch;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.forward;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In memory transport connecting two ends within the same jvm, mostly useful for tests
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class LoopbackTransport implements CommandTransport {
+
+    private final Executor executor;
+    private final LongAdder sent = new LongAdder();
+
+    private volatile @Nullable LoopbackTransport other;
+    private volatile @Nullable Consumer<byte[]> receiver;
+
+    /**
+     * Constructs a new end delivering batches on the sending thread
+     */
+    public LoopbackTransport() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Constructs a new end
+     * @param executor executor delivering batches sent to this end, should run tasks one at a time in order
+     */
+    public LoopbackTransport(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Creates two connected ends delivering batches on the sending thread
+     * @return array of the two ends
+     */
+    public static LoopbackTransport[] pair() {
+        LoopbackTransport first = new LoopbackTransport();
+        LoopbackTransport second = new LoopbackTransport();
+        first.connect(second);
+        return new LoopbackTransport[] {first, second};
+    }
+
+    /**
+     * Connects this end with another end, in both directions
+     * @param other end to connect to
+     */
+    public void connect(LoopbackTransport other) {
+        this.other = other;
+        other.other = this;
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        LoopbackTransport other = this.other;
+        if (other == null)
+            throw new IllegalStateException("Transport is not connected");
+
+        sent.increment();
+        other.executor.execute(() -> {
+            Consumer<byte[]> receiver = other.receiver;
+            if (receiver != null)
+                receiver.accept(batch);
+        });
+    }
+
+    @Override
+    public void setReceiver(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * Returns the amount of batches sent from this end
+     * @return sent batches
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+}
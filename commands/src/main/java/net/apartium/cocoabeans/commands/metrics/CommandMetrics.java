@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives timings and outcomes of dispatches and tab completions.
+ * Called on the dispatching thread after each call, implementations should be cheap and thread safe.
+ * Install on a command manager with {@link net.apartium.cocoabeans.commands.CommandManager#setMetrics(CommandMetrics)}, nothing is measured while none is installed.
+ * @see HistogramCommandMetrics
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public interface CommandMetrics {
+
+    /**
+     * Label dispatches of unknown commands are reported under, so typos and spam don't add a label each
+     */
+    String UNKNOWN_COMMAND = "<unknown>";
+
+    /**
+     * Called after a dispatch.
+     * Parse time excludes requirement evaluation, handler time only includes running sub command bodies, so phases add up to at most the total
+     * @param commandName label the command was invoked with, or {@link #UNKNOWN_COMMAND} if there is no such command
+     * @param subCommand name of the sub command which handled the dispatch, or null if none did
+     * @param outcome outcome of the dispatch
+     * @param parseNanos time spent matching and parsing args
+     * @param requirementNanos time spent evaluating requirements and argument requirements
+     * @param handlerNanos time spent in sub command bodies
+     * @param totalNanos total time of the dispatch
+     */
+    void onDispatch(String commandName, @Nullable String subCommand, CommandOutcome outcome, long parseNanos, long requirementNanos, long handlerNanos, long totalNanos);
+
+    /**
+     * Called after a tab completion
+     * @param commandName label the command was invoked with
+     * @param nanos time spent completing
+     */
+    default void onTabComplete(String commandName, long nanos) {}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Outcome of a dispatch reported to {@link CommandMetrics}
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public enum CommandOutcome {
+
+    /**
+     * A sub command or fallback handled the dispatch
+     */
+    HANDLED,
+
+    /**
+     * The command exists but nothing handled the dispatch
+     */
+    UNHANDLED,
+
+    /**
+     * The args didn't match any sub command
+     */
+    INVALID_USAGE,
+
+    /**
+     * The sender didn't meet the requirements of a matching sub command or of its arguments
+     */
+    UNMET_REQUIREMENT,
+
+    /**
+     * No command is registered for the label
+     */
+    UNKNOWN_COMMAND,
+
+    /**
+     * A sub command threw
+     */
+    ERROR
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies and outcome counts of a command or one of its sub commands, collected by {@link HistogramCommandMetrics}
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public final class CommandStats {
+
+    private static final CommandOutcome[] OUTCOMES = CommandOutcome.values();
+
+    private final String commandName;
+    private final @Nullable String subCommand;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+    private final AtomicLongArray outcomes = new AtomicLongArray(OUTCOMES.length);
+
+    /* package-private */ CommandStats(String commandName, @Nullable String subCommand) {
+        this.commandName = commandName;
+        this.subCommand = subCommand;
+
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new LatencyHistogram();
+    }
+
+    /**
+     * Returns the label of the command
+     * @return command label
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Returns the name of the sub command
+     * @return sub command name, or null for dispatches no sub command handled and for tab completions
+     */
+    public @Nullable String getSubCommand() {
+        return subCommand;
+    }
+
+    /**
+     * Returns the latencies of a phase
+     * @param phase phase to get
+     * @return histogram of the phase in nanos
+     */
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns the amount of dispatches with given outcome
+     * @param outcome outcome to count
+     * @return amount of dispatches
+     */
+    public long getCount(CommandOutcome outcome) {
+        return outcomes.get(outcome.ordinal());
+    }
+
+    /* package-private */ void record(CommandOutcome outcome, long parseNanos, long requirementNanos, long handlerNanos, long totalNanos) {
+        outcomes.incrementAndGet(outcome.ordinal());
+        histograms[Phase.PARSE.ordinal()].record(parseNanos);
+        histograms[Phase.REQUIREMENTS.ordinal()].record(requirementNanos);
+        histograms[Phase.HANDLER.ordinal()].record(handlerNanos);
+        histograms[Phase.DISPATCH.ordinal()].record(totalNanos);
+    }
+
+    /* package-private */ void recordTabComplete(long nanos) {
+        histograms[Phase.TAB_COMPLETE.ordinal()].record(nanos);
+    }
+
+    @Override
+    public String toString() {
+        LatencyHistogram dispatch = getHistogram(Phase.DISPATCH);
+        StringBuilder builder = new StringBuilder("/").append(commandName);
+        if (subCommand != null)
+            builder.append(" (").append(subCommand).append(')');
+
+        builder.append(": ").append(dispatch.getCount()).append(" dispatches, p50=").append(dispatch.getValueAtPercentile(50))
+                .append("ns p99=").append(dispatch.getValueAtPercentile(99)).append("ns max=").append(dispatch.getMax()).append("ns");
+
+        for (CommandOutcome outcome : OUTCOMES) {
+            long count = getCount(outcome);
+            if (count != 0)
+                builder.append(", ").append(outcome.name().toLowerCase()).append('=').append(count);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Measured phase of a call
+     */
+    public enum Phase {
+
+        /**
+         * Matching and parsing args, excluding requirements
+         */
+        PARSE,
+
+        /**
+         * Evaluating requirements and argument requirements
+         */
+        REQUIREMENTS,
+
+        /**
+         * Running the sub command body
+         */
+        HANDLER,
+
+        /**
+         * Whole dispatch
+         */
+        DISPATCH,
+
+        /**
+         * Whole tab completion
+         */
+        TAB_COMPLETE
+
+    }
+
+}
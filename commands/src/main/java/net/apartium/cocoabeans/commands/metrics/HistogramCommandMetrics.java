@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link CommandStats} per command label and sub command.
+ * Lookups of known commands and recording don't allocate, memory grows with the amount of distinct labels and sub commands.
+ * Unknown commands share a single {@link CommandMetrics#UNKNOWN_COMMAND} entry.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class HistogramCommandMetrics implements CommandMetrics {
+
+    private final Map<String, CommandEntry> commands = new ConcurrentHashMap<>();
+
+    @Override
+    public void onDispatch(String commandName, @Nullable String subCommand, CommandOutcome outcome, long parseNanos, long requirementNanos, long handlerNanos, long totalNanos) {
+        stats(commandName, subCommand).record(outcome, parseNanos, requirementNanos, handlerNanos, totalNanos);
+    }
+
+    @Override
+    public void onTabComplete(String commandName, long nanos) {
+        stats(commandName, null).recordTabComplete(nanos);
+    }
+
+    /**
+     * Returns the stats of a command or sub command
+     * @param commandName label of the command
+     * @param subCommand name of the sub command, or null for calls not handled by a sub command
+     * @return stats, or null if nothing was recorded for them
+     */
+    public @Nullable CommandStats get(String commandName, @Nullable String subCommand) {
+        CommandEntry entry = commands.get(commandName);
+        if (entry == null)
+            return null;
+
+        return subCommand == null ? entry.withoutSubCommand : entry.subCommands.get(subCommand);
+    }
+
+    /**
+     * Returns all collected stats
+     * @return snapshot of the stats of each command and sub command
+     */
+    public List<CommandStats> getStats() {
+        List<CommandStats> result = new ArrayList<>();
+        for (CommandEntry entry : commands.values()) {
+            result.add(entry.withoutSubCommand);
+            result.addAll(entry.subCommands.values());
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets all collected stats
+     */
+    public void reset() {
+        commands.clear();
+    }
+
+    private CommandStats stats(String commandName, @Nullable String subCommand) {
+        CommandEntry entry = commands.get(commandName);
+        if (entry == null)
+            entry = commands.computeIfAbsent(commandName, CommandEntry::new);
+
+        if (subCommand == null)
+            return entry.withoutSubCommand;
+
+        CommandStats stats = entry.subCommands.get(subCommand);
+        if (stats == null)
+            stats = entry.subCommands.computeIfAbsent(subCommand, entry::create);
+
+        return stats;
+    }
+
+    private static class CommandEntry {
+
+        private final String commandName;
+        private final CommandStats withoutSubCommand;
+        private final Map<String, CommandStats> subCommands = new ConcurrentHashMap<>();
+
+        private CommandEntry(String commandName) {
+            this.commandName = commandName;
+            this.withoutSubCommand = new CommandStats(commandName, null);
+        }
+
+        private CommandStats create(String subCommand) {
+            return new CommandStats(commandName, subCommand);
+        }
+
+    }
+
+}
@@ -39,8 +39,7 @@ public class DoubleParser extends ArgumentParser<Double> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        OptionalDouble optionalDouble = StringHelpers.parseDouble(args.get(startIndex));
-        if (optionalDouble.isEmpty()) return OptionalInt.empty();
+        if (!StringHelpers.isDouble(args.get(startIndex))) return OptionalInt.empty();
         return OptionalInt.of(startIndex + 1);
     }
 
@@ -49,34 +48,9 @@ public class DoubleParser extends ArgumentParser<Double> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        boolean onlyZero = true;
-        boolean hasDot = false;
-        char[] charArray = args.get(startIndex).toCharArray();
-        for (int i = 0; i < charArray.length; i++) {
-            if (i == 0 && (charArray[0] == '-' || charArray[0] == '+'))
-                continue;
-
-            if (charArray[i] >= '0' && charArray[i] <= '9') {
-                if (charArray[i] != '0') onlyZero = false;
-                continue;
-            }
-
-            if (charArray[i] == '.' && !hasDot) {
-                hasDot = true;
-                onlyZero = false;
-                continue;
-            }
-
+        Set<String> result = NumericCompletions.decimals(args.get(startIndex), true);
+        if (result.isEmpty())
             return Optional.empty();
-        }
-
-        Set<String> result = new HashSet<>();
-        for (int i = args.get(startIndex).isEmpty() || onlyZero ? 1 : 0;
-             i < 10;
-             i++
-        ) result.add(args.get(startIndex) + i);
-
-        if (!hasDot) result.add(args.get(startIndex) + ".");
 
         return Optional.of(new TabCompletionResult(
                 result,
@@ -84,4 +58,3 @@ public class DoubleParser extends ArgumentParser<Double> {
         ));
     }
 }
-
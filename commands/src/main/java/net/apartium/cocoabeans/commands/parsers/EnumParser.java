@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.parsers;
+
+import net.apartium.cocoabeans.collect.PerfectHashIndex;
+import net.apartium.cocoabeans.collect.PrefixIndex;
+import net.apartium.cocoabeans.commands.CommandProcessingContext;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.*;
+
+/**
+ * Parses constants of an enum by name, ignoring case, with optional aliases.
+ * Lookup tables are computed once on construction, so parsing does a single hash probe and completion a binary search.
+ * @param <E> enum type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class EnumParser<E extends Enum<E>> extends ArgumentParser<E> {
+
+    private final PerfectHashIndex<E> lookup;
+    private final PrefixIndex<E> completions;
+    private final Set<String> allCompletions;
+
+    /**
+     * Constructs a new parser accepting the names of all constants of given enum
+     * @param keyword keyword of the parser
+     * @param clazz enum class
+     * @param priority priority of the parser
+     */
+    public EnumParser(String keyword, Class<E> clazz, int priority) {
+        this(keyword, clazz, priority, Map.of());
+    }
+
+    /**
+     * Constructs a new parser accepting the names of all constants of given enum and given aliases
+     * @param keyword keyword of the parser
+     * @param clazz enum class
+     * @param priority priority of the parser
+     * @param aliases additional names mapped to the constants they stand for
+     * @throws IllegalArgumentException if two names or aliases are equal ignoring case
+     */
+    public EnumParser(String keyword, Class<E> clazz, int priority, Map<String, E> aliases) {
+        super(keyword, clazz, priority);
+
+        Map<String, E> names = new HashMap<>();
+        for (E constant : clazz.getEnumConstants())
+            names.put(constant.name(), constant);
+
+        for (Map.Entry<String, E> alias : aliases.entrySet()) {
+            if (names.putIfAbsent(alias.getKey(), alias.getValue()) != null)
+                throw new IllegalArgumentException("Alias " + alias.getKey() + " is already a name of " + clazz.getName());
+        }
+
+        this.lookup = PerfectHashIndex.of(names);
+        this.completions = PrefixIndex.of(names);
+        this.allCompletions = Collections.unmodifiableSet(new LinkedHashSet<>(completions.keysStartingWith("")));
+    }
+
+    @Override
+    public Optional<ParseResult<E>> parse(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int startIndex = processingContext.index();
+
+        E result = lookup.get(args.get(startIndex));
+        if (result == null)
+            return Optional.empty();
+
+        return Optional.of(new ParseResult<>(
+                result,
+                startIndex + 1
+        ));
+    }
+
+    @Override
+    public OptionalInt tryParse(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int startIndex = processingContext.index();
+
+        if (!lookup.containsKey(args.get(startIndex)))
+            return OptionalInt.empty();
+
+        return OptionalInt.of(startIndex + 1);
+    }
+
+    @Override
+    public Optional<TabCompletionResult> tabCompletion(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int startIndex = processingContext.index();
+        String prefix = args.get(startIndex);
+
+        return Optional.of(new TabCompletionResult(
+                prefix.isEmpty() ? allCompletions : new LinkedHashSet<>(completions.keysStartingWith(prefix)),
+                startIndex + 1
+        ));
+    }
+
+}
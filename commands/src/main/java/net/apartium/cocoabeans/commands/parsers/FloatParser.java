@@ -40,8 +40,7 @@ public class FloatParser extends ArgumentParser<Float> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        OptionalFloat optionalFloat = StringHelpers.parseFloat(args.get(startIndex));
-        if (optionalFloat.isEmpty()) return OptionalInt.empty();
+        if (!StringHelpers.isFloat(args.get(startIndex))) return OptionalInt.empty();
         return OptionalInt.of(startIndex + 1);
     }
 
@@ -50,34 +49,9 @@ public class FloatParser extends ArgumentParser<Float> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        boolean onlyZero = true;
-        boolean hasDot = false;
-        char[] charArray = args.get(startIndex).toCharArray();
-        for (int i = 0; i < charArray.length; i++) {
-            if (i == 0 && (charArray[0] == '-' || charArray[0] == '+'))
-                continue;
-
-            if (charArray[i] >= '0' && charArray[i] <= '9') {
-                if (charArray[i] != '0') onlyZero = false;
-                continue;
-            }
-
-            if (charArray[i] == '.' && !hasDot) {
-                hasDot = true;
-                onlyZero = false;
-                continue;
-            }
-
+        Set<String> result = NumericCompletions.decimals(args.get(startIndex), true);
+        if (result.isEmpty())
             return Optional.empty();
-        }
-
-        Set<String> result = new HashSet<>();
-        for (int i = args.get(startIndex).isEmpty() || onlyZero ? 1 : 0;
-             i < 10;
-             i++
-        ) result.add(args.get(startIndex) + i);
-
-        if (!hasDot) result.add(args.get(startIndex) + ".");
 
         return Optional.of(new TabCompletionResult(
                 result,
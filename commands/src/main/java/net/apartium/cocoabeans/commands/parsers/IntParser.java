@@ -39,8 +39,7 @@ public class IntParser extends ArgumentParser<Integer> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        OptionalInt optionalInt = StringHelpers.parseInteger(args.get(startIndex));
-        if (optionalInt.isEmpty()) return OptionalInt.empty();
+        if (!StringHelpers.isInteger(args.get(startIndex))) return OptionalInt.empty();
         return OptionalInt.of(startIndex + 1);
     }
 
@@ -49,32 +48,10 @@ public class IntParser extends ArgumentParser<Integer> {
         List<String> args = processingContext.args();
         int index = processingContext.index();
 
-        if (args.get(index).isEmpty())
-            return Optional.of(new TabCompletionResult(
-                    Set.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "-"),
-                    index + 1
-            ));
-
-        OptionalInt optionalInt = StringHelpers.parseInteger(args.get(index));
-        if (optionalInt.isEmpty())
+        Set<String> result = NumericCompletions.integers(args.get(index), Integer.MIN_VALUE, Integer.MAX_VALUE, 1);
+        if (result.isEmpty())
             return Optional.empty();
 
-        int asInt = optionalInt.getAsInt();
-        int asIntByTen = asInt * 10;
-
-        boolean isPositive = asInt >= 0;
-
-        if (isPositive ? (asInt > asIntByTen) : (asInt < asIntByTen))
-            return Optional.empty();
-
-        Set<String> result = new HashSet<>();
-        for (int i = asInt == 0 ? 1 : 0; i < 10; i++) {
-            int num = (asIntByTen + i);
-            if (isPositive ? (asInt > num) : (asInt < num))
-                break;
-            result.add(args.get(index) + i);
-        }
-
         return Optional.of(new TabCompletionResult(
                 result,
                 index + 1
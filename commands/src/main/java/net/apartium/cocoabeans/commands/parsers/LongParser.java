@@ -39,8 +39,7 @@ public class LongParser extends ArgumentParser<Long> {
         List<String> args = processingContext.args();
         int startIndex = processingContext.index();
 
-        OptionalLong optionalLong = StringHelpers.parseLong(args.get(startIndex));
-        if (optionalLong.isEmpty()) return OptionalInt.empty();
+        if (!StringHelpers.isLong(args.get(startIndex))) return OptionalInt.empty();
         return OptionalInt.of(startIndex + 1);
     }
 
@@ -49,32 +48,10 @@ public class LongParser extends ArgumentParser<Long> {
         List<String> args = processingContext.args();
         int index = processingContext.index();
 
-        if (args.get(index).isEmpty())
-            return Optional.of(new TabCompletionResult(
-                    Set.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "-"),
-                    index + 1
-            ));
-
-        OptionalLong optionalLong = StringHelpers.parseLong(args.get(index));
-        if (optionalLong.isEmpty())
+        Set<String> result = NumericCompletions.integers(args.get(index), Long.MIN_VALUE, Long.MAX_VALUE, 1);
+        if (result.isEmpty())
             return Optional.empty();
 
-        long asLong = optionalLong.getAsLong();
-        long asLongByTen = asLong * 10;
-
-        boolean isPositive = asLong >= 0;
-
-        if (isPositive ? (asLong > asLongByTen) : (asLong < asLongByTen))
-            return Optional.empty();
-
-        Set<String> result = new HashSet<>();
-        for (int i = asLong == 0 ? 1 : 0; i < 10; i++) {
-            long num = (asLongByTen + i);
-            if (isPositive ? (asLong > num) : (asLong < num))
-                break;
-            result.add(args.get(index) + i);
-        }
-
         return Optional.of(new TabCompletionResult(
                 result,
                 index + 1
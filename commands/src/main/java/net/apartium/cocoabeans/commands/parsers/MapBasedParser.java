@@ -1,40 +1,108 @@
 package net.apartium.cocoabeans.commands.parsers;
 
+import net.apartium.cocoabeans.collect.PrefixIndex;
 import net.apartium.cocoabeans.commands.CommandProcessingContext;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.*;
-import java.util.function.Supplier;
-
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parser resolving arguments by looking them up in a map.
+ * Keys may consist of multiple words separated by a single space, such as "spawn lobby".
+ * Lookups are served from an index which is rebuilt lazily whenever {@link #getMap()} returns a different map instance or its size changes,
+ * implementations mutating their map in place without changing its size should call {@link #invalidateIndex()}.
+ * Implementations returning a new map on every call should override {@link #isIndexed()}, as an index would never be reused.
+ * @param <T> result type
+ */
 public abstract class MapBasedParser<T> extends ArgumentParser<T> {
 
+    private static final Comparator<String> COMPLETION_ORDER = Comparator.comparing((String key) -> PrefixIndex.fold(key)).thenComparing(Comparator.naturalOrder());
+
+    private volatile MapIndex<T> index;
+    private final LongAdder indexBuilds = new LongAdder();
+
     public abstract Map<String, T> getMap();
 
     public MapBasedParser(String keyword, Class<T> clazz, int priority) {
         super(keyword, clazz, priority);
     }
 
+    /**
+     * Discards the current index, so it will be rebuilt from {@link #getMap()} on next use
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    protected void invalidateIndex() {
+        this.index = null;
+    }
+
+    /**
+     * Returns whether lookups should be served from an index.
+     * Building an index costs more than a single lookup, so it only pays off if {@link #getMap()} returns the same map for many lookups.
+     * Unindexed parsers look up keys directly and scan the map for tab completions.
+     * @return true if lookups should be indexed, true by default
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    protected boolean isIndexed() {
+        return true;
+    }
+
+    /**
+     * Returns the amount of times the lookup index has been built
+     * @return amount of index builds
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public long getIndexBuilds() {
+        return indexBuilds.sum();
+    }
+
+    private MapIndex<T> getIndex(Map<String, T> map) {
+        MapIndex<T> current = this.index;
+        if (current != null && current.map == map && current.size == map.size())
+            return current;
+
+        indexBuilds.increment();
+        current = new MapIndex<>(map);
+        this.index = current;
+        return current;
+    }
+
     @Override
     public Optional<ParseResult<T>> parse(CommandProcessingContext commandProcessingContext) {
         List<String> args = commandProcessingContext.args();
         int index = commandProcessingContext.index();
+        if (index >= args.size())
+            return Optional.empty();
 
         Map<String, T> map = getMap();
-        String s = "";
+        if (!isIndexed()) {
+            StringBuilder key = new StringBuilder();
+            for (int i = index; i < args.size(); i++) {
+                if (i != index)
+                    key.append(' ');
 
-        for (int i = index; i < args.size(); i++) {
-            if (i != index)
-                s += " ";
+                T value = map.get(key.append(args.get(i)).toString());
+                if (value != null)
+                    return Optional.of(new ParseResult<>(value, i + 1));
+            }
+
+            return Optional.empty();
+        }
 
-            s += args.get(index);
+        MapIndex<T> mapIndex = getIndex(map);
 
-            T value = map.get(s);
-            if (value == null)
-                continue;
+        T value = mapIndex.map.get(args.get(index));
+        if (value != null)
+            return Optional.of(new ParseResult<>(value, index + 1));
 
-            return Optional.of(new ParseResult<>(
-                    value,
-                    i + 1
-            ));
+        TokenNode<T> node = mapIndex.multiWordKeys();
+        for (int i = index; i < args.size(); i++) {
+            node = node.children.get(args.get(i));
+            if (node == null)
+                return Optional.empty();
+
+            if (node.value != null)
+                return Optional.of(new ParseResult<>(node.value, i + 1));
         }
 
         return Optional.empty();
@@ -44,18 +112,36 @@ public abstract class MapBasedParser<T> extends ArgumentParser<T> {
     public OptionalInt tryParse(CommandProcessingContext commandProcessingContext) {
         List<String> args = commandProcessingContext.args();
         int index = commandProcessingContext.index();
+        if (index >= args.size())
+            return OptionalInt.empty();
 
         Map<String, T> map = getMap();
-        String s = "";
-        for (int i = index; i < args.size(); i++) {
-            if (i != index)
-                s += " ";
-            s += args.get(index);
+        if (!isIndexed()) {
+            StringBuilder key = new StringBuilder();
+            for (int i = index; i < args.size(); i++) {
+                if (i != index)
+                    key.append(' ');
+
+                if (map.containsKey(key.append(args.get(i)).toString()))
+                    return OptionalInt.of(i + 1);
+            }
+
+            return OptionalInt.empty();
+        }
 
-            if (!map.containsKey(s))
-                continue;
+        MapIndex<T> mapIndex = getIndex(map);
 
-            return OptionalInt.of(i + 1);
+        if (mapIndex.map.containsKey(args.get(index)))
+            return OptionalInt.of(index + 1);
+
+        TokenNode<T> node = mapIndex.multiWordKeys();
+        for (int i = index; i < args.size(); i++) {
+            node = node.children.get(args.get(i));
+            if (node == null)
+                return OptionalInt.empty();
+
+            if (node.terminal)
+                return OptionalInt.of(i + 1);
         }
 
         return OptionalInt.empty();
@@ -66,17 +152,23 @@ public abstract class MapBasedParser<T> extends ArgumentParser<T> {
         List<String> args = commandProcessingContext.args();
         int index = commandProcessingContext.index();
 
-        Set<String> keys = getMap().keySet();
-
-        Set<String> result = new HashSet<>();
-
         String s = String.join(" ", args.subList(index, args.size()));
 
-        for (String key : keys) {
-            if (!key.toLowerCase().startsWith(s.toLowerCase()))
-                continue;
-
-            result.add(key);
+        Map<String, T> map = getMap();
+        Set<String> result;
+        if (isIndexed()) {
+            result = new LinkedHashSet<>(getIndex(map).completions().keysStartingWith(s));
+        } else {
+            // same order as the index, only matching keys are sorted
+            String prefix = PrefixIndex.fold(s);
+            List<String> keys = new ArrayList<>();
+            for (String key : map.keySet()) {
+                if (PrefixIndex.fold(key).startsWith(prefix))
+                    keys.add(key);
+            }
+
+            keys.sort(COMPLETION_ORDER);
+            result = new LinkedHashSet<>(keys);
         }
 
         if (result.isEmpty())
@@ -89,4 +181,66 @@ public abstract class MapBasedParser<T> extends ArgumentParser<T> {
 
     }
 
+    /**
+     * Snapshot of the indexed map, its parts are built lazily as not every parser is used for both parsing and completion
+     */
+    private static final class MapIndex<T> {
+
+        private final Map<String, T> map;
+        private final int size;
+
+        private volatile TokenNode<T> multiWordKeys;
+        private volatile PrefixIndex<T> completions;
+
+        private MapIndex(Map<String, T> map) {
+            this.map = map;
+            this.size = map.size();
+        }
+
+        /**
+         * Token trie of keys consisting of more than a single word, single word keys are looked up in the map directly
+         */
+        private TokenNode<T> multiWordKeys() {
+            TokenNode<T> root = this.multiWordKeys;
+            if (root != null)
+                return root;
+
+            root = new TokenNode<>();
+            for (Map.Entry<String, T> entry : map.entrySet()) {
+                String key = entry.getKey();
+                if (key.indexOf(' ') < 0)
+                    continue;
+
+                TokenNode<T> node = root;
+                for (String token : key.split(" ", -1))
+                    node = node.children.computeIfAbsent(token, k -> new TokenNode<>());
+
+                node.terminal = true;
+                node.value = entry.getValue();
+            }
+
+            this.multiWordKeys = root;
+            return root;
+        }
+
+        private PrefixIndex<T> completions() {
+            PrefixIndex<T> completions = this.completions;
+            if (completions != null)
+                return completions;
+
+            completions = PrefixIndex.of(map);
+            this.completions = completions;
+            return completions;
+        }
+
+    }
+
+    private static final class TokenNode<T> {
+
+        private final Map<String, TokenNode<T>> children = new HashMap<>();
+        private boolean terminal;
+        private T value;
+
+    }
+
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.parsers;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tab completion of numeric arguments.
+ * Completions are the next character expansions of what the user typed so far, computed arithmetically,
+ * so the amount of work and results is bounded regardless of the size of the range.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class NumericCompletions {
+
+    /**
+     * Completes an integer argument. A digit expansion is offered only if some value starting with it lies in the range and on a step.
+     * Leading zeros typed by the user are preserved.
+     * @param typed what the user typed so far
+     * @param min min value, inclusive
+     * @param max max value, inclusive
+     * @param step distance between valid values, starting from min
+     * @return up to 11 completions, empty if typed can't lead to a valid value
+     */
+    public static Set<String> integers(String typed, long min, long max, long step) {
+        if (min > max || step <= 0)
+            return Set.of();
+
+        int i = 0;
+        boolean negative = false;
+        if (!typed.isEmpty() && (typed.charAt(0) == '-' || typed.charAt(0) == '+')) {
+            negative = typed.charAt(0) == '-';
+            i++;
+        }
+
+        boolean hasDigits = i < typed.length();
+
+        long magnitude = 0;
+        for (; i < typed.length(); i++) {
+            char c = typed.charAt(i);
+            if (c < '0' || c > '9' || magnitude > (Long.MAX_VALUE - (c - '0')) / 10)
+                return Set.of();
+
+            magnitude = magnitude * 10 + (c - '0');
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        if (typed.isEmpty() && min < 0)
+            result.add("-");
+
+        for (int digit = 0; digit < 10; digit++) {
+            if (digit == 0 && magnitude == 0 && (hasDigits || negative))
+                continue; // zero after zeros or a minus sign adds nothing
+
+            if (magnitude > (Long.MAX_VALUE - digit) / 10)
+                break;
+
+            long next = magnitude * 10 + digit;
+            if (next == 0 ? hasValue(0, 0, min, max, step) : canReach(next, negative, min, max, step))
+                result.add(typed + digit);
+        }
+
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Completes a decimal argument in the format of an optional sign, digits and an optional fraction.
+     * @param typed what the user typed so far
+     * @param allowNegative whether to offer a minus sign when nothing was typed
+     * @return up to 12 completions, empty if typed is not a decimal prefix
+     */
+    public static Set<String> decimals(String typed, boolean allowNegative) {
+        int i = 0;
+        if (!typed.isEmpty() && (typed.charAt(0) == '-' || typed.charAt(0) == '+'))
+            i++;
+
+        boolean hasDigits = false;
+        boolean onlyZeros = true;
+        boolean hasDot = false;
+        for (; i < typed.length(); i++) {
+            char c = typed.charAt(i);
+            if (c == '.') {
+                if (hasDot)
+                    return Set.of();
+
+                hasDot = true;
+                continue;
+            }
+
+            if (c < '0' || c > '9')
+                return Set.of();
+
+            hasDigits = true;
+            if (c != '0')
+                onlyZeros = false;
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        if (typed.isEmpty() && allowNegative)
+            result.add("-");
+
+        // zero after integer zeros adds nothing
+        for (int digit = hasDigits && onlyZeros && !hasDot ? 1 : 0; digit < 10; digit++)
+            result.add(typed + digit);
+
+        if (!hasDot)
+            result.add(typed + ".");
+
+        return Collections.unmodifiableSet(result);
+    }
+
+    // checks whether any value written as given magnitude followed by zero or more digits is valid
+    private static boolean canReach(long magnitude, boolean negative, long min, long max, long step) {
+        long low = magnitude;
+        long high = magnitude;
+        while (true) {
+            if (negative ? hasValue(-high, -low, min, max, step) : hasValue(low, high, min, max, step))
+                return true;
+
+            if (low > Long.MAX_VALUE / 10)
+                return false;
+
+            long nextLow = low * 10;
+            long nextHigh = high > (Long.MAX_VALUE - 9) / 10 ? Long.MAX_VALUE : high * 10 + 9;
+
+            // past the range, longer numbers will be further away
+            if (negative ? -nextLow < min : nextLow > max)
+                return false;
+
+            low = nextLow;
+            high = nextHigh;
+        }
+    }
+
+    // checks whether [low, high] contains a value of min + n * step which is not larger than max
+    private static boolean hasValue(long low, long high, long min, long max, long step) {
+        long from = Math.max(low, min);
+        long to = Math.min(high, max);
+        if (from > to)
+            return false;
+
+        // differences of ordered longs always fit in an unsigned long
+        long remainder = Long.remainderUnsigned(from - min, step);
+        if (remainder == 0)
+            return true;
+
+        return Long.compareUnsigned(step - remainder, to - from) <= 0;
+    }
+
+}
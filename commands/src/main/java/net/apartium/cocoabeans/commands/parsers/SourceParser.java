@@ -1,5 +1,7 @@
 package net.apartium.cocoabeans.commands.parsers;
 
+import org.jetbrains.annotations.ApiStatus;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -35,4 +37,19 @@ public @interface SourceParser {
      */
     long resultMaxAgeInMills() default 0;
 
+    /**
+     * Max random amount of time in milliseconds added to the max age of each result
+     * Spreads refreshes of sources sharing the same max age, only applies when max age is positive
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    long jitterInMills() default 0;
+
+    /**
+     * When set, an expired result will keep being served while it is refreshed in the background
+     * Only a single refresh runs at a time, only the first call waits for the source
+     * Refreshes run on {@link net.apartium.cocoabeans.commands.CommandManager#getSourceParserExecutor()}, only applies when max age is positive
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    boolean refreshAhead() default false;
+
 }
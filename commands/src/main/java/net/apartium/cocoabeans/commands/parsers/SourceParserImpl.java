@@ -1,29 +1,73 @@
 package net.apartium.cocoabeans.commands.parsers;
 
 import net.apartium.cocoabeans.commands.CommandNode;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.lang.invoke.MethodHandle;
-import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SourceParserImpl<T> extends MapBasedParser<T> {
 
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
     private final CommandNode node;
 
     private final MethodHandle handle;
     private final long resultMaxAgeInMills;
+    private final long resultMaxAgeInNanos;
+    private final long jitterInNanos;
+
+    private final boolean refreshAhead;
+    private final Executor executor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
-    private Instant nextCall = Instant.now();
-    private Map<String, T> result = null;
+    private final Object lock = new Object();
+    private volatile Snapshot<T> snapshot = null;
 
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final LongAdder totalRefreshNanos = new LongAdder();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+    private volatile long lastRefreshNanos;
 
     public SourceParserImpl(CommandNode node, String keyword, Class<T> clazz, int priority, MethodHandle handle, long resultMaxAgeInMills) {
+        this(node, keyword, clazz, priority, handle, resultMaxAgeInMills, 0, false, null);
+    }
+
+    /**
+     * Constructs a new source parser
+     * @param node node to invoke handle on
+     * @param keyword parser keyword
+     * @param clazz result type
+     * @param priority parser priority
+     * @param handle handle of the source method
+     * @param resultMaxAgeInMills max age of the result, see {@link SourceParser#resultMaxAgeInMills()}
+     * @param jitterInMills max random amount of time added to the max age of each result, see {@link SourceParser#jitterInMills()}
+     * @param refreshAhead whether to serve stale results while refreshing them on executor, see {@link SourceParser#refreshAhead()}
+     * @param executor executor to refresh results on, required if refreshAhead is set
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public SourceParserImpl(CommandNode node, String keyword, Class<T> clazz, int priority, MethodHandle handle, long resultMaxAgeInMills, long jitterInMills, boolean refreshAhead, Executor executor) {
         super(keyword, clazz, priority);
 
+        if (refreshAhead && executor == null)
+            throw new IllegalArgumentException("Refresh ahead requires an executor");
+
         this.node = node;
 
         this.handle = handle;
         this.resultMaxAgeInMills = resultMaxAgeInMills;
+        this.resultMaxAgeInNanos = TimeUnit.MILLISECONDS.toNanos(resultMaxAgeInMills);
+        this.jitterInNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, jitterInMills));
+        this.refreshAhead = refreshAhead && resultMaxAgeInMills > 0;
+        this.executor = executor;
     }
 
     @Override
@@ -31,25 +75,120 @@ public class SourceParserImpl<T> extends MapBasedParser<T> {
         if (this.resultMaxAgeInMills == 0)
             return getResult();
 
-        if (this.result == null)
-            this.result = getResult();
+        Snapshot<T> current = this.snapshot;
+        if (current != null && (this.resultMaxAgeInMills == -1 || !current.isExpired(System.nanoTime())))
+            return current.result();
+
+        if (current != null && this.refreshAhead) {
+            // stale while revalidate
+            if (this.refreshing.compareAndSet(false, true)) {
+                try {
+                    this.executor.execute(this::refreshAsync);
+                } catch (RejectedExecutionException e) {
+                    this.refreshing.set(false);
+                }
+            }
+
+            return current.result();
+        }
 
-        if (this.resultMaxAgeInMills == -1)
-            return this.result;
+        synchronized (this.lock) {
+            current = this.snapshot;
+            if (current != null && (this.resultMaxAgeInMills == -1 || !current.isExpired(System.nanoTime())))
+                return current.result();
 
-        if (Instant.now().isAfter(this.nextCall)) {
-            this.nextCall = Instant.now().plusMillis(this.resultMaxAgeInMills);
-            this.result = getResult();
+            current = new Snapshot<>(getResult(), nextExpiry());
+            this.snapshot = current;
+            return current.result();
+        }
+    }
+
+    @Override
+    protected boolean isIndexed() {
+        // uncached sources return a new map on every call
+        return this.resultMaxAgeInMills != 0;
+    }
+
+    private void refreshAsync() {
+        try {
+            Map<String, T> result = getResult();
+            this.snapshot = new Snapshot<>(result, nextExpiry());
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to refresh source parser " + getKeyword() + ", keeping previous result", e);
+
+            // back off, stale result will be served until next attempt
+            Snapshot<T> current = this.snapshot;
+            this.snapshot = new Snapshot<>(current.result(), nextExpiry());
+        } finally {
+            this.refreshing.set(false);
         }
+    }
+
+    private long nextExpiry() {
+        long maxAge = this.resultMaxAgeInNanos;
+        if (this.jitterInNanos > 0)
+            maxAge += ThreadLocalRandom.current().nextLong(this.jitterInNanos + 1);
 
-        return this.result;
+        return System.nanoTime() + maxAge;
     }
 
     private Map<String, T> getResult() {
+        long start = System.nanoTime();
         try {
             return (Map<String, T>) handle.invoke(node);
         } catch (Throwable e) {
+            failedRefreshes.increment();
             throw new RuntimeException(e);
+        } finally {
+            long time = System.nanoTime() - start;
+            refreshes.increment();
+            totalRefreshNanos.add(time);
+            maxRefreshNanos.accumulateAndGet(time, Math::max);
+            lastRefreshNanos = time;
+        }
+    }
+
+    /**
+     * Returns refresh statistics of this parser
+     * @return refresh statistics
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public RefreshStats getRefreshStats() {
+        return new RefreshStats(
+                refreshes.sum(),
+                failedRefreshes.sum(),
+                lastRefreshNanos,
+                maxRefreshNanos.get(),
+                totalRefreshNanos.sum()
+        );
+    }
+
+    /**
+     * Refresh statistics of a source parser, times are in nanoseconds
+     * @param refreshes amount of times the source method was invoked
+     * @param failedRefreshes amount of invocations which threw
+     * @param lastRefreshNanos duration of the last invocation
+     * @param maxRefreshNanos duration of the longest invocation
+     * @param totalRefreshNanos total duration of all invocations
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public record RefreshStats(long refreshes, long failedRefreshes, long lastRefreshNanos, long maxRefreshNanos, long totalRefreshNanos) {
+
+        /**
+         * Returns the average duration of an invocation
+         * @return average duration in nanoseconds, or 0 if never invoked
+         */
+        public long averageRefreshNanos() {
+            return refreshes == 0 ? 0 : totalRefreshNanos / refreshes;
         }
+
+    }
+
+    private record Snapshot<T>(Map<String, T> result, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+
     }
 }
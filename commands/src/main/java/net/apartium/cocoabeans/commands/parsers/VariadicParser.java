@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.parsers;
+
+import net.apartium.cocoabeans.StringHelpers;
+import net.apartium.cocoabeans.commands.CommandProcessingContext;
+import net.apartium.cocoabeans.commands.Sender;
+import net.apartium.cocoabeans.commands.requirements.Requirement;
+import net.apartium.cocoabeans.commands.requirements.RequirementResult;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Repeats an element parser as long as it matches and collects the results into an array.
+ * Built-in int, long, float & double parsers are collected into primitive arrays, without boxing each element.
+ * Other parsers are collected into an array of their argument type.
+ * Matching is greedy and requires at least one element, sub commands declare it as {@code <keyword...>}.
+ * @param <T> array type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class VariadicParser<T> extends ArgumentParser<T> {
+
+    /**
+     * Suffix of a parser keyword marking it as variadic
+     */
+    public static final String SUFFIX = "...";
+
+    /**
+     * Creates a variadic parser of given element parser
+     * @param element element parser
+     * @return a new variadic parser whose keyword is the element keyword followed by {@link #SUFFIX}
+     */
+    public static VariadicParser<?> of(ArgumentParser<?> element) {
+        return new VariadicParser<>(element, arrayType(element));
+    }
+
+    private static Class<?> arrayType(ArgumentParser<?> element) {
+        Class<?> type = element.getArgumentType();
+        if (type == Integer.class)
+            type = int.class;
+        else if (type == Long.class)
+            type = long.class;
+        else if (type == Float.class)
+            type = float.class;
+        else if (type == Double.class)
+            type = double.class;
+
+        return Array.newInstance(type, 0).getClass();
+    }
+
+    private enum Kind {
+        INT, LONG, FLOAT, DOUBLE, OTHER
+    }
+
+    private final ArgumentParser<?> element;
+    private final Kind kind;
+
+    // built-in parsers accept exactly what StringHelpers does, so tokens can be parsed directly into primitives
+    private final boolean direct;
+
+    @SuppressWarnings("unchecked")
+    private VariadicParser(ArgumentParser<?> element, Class<?> arrayType) {
+        super(element.getKeyword() + SUFFIX, (Class<T>) arrayType, element.getPriority());
+        this.element = element;
+
+        Class<?> componentType = arrayType.getComponentType();
+        if (componentType == int.class)
+            this.kind = Kind.INT;
+        else if (componentType == long.class)
+            this.kind = Kind.LONG;
+        else if (componentType == float.class)
+            this.kind = Kind.FLOAT;
+        else if (componentType == double.class)
+            this.kind = Kind.DOUBLE;
+        else
+            this.kind = Kind.OTHER;
+
+        Class<?> elementClass = element.getClass();
+        this.direct = elementClass == IntParser.class
+                || elementClass == LongParser.class
+                || elementClass == FloatParser.class
+                || elementClass == DoubleParser.class;
+    }
+
+    /**
+     * Returns the parser of a single element
+     * @return element parser
+     */
+    public ArgumentParser<?> getElementParser() {
+        return element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<ParseResult<T>> parse(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int index = processingContext.index();
+        if (index >= args.size())
+            return Optional.empty();
+
+        // every element takes at least one arg, so the remaining args bound the element count
+        int capacity = args.size() - index;
+        if (!direct)
+            return parseElements(processingContext, capacity);
+
+        Object result = switch (kind) {
+            case INT -> parseInts(args, index, new int[capacity]);
+            case LONG -> parseLongs(args, index, new long[capacity]);
+            case FLOAT -> parseFloats(args, index, new float[capacity]);
+            case DOUBLE -> parseDoubles(args, index, new double[capacity]);
+            case OTHER -> null;
+        };
+
+        if (result == null)
+            return Optional.empty();
+
+        // direct parsing takes one arg per element
+        return Optional.of(new ParseResult<>(
+                (T) result,
+                index + Array.getLength(result)
+        ));
+    }
+
+    @Override
+    public OptionalInt tryParse(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int index = processingContext.index();
+
+        int next = direct ? skipDirect(args, index) : skipElements(processingContext, index, args.size());
+        if (next <= index)
+            return OptionalInt.empty();
+
+        return OptionalInt.of(next);
+    }
+
+    @Override
+    public Optional<TabCompletionResult> tabCompletion(CommandProcessingContext processingContext) {
+        List<String> args = processingContext.args();
+        int index = processingContext.index();
+        int last = args.size() - 1;
+        if (index > last)
+            return Optional.empty();
+
+        // all args before the one being typed have to be elements
+        int next = direct ? skipDirect(args.subList(0, last), index) : skipElements(processingContext, index, last);
+        if (next != last)
+            return Optional.empty();
+
+        return element.tabCompletion(new IndexedContext(processingContext, last));
+    }
+
+    private int skipDirect(List<String> args, int index) {
+        while (index < args.size() && isDirectElement(args.get(index)))
+            index++;
+
+        return index;
+    }
+
+    private boolean isDirectElement(String arg) {
+        return switch (kind) {
+            case INT -> StringHelpers.isInteger(arg);
+            case LONG -> StringHelpers.isLong(arg);
+            case FLOAT -> StringHelpers.isFloat(arg);
+            case DOUBLE -> StringHelpers.isDouble(arg);
+            case OTHER -> false;
+        };
+    }
+
+    private int skipElements(CommandProcessingContext processingContext, int index, int end) {
+        IndexedContext context = new IndexedContext(processingContext, index);
+        while (context.index < end) {
+            OptionalInt next = element.tryParse(context);
+            if (next.isEmpty() || next.getAsInt() <= context.index || next.getAsInt() > end)
+                break;
+
+            context.index = next.getAsInt();
+        }
+
+        return context.index;
+    }
+
+    private static int[] parseInts(List<String> args, int index, int[] buffer) {
+        int count = 0;
+        for (; index < args.size(); index++) {
+            String arg = args.get(index);
+            if (!StringHelpers.isInteger(arg))
+                break;
+
+            buffer[count++] = StringHelpers.parseInteger(arg, 0, arg.length()).getAsInt();
+        }
+
+        return count == 0 ? null : count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    private static long[] parseLongs(List<String> args, int index, long[] buffer) {
+        int count = 0;
+        for (; index < args.size(); index++) {
+            String arg = args.get(index);
+            if (!StringHelpers.isLong(arg))
+                break;
+
+            buffer[count++] = StringHelpers.parseLong(arg, 0, arg.length()).getAsLong();
+        }
+
+        return count == 0 ? null : count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    private static float[] parseFloats(List<String> args, int index, float[] buffer) {
+        int count = 0;
+        for (; index < args.size(); index++) {
+            String arg = args.get(index);
+            if (!StringHelpers.isFloat(arg))
+                break;
+
+            buffer[count++] = StringHelpers.parseFloat(arg, 0, arg.length()).getAsFloat();
+        }
+
+        return count == 0 ? null : count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    private static double[] parseDoubles(List<String> args, int index, double[] buffer) {
+        int count = 0;
+        for (; index < args.size(); index++) {
+            String arg = args.get(index);
+            if (!StringHelpers.isDouble(arg))
+                break;
+
+            buffer[count++] = StringHelpers.parseDouble(arg, 0, arg.length()).getAsDouble();
+        }
+
+        return count == 0 ? null : count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<ParseResult<T>> parseElements(CommandProcessingContext processingContext, int capacity) {
+        Object[] buffer = new Object[capacity];
+        int count = 0;
+
+        IndexedContext context = new IndexedContext(processingContext, processingContext.index());
+        while (context.index < processingContext.args().size()) {
+            Optional<? extends ParseResult<?>> result = element.parse(context);
+            if (result.isEmpty() || result.get().newIndex() <= context.index)
+                break;
+
+            buffer[count++] = result.get().result();
+            context.index = result.get().newIndex();
+        }
+
+        if (count == 0)
+            return Optional.empty();
+
+        Object array = Array.newInstance(getArgumentType().getComponentType(), count);
+        for (int i = 0; i < count; i++)
+            Array.set(array, i, buffer[i]);
+
+        return Optional.of(new ParseResult<>(
+                (T) array,
+                context.index
+        ));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof VariadicParser<?> other))
+            return false;
+
+        return element.equals(other.element);
+    }
+
+    @Override
+    public int hashCode() {
+        return element.hashCode() * 31 + 1;
+    }
+
+    /**
+     * Processing context of a single element, the index is advanced in place to avoid allocating one per element
+     */
+    private static final class IndexedContext implements CommandProcessingContext {
+
+        private final CommandProcessingContext parent;
+        private int index;
+
+        IndexedContext(CommandProcessingContext parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override
+        public @NotNull Sender sender() {
+            return parent.sender();
+        }
+
+        @Override
+        public String label() {
+            return parent.label();
+        }
+
+        @Override
+        public List<String> args() {
+            return parent.args();
+        }
+
+        @Override
+        public int index() {
+            return index;
+        }
+
+        @Override
+        public RequirementResult senderMeetsRequirement(Requirement requirement) {
+            return parent.senderMeetsRequirement(requirement);
+        }
+
+    }
+
+}
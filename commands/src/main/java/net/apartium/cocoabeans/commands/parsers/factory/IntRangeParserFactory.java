@@ -15,9 +15,9 @@ import net.apartium.cocoabeans.commands.CommandNode;
 import net.apartium.cocoabeans.commands.CommandProcessingContext;
 import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
 import net.apartium.cocoabeans.commands.parsers.IntRangeParser;
+import net.apartium.cocoabeans.commands.parsers.NumericCompletions;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class IntRangeParserFactory implements ParserFactory {
 
@@ -107,25 +107,12 @@ public class IntRangeParserFactory implements ParserFactory {
             List<String> args = processingContext.args();
             int index = processingContext.index();
 
-            OptionalInt optionalInt = args.get(index).isEmpty() ? OptionalInt.of(0) : StringHelpers.parseInteger(args.get(index));
-            if (optionalInt.isEmpty())
-                return Optional.empty();
-
-            int targetNum = optionalInt.getAsInt();
-
-            if (targetNum >= to)
+            Set<String> result = NumericCompletions.integers(args.get(index), from, to - 1L, step);
+            if (result.isEmpty())
                 return Optional.empty();
 
-            Set<String> allPossiblesOptions = new HashSet<>();
-            for (int i = Math.max(targetNum * 10, from); i < to; i += step) {
-                allPossiblesOptions.add(i + "");
-            }
-
-
             return Optional.of(new TabCompletionResult(
-                    allPossiblesOptions.stream()
-                            .filter(s -> s.startsWith(args.get(index).isEmpty() ? "" : targetNum + ""))
-                            .collect(Collectors.toSet()),
+                    result,
                     index + 1
             ));
         }
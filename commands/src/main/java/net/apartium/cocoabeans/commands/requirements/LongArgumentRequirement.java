@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.requirements;
+
+import net.apartium.cocoabeans.commands.CommandContext;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An argument requirement of long arguments, the dispatcher passes arguments of matching type to it unboxed
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public interface LongArgumentRequirement extends ArgumentRequirement {
+
+    /**
+     * Checks whether given argument meets the requirement
+     * @param sender sender of the command
+     * @param context command context
+     * @param argument parsed argument
+     * @return true if the requirement is met, else false
+     */
+    boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, long argument);
+
+    @Override
+    default boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, @Nullable Object argument) {
+        return argument instanceof Long value && meetsRequirement(sender, context, value.longValue());
+    }
+
+}
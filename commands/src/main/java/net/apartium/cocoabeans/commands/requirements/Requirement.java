@@ -10,6 +10,8 @@
 
 package net.apartium.cocoabeans.commands.requirements;
 
+import org.jetbrains.annotations.ApiStatus;
+
 /**
  * Represents a requirement to run a command or a sub command, eg a permission, sender type (player / console etc)
  * @see RequirementFactory
@@ -24,5 +26,27 @@ public interface Requirement {
      */
     RequirementResult meetsRequirement(RequirementEvaluationContext context);
 
+    /**
+     * Applies the side effects of this requirement, such as taking a rate limit permit.
+     * Called once per dispatch after a sub command guarded by this requirement was chosen and right before it is invoked,
+     * as {@link #meetsRequirement(RequirementEvaluationContext)} is evaluated while branches are still being matched and should only check.
+     * @param context context the requirement was met in
+     * @return meet if applied, or an error if the requirement is no longer met
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    default RequirementResult apply(RequirementEvaluationContext context) {
+        return RequirementResult.meet();
+    }
+
+    /**
+     * Returns whether this requirement depends on state changing between dispatches, such as a rate limit.
+     * Stateful requirements are considered met when computing which commands a sender may see, see {@link net.apartium.cocoabeans.commands.CommandVisibility}
+     * @return true if the result of this requirement may change without the sender changing
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    default boolean isStateful() {
+        return false;
+    }
+
 
 }
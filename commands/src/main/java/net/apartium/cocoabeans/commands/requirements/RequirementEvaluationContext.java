@@ -3,12 +3,33 @@ package net.apartium.cocoabeans.commands.requirements;
 import net.apartium.cocoabeans.commands.Sender;
 import org.jetbrains.annotations.ApiStatus;
 
+/**
+ * Context of a single requirement evaluation
+ * @param sender sender to evaluate
+ * @param commandName name of the command
+ * @param args raw args of the command
+ * @param depth index of the arg being processed
+ * @param dispatching true if evaluated while dispatching the command, false if only checking for tab completion or visibility.
+ *                    Branches are still being matched while dispatching, side effects such as taking rate limit permits belong in {@link Requirement#apply(RequirementEvaluationContext)}
+ */
 @ApiStatus.AvailableSince("0.0.22")
 public record RequirementEvaluationContext(
         Sender sender,
         String commandName,
         String[] args,
-        int depth
+        int depth,
+        @ApiStatus.AvailableSince("0.0.29") boolean dispatching
 ) {
 
+    /**
+     * Creates a context of an evaluation which is not part of dispatching
+     * @param sender sender to evaluate
+     * @param commandName name of the command
+     * @param args raw args of the command
+     * @param depth index of the arg being processed
+     */
+    public RequirementEvaluationContext(Sender sender, String commandName, String[] args, int depth) {
+        this(sender, commandName, args, depth, false);
+    }
+
 }
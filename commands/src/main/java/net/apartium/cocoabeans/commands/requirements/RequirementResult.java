@@ -4,6 +4,9 @@ import net.apartium.cocoabeans.commands.exception.BadCommandResponse;
 
 public class RequirementResult {
 
+    // immutable, shared as requirements are met on every dispatch
+    private static final RequirementResult MEET = new RequirementResult(null, true);
+
     private final BadCommandResponse error;
     private final boolean meetRequirement;
 
@@ -29,7 +32,7 @@ public class RequirementResult {
     }
 
     public static RequirementResult meet() {
-        return new RequirementResult(null, true);
+        return MEET;
     }
 
 }
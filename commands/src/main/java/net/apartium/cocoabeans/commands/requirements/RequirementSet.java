@@ -183,4 +183,21 @@ public class RequirementSet implements Set<Requirement> {
         return RequirementResult.meet();
     }
 
+    /**
+     * Applies the side effects of all requirements in this set
+     * @param context context the requirements were met in
+     * @return meet, or the result of the first requirement which is no longer met
+     * @see Requirement#apply(RequirementEvaluationContext)
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public RequirementResult apply(RequirementEvaluationContext context) {
+        for (Requirement requirement : requirements) {
+            RequirementResult requirementResult = requirement.apply(context);
+            if (!requirementResult.meetRequirement())
+                return requirementResult;
+        }
+
+        return RequirementResult.meet();
+    }
+
 }
@@ -15,6 +15,9 @@ import net.apartium.cocoabeans.commands.CommandNode;
 import net.apartium.cocoabeans.commands.Sender;
 import net.apartium.cocoabeans.commands.requirements.ArgumentRequirement;
 import net.apartium.cocoabeans.commands.requirements.ArgumentRequirementFactory;
+import net.apartium.cocoabeans.commands.requirements.DoubleArgumentRequirement;
+import net.apartium.cocoabeans.commands.requirements.IntArgumentRequirement;
+import net.apartium.cocoabeans.commands.requirements.LongArgumentRequirement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -31,27 +34,67 @@ public class RangeArgumentRequirementFactory implements ArgumentRequirementFacto
         return new RangeImpl(range.from(), range.to(), range.step());
     }
 
-    public record RangeImpl(double from, double to, double step) implements ArgumentRequirement {
-
+    /**
+     * Requires a numeric argument to be in [from, to) and on a step counted from from.
+     * Integral arguments are checked using integer arithmetic when from and step are whole numbers, so large longs are not rounded.
+     * @param from min value, inclusive
+     * @param to max value, exclusive
+     * @param step distance between valid values
+     */
+    public record RangeImpl(double from, double to, double step) implements IntArgumentRequirement, LongArgumentRequirement, DoubleArgumentRequirement {
 
         @Override
         public boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, @Nullable Object argument) {
-            if (argument == null)
+            if (argument instanceof Integer value)
+                return meetsRequirement(sender, context, value.intValue());
+
+            if (argument instanceof Long value)
+                return meetsRequirement(sender, context, value.longValue());
+
+            if (argument instanceof Double || argument instanceof Float)
+                return meetsRequirement(sender, context, ((Number) argument).doubleValue());
+
+            return false;
+        }
+
+        @Override
+        public boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, int argument) {
+            return meetsRequirement(sender, context, (long) argument);
+        }
+
+        @Override
+        public boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, long argument) {
+            if (!isWholeLong(from) || !isWholeLong(step) || step <= 0)
+                return meetsRequirement(sender, context, (double) argument);
+
+            long min = (long) from;
+            if (argument < min)
                 return false;
 
-            if (!(argument instanceof Double))
+            // for whole numbers, num < to is the same as num < ceil(to)
+            double max = Math.ceil(to);
+            if (max <= Long.MIN_VALUE || (max < 0x1p63 && argument >= (long) max))
                 return false;
 
-            double num = (double) argument;
+            // argument >= min so the difference fits in an unsigned long
+            return Long.remainderUnsigned(argument - min, (long) step) == 0;
+        }
 
-            if (num < from)
+        @Override
+        public boolean meetsRequirement(@NotNull Sender sender, @Nullable CommandContext context, double argument) {
+            if (argument < from)
                 return false;
 
-            if (num >= to)
+            if (argument >= to)
                 return false;
 
-            return (num - from) % step == 0;
+            return (argument - from) % step == 0;
+        }
+
+        private static boolean isWholeLong(double value) {
+            return value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63;
         }
+
     }
 
 }
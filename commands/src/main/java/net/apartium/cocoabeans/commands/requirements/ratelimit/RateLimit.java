@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.requirements.ratelimit;
+
+import net.apartium.cocoabeans.commands.requirements.CommandRequirementType;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often each sender may run a command / sub command.
+ * Senders without a unique id, such as the console, are not limited.
+ * When put on a class the limit is shared by all of its sub commands.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@CommandRequirementType(RateLimitRequirementFactory.class)
+public @interface RateLimit {
+
+    /**
+     * Amount of permits given per period
+     * @return amount of permits
+     */
+    int permits();
+
+    /**
+     * Length of a period
+     * @return length of a period in {@link #unit()}
+     */
+    long per();
+
+    /**
+     * Time unit of {@link #per()}
+     * @return time unit
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Max amount of permits which can be used at once after being idle, defaults to {@link #permits()}
+     * @return burst size
+     */
+    int burst() default 0;
+
+}
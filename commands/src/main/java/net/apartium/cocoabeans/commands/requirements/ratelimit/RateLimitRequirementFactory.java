@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.requirements.ratelimit;
+
+import net.apartium.cocoabeans.commands.CommandNode;
+import net.apartium.cocoabeans.commands.exception.RateLimitException;
+import net.apartium.cocoabeans.commands.requirements.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Creates the requirements of {@link RateLimit} and {@link Cooldown}.
+ * Each annotation gets its own {@link RateLimiter}.
+ * Matching a branch only checks for a permit, it is acquired once the sub command is about to be invoked,
+ * so tab completion, invalid usages and branches which end up not handling the command don't use them up.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class RateLimitRequirementFactory implements RequirementFactory {
+
+    @Nullable
+    @Override
+    public Requirement getRequirement(CommandNode node, Object obj) {
+        if (obj instanceof RateLimit rateLimit)
+            return new RateLimitImpl(rateLimit, new RateLimiter(
+                    rateLimit.permits(),
+                    Duration.ofNanos(rateLimit.unit().toNanos(rateLimit.per())),
+                    rateLimit.burst() <= 0 ? rateLimit.permits() : rateLimit.burst()
+            ));
+
+        if (obj instanceof Cooldown cooldown)
+            return new RateLimitImpl(cooldown, new RateLimiter(1, Duration.ofNanos(cooldown.unit().toNanos(cooldown.value())), 1));
+
+        return null;
+    }
+
+    private static class RateLimitImpl implements Requirement {
+
+        private final Annotation annotation;
+        private final RateLimiter limiter;
+
+        public RateLimitImpl(Annotation annotation, RateLimiter limiter) {
+            this.annotation = annotation;
+            this.limiter = limiter;
+        }
+
+        @Override
+        public RequirementResult meetsRequirement(RequirementEvaluationContext context) {
+            UUID uuid = context.sender() == null ? null : context.sender().getUniqueId();
+            if (uuid == null)
+                return RequirementResult.meet();
+
+            return result(context, limiter.peek(uuid));
+        }
+
+        @Override
+        public RequirementResult apply(RequirementEvaluationContext context) {
+            UUID uuid = context.sender() == null ? null : context.sender().getUniqueId();
+            if (uuid == null)
+                return RequirementResult.meet();
+
+            return result(context, limiter.tryAcquire(uuid));
+        }
+
+        @Override
+        public boolean isStateful() {
+            return true;
+        }
+
+        private RequirementResult result(RequirementEvaluationContext context, long wait) {
+            if (wait <= 0)
+                return RequirementResult.meet();
+
+            return RequirementResult.error(new UnmetRateLimitResponse(this, context, wait));
+        }
+
+        private class UnmetRateLimitResponse extends UnmetRequirementResponse {
+
+            private final long remainingNanos;
+
+            public UnmetRateLimitResponse(Requirement requirement, RequirementEvaluationContext context, long remainingNanos) {
+                super(requirement, context, "You are doing that too often, try again in " + formatSeconds(remainingNanos), annotation);
+                this.remainingNanos = remainingNanos;
+            }
+
+            @Override
+            public Exception getError() {
+                return new RateLimitException(this, annotation, Duration.ofNanos(remainingNanos));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "RateLimit: " + annotation;
+        }
+
+    }
+
+    private static String formatSeconds(long nanos) {
+        long seconds = Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+        return seconds == 1 ? "1 second" : seconds + " seconds";
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.commands.requirements.ratelimit;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free per-key token bucket, keyed by uuids.
+ * Each bucket is a single timestamp, the theoretical time at which it will be full again (generic cell rate algorithm),
+ * so acquiring a permit is a single compare and set without allocation once a key has a bucket.
+ * Buckets are kept in an open addressing table, full buckets are equivalent to missing ones and are evicted lazily by reusing their slots.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class RateLimiter {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_PROBES = 16;
+
+    private final long interval;
+    private final long limit;
+    private final LongSupplier clock;
+
+    private volatile AtomicReferenceArray<Bucket> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * Constructs a new rate limiter
+     * @param permits amount of permits given per period
+     * @param per length of a period
+     * @param burst max amount of permits which can be acquired at once after being idle, at least 1
+     */
+    public RateLimiter(int permits, Duration per, int burst) {
+        this(permits, per.toNanos(), burst, System::nanoTime);
+    }
+
+    /* package-private */ RateLimiter(int permits, long perNanos, int burst, LongSupplier clock) {
+        if (permits <= 0)
+            throw new IllegalArgumentException("Permits must be positive: " + permits);
+
+        if (perNanos <= 0)
+            throw new IllegalArgumentException("Period must be positive: " + perNanos);
+
+        if (burst <= 0)
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+
+        this.interval = Math.max(1, perNanos / permits);
+        this.limit = interval * burst;
+        this.clock = clock;
+    }
+
+    /**
+     * Attempts to acquire a permit for given key
+     * @param key key to acquire a permit for
+     * @return 0 if a permit was acquired, else nanos until the next permit is available
+     */
+    public long tryAcquire(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+
+        Bucket updated = null;
+        while (true) {
+            long now = clock.getAsLong();
+            AtomicReferenceArray<Bucket> table = this.table;
+
+            int slot = find(table, msb, lsb);
+            if (slot < 0)
+                slot = claim(table, msb, lsb, now);
+
+            if (slot < 0) {
+                resize(table);
+                continue;
+            }
+
+            Bucket bucket = table.get(slot);
+            if (bucket == null || bucket.msb != msb || bucket.lsb != lsb)
+                continue; // slot was taken over, look again
+
+            // bucket was moved by a resize after being updated
+            if (bucket == updated)
+                return 0;
+
+            long tat = bucket.tat;
+            long start = tat - now > 0 ? tat : now;
+            long next = start + interval;
+            long wait = next - now - limit;
+            if (wait > 0)
+                return wait;
+
+            if (!Bucket.TAT.compareAndSet(bucket, tat, next))
+                continue;
+
+            // an expired bucket may have been replaced concurrently, its update would then be lost
+            if (this.table == table && table.get(slot) == bucket)
+                return 0;
+
+            updated = bucket;
+        }
+    }
+
+    /**
+     * Checks how long it will take for given key to have a permit available, without acquiring it
+     * @param key key to check
+     * @return 0 if a permit is available, else nanos until it will be
+     */
+    public long peek(UUID key) {
+        long now = clock.getAsLong();
+        AtomicReferenceArray<Bucket> table = this.table;
+
+        int slot = find(table, key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (slot < 0)
+            return 0;
+
+        Bucket bucket = table.get(slot);
+        if (bucket == null)
+            return 0;
+
+        long tat = bucket.tat;
+        long start = tat - now > 0 ? tat : now;
+        return Math.max(0, start + interval - now - limit);
+    }
+
+    /**
+     * Returns the amount of buckets which are not full, evicting full ones isn't forced so this is an upper bound
+     * @return amount of active buckets
+     */
+    public int activeBuckets() {
+        long now = clock.getAsLong();
+        AtomicReferenceArray<Bucket> table = this.table;
+
+        int count = 0;
+        for (int i = 0; i < table.length(); i++) {
+            Bucket bucket = table.get(i);
+            if (bucket != null && bucket.tat - now > 0)
+                count++;
+        }
+
+        return count;
+    }
+
+    // returns slot holding key, or -1 if not within probe range
+    private static int find(AtomicReferenceArray<Bucket> table, long msb, long lsb) {
+        int mask = table.length() - 1;
+        int slot = hash(msb, lsb) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            Bucket bucket = table.get(slot);
+            if (bucket == null)
+                return -1;
+
+            if (bucket.msb == msb && bucket.lsb == lsb)
+                return slot;
+        }
+
+        return -1;
+    }
+
+    // takes an empty slot or one holding a full bucket, returns -1 if there is none within probe range
+    private static int claim(AtomicReferenceArray<Bucket> table, long msb, long lsb, long now) {
+        int mask = table.length() - 1;
+        int slot = hash(msb, lsb) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            Bucket bucket = table.get(slot);
+            if (bucket != null && bucket.tat - now > 0)
+                continue;
+
+            if (table.compareAndSet(slot, bucket, new Bucket(msb, lsb, now)))
+                return slot;
+
+            // lost a race for this slot, it may have been taken by the same key
+            bucket = table.get(slot);
+            if (bucket != null && bucket.msb == msb && bucket.lsb == lsb)
+                return slot;
+        }
+
+        return -1;
+    }
+
+    private synchronized void resize(AtomicReferenceArray<Bucket> current) {
+        if (this.table != current)
+            return;
+
+        long now = clock.getAsLong();
+        int capacity = current.length();
+        AtomicReferenceArray<Bucket> resized;
+
+        do {
+            capacity <<= 1;
+            resized = rehash(current, capacity, now);
+        } while (resized == null);
+
+        this.table = resized;
+    }
+
+    private static @Nullable AtomicReferenceArray<Bucket> rehash(AtomicReferenceArray<Bucket> current, int capacity, long now) {
+        AtomicReferenceArray<Bucket> resized = new AtomicReferenceArray<>(capacity);
+        int mask = capacity - 1;
+
+        // full buckets are dropped, active ones are moved as is so concurrent updates to them still count
+        for (int i = 0; i < current.length(); i++) {
+            Bucket bucket = current.get(i);
+            if (bucket == null || bucket.tat - now <= 0)
+                continue;
+
+            int slot = hash(bucket.msb, bucket.lsb) & mask;
+            int probe = 0;
+            while (resized.get(slot) != null) {
+                if (++probe >= MAX_PROBES)
+                    return null;
+
+                slot = (slot + 1) & mask;
+            }
+
+            resized.set(slot, bucket);
+        }
+
+        return resized;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long hash = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static final class Bucket {
+
+        private static final AtomicLongFieldUpdater<Bucket> TAT = AtomicLongFieldUpdater.newUpdater(Bucket.class, "tat");
+
+        private final long msb;
+        private final long lsb;
+
+        // theoretical arrival time, the bucket is full once it is in the past
+        private volatile long tat;
+
+        Bucket(long msb, long lsb, long tat) {
+            this.msb = msb;
+            this.lsb = lsb;
+            this.tat = tat;
+        }
+
+    }
+
+}
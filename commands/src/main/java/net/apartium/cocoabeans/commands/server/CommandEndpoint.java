@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.server;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Transport independent, line based front-end of a command manager, see {@link CommandServer} for a socket transport.
+ * <p>
+ * The first line of a session is its credentials, answered by {@code = OK} or {@code = DENIED} after which the session is closed.
+ * Every following line is a command line in the format of {@link CommandManager#handleBatch(Sender, List)}, lines may be pipelined.
+ * Each line is answered by the messages the command sent, each prefixed by {@code > },
+ * followed by a status line of {@code = } and the {@link BatchResult.Outcome} name, and the error message for failures.
+ * Lines are answered in the order they were received.
+ * <p>
+ * Command lines of all sessions go through a single bounded queue and are run in order on given executor, usually the main thread,
+ * at most {@link #MAX_LINES_PER_DRAIN} lines per task.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandEndpoint {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int MAX_LINES_PER_DRAIN = 64;
+
+    private final CommandManager commandManager;
+    private final Executor executor;
+    private final EndpointAuthenticator authenticator;
+    private final RemoteSenderFactory senderFactory;
+
+    private final BlockingQueue<QueuedLine> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final List<Runnable> capacityListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new endpoint running commands as {@link RemoteSender}
+     * @param commandManager command manager to run commands on
+     * @param executor executor to run commands on
+     * @param authenticator authenticator of sessions
+     */
+    public CommandEndpoint(CommandManager commandManager, Executor executor, EndpointAuthenticator authenticator) {
+        this(commandManager, executor, authenticator, RemoteSender::new, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a new endpoint
+     * @param commandManager command manager to run commands on
+     * @param executor executor to run commands on
+     * @param authenticator authenticator of sessions
+     * @param senderFactory creates the sender commands of each session run as
+     * @param queueCapacity max amount of command lines waiting to run
+     */
+    public CommandEndpoint(CommandManager commandManager, Executor executor, EndpointAuthenticator authenticator, RemoteSenderFactory senderFactory, int queueCapacity) {
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+
+        this.commandManager = Objects.requireNonNull(commandManager, "commandManager");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.authenticator = Objects.requireNonNull(authenticator, "authenticator");
+        this.senderFactory = Objects.requireNonNull(senderFactory, "senderFactory");
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Opens a new session
+     * @param output receives the response lines of the session, called from the thread lines are received on and from the executor
+     * @return new session
+     */
+    public Session openSession(Consumer<String> output) {
+        return new Session(output);
+    }
+
+    /**
+     * Returns the amount of command lines waiting to run
+     * @return queue size
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /* package-private */ void addCapacityListener(Runnable listener) {
+        capacityListeners.add(listener);
+    }
+
+    /* package-private */ void removeCapacityListener(Runnable listener) {
+        capacityListeners.remove(listener);
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true))
+            executor.execute(this::drain);
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < MAX_LINES_PER_DRAIN; i++) {
+                QueuedLine queuedLine = queue.poll();
+                if (queuedLine == null)
+                    break;
+
+                queuedLine.session().run(queuedLine.line());
+            }
+        } finally {
+            draining.set(false);
+
+            for (Runnable listener : capacityListeners)
+                listener.run();
+
+            if (!queue.isEmpty())
+                scheduleDrain();
+        }
+    }
+
+    private record QueuedLine(Session session, String line) {}
+
+    public final class Session {
+
+        private final Consumer<String> output;
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile Sender sender;
+        private volatile boolean closed;
+        private volatile Runnable idleListener;
+
+        private Session(Consumer<String> output) {
+            this.output = output;
+        }
+
+        /**
+         * Receives a line from the client, authenticating the session if it isn't yet
+         * @param line the line, without line terminators
+         * @return true if the line was accepted, false if the queue is full and the line should be received again later
+         */
+        public boolean receive(String line) {
+            if (closed)
+                return true;
+
+            if (sender == null) {
+                authenticate(line);
+                return true;
+            }
+
+            pending.incrementAndGet();
+            if (!queue.offer(new QueuedLine(this, line))) {
+                pending.decrementAndGet();
+                return false;
+            }
+
+            scheduleDrain();
+            return true;
+        }
+
+        /**
+         * Returns whether the session has authenticated
+         * @return true if authenticated
+         */
+        public boolean isAuthenticated() {
+            return sender != null;
+        }
+
+        /**
+         * Returns whether the session is closed, either by the client or by a failed authentication
+         * @return true if closed
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Closes the session, lines still in queue are dropped
+         */
+        public void close() {
+            closed = true;
+        }
+
+        // true once every received line has run and its status line was sent
+        /* package-private */ boolean isIdle() {
+            return pending.get() == 0;
+        }
+
+        // called from the executor whenever the last pending line completes
+        /* package-private */ void setIdleListener(Runnable idleListener) {
+            this.idleListener = idleListener;
+        }
+
+        private void authenticate(String credentials) {
+            String principal;
+            try {
+                principal = authenticator.authenticate(credentials);
+            } catch (RuntimeException e) {
+                principal = null;
+            }
+
+            if (principal == null) {
+                output.accept("= DENIED");
+                closed = true;
+                return;
+            }
+
+            sender = senderFactory.create(principal, this::message);
+            output.accept("= OK");
+        }
+
+        private void message(String text) {
+            if (closed)
+                return;
+
+            int start = 0;
+            for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', start)) {
+                output.accept("> " + text.substring(start, i));
+                start = i + 1;
+            }
+
+            output.accept("> " + text.substring(start));
+        }
+
+        private void run(String line) {
+            try {
+                runLine(line);
+            } finally {
+                Runnable idleListener = this.idleListener;
+                if (pending.decrementAndGet() == 0 && idleListener != null)
+                    idleListener.run();
+            }
+        }
+
+        private void runLine(String line) {
+            if (closed)
+                return;
+
+            BatchResult result = commandManager.handleBatch(sender, List.of(line)).get(0);
+            if (result.error() == null) {
+                output.accept("= " + result.outcome().name());
+                return;
+            }
+
+            String message = result.error().getMessage();
+            output.accept("= " + result.outcome().name() + " " + (message == null ? result.error().getClass().getSimpleName() : message.replace('\n', ' ')));
+        }
+
+    }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.server;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves a {@link CommandEndpoint} on a local TCP or unix domain socket, one session per connection.
+ * All connections are handled by a single selector thread, commands still run on the executor of the endpoint.
+ * When the queue of the endpoint is full, connections stop being read until it has room again.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandServer implements Closeable {
+
+    public static final int MAX_LINE_LENGTH = 32 * 1024;
+
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
+    private final CommandEndpoint endpoint;
+
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean resumeReads = new AtomicBoolean();
+    private final Runnable capacityListener = this::onCapacity;
+
+    private volatile Selector selector;
+    private volatile ServerSocketChannel serverChannel;
+    private volatile Thread thread;
+
+    public CommandServer(CommandEndpoint endpoint) {
+        this.endpoint = Objects.requireNonNull(endpoint, "endpoint");
+    }
+
+    /**
+     * Binds the server and starts serving connections on a new thread
+     * @param address loopback address or unix domain socket path to bind to
+     * @return bound address, useful when binding to port 0
+     * @throws IOException if binding failed
+     * @throws IllegalArgumentException if address is not local
+     */
+    public synchronized SocketAddress bind(SocketAddress address) throws IOException {
+        if (serverChannel != null)
+            throw new IllegalStateException("Server is already bound");
+
+        ServerSocketChannel channel;
+        if (address instanceof UnixDomainSocketAddress) {
+            channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else if (address instanceof InetSocketAddress inetAddress && inetAddress.getAddress() != null && inetAddress.getAddress().isLoopbackAddress()) {
+            channel = ServerSocketChannel.open();
+        } else {
+            throw new IllegalArgumentException("Command server may only bind to loopback or unix domain addresses: " + address);
+        }
+
+        Selector selector = Selector.open();
+        try {
+            channel.bind(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            selector.close();
+            throw e;
+        }
+
+        this.selector = selector;
+        this.serverChannel = channel;
+        endpoint.addCapacityListener(capacityListener);
+
+        Thread thread = new Thread(this::run, "cocoabeans-command-server");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+
+        return channel.getLocalAddress();
+    }
+
+    /**
+     * Stops serving and closes all connections
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Thread thread = this.thread;
+        if (thread == null)
+            return;
+
+        SocketAddress address = serverChannel.getLocalAddress();
+
+        this.thread = null;
+        endpoint.removeCapacityListener(capacityListener);
+        selector.wakeup();
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // unix domain socket files are left behind by closing the channel
+        if (address instanceof UnixDomainSocketAddress unixAddress)
+            Files.deleteIfExists(unixAddress.getPath());
+    }
+
+    private void onCapacity() {
+        if (resumeReads.compareAndSet(false, true))
+            selector.wakeup();
+    }
+
+    private void run() {
+        Selector selector = this.selector;
+        try {
+            while (thread != null) {
+                selector.select();
+
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null)
+                    connection.scheduleWrite();
+
+                if (resumeReads.getAndSet(false)) {
+                    for (SelectionKey key : selector.keys()) {
+                        if (key.attachment() instanceof Connection paused && paused.paused)
+                            paused.resume();
+                    }
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Command server failed", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection)
+                    connection.close();
+            }
+
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to close command server", e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid())
+            return;
+
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable())
+                connection.read();
+
+            if (key.isValid() && key.isWritable())
+                connection.write();
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+            if (channel == null)
+                return;
+
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to accept command server connection", e);
+        }
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final CommandEndpoint.Session session;
+
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+        private SelectionKey key;
+        private boolean paused;
+        private boolean inputClosed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.session = endpoint.openSession(this::send);
+        }
+
+        // called from any thread
+        private void send(String line) {
+            output.add(StandardCharsets.UTF_8.encode(line + "\n"));
+            requestWrite();
+        }
+
+        // called from any thread
+        private void requestWrite() {
+            if (writeScheduled.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        private void scheduleWrite() {
+            writeScheduled.set(false);
+            if (key.isValid())
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(input);
+            if (read == -1) {
+                // the client may half close after its last line, it is answered before closing
+                inputClosed = true;
+                session.setIdleListener(this::requestWrite);
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+
+            input.flip();
+            receiveLines();
+            input.compact();
+
+            if (!paused && !input.hasRemaining()) {
+                send("= FAILED line too long");
+                session.close();
+            }
+
+            if (session.isClosed())
+                key.interestOps(SelectionKey.OP_WRITE);
+        }
+
+        // receives complete lines in input, stops reading while the endpoint queue is full
+        private void receiveLines() {
+            int start = input.position();
+            for (int i = start; i < input.limit(); i++) {
+                if (input.get(i) != '\n')
+                    continue;
+
+                int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+                String line = new String(input.array(), start, end - start, StandardCharsets.UTF_8);
+                if (!session.receive(line)) {
+                    paused = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                    break;
+                }
+
+                start = i + 1;
+                input.position(start);
+            }
+        }
+
+        private void resume() {
+            paused = false;
+            input.flip();
+            receiveLines();
+            input.compact();
+
+            if (!paused && key.isValid() && !session.isClosed())
+                key.interestOps(key.interestOps() | (inputClosed ? SelectionKey.OP_WRITE : SelectionKey.OP_READ));
+        }
+
+        private void write() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = output.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining())
+                    return;
+
+                output.poll();
+            }
+
+            if (session.isClosed() || inputClosed && !paused && session.isIdle()) {
+                close();
+                return;
+            }
+
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+
+        private void close() {
+            session.close();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.DEBUG, "Failed to close command server connection", e);
+            }
+        }
+
+    }
+
+}
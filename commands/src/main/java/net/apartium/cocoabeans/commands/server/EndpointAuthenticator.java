@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.server;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Authenticates sessions of a {@link CommandEndpoint}, once per session
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@FunctionalInterface
+public interface EndpointAuthenticator {
+
+    /**
+     * Authenticates a session
+     * @param credentials credentials sent by the client
+     * @return name of the authenticated principal, or null if denied
+     */
+    @Nullable String authenticate(String credentials);
+
+    /**
+     * Creates an authenticator accepting a single shared token, compared in constant time
+     * @param principal name of the principal sessions authenticate as
+     * @param token expected token
+     * @return token authenticator
+     */
+    static EndpointAuthenticator token(String principal, String token) {
+        byte[] expected = token.getBytes(StandardCharsets.UTF_8);
+        return credentials -> MessageDigest.isEqual(expected, credentials.getBytes(StandardCharsets.UTF_8)) ? principal : null;
+    }
+
+}
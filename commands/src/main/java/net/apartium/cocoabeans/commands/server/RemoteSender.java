@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.server;
+
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.function.Consumer;
+
+/**
+ * Default sender of endpoint sessions, sending messages back to the client
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class RemoteSender implements Sender {
+
+    private final String principal;
+    private final Consumer<String> output;
+
+    public RemoteSender(String principal, Consumer<String> output) {
+        this.principal = principal;
+        this.output = output;
+    }
+
+    /**
+     * Returns the name of the authenticated principal
+     * @return principal name
+     */
+    @Override
+    public String getSender() {
+        return principal;
+    }
+
+    @Override
+    public void sendMessage(String text) {
+        output.accept(text);
+    }
+
+    @Override
+    public void sendMessage(String... args) {
+        for (String text : args)
+            output.accept(text);
+    }
+
+}
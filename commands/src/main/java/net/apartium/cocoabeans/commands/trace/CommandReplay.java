@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.trace;
+
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Replays traced calls against a command manager and measures how it handles them.
+ * Events are claimed in order by a configurable amount of threads, optionally paced to a fixed rate.
+ * One sender is created per distinct {@link SenderProfile}, by default a sender discarding all messages.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandReplay {
+
+    private final CommandManager commandManager;
+
+    private Function<SenderProfile, Sender> senderFactory = ReplaySender::new;
+    private int concurrency = 1;
+    private double rate;
+
+    /**
+     * Constructs a new replay against given command manager
+     * @param commandManager command manager to replay calls against
+     */
+    public CommandReplay(CommandManager commandManager) {
+        this.commandManager = Objects.requireNonNull(commandManager, "commandManager");
+    }
+
+    /**
+     * Sets the factory of senders to replay calls as
+     * @param senderFactory creates the sender of a profile, called once per distinct profile per run
+     */
+    public void setSenderFactory(Function<SenderProfile, Sender> senderFactory) {
+        this.senderFactory = Objects.requireNonNull(senderFactory, "senderFactory");
+    }
+
+    /**
+     * Sets the amount of threads replaying events concurrently
+     * @param concurrency amount of threads
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency <= 0)
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets the rate events are started at, recorded timing is not preserved
+     * @param eventsPerSecond events to start per second, 0 to replay as fast as possible
+     */
+    public void setRate(double eventsPerSecond) {
+        if (eventsPerSecond < 0 || Double.isNaN(eventsPerSecond))
+            throw new IllegalArgumentException("Rate must not be negative: " + eventsPerSecond);
+
+        this.rate = eventsPerSecond;
+    }
+
+    /**
+     * Replays given events and waits for all of them to finish
+     * @param events events to replay
+     * @return measurements of the run
+     * @throws InterruptedException if interrupted while waiting for the replaying threads
+     */
+    public ReplayReport run(List<TraceEvent> events) throws InterruptedException {
+        TraceEvent[] array = events.toArray(new TraceEvent[0]);
+        long[] latencies = new long[array.length];
+
+        Map<SenderProfile, Sender> senders = new ConcurrentHashMap<>();
+        for (TraceEvent event : array)
+            senders.computeIfAbsent(event.profile(), senderFactory);
+
+        long interval = rate == 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        AtomicInteger next = new AtomicInteger();
+        LongAdder unhandled = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLong allocated = new AtomicLong();
+
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] start = new long[1];
+
+        Thread[] threads = new Thread[concurrency];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long allocatedBefore = allocatedBytes();
+
+                int index;
+                while ((index = next.getAndIncrement()) < array.length) {
+                    TraceEvent event = array[index];
+                    Sender sender = senders.get(event.profile());
+
+                    long begin;
+                    if (interval == 0) {
+                        begin = System.nanoTime();
+                    } else {
+                        begin = start[0] + index * interval;
+                        long wait;
+                        while ((wait = begin - System.nanoTime()) > 0)
+                            LockSupport.parkNanos(wait);
+                    }
+
+                    try {
+                        if (!replay(event, sender))
+                            unhandled.increment();
+                    } catch (Throwable e) {
+                        errors.increment();
+                    }
+
+                    latencies[index] = System.nanoTime() - begin;
+                }
+
+                long allocatedAfter = allocatedBytes();
+                if (allocatedBefore < 0 || allocatedAfter < 0)
+                    allocated.set(-1);
+                else
+                    allocated.getAndUpdate(total -> total < 0 ? total : total + allocatedAfter - allocatedBefore);
+            }, "command-replay-" + i);
+
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        ready.await();
+        start[0] = System.nanoTime(); // published to the threads by the latch
+        go.countDown();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        return new ReplayReport(latencies, unhandled.sum(), errors.sum(), System.nanoTime() - start[0], allocated.get());
+    }
+
+    private boolean replay(TraceEvent event, Sender sender) throws Throwable {
+        // handlers may modify args, keep the trace intact for later runs
+        String[] args = event.args().clone();
+
+        return switch (event.kind()) {
+            case DISPATCH -> commandManager.handle(sender, event.commandName(), args);
+            case TAB_COMPLETE -> {
+                commandManager.handleTabComplete(sender, event.commandName(), args);
+                yield true;
+            }
+        };
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()
+                || !bean.isThreadAllocatedMemoryEnabled())
+            return -1;
+
+        return bean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Sender used by default, discarding all messages
+     */
+    private record ReplaySender(SenderProfile profile) implements Sender {
+
+        @Override
+        public Object getSender() {
+            return profile;
+        }
+
+        @Override
+        public void sendMessage(@NotNull String text) {
+            // discarded
+        }
+
+        @Override
+        public void sendMessage(String... args) {
+            // discarded
+        }
+
+        @Override
+        public @Nullable UUID getUniqueId() {
+            return profile.uniqueId();
+        }
+
+    }
+
+}
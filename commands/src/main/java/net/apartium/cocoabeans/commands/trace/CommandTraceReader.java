@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.trace;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static net.apartium.cocoabeans.commands.trace.TraceFormat.*;
+
+/**
+ * Reads traces written by {@link CommandTraceRecorder}.
+ * A truncated last record, as left by a recorder which was not closed, is dropped.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandTraceReader implements Closeable {
+
+    private static final TraceEvent.Kind[] KINDS = TraceEvent.Kind.values();
+
+    private final DataInputStream in;
+
+    private final List<String> strings = new ArrayList<>();
+    private final List<SenderProfile> profiles = new ArrayList<>();
+
+    private long offset;
+
+    /**
+     * Constructs a new reader reading from given stream
+     * @param in stream to read the trace from, closed with the reader
+     * @throws IOException if the stream doesn't start with a supported trace header
+     */
+    public CommandTraceReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+
+        int magic;
+        int version;
+        try {
+            magic = this.in.readInt();
+            version = this.in.readUnsignedByte();
+        } catch (EOFException e) {
+            throw new IOException("Not a command trace", e);
+        }
+
+        if (magic != MAGIC)
+            throw new IOException("Not a command trace");
+
+        if (version != VERSION)
+            throw new IOException("Unsupported command trace version: " + version);
+    }
+
+    /**
+     * Reads all events of a trace file
+     * @param file trace file
+     * @return events of the trace, in recorded order
+     * @throws IOException if the file could not be read or is malformed
+     */
+    public static List<TraceEvent> readAll(Path file) throws IOException {
+        try (CommandTraceReader reader = new CommandTraceReader(Files.newInputStream(file))) {
+            List<TraceEvent> events = new ArrayList<>();
+            TraceEvent event;
+            while ((event = reader.next()) != null)
+                events.add(event);
+
+            return events;
+        }
+    }
+
+    /**
+     * Reads the next event of the trace
+     * @return next event, or null if the end of the trace was reached
+     * @throws IOException if the trace could not be read or is malformed
+     */
+    public @Nullable TraceEvent next() throws IOException {
+        int kind = in.read();
+        if (kind == -1)
+            return null;
+
+        if (kind >= KINDS.length)
+            throw new IOException("Unknown trace event kind: " + kind);
+
+        try {
+            offset += readVarLong(in);
+            SenderProfile profile = readProfile();
+            String commandName = readRef();
+
+            String[] args = new String[readVarInt(in)];
+            for (int i = 0; i < args.length; i++)
+                args[i] = readRef();
+
+            return new TraceEvent(KINDS[kind], offset, profile, commandName, args);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private SenderProfile readProfile() throws IOException {
+        int ref = readVarInt(in);
+        if (ref != LITERAL && ref != NEW_ENTRY)
+            return lookup(profiles, ref);
+
+        String type = readRef();
+        UUID uniqueId = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+
+        SenderProfile profile = new SenderProfile(type, uniqueId);
+        if (ref == NEW_ENTRY)
+            profiles.add(profile);
+
+        return profile;
+    }
+
+    private String readRef() throws IOException {
+        int ref = readVarInt(in);
+        if (ref == LITERAL)
+            return readString(in);
+
+        if (ref != NEW_ENTRY)
+            return lookup(strings, ref);
+
+        String value = readString(in);
+        strings.add(value);
+        return value;
+    }
+
+    private static <T> T lookup(List<T> entries, int ref) throws IOException {
+        int id = ref - FIRST_ID;
+        if (id < 0 || id >= entries.size())
+            throw new IOException("Unknown trace entry: " + id);
+
+        return entries.get(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
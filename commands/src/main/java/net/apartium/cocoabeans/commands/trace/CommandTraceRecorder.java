@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.trace;
+
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static net.apartium.cocoabeans.commands.trace.TraceFormat.*;
+
+/**
+ * Records calls of a command manager to a compact binary trace, which can be read with {@link CommandTraceReader} and replayed with {@link CommandReplay}.
+ * Install on a command manager with {@link net.apartium.cocoabeans.commands.CommandManager#setTraceRecorder(CommandTraceRecorder)}.
+ * Recording never throws into the dispatcher, the first write error stops the recorder and is available from {@link #getError()}.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandTraceRecorder implements Closeable {
+
+    private final DataOutputStream out;
+    private final long start = System.nanoTime();
+
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<SenderProfile, Integer> profiles = new HashMap<>();
+
+    private long last = start;
+    private long recorded;
+    private boolean closed;
+    private @Nullable IOException error;
+
+    /**
+     * Constructs a new recorder writing to given stream
+     * @param out stream to write the trace to, closed with the recorder
+     * @throws IOException if the header could not be written
+     */
+    public CommandTraceRecorder(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    /**
+     * Creates a recorder writing to given file, replacing it if it exists
+     * @param file file to write the trace to
+     * @return new recorder
+     * @throws IOException if the file could not be opened
+     */
+    public static CommandTraceRecorder open(Path file) throws IOException {
+        return new CommandTraceRecorder(Files.newOutputStream(file));
+    }
+
+    /**
+     * Records a call
+     * @param kind kind of the call
+     * @param sender sender of the call
+     * @param commandName label the command was invoked with
+     * @param args raw args of the call
+     */
+    public synchronized void record(TraceEvent.Kind kind, Sender sender, String commandName, String[] args) {
+        if (closed || error != null)
+            return;
+
+        long now = System.nanoTime();
+        try {
+            out.writeByte(kind.ordinal());
+            writeVarLong(out, now - last);
+            writeProfile(SenderProfile.of(sender));
+            writeRef(commandName);
+            writeVarLong(out, args.length);
+            for (String arg : args)
+                writeRef(arg);
+
+            last = now;
+            recorded++;
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private void writeProfile(SenderProfile profile) throws IOException {
+        Integer id = profiles.get(profile);
+        if (id != null) {
+            writeVarLong(out, FIRST_ID + id);
+            return;
+        }
+
+        // a profile is kept per player, once the table is full later players are written in full every time
+        if (profiles.size() >= MAX_INTERNED_PROFILES) {
+            writeVarLong(out, LITERAL);
+        } else {
+            profiles.put(profile, profiles.size());
+            writeVarLong(out, NEW_ENTRY);
+        }
+
+        writeRef(profile.type());
+
+        UUID uniqueId = profile.uniqueId();
+        out.writeBoolean(uniqueId != null);
+        if (uniqueId != null) {
+            out.writeLong(uniqueId.getMostSignificantBits());
+            out.writeLong(uniqueId.getLeastSignificantBits());
+        }
+    }
+
+    private void writeRef(String value) throws IOException {
+        Integer id = strings.get(value);
+        if (id != null) {
+            writeVarLong(out, FIRST_ID + id);
+            return;
+        }
+
+        // long or late values such as free text are unlikely to repeat, they are not kept around
+        if (value.length() > MAX_INTERNED_LENGTH || strings.size() >= MAX_INTERNED_ENTRIES) {
+            writeVarLong(out, LITERAL);
+            writeString(out, value);
+            return;
+        }
+
+        strings.put(value, strings.size());
+        writeVarLong(out, NEW_ENTRY);
+        writeString(out, value);
+    }
+
+    /**
+     * Returns the amount of calls recorded so far
+     * @return recorded calls
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Returns the error which stopped the recorder
+     * @return write error, or null if there was none
+     */
+    public synchronized @Nullable IOException getError() {
+        return error;
+    }
+
+    /**
+     * Flushes buffered records to the underlying stream
+     * @throws IOException if flushing failed
+     */
+    public synchronized void flush() throws IOException {
+        if (!closed)
+            out.flush();
+    }
+
+    /**
+     * Stops recording and closes the underlying stream
+     * @throws IOException if flushing or closing failed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+        out.close();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.trace;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of a {@link CommandReplay} run
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public final class ReplayReport {
+
+    private final long[] latencies;
+    private final long unhandled;
+    private final long errors;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+
+    /* package-private */ ReplayReport(long[] latencies, long unhandled, long errors, long elapsedNanos, long allocatedBytes) {
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+
+        this.unhandled = unhandled;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Returns the amount of replayed events
+     * @return replayed events
+     */
+    public int getEvents() {
+        return latencies.length;
+    }
+
+    /**
+     * Returns the amount of dispatches which were not handled by any sub command or fallback
+     * @return unhandled dispatches
+     */
+    public long getUnhandled() {
+        return unhandled;
+    }
+
+    /**
+     * Returns the amount of events which threw
+     * @return failed events
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the wall clock time of the run
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Returns the amount of events replayed per second
+     * @return throughput in events per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : latencies.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns a latency percentile of the run.
+     * On rate limited runs latency is measured from the time an event was scheduled, so queueing behind slow events is included
+     * @param percentile percentile between 0 and 100
+     * @return latency in nanos, 0 if no events were replayed
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+
+        if (latencies.length == 0)
+            return 0;
+
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+    }
+
+    /**
+     * Returns the highest latency of the run
+     * @return max latency in nanos, 0 if no events were replayed
+     */
+    public long getMaxLatency() {
+        return latencies.length == 0 ? 0 : latencies[latencies.length - 1];
+    }
+
+    /**
+     * Returns the amount of bytes allocated by the replaying threads
+     * @return allocated bytes, or -1 if the jvm doesn't support measuring it
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the amount of bytes allocated per second
+     * @return allocation rate in bytes per second, or -1 if the jvm doesn't support measuring it
+     */
+    public double getAllocationRate() {
+        if (allocatedBytes < 0)
+            return -1;
+
+        return elapsedNanos == 0 ? 0 : allocatedBytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d events in %dms (%.0f/s), %d unhandled, %d errors, latency p50=%dus p99=%dus p99.9=%dus max=%dus, allocated %d bytes (%.0f B/s)",
+                getEvents(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(), unhandled, errors,
+                TimeUnit.NANOSECONDS.toMicros(getLatencyPercentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(getLatencyPercentile(99)),
+                TimeUnit.NANOSECONDS.toMicros(getLatencyPercentile(99.9)),
+                TimeUnit.NANOSECONDS.toMicros(getMaxLatency()),
+                allocatedBytes, getAllocationRate()
+        );
+    }
+
+}
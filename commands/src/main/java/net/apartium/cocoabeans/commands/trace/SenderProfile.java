@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.commands.trace;
+
+import net.apartium.cocoabeans.commands.Sender;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Identifies the kind of sender of a traced call, without holding on to the sender itself
+ * @param type type of the underlying platform sender, for example its simple class name
+ * @param uniqueId unique id of the sender, or null if it has none
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record SenderProfile(String type, @Nullable UUID uniqueId) {
+
+    /**
+     * Creates the profile of given sender
+     * @param sender sender to describe
+     * @return profile of the sender
+     */
+    public static SenderProfile of(Sender sender) {
+        Object platformSender = sender.getSender();
+        return new SenderProfile(
+                platformSender == null ? sender.getClass().getSimpleName() : platformSender.getClass().getSimpleName(),
+                sender.getUniqueId()
+        );
+    }
+
+}
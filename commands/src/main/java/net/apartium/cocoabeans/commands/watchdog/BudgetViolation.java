@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.watchdog;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * A single invocation of a sub command which exceeded its budget
+ * @param commandName label the command was invoked with
+ * @param budget budget of the sub command
+ * @param elapsedNanos measured execution time
+ * @param budgetNanos effective budget the execution time exceeded
+ * @param strikes amount of consecutive violations, including this one
+ * @param async true if the invocation ran on the async executor
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public record BudgetViolation(
+        String commandName,
+        ExecutionBudget budget,
+        long elapsedNanos,
+        long budgetNanos,
+        int strikes,
+        boolean async
+) {
+
+}
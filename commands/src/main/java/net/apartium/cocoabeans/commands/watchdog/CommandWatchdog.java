@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.watchdog;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the execution time of sub commands and reports the ones exceeding their budget.
+ * Sub commands declaring {@link TimeBudget#async()} may be routed to an async executor after repeatedly exceeding it, see {@link #setAsyncPolicy(Executor, int)}.
+ * Install on a command manager with {@link net.apartium.cocoabeans.commands.CommandManager#setWatchdog(CommandWatchdog)}.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class CommandWatchdog {
+
+    private static final System.Logger LOGGER = System.getLogger("cocoabeans-commands");
+
+    /**
+     * Logs violations as warnings
+     */
+    public static final BudgetViolationListener LOG_VIOLATIONS = violation -> LOGGER.log(
+            System.Logger.Level.WARNING,
+            "Command /" + violation.commandName() + " (" + violation.budget().getName() + ") took "
+                    + TimeUnit.NANOSECONDS.toMillis(violation.elapsedNanos()) + "ms, budget is "
+                    + TimeUnit.NANOSECONDS.toMillis(violation.budgetNanos()) + "ms"
+                    + (violation.async() ? " (async)" : "")
+    );
+
+    private final long defaultBudgetNanos;
+    private final BudgetViolationListener listener;
+
+    private final Set<ExecutionBudget> offenders = ConcurrentHashMap.newKeySet();
+    private final LongAdder violations = new LongAdder();
+
+    private volatile @Nullable Executor asyncExecutor;
+    private volatile int strikesToOffload;
+
+    /**
+     * Constructs a new watchdog logging violations
+     * @param defaultBudget budget of sub commands not declaring one, zero to only watch sub commands declaring one
+     */
+    public CommandWatchdog(Duration defaultBudget) {
+        this(defaultBudget, LOG_VIOLATIONS);
+    }
+
+    /**
+     * Constructs a new watchdog
+     * @param defaultBudget budget of sub commands not declaring one, zero to only watch sub commands declaring one
+     * @param listener listener to report violations to
+     */
+    public CommandWatchdog(Duration defaultBudget, BudgetViolationListener listener) {
+        if (defaultBudget.isNegative())
+            throw new IllegalArgumentException("Default budget must not be negative: " + defaultBudget);
+
+        this.defaultBudgetNanos = defaultBudget.isZero() ? Long.MAX_VALUE : defaultBudget.toNanos();
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Routes sub commands declaring {@link TimeBudget#async()} to given executor once they exceed their budget given amount of times in a row.
+     * Offloaded sub commands are considered handled as soon as they are submitted, errors they throw are passed to the exception handlers of the command on the executor.
+     * An offloaded sub command returning false is passed to the fallback handlers of the command on the executor, other variants are not tried.
+     * @param executor executor to run offloaded sub commands on, or null to disable
+     * @param strikes amount of consecutive violations before offloading
+     */
+    public void setAsyncPolicy(@Nullable Executor executor, int strikes) {
+        if (strikes <= 0)
+            throw new IllegalArgumentException("Strikes must be positive: " + strikes);
+
+        this.strikesToOffload = strikes;
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Returns the executor offloaded sub commands run on
+     * @return async executor, or null if there is no async policy
+     */
+    public @Nullable Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Returns the effective budget of a sub command
+     * @param budget budget of the sub command
+     * @return max execution time in nanos, {@link Long#MAX_VALUE} if unlimited
+     */
+    public long budgetOf(ExecutionBudget budget) {
+        return budget.getBudgetNanos() == ExecutionBudget.DEFAULT_BUDGET ? defaultBudgetNanos : budget.getBudgetNanos();
+    }
+
+    /**
+     * Returns whether given sub command should be run on the async executor
+     * @param budget budget of the sub command
+     * @return true if the sub command should be offloaded
+     */
+    public boolean shouldOffload(ExecutionBudget budget) {
+        return offloadExecutor(budget) != null;
+    }
+
+    /**
+     * Returns the executor given sub command should be run on, reading the async policy once so it can't be cleared in between
+     * @param budget budget of the sub command
+     * @return async executor, or null if the sub command should run on the calling thread
+     */
+    public @Nullable Executor offloadExecutor(ExecutionBudget budget) {
+        return budget.isOffloaded() ? asyncExecutor : null;
+    }
+
+    /**
+     * Records an invocation of a sub command
+     * @param commandName label the command was invoked with
+     * @param budget budget of the sub command
+     * @param elapsedNanos measured execution time
+     * @param async true if the invocation ran on the async executor
+     */
+    public void record(String commandName, ExecutionBudget budget, long elapsedNanos, boolean async) {
+        long budgetNanos = budgetOf(budget);
+        boolean violated = elapsedNanos > budgetNanos;
+        int strikes = budget.record(elapsedNanos, violated);
+        if (!violated)
+            return;
+
+        violations.increment();
+        offenders.add(budget);
+
+        if (budget.isAsync() && !budget.isOffloaded() && asyncExecutor != null && strikes >= strikesToOffload)
+            budget.offload();
+
+        try {
+            listener.onViolation(new BudgetViolation(commandName, budget, elapsedNanos, budgetNanos, strikes, async));
+        } catch (Throwable e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Budget violation listener failed", e);
+        }
+    }
+
+    /**
+     * Returns the total amount of violations
+     * @return amount of violations
+     */
+    public long getViolations() {
+        return violations.sum();
+    }
+
+    /**
+     * Returns the sub commands which exceeded their budget at least once, ordered by amount of violations
+     * @param limit max amount of sub commands to return
+     * @return offending sub commands
+     */
+    public List<ExecutionBudget> getOffenders(int limit) {
+        List<ExecutionBudget> result = new ArrayList<>(offenders);
+        result.sort(Comparator.comparingLong(ExecutionBudget::getViolations).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : Collections.unmodifiableList(result);
+    }
+
+}
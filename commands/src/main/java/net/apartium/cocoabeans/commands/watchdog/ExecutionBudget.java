@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.watchdog;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution budget and statistics of a single sub command method, shared by all of its variants.
+ * Statistics are only collected while a {@link CommandWatchdog} is installed.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public final class ExecutionBudget {
+
+    /**
+     * Budget value of sub commands using the default budget of the watchdog
+     */
+    public static final long DEFAULT_BUDGET = -1;
+
+    private final String name;
+    private final long budgetNanos;
+    private final boolean async;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder violations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicInteger strikes = new AtomicInteger();
+
+    private volatile boolean offloaded = false;
+
+    /**
+     * Constructs a new execution budget
+     * @param name name of the sub command, used for reporting
+     * @param budgetNanos max execution time in nanos, or {@link #DEFAULT_BUDGET}
+     * @param async whether the sub command may be run asynchronously
+     */
+    public ExecutionBudget(String name, long budgetNanos, boolean async) {
+        this.name = name;
+        this.budgetNanos = budgetNanos;
+        this.async = async;
+    }
+
+    /**
+     * Returns the name of the sub command, by default its declaring class and method
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the declared budget
+     * @return max execution time in nanos, or {@link #DEFAULT_BUDGET}
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Returns whether the sub command may be run asynchronously
+     * @return true if the sub command may be run asynchronously
+     * @see TimeBudget#async()
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Returns whether the sub command is currently routed to the async executor of the watchdog
+     * @return true if offloaded
+     */
+    public boolean isOffloaded() {
+        return offloaded;
+    }
+
+    /**
+     * Returns the amount of measured invocations
+     * @return amount of invocations
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Returns the amount of invocations which exceeded the budget
+     * @return amount of violations
+     */
+    public long getViolations() {
+        return violations.sum();
+    }
+
+    /**
+     * Returns the sum of execution times of all measured invocations
+     * @return total execution time in nanos
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the longest execution time measured
+     * @return max execution time in nanos
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the amount of consecutive invocations which exceeded the budget
+     * @return amount of consecutive violations
+     */
+    public int getStrikes() {
+        return strikes.get();
+    }
+
+    /**
+     * Clears consecutive violations and moves the sub command back to the calling thread
+     */
+    public void resetStrikes() {
+        strikes.set(0);
+        offloaded = false;
+    }
+
+    /* package-private */ int record(long elapsedNanos, boolean violated) {
+        invocations.increment();
+        totalNanos.add(elapsedNanos);
+
+        long max = maxNanos.get();
+        while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos))
+            max = maxNanos.get();
+
+        if (!violated) {
+            if (strikes.get() != 0)
+                strikes.set(0);
+
+            return 0;
+        }
+
+        violations.increment();
+        return strikes.incrementAndGet();
+    }
+
+    /* package-private */ void offload() {
+        offloaded = true;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionBudget{" +
+                "name='" + name + '\'' +
+                ", invocations=" + getInvocations() +
+                ", violations=" + getViolations() +
+                ", maxNanos=" + getMaxNanos() +
+                ", offloaded=" + offloaded +
+                '}';
+    }
+
+}
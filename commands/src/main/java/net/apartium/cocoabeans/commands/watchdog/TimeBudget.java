@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands.watchdog;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets how long a sub command may run before it is reported by the {@link CommandWatchdog}, overriding its default budget.
+ * When put on a class it applies to all sub commands not declaring their own.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeBudget {
+
+    /**
+     * Max execution time
+     * @return max execution time in {@link #unit()}
+     */
+    long value();
+
+    /**
+     * Time unit of {@link #value()}
+     * @return time unit
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Whether the sub command is safe to run off the calling thread.
+     * If true and the watchdog has an async policy, the sub command will run on its executor after repeatedly exceeding its budget.
+     * The dispatch returns before an offloaded sub command runs, so returning false from it only reaches the fallback handlers of the command.
+     * @return true if the sub command may run asynchronously
+     */
+    boolean async() default false;
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.multilayered.MultiLayeredCommand;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AddCommandsTest extends CommandTestBase {
+
+    @Test
+    void addCommands() {
+        testCommandManager.addCommands(List.of(
+                new CommandForTest(),
+                new UsingBaseCommandTest(),
+                new TestSourceCommand()
+        ));
+
+        evaluate("test", "");
+        assertEquals(List.of("no args :)"), sender.getMessages());
+
+        evaluate("test", "testing 3");
+        assertEquals(List.of("testRange(Sender sender, int num) You chosen 3"), sender.getMessages());
+
+        evaluate("lol", "testing key3");
+        assertEquals(List.of("test: value3"), sender.getMessages());
+
+        evaluate("test-source", "two");
+        assertEquals(List.of("test(Sender sender, Test test) got 2"), sender.getMessages());
+    }
+
+    @Test
+    void addCommandsSameAsAddCommand() {
+        TestCommandManager sequential = new TestCommandManager();
+        sequential.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        sequential.addCommand(new MultiLayeredCommand());
+
+        testCommandManager.addCommands(List.of(new MultiLayeredCommand()));
+
+        TestSender other = new TestSender();
+        other.addPermission("cocoa-beans.commands.multilayered");
+        sender.addPermission("cocoa-beans.commands.multilayered");
+
+        for (String args : List.of("", "greet", "admin", "lol 3", "lol meow", "mystery woof")) {
+            other.getMessages().clear();
+            sequential.handle(other, "multilayered", args.isEmpty() ? new String[0] : args.split("\\s+"));
+            evaluate("multilayered", args);
+
+            assertEquals(other.getMessages(), sender.getMessages());
+        }
+    }
+
+    @Test
+    void addCommandsFailsAtomically() {
+        assertThrowsExactly(RuntimeException.class, () -> testCommandManager.addCommands(List.of(
+                new CommandForTest(),
+                new EvilCommandTest()
+        )));
+
+        evaluate("test", "");
+        assertEquals(List.of("Unknown command: test"), sender.getMessages());
+    }
+
+    void evaluate(String label, String args) {
+        sender.getMessages().clear();
+        testCommandManager.handle(sender, label, args.isEmpty() ? new String[0] : args.split("\\s+"));
+    }
+
+}
@@ -0,0 +1,123 @@
+package net.apartium.cocoabeans.commands;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fails when a change makes the dispatcher allocate more than the declared budget per call.
+ * Budgets leave some headroom over measured values, lower them when allocations are removed.
+ * Budgets are byte counts measured on 64-bit HotSpot 17 with compressed oops and the default heap, other jvms lay out objects differently.
+ * Runs with the default tests so regressions fail the build, tagged so it can be filtered out with {@code excludeTags("allocation")} on other jvms
+ */
+@Tag("allocation")
+class AllocationBudgetTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 2_000;
+    private static final int ROUNDS = 3;
+
+    // the success path, a keyword sub command without requirements or parsed args
+    private static final long SUCCESS_PATH_BUDGET = 320;
+
+    private static final Sender SINK = new Sender() {
+        @Override
+        public Object getSender() {
+            return this;
+        }
+
+        @Override
+        public void sendMessage(String text) {
+
+        }
+
+        @Override
+        public void sendMessage(String... args) {
+
+        }
+    };
+
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private TestCommandManager commandManager;
+
+    @BeforeEach
+    void setup() {
+        commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new CommandForTest());
+        commandManager.addCommand(new RangeCommand());
+    }
+
+    @Test
+    void successPath() {
+        assertHandleBudget(SUCCESS_PATH_BUDGET, "test", "arg");
+    }
+
+    @Test
+    void keywords() {
+        assertHandleBudget(320, "test");
+        assertHandleBudget(384, "test", "one", "two");
+    }
+
+    @Test
+    void parsedArgs() {
+        assertHandleBudget(1024, "test", "testing3", "5");
+        assertHandleBudget(1024, "test", "config", "get", "key");
+        assertHandleBudget(1024, "test", "set", "speed", "0.5");
+    }
+
+    @Test
+    void argumentRequirements() {
+        assertHandleBudget(768, "range", "int", "5");
+    }
+
+    @Test
+    void invalidUsage() {
+        assertHandleBudget(2048, "test", "nope", "x");
+    }
+
+    @Test
+    void tabCompletion() {
+        assertTabCompleteBudget(1024, "test", "te");
+        assertTabCompleteBudget(768, "range", "");
+        assertTabCompleteBudget(1280, "test", "config", "get", "");
+        assertTabCompleteBudget(4096, "test", "testing3", "");
+    }
+
+    private void assertHandleBudget(long budget, String commandName, String... args) {
+        assertBudget("/" + commandName + " " + String.join(" ", args), budget, () -> commandManager.handle(SINK, commandName, args));
+    }
+
+    private void assertTabCompleteBudget(long budget, String commandName, String... args) {
+        assertBudget("tab complete /" + commandName + " " + String.join(" ", args), budget, () -> commandManager.handleTabComplete(SINK, commandName, args));
+    }
+
+    private void assertBudget(String scenario, long budget, Runnable call) {
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "thread allocated memory is not supported");
+
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++)
+            call.run();
+
+        // the lowest round is kept, as a round may include allocations of the jit or a lazily initialized class
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < ITERATIONS; i++)
+                call.run();
+
+            allocated = Math.min(allocated, (threadBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS);
+        }
+
+        assertTrue(allocated <= budget, scenario + " allocated " + allocated + " bytes per call, budget is " + budget);
+    }
+
+}
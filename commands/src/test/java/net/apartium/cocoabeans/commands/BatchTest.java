@@ -0,0 +1,84 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.exception.InvalidUsageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchTest extends CommandTestBase {
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new RangeCommand());
+        testCommandManager.addCommand(new RateLimitCommand());
+    }
+
+    @Test
+    void batch() {
+        List<BatchResult> results = testCommandManager.handleBatch(sender, List.of(
+                "range int 5",
+                "/RANGE long 3",
+                "range int 3",
+                "range nope",
+                "unknown 1 2",
+                ""
+        ));
+
+        assertEquals(List.of("int 5", "long 3"), sender.getMessages());
+        assertEquals(6, results.size());
+
+        assertEquals("range int 5", results.get(0).line());
+        assertSame(sender, results.get(0).sender());
+        assertTrue(results.get(0).isHandled());
+        assertTrue(results.get(1).isHandled());
+        assertFalse(results.get(2).isHandled());
+
+        assertEquals(BatchResult.Outcome.FAILED, results.get(3).outcome());
+        assertTrue(results.get(3).error() instanceof InvalidUsageResponse.InvalidUsageException);
+
+        assertEquals(BatchResult.Outcome.UNKNOWN_COMMAND, results.get(4).outcome());
+        assertNull(results.get(4).error());
+        assertEquals(BatchResult.Outcome.UNKNOWN_COMMAND, results.get(5).outcome());
+    }
+
+    @Test
+    void requirementsAreEvaluatedPerLine() {
+        sender.setUniqueId(new UUID(1, 1));
+
+        List<BatchResult> results = testCommandManager.handleBatch(sender, List.of("limited cooldown", "limited cooldown"));
+
+        assertTrue(results.get(0).isHandled());
+        assertTrue(results.get(1).isHandled()); // handled by the exception handler
+        assertEquals(List.of("cooldown", "wait 59"), sender.getMessages());
+    }
+
+    @Test
+    void fanOut() {
+        TestSender other = new TestSender();
+
+        List<BatchResult> results = testCommandManager.handleFanOut(List.of(sender, other), "range int -5");
+
+        assertEquals(2, results.size());
+        assertSame(sender, results.get(0).sender());
+        assertSame(other, results.get(1).sender());
+        assertTrue(results.get(0).isHandled());
+        assertTrue(results.get(1).isHandled());
+
+        assertEquals(List.of("int -5"), sender.getMessages());
+        assertEquals(List.of("int -5"), other.getMessages());
+    }
+
+    @Test
+    void fanOutUnknownCommand() {
+        List<BatchResult> results = testCommandManager.handleFanOut(List.of(sender), "nope");
+        assertEquals(BatchResult.Outcome.UNKNOWN_COMMAND, results.get(0).outcome());
+        assertEquals(List.of(), sender.getMessages());
+    }
+
+}
@@ -0,0 +1,134 @@
+package net.apartium.cocoabeans.commands;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedSenderTest extends CommandTestBase {
+
+    private final List<List<String>> sent = new ArrayList<>();
+
+    private final Sender recordingSender = new Sender() {
+        @Override
+        public Object getSender() {
+            return sender;
+        }
+
+        @Override
+        public void sendMessage(String text) {
+            sent.add(List.of(text));
+        }
+
+        @Override
+        public void sendMessage(String... args) {
+            for (String text : args)
+                sent.add(List.of(text));
+        }
+
+        @Override
+        public void sendLines(List<String> lines) {
+            sent.add(lines);
+        }
+    };
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new ListCommand());
+        testCommandManager.addCommand(new RangeCommand());
+        testCommandManager.addCommand(new CommandForTest());
+    }
+
+    @Test
+    void unbufferedByDefault() {
+        assertTrue(testCommandManager.handle(recordingSender, "list", new String[0]));
+        assertEquals(List.of(List.of("Items:"), List.of("- apple"), List.of("- pear")), sent);
+    }
+
+    @Test
+    void flushesOnceDispatched() {
+        testCommandManager.setMessageBuffering(true);
+
+        assertTrue(testCommandManager.handle(recordingSender, "list", new String[0]));
+        assertEquals(List.of(List.of("Items:", "- apple", "- pear")), sent);
+    }
+
+    @Test
+    void singleMessage() {
+        testCommandManager.setMessageBuffering(true);
+
+        assertTrue(testCommandManager.handle(recordingSender, "range", new String[] {"int", "5"}));
+        assertEquals(List.of(List.of("int 5")), sent);
+    }
+
+    @Test
+    void streaming() {
+        testCommandManager.setMessageBuffering(true);
+
+        assertTrue(testCommandManager.handle(recordingSender, "list", new String[] {"stream"}));
+        assertEquals(List.of(List.of("Loading"), List.of("50%"), List.of("100%")), sent);
+    }
+
+    @Test
+    void batchIsBufferedAsWhole() {
+        testCommandManager.setMessageBuffering(true);
+
+        List<BatchResult> results = testCommandManager.handleBatch(recordingSender, List.of("list", "range int 5", "unknown"));
+        assertEquals(List.of(List.of("Items:", "- apple", "- pear", "int 5")), sent);
+
+        assertSame(recordingSender, results.get(0).sender());
+        assertEquals(BatchResult.Outcome.UNKNOWN_COMMAND, results.get(2).outcome());
+    }
+
+    @Test
+    void fanOutBuffersEachSender() {
+        testCommandManager.setMessageBuffering(true);
+
+        List<BatchResult> results = testCommandManager.handleFanOut(List.of(recordingSender, sender), "list");
+        assertEquals(List.of(List.of("Items:", "- apple", "- pear")), sent);
+        assertEquals(List.of("Items:", "- apple", "- pear"), sender.getMessages());
+        assertSame(sender, results.get(1).sender());
+    }
+
+    @Test
+    void handlerTakingConcreteSender() {
+        testCommandManager.setMessageBuffering(true);
+
+        assertTrue(testCommandManager.handle(sender, "test", new String[] {"testing3"}));
+        assertEquals(List.of("testing3(TestSender sender) cool"), sender.getMessages());
+    }
+
+    @Test
+    void concreteSenderKeepsBatchOrder() {
+        testCommandManager.setMessageBuffering(true);
+
+        List<BatchResult> results = testCommandManager.handleBatch(sender, List.of("range int 5", "test testing3", "range int 0"));
+        for (BatchResult result : results)
+            assertEquals(BatchResult.Outcome.HANDLED, result.outcome(), result.line());
+
+        assertEquals(List.of("int 5", "testing3(TestSender sender) cool", "int 0"), sender.getMessages());
+    }
+
+    @Test
+    void closedSenderSendsRightAway() {
+        BufferedSender bufferedSender = new BufferedSender(recordingSender);
+        bufferedSender.sendMessage("a");
+        bufferedSender.sendMessage("b");
+        assertEquals(2, bufferedSender.getBuffered());
+        assertEquals(List.of(), sent);
+
+        bufferedSender.close();
+        assertTrue(bufferedSender.isStreaming());
+        assertEquals(List.of(List.of("a", "b")), sent);
+
+        bufferedSender.sendMessage("c");
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), sent);
+        assertEquals(0, bufferedSender.getBuffered());
+    }
+
+}
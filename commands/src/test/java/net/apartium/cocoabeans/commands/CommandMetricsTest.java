@@ -0,0 +1,135 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.metrics.CommandMetrics;
+import net.apartium.cocoabeans.commands.metrics.CommandOutcome;
+import net.apartium.cocoabeans.commands.metrics.CommandStats;
+import net.apartium.cocoabeans.commands.metrics.HistogramCommandMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandMetricsTest extends CommandTestBase {
+
+    private static final String OK = MetricsCommand.class.getName() + "#ok";
+    private static final String FAIL = MetricsCommand.class.getName() + "#fail";
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new MetricsCommand(testCommandManager));
+    }
+
+    @Test
+    void noMetricsByDefault() {
+        assertNull(testCommandManager.getMetrics());
+        assertTrue(testCommandManager.handle(sender, "metered", new String[] {"ok"}));
+        assertEquals(List.of("ok"), sender.getMessages());
+    }
+
+    @Test
+    void outcomes() {
+        HistogramCommandMetrics metrics = new HistogramCommandMetrics();
+        testCommandManager.setMetrics(metrics);
+        assertSame(metrics, testCommandManager.getMetrics());
+
+        for (int i = 0; i < 3; i++)
+            testCommandManager.handle(sender, "metered", new String[] {"ok"});
+
+        testCommandManager.handle(sender, "metered", new String[] {"fail"});
+        testCommandManager.handle(sender, "metered", new String[] {"walled"});
+        testCommandManager.handle(sender, "metered", new String[] {"small", "20"});
+        testCommandManager.handle(sender, "metered", new String[] {"nope"});
+        testCommandManager.handle(sender, "unknown", new String[0]);
+        testCommandManager.handle(sender, "other", new String[0]);
+
+        CommandStats ok = metrics.get("metered", OK);
+        assertNotNull(ok);
+        assertEquals(3, ok.getCount(CommandOutcome.HANDLED));
+        assertEquals(3, ok.getHistogram(CommandStats.Phase.DISPATCH).getCount());
+        assertEquals(3, ok.getHistogram(CommandStats.Phase.HANDLER).getCount());
+
+        CommandStats fail = metrics.get("metered", FAIL);
+        assertNotNull(fail);
+        assertEquals(1, fail.getCount(CommandOutcome.ERROR));
+
+        CommandStats command = metrics.get("metered", null);
+        assertNotNull(command);
+        assertEquals(2, command.getCount(CommandOutcome.UNMET_REQUIREMENT));
+        assertEquals(1, command.getCount(CommandOutcome.INVALID_USAGE));
+        assertEquals(0, command.getCount(CommandOutcome.HANDLED));
+
+        assertNull(metrics.get("unknown", null));
+        CommandStats unknown = metrics.get(CommandMetrics.UNKNOWN_COMMAND, null);
+        assertNotNull(unknown);
+        assertEquals(2, unknown.getCount(CommandOutcome.UNKNOWN_COMMAND), "unknown labels share a single entry");
+
+        assertEquals(4, metrics.getStats().size());
+
+        metrics.reset();
+        assertNull(metrics.get("metered", OK));
+    }
+
+    @Test
+    void phases() {
+        List<long[]> timings = new ArrayList<>();
+        List<CommandOutcome> outcomes = new ArrayList<>();
+        testCommandManager.setMetrics((commandName, subCommand, outcome, parseNanos, requirementNanos, handlerNanos, totalNanos) -> {
+            outcomes.add(outcome);
+            timings.add(new long[] {parseNanos, requirementNanos, handlerNanos, totalNanos});
+        });
+
+        testCommandManager.handle(sender, "metered", new String[] {"ok"});
+        testCommandManager.handle(sender, "metered", new String[] {"small", "5"});
+
+        assertEquals(List.of(CommandOutcome.HANDLED, CommandOutcome.HANDLED), outcomes);
+        for (long[] timing : timings) {
+            assertTrue(timing[0] >= 0 && timing[1] >= 0 && timing[2] >= 0);
+            assertTrue(timing[0] + timing[1] + timing[2] <= timing[3]);
+        }
+    }
+
+    @Test
+    void failingListenerDoesNotBreakDispatch() {
+        testCommandManager.setMetrics((commandName, subCommand, outcome, parseNanos, requirementNanos, handlerNanos, totalNanos) -> {
+            throw new IllegalStateException("broken metrics");
+        });
+
+        assertTrue(testCommandManager.handle(sender, "metered", new String[] {"ok"}));
+        assertEquals(List.of("ok"), sender.getMessages());
+    }
+
+    @Test
+    void tabComplete() {
+        HistogramCommandMetrics metrics = new HistogramCommandMetrics();
+        testCommandManager.setMetrics(metrics);
+
+        testCommandManager.handleTabComplete(sender, "metered", new String[] {"o"});
+
+        CommandStats stats = metrics.get("metered", null);
+        assertNotNull(stats);
+        assertEquals(1, stats.getHistogram(CommandStats.Phase.TAB_COMPLETE).getCount());
+        assertEquals(0, stats.getHistogram(CommandStats.Phase.DISPATCH).getCount());
+    }
+
+    @Test
+    void nestedDispatch() {
+        List<String> reported = new ArrayList<>();
+        List<long[]> timings = new ArrayList<>();
+        testCommandManager.setMetrics((commandName, subCommand, outcome, parseNanos, requirementNanos, handlerNanos, totalNanos) -> {
+            reported.add(subCommand + " " + outcome);
+            timings.add(new long[] {handlerNanos, totalNanos});
+        });
+
+        assertTrue(testCommandManager.handle(sender, "metered", new String[] {"nested"}));
+
+        assertEquals(List.of(OK + " HANDLED", MetricsCommand.class.getName() + "#nested HANDLED"), reported);
+        // the outer body includes the whole inner dispatch
+        assertTrue(timings.get(1)[0] >= timings.get(0)[1]);
+    }
+
+}
@@ -0,0 +1,85 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.IntParser;
+import net.apartium.cocoabeans.commands.parsers.StringParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandTreeTest extends CommandTestBase {
+
+    private CommandTreeNode root;
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new TreeCommand());
+        root = testCommandManager.getCommandTree("tree");
+    }
+
+    @Test
+    void unknownCommand() {
+        assertNull(testCommandManager.getCommandTree("nope"));
+    }
+
+    @Test
+    void root() {
+        assertEquals(CommandTreeNode.Type.ROOT, root.getType());
+        assertEquals("tree", root.getName());
+        assertTrue(root.isExecutable());
+        assertTrue(root.meetsRequirements(sender, "tree"));
+        assertEquals(List.of("Exact", "give", "secret"), root.getChildren().stream().map(CommandTreeNode::getName).sorted().toList());
+    }
+
+    @Test
+    void arguments() {
+        CommandTreeNode give = child(root, "give");
+        assertEquals(CommandTreeNode.Type.LITERAL, give.getType());
+        assertTrue(give.isIgnoreCase());
+        assertFalse(give.isExecutable());
+        assertEquals(0, give.getDepth());
+
+        // both sub commands share a single int node
+        assertEquals(1, give.getChildren().size());
+        CommandTreeNode amount = give.getChildren().get(0);
+        assertEquals(CommandTreeNode.Type.ARGUMENT, amount.getType());
+        assertTrue(amount.getParser() instanceof IntParser);
+        assertTrue(amount.isExecutable());
+        assertFalse(amount.isOptional());
+        assertEquals(1, amount.getDepth());
+
+        CommandTreeNode target = child(amount, "string");
+        assertTrue(target.getParser() instanceof StringParser);
+        assertTrue(target.isOptional());
+        assertFalse(target.isExecutable());
+
+        CommandTreeNode now = child(target, "now");
+        assertTrue(now.isExecutable());
+        assertEquals(List.of(), now.getChildren());
+    }
+
+    @Test
+    void requirements() {
+        assertFalse(child(root, "secret").meetsRequirements(sender, "tree"));
+        assertTrue(child(root, "give").meetsRequirements(sender, "tree"));
+    }
+
+    @Test
+    void caseSensitiveLiteral() {
+        CommandTreeNode exact = child(root, "Exact");
+        assertFalse(exact.isIgnoreCase());
+        assertTrue(exact.isExecutable());
+    }
+
+    private static CommandTreeNode child(CommandTreeNode node, String name) {
+        return node.getChildren().stream()
+                .filter(child -> child.getName().equals(name))
+                .findAny()
+                .orElseThrow(() -> new AssertionError("No child " + name + " in " + node));
+    }
+
+}
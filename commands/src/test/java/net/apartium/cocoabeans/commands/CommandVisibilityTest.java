@@ -0,0 +1,77 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.multilayered.MultiLayeredCommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandVisibilityTest extends CommandTestBase {
+
+    private CommandVisibility visibility;
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new MultiLayeredCommand());
+        testCommandManager.addCommand(new RangeCommand());
+        testCommandManager.addCommand(new CooldownCommand());
+        visibility = testCommandManager.getCommandVisibility();
+    }
+
+    @Test
+    void hidesCommandsWithUnmetRequirements() {
+        Set<String> visible = visibility.getVisibleCommands(sender);
+        assertTrue(visible.contains("range"));
+        assertFalse(visible.contains("multilayered"));
+        assertFalse(visibility.isVisible(sender, "MultiLayered"));
+        assertFalse(visibility.isVisible(sender, "unknown"));
+
+        sender.addPermission("cocoa-beans.commands.multilayered");
+        assertTrue(visibility.isVisible(sender, "MultiLayered"));
+    }
+
+    @Test
+    void sharesProfiles() {
+        TestSender other = new TestSender();
+        TestSender staff = new TestSender();
+        staff.addPermission("cocoa-beans.commands.multilayered");
+
+        Set<String> visible = visibility.getVisibleCommands(sender);
+        assertSame(visible, visibility.getVisibleCommands(other));
+        assertEquals(1, visibility.getProfiles());
+
+        Set<String> staffVisible = visibility.getVisibleCommands(staff);
+        assertNotSame(visible, staffVisible);
+        assertTrue(staffVisible.containsAll(visible));
+        assertEquals(2, visibility.getProfiles());
+    }
+
+    @Test
+    void ignoresStatefulRequirements() {
+        sender.setUniqueId(new UUID(5, 6));
+        Set<String> visible = visibility.getVisibleCommands(sender);
+        assertTrue(visible.contains("daily"));
+
+        assertTrue(testCommandManager.handle(sender, "daily", new String[0]));
+        assertEquals("claimed", sender.getMessages().get(0));
+
+        assertSame(visible, visibility.getVisibleCommands(sender));
+        assertEquals(1, visibility.getProfiles());
+    }
+
+    @Test
+    void invalidatedByRegistration() {
+        assertFalse(visibility.isVisible(sender, "list"));
+        assertEquals(1, visibility.getProfiles());
+
+        testCommandManager.addCommand(new ListCommand());
+        assertEquals(0, visibility.getProfiles());
+        assertTrue(visibility.isVisible(sender, "list"));
+    }
+
+}
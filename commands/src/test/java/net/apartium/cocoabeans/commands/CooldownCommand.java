@@ -0,0 +1,16 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.ratelimit.Cooldown;
+
+import java.util.concurrent.TimeUnit;
+
+@Cooldown(value = 1, unit = TimeUnit.HOURS)
+@Command("daily")
+public class CooldownCommand implements CommandNode {
+
+    @SubCommand
+    public void claim(Sender sender) {
+        sender.sendMessage("claimed");
+    }
+
+}
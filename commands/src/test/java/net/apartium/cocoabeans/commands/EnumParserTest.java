@@ -0,0 +1,75 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.EnumParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumParserTest {
+
+    enum Color {
+        RED, GREEN, GRAY, BLUE
+    }
+
+    private final EnumParser<Color> parser = new EnumParser<>("color", Color.class, 0, Map.of("grey", Color.GRAY));
+
+    @Test
+    void parseIgnoresCase() {
+        assertEquals(Color.RED, parse("red"));
+        assertEquals(Color.GREEN, parse("Green"));
+        assertEquals(Color.BLUE, parse("BLUE"));
+        assertNull(parse("purple"));
+        assertNull(parse("re"));
+    }
+
+    @Test
+    void alias() {
+        assertEquals(Color.GRAY, parse("grey"));
+        assertEquals(Color.GRAY, parse("GREY"));
+        assertEquals(Color.GRAY, parse("gray"));
+    }
+
+    @Test
+    void tryParse() {
+        assertEquals(OptionalInt.of(2), parser.tryParse(context("x", "blue")));
+        assertEquals(OptionalInt.empty(), parser.tryParse(context("x", "bluee")));
+    }
+
+    @Test
+    void tabCompletion() {
+        assertEquals(Set.of("GREEN", "GRAY", "grey"), complete("gr"));
+        assertEquals(Set.of("GREEN", "grey"), complete("gre"));
+        assertEquals(Set.of("GREEN"), complete("green"));
+        assertEquals(Set.of("RED", "GREEN", "GRAY", "BLUE", "grey"), complete(""));
+        assertEquals(Set.of(), complete("purple"));
+    }
+
+    @Test
+    void duplicateAlias() {
+        assertThrows(IllegalArgumentException.class, () -> new EnumParser<>("color", Color.class, 0, Map.of("red", Color.BLUE)));
+        assertThrows(IllegalArgumentException.class, () -> new EnumParser<>("color", Color.class, 0, Map.of("RED", Color.BLUE)));
+    }
+
+    private Color parse(String arg) {
+        return parser.parse(context(arg)).map(ArgumentParser.ParseResult::result).orElse(null);
+    }
+
+    private Set<String> complete(String arg) {
+        Optional<ArgumentParser.TabCompletionResult> result = parser.tabCompletion(context(arg));
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().newIndex());
+        return result.get().result();
+    }
+
+    private static CommandProcessingContext context(String... args) {
+        return new AbstractCommandProcessingContext(new TestSender(), "test", args, args.length - 1);
+    }
+
+}
@@ -0,0 +1,98 @@
+package net.apartium.cocoabeans.commands;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest extends CommandTestBase {
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new MetricsCommand(testCommandManager));
+    }
+
+    @Test
+    void events() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            testCommandManager.handle(sender, "metered", new String[] {"small", "5"});
+            testCommandManager.handle(sender, "metered", new String[] {"walled"});
+            testCommandManager.handleTabComplete(sender, "metered", new String[] {"o"});
+            testCommandManager.handleTabComplete(sender, "metered", new String[] {"walled", ""});
+        });
+
+        List<RecordedEvent> dispatches = ofType(events, "cocoabeans.CommandDispatch");
+        assertEquals(2, dispatches.size());
+        assertEquals("metered", dispatches.get(0).getString("commandName"));
+        assertEquals(2, dispatches.get(0).getInt("args"));
+        assertEquals(MetricsCommand.class.getName() + "#small", dispatches.get(0).getString("subCommand"));
+        assertEquals("HANDLED", dispatches.get(0).getString("outcome"));
+        assertNull(dispatches.get(1).getString("subCommand"));
+        assertEquals("UNMET_REQUIREMENT", dispatches.get(1).getString("outcome"));
+
+        List<RecordedEvent> parses = ofType(events, "cocoabeans.ArgumentParse");
+        assertTrue(parses.stream().anyMatch(event -> event.getString("parser").equals("int") && event.getInt("depth") == 1 && event.getBoolean("matched")));
+
+        List<RecordedEvent> checks = ofType(events, "cocoabeans.RequirementCheck");
+        assertTrue(checks.stream().anyMatch(event -> !event.getBoolean("met") && event.getBoolean("dispatching")));
+        assertTrue(checks.stream().anyMatch(event -> !event.getBoolean("dispatching")));
+
+        List<RecordedEvent> completions = ofType(events, "cocoabeans.TabComplete");
+        assertEquals(2, completions.size());
+        assertEquals(0, completions.get(0).getInt("depth"));
+        assertEquals(1, completions.get(0).getInt("completions"));
+    }
+
+    @Test
+    void disabled() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.disable("cocoabeans.CommandDispatch");
+            recording.start();
+            testCommandManager.handle(sender, "metered", new String[] {"ok"});
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertTrue(ofType(events, "cocoabeans.CommandDispatch").isEmpty());
+        assertEquals(List.of("ok"), sender.getMessages());
+    }
+
+    private static List<RecordedEvent> record(Runnable runnable) throws IOException {
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("cocoabeans.CommandDispatch", "cocoabeans.ArgumentParse", "cocoabeans.RequirementCheck", "cocoabeans.TabComplete"))
+                recording.enable(name).withThreshold(Duration.ZERO);
+
+            recording.start();
+            runnable.run();
+            recording.stop();
+            return read(recording);
+        }
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws IOException {
+        Path file = Files.createTempFile("commands", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+}
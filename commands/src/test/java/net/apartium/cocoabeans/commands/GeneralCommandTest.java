@@ -79,17 +79,17 @@ public class  GeneralCommandTest extends CommandTestBase {
         evaluate("test-source", "asd asd");
         assertEquals(List.of("null"), sender.getMessages());
 
-        assertEquals(List.of("second", "0", "zero", "1", "2", "3", "one", "two", "three"), evaluateTabCompletion("test-source", new String[]{""}));
-        assertEquals(List.of("two", "three"), evaluateTabCompletion("test-source", "t"));
+        assertEquals(List.of("second", "0", "1", "2", "3", "one", "three", "two", "zero"), evaluateTabCompletion("test-source", new String[]{""}));
+        assertEquals(List.of("three", "two"), evaluateTabCompletion("test-source", "t"));
         assertEquals(List.of(), evaluateTabCompletion("test-source", "ta"));
 
         assertEquals(List.of("wow"), evaluateTabCompletion("test-source", "two w"));
 
-        assertEquals(List.of("two", "three"), evaluateTabCompletion("test-source", "second test2 t"));
-        assertEquals(List.of("0", "zero", "1", "2", "3", "one", "two", "three"), evaluateTabCompletion("test-source", new String[]{"second", "test2", ""}));
-        assertEquals(List.of("two", "three"), evaluateTabCompletion("test-source", "second test t"));
+        assertEquals(List.of("three", "two"), evaluateTabCompletion("test-source", "second test2 t"));
+        assertEquals(List.of("0", "1", "2", "3", "one", "three", "two", "zero"), evaluateTabCompletion("test-source", new String[]{"second", "test2", ""}));
+        assertEquals(List.of("three", "two"), evaluateTabCompletion("test-source", "second test t"));
         Thread.sleep(20);
-        assertEquals(List.of("two", "three"), evaluateTabCompletion("test-source", "second test t"));
+        assertEquals(List.of("three", "two"), evaluateTabCompletion("test-source", "second test t"));
     }
 
     @Test
@@ -394,7 +394,7 @@ public class  GeneralCommandTest extends CommandTestBase {
         assertTrue(
                 CollectionHelpers.equalsList(
                         evaluateTabCompletion("test", ""),
-                        List.of("arg", "diff-arg", "one", "-", "1", "2", "3", "4", "5", "6", "7", "8", "9", "no", "rm", "yes", "test", "testing", "testing-arg", "testing2", "testing3", "set", "send", "config", "try", "evil", "optional")
+                        List.of("arg", "diff-arg", "one", "-", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "no", "rm", "yes", "test", "testing", "testing-arg", "testing2", "testing3", "set", "send", "config", "try", "evil", "optional")
                 )
         );
 
@@ -438,7 +438,7 @@ public class  GeneralCommandTest extends CommandTestBase {
         assertTrue(
                 CollectionHelpers.equalsList(
                         evaluateTabCompletion("test", new String[]{"testing3", ""}),
-                        List.of("-", "1", "2", "3", "4", "5", "6", "7", "8", "9", "true", "false")
+                        List.of("-", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "true", "false")
                 )
         );
 
@@ -560,7 +560,7 @@ public class  GeneralCommandTest extends CommandTestBase {
         assertTrue(
                 CollectionHelpers.equalsList(
                         evaluateTabCompletion("test", new String[]{"test", ""}),
-                        List.of("-", "1", "2", "3", "4", "5", "6", "7", "8", "9")
+                        List.of("-", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9")
                 )
         );
 
@@ -665,7 +665,7 @@ public class  GeneralCommandTest extends CommandTestBase {
         assertTrue(
                 CollectionHelpers.equalsList(
                         evaluateTabCompletion("test", new String[]{"optional", "meow", ""}),
-                        List.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "-")
+                        List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "-")
                 )
         );
 
@@ -0,0 +1,20 @@
+package net.apartium.cocoabeans.commands;
+
+@Command("list")
+public class ListCommand implements CommandNode {
+
+    @SubCommand
+    public void list(Sender sender) {
+        sender.sendMessage("Items:");
+        sender.sendMessage("- apple", "- pear");
+    }
+
+    @SubCommand("stream")
+    public void stream(Sender sender) {
+        sender.sendMessage("Loading");
+        BufferedSender.stream(sender);
+        sender.sendMessage("50%");
+        sender.sendMessage("100%");
+    }
+
+}
@@ -0,0 +1,104 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.MapBasedParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapBasedParserTest {
+
+    private Map<String, Integer> map;
+    private MapBasedParser<Integer> parser;
+
+    @BeforeEach
+    void before() {
+        map = new HashMap<>(Map.of(
+                "spawn", 1,
+                "spawn lobby", 2,
+                "spawn lobby two", 3,
+                "arena red", 4,
+                "Arena Blue", 5
+        ));
+
+        parser = new MapBasedParser<>("location", Integer.class, 0) {
+            @Override
+            public Map<String, Integer> getMap() {
+                return map;
+            }
+        };
+    }
+
+    @Test
+    void singleWord() {
+        assertEquals(new ArgumentParser.ParseResult<>(1, 1), parse("spawn").orElseThrow());
+        assertEquals(OptionalInt.of(1), tryParse("spawn"));
+        assertEquals(new ArgumentParser.ParseResult<>(1, 2), parse(1, "go", "spawn", "now").orElseThrow());
+    }
+
+    @Test
+    void multiWord() {
+        assertEquals(new ArgumentParser.ParseResult<>(4, 2), parse("arena", "red").orElseThrow());
+        assertEquals(new ArgumentParser.ParseResult<>(5, 3), parse(1, "go", "Arena", "Blue").orElseThrow());
+        assertEquals(OptionalInt.of(2), tryParse("arena", "red", "extra"));
+
+        assertTrue(parse("arena").isEmpty());
+        assertTrue(parse("arena", "blue").isEmpty());
+        assertTrue(parse("arena", "green").isEmpty());
+        assertTrue(tryParse("arena", "green").isEmpty());
+        assertTrue(parse(2, "arena", "red").isEmpty());
+    }
+
+    @Test
+    void shortestMatchWins() {
+        assertEquals(new ArgumentParser.ParseResult<>(1, 1), parse("spawn", "lobby", "two").orElseThrow());
+    }
+
+    @Test
+    void tabCompletion() {
+        assertEquals(Set.of("spawn", "spawn lobby", "spawn lobby two"), complete("SP").orElseThrow().result());
+        assertEquals(Set.of("spawn lobby", "spawn lobby two"), complete("spawn", "l").orElseThrow().result());
+        assertEquals(Set.of("arena red", "Arena Blue"), complete("arena").orElseThrow().result());
+        assertEquals(3, complete("arena", "").orElseThrow().newIndex());
+        assertTrue(complete("x").isEmpty());
+    }
+
+    @Test
+    void rebuildOnChange() {
+        assertTrue(parse("hub").isEmpty());
+        assertTrue(parse("hub", "one").isEmpty());
+
+        map.put("hub", 6);
+        map.put("hub one", 7);
+        assertEquals(new ArgumentParser.ParseResult<>(6, 1), parse("hub").orElseThrow());
+        assertEquals(Set.of("hub", "hub one"), complete("h").orElseThrow().result());
+
+        map = Map.of("hub one", 8);
+        assertEquals(new ArgumentParser.ParseResult<>(8, 2), parse("hub", "one").orElseThrow());
+        assertTrue(parse("spawn").isEmpty());
+    }
+
+    private Optional<ArgumentParser.ParseResult<Integer>> parse(String... args) {
+        return parse(0, args);
+    }
+
+    private Optional<ArgumentParser.ParseResult<Integer>> parse(int index, String... args) {
+        return parser.parse(new AbstractCommandProcessingContext(new TestSender(), "test", args, index));
+    }
+
+    private OptionalInt tryParse(String... args) {
+        return parser.tryParse(new AbstractCommandProcessingContext(new TestSender(), "test", args, 0));
+    }
+
+    private Optional<ArgumentParser.TabCompletionResult> complete(String... args) {
+        return parser.tabCompletion(new AbstractCommandProcessingContext(new TestSender(), "test", args, 0));
+    }
+
+}
@@ -0,0 +1,40 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.argument.Range;
+
+@Command("metered")
+public class MetricsCommand implements CommandNode {
+
+    private final CommandManager commandManager;
+
+    public MetricsCommand(CommandManager commandManager) {
+        this.commandManager = commandManager;
+    }
+
+    @SubCommand("ok")
+    public void ok(Sender sender) {
+        sender.sendMessage("ok");
+    }
+
+    @SubCommand("fail")
+    public void fail(Sender sender) {
+        throw new IllegalStateException("fail");
+    }
+
+    @WallRequirement
+    @SubCommand("walled")
+    public void walled(Sender sender) {
+        sender.sendMessage("walled");
+    }
+
+    @SubCommand("nested")
+    public void nested(Sender sender) throws Throwable {
+        commandManager.handle(sender, "metered", new String[] {"ok"});
+    }
+
+    @SubCommand("small <int>")
+    public void small(Sender sender, @Range(to = 10) int num) {
+        sender.sendMessage("small " + num);
+    }
+
+}
@@ -0,0 +1,71 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.NumericCompletions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericCompletionsTest {
+
+    @Test
+    void largeRange() {
+        assertEquals(Set.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), NumericCompletions.integers("", 0, 999_999, 1));
+        assertEquals(Set.of("120", "121", "122", "123", "124", "125", "126", "127", "128", "129"), NumericCompletions.integers("12", 0, 999_999, 1));
+        assertEquals(Set.of(), NumericCompletions.integers("1000000", 0, 999_999, 1));
+        assertEquals(Set.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), NumericCompletions.integers("0", 0, 999_999, 1).stream().map(s -> s.substring(1)).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void bounds() {
+        // [5, 25)
+        assertEquals(Set.of("1", "2", "5", "6", "7", "8", "9"), NumericCompletions.integers("", 5, 24, 1));
+        assertEquals(Set.of("20", "21", "22", "23", "24"), NumericCompletions.integers("2", 5, 24, 1));
+        assertEquals(Set.of(), NumericCompletions.integers("3", 5, 24, 1));
+    }
+
+    @Test
+    void step() {
+        assertEquals(Set.of("0", "2", "4", "6", "8"), NumericCompletions.integers("", 0, 9, 2));
+        assertEquals(Set.of("1", "3", "5", "7", "9"), NumericCompletions.integers("", 1, 9, 2));
+        assertEquals(Set.of("1", "3", "5", "7", "9"), NumericCompletions.integers("", 11, 99, 20));
+        assertEquals(Set.of("31"), NumericCompletions.integers("3", 11, 99, 20));
+        assertEquals(Set.of(), NumericCompletions.integers("2", 11, 99, 20));
+    }
+
+    @Test
+    void negative() {
+        assertEquals(Set.of("-", "0", "1", "2", "3"), NumericCompletions.integers("", -5, 3, 1));
+        assertEquals(Set.of("-1", "-2", "-3", "-4", "-5"), NumericCompletions.integers("-", -5, 3, 1));
+        assertEquals(Set.of("-10", "-11", "-12"), NumericCompletions.integers("-1", -12, -10, 1));
+    }
+
+    @Test
+    void overflow() {
+        assertEquals(Set.of("214748364" + 0, "2147483641", "2147483642", "2147483643", "2147483644", "2147483645", "2147483646", "2147483647"),
+                NumericCompletions.integers("214748364", Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+        assertEquals(Set.of(), NumericCompletions.integers("2147483648", Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+        assertEquals(Set.of("-2147483648"), NumericCompletions.integers("-214748364", Integer.MIN_VALUE, Integer.MAX_VALUE, 1).stream().filter(s -> s.endsWith("8")).collect(Collectors.toSet()));
+        assertEquals(Set.of(), NumericCompletions.integers("99999999999999999999999", Long.MIN_VALUE, Long.MAX_VALUE, 1));
+        assertEquals(10, NumericCompletions.integers("1", Long.MIN_VALUE, Long.MAX_VALUE, 1).size());
+    }
+
+    @Test
+    void invalid() {
+        assertEquals(Set.of(), NumericCompletions.integers("a", 0, 10, 1));
+        assertEquals(Set.of(), NumericCompletions.integers("1.", 0, 10, 1));
+        assertEquals(Set.of(), NumericCompletions.decimals("1.2.", true));
+        assertEquals(Set.of(), NumericCompletions.decimals("++1", true));
+    }
+
+    @Test
+    void decimals() {
+        assertEquals(Set.of("-", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "."), NumericCompletions.decimals("", true));
+        assertEquals(Set.of("01", "02", "03", "04", "05", "06", "07", "08", "09", "0."), NumericCompletions.decimals("0", true));
+        assertEquals(Set.of("0.30", "0.31", "0.32", "0.33", "0.34", "0.35", "0.36", "0.37", "0.38", "0.39"), NumericCompletions.decimals("0.3", true));
+        assertFalse(NumericCompletions.decimals("", false).contains("-"));
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.ArgumentParser;
+import net.apartium.cocoabeans.commands.parsers.IntParser;
+import net.apartium.cocoabeans.commands.parsers.StringParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserScopeTest {
+
+    @Test
+    void chainedLookup() {
+        IntParser managerInt = new IntParser(0);
+        IntParser methodInt = new IntParser(1);
+        StringParser classString = new StringParser(0);
+
+        Map<String, ArgumentParser<?>> managerParsers = new HashMap<>();
+        managerParsers.put("int", managerInt);
+
+        ParserScope root = ParserScope.root(managerParsers);
+        ParserScope classScope = ParserScope.of(Map.of("string", classString), root);
+        ParserScope methodScope = ParserScope.of(Map.of("int", methodInt), classScope);
+
+        assertSame(methodInt, methodScope.get("int"));
+        assertSame(classString, methodScope.get("string"));
+        assertSame(managerInt, classScope.get("int"));
+        assertNull(methodScope.get("long"));
+    }
+
+    @Test
+    void emptyScopeIsParent() {
+        ParserScope root = ParserScope.root(Map.of());
+        assertSame(root, ParserScope.of(Map.of(), root));
+    }
+
+    @Test
+    void rootIsNotCopied() {
+        Map<String, ArgumentParser<?>> managerParsers = new HashMap<>();
+        ParserScope root = ParserScope.root(managerParsers);
+        assertNull(root.get("int"));
+
+        IntParser intParser = new IntParser(0);
+        managerParsers.put("int", intParser);
+        assertSame(intParser, root.get("int"));
+    }
+
+}
@@ -0,0 +1,28 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.argument.Range;
+
+@Command("range")
+public class RangeCommand implements CommandNode {
+
+    @SubCommand("int <int>")
+    public void intRange(Sender sender, @Range(from = -5, to = 10, step = 5) int num) {
+        sender.sendMessage("int " + num);
+    }
+
+    @SubCommand("long <long>")
+    public void longRange(Sender sender, @Range(to = 1e19, step = 3) long num) {
+        sender.sendMessage("long " + num);
+    }
+
+    @SubCommand("float <float>")
+    public void floatRange(Sender sender, @Range(to = 1, step = 0.25) float num) {
+        sender.sendMessage("float " + num);
+    }
+
+    @SubCommand("boxed <int>")
+    public void boxedRange(Sender sender, @Range(to = 3) Integer num) {
+        sender.sendMessage("boxed " + num);
+    }
+
+}
@@ -0,0 +1,83 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.requirements.argument.RangeArgumentRequirementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeRequirementTest extends CommandTestBase {
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new RangeCommand());
+    }
+
+    @Test
+    void intRange() {
+        assertAccepted("int -5", "int -5");
+        assertAccepted("int 0", "int 0");
+        assertAccepted("int 5", "int 5");
+
+        assertRejected("int -10");
+        assertRejected("int 3");
+        assertRejected("int 10");
+    }
+
+    @Test
+    void longRangeIsExact() {
+        assertAccepted("long 9223372036854775806", "long 9223372036854775806");
+        assertRejected("long 9223372036854775807");
+        assertRejected("long -3");
+    }
+
+    @Test
+    void floatRange() {
+        assertAccepted("float 0.75", "float 0.75");
+        assertRejected("float 0.3");
+        assertRejected("float 1");
+    }
+
+    @Test
+    void boxedParameter() {
+        assertAccepted("boxed 2", "boxed 2");
+        assertRejected("boxed 3");
+    }
+
+    @Test
+    void primitiveOverloads() {
+        RangeArgumentRequirementFactory.RangeImpl range = new RangeArgumentRequirementFactory.RangeImpl(0, 10.5, 2);
+
+        assertTrue(range.meetsRequirement(sender, null, 10));
+        assertFalse(range.meetsRequirement(sender, null, 11));
+        assertTrue(range.meetsRequirement(sender, null, 10L));
+        assertFalse(range.meetsRequirement(sender, null, 12L));
+        assertTrue(range.meetsRequirement(sender, null, 4.0));
+        assertFalse(range.meetsRequirement(sender, null, 4.5));
+
+        assertTrue(range.meetsRequirement(sender, null, (Object) 8));
+        assertTrue(range.meetsRequirement(sender, null, (Object) 8L));
+        assertTrue(range.meetsRequirement(sender, null, (Object) 8f));
+        assertFalse(range.meetsRequirement(sender, null, (Object) "8"));
+    }
+
+    private void assertAccepted(String args, String message) {
+        evaluate(args);
+        assertEquals(List.of(message), sender.getMessages());
+    }
+
+    private void assertRejected(String args) {
+        evaluate(args);
+        assertEquals(List.of(), sender.getMessages());
+    }
+
+    private void evaluate(String args) {
+        sender.getMessages().clear();
+        testCommandManager.handle(sender, "range", args.split("\\s+"));
+    }
+
+}
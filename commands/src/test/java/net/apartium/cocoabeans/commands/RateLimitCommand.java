@@ -0,0 +1,48 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.exception.ExceptionHandle;
+import net.apartium.cocoabeans.commands.exception.RateLimitException;
+import net.apartium.cocoabeans.commands.requirements.ratelimit.Cooldown;
+import net.apartium.cocoabeans.commands.requirements.ratelimit.RateLimit;
+import net.apartium.cocoabeans.commands.requirements.argument.Range;
+
+import java.util.concurrent.TimeUnit;
+
+@Command("limited")
+public class RateLimitCommand implements CommandNode {
+
+    @Cooldown(value = 1, unit = TimeUnit.HOURS)
+    @SubCommand("cooldown")
+    public void cooldown(Sender sender) {
+        sender.sendMessage("cooldown");
+    }
+
+    @RateLimit(permits = 2, per = 1, unit = TimeUnit.HOURS)
+    @SubCommand("limit <int>")
+    public void limit(Sender sender, @Range(to = 10) int num) {
+        sender.sendMessage("limit " + num);
+    }
+
+    @Cooldown(value = 1, unit = TimeUnit.HOURS)
+    @SubCommand("two <int>")
+    public void twoInt(Sender sender, int num) {
+        sender.sendMessage("two int " + num);
+    }
+
+    @SubCommand("two <boolean>")
+    public void twoBoolean(Sender sender, boolean value) {
+        sender.sendMessage("two boolean " + value);
+    }
+
+    @SubCommand("free")
+    public void free(Sender sender) {
+        sender.sendMessage("free");
+    }
+
+    @ExceptionHandle(RateLimitException.class)
+    public boolean rateLimited(RateLimitException exception, Sender sender) {
+        sender.sendMessage("wait " + exception.getRemaining().toMinutes());
+        return true;
+    }
+
+}
@@ -0,0 +1,88 @@
+package net.apartium.cocoabeans.commands;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTest extends CommandTestBase {
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new RateLimitCommand());
+        sender.setUniqueId(new UUID(1, 2));
+    }
+
+    @Test
+    void cooldown() {
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+        assertEquals(List.of("wait 59"), evaluate("cooldown"));
+        assertEquals(List.of("free"), evaluate("free"));
+    }
+
+    @Test
+    void rateLimit() {
+        assertEquals(List.of("limit 1"), evaluate("limit 1"));
+        assertEquals(List.of("limit 2"), evaluate("limit 2"));
+        assertEquals(List.of("wait 29"), evaluate("limit 3"));
+    }
+
+    @Test
+    void invalidUsageDoesNotUsePermits() {
+        evaluate("cooldown abc");
+        evaluate("limit abc");
+        evaluate("limit 50");
+
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+        assertEquals(List.of("limit 1"), evaluate("limit 1"));
+        assertEquals(List.of("limit 2"), evaluate("limit 2"));
+        assertEquals(List.of("wait 29"), evaluate("limit 3"));
+    }
+
+    @Test
+    void siblingBranchDoesNotUsePermits() {
+        assertEquals(List.of("two boolean true"), evaluate("two true"));
+        assertEquals(List.of("two boolean false"), evaluate("two false"));
+
+        assertEquals(List.of("two int 1"), evaluate("two 1"));
+        // the cooldown or the sibling's invalid usage is reported, depending on the order sub commands are declared in
+        assertFalse(evaluate("two 2").contains("two int 2"));
+        assertEquals(List.of("two boolean true"), evaluate("two true"));
+    }
+
+    @Test
+    void limitIsPerSender() {
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+
+        sender.setUniqueId(new UUID(3, 4));
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+    }
+
+    @Test
+    void senderWithoutIdIsNotLimited() {
+        sender.setUniqueId(null);
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+    }
+
+    @Test
+    void tabCompletionDoesNotUsePermits() {
+        for (int i = 0; i < 5; i++)
+            testCommandManager.handleTabComplete(sender, "limited", new String[] {"cool"});
+
+        assertEquals(List.of("cooldown"), evaluate("cooldown"));
+        assertFalse(testCommandManager.handleTabComplete(sender, "limited", new String[] {"cool"}).contains("cooldown"));
+    }
+
+    private List<String> evaluate(String args) {
+        sender.getMessages().clear();
+        testCommandManager.handle(sender, "limited", args.split("\\s+"));
+        return List.copyOf(sender.getMessages());
+    }
+
+}
@@ -0,0 +1,134 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.SourceParserImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceParserImplTest {
+
+    private Source source;
+    private MethodHandle handle;
+    private List<Runnable> tasks;
+
+    @BeforeEach
+    void before() throws ReflectiveOperationException {
+        source = new Source();
+        handle = MethodHandles.lookup().findVirtual(Source.class, "values", MethodType.methodType(Map.class));
+        tasks = new ArrayList<>();
+    }
+
+    @Test
+    void cachedWithinMaxAge() {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 60_000);
+
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertEquals(1, source.calls);
+        assertEquals(1, parser.getRefreshStats().refreshes());
+    }
+
+    @Test
+    void neverCached() {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 0);
+
+        parser.getMap();
+        parser.getMap();
+        assertEquals(2, source.calls);
+    }
+
+    @Test
+    void refreshAhead() throws InterruptedException {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 1, 0, true, tasks::add);
+
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertTrue(tasks.isEmpty());
+
+        Thread.sleep(5);
+
+        // stale result is served and only a single refresh is scheduled
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertEquals(1, tasks.size());
+        assertEquals(1, source.calls);
+
+        tasks.remove(0).run();
+        assertEquals(Map.of("v2", 2), parser.getMap());
+        assertEquals(2, parser.getRefreshStats().refreshes());
+    }
+
+    @Test
+    void refreshAheadFailureKeepsResult() throws InterruptedException {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 1, 0, true, tasks::add);
+
+        parser.getMap();
+        Thread.sleep(5);
+
+        source.fail = true;
+        parser.getMap();
+        tasks.remove(0).run();
+
+        assertEquals(Map.of("v1", 1), parser.getMap());
+        assertEquals(1, parser.getRefreshStats().failedRefreshes());
+        assertEquals(2, parser.getRefreshStats().refreshes());
+    }
+
+    @Test
+    void uncachedIsNotIndexed() {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 0);
+
+        assertEquals(Integer.valueOf(1), parser.parse(context("v1")).orElseThrow().result());
+        assertEquals(OptionalInt.of(1), parser.tryParse(context("v2")));
+        assertTrue(parser.parse(context("v1")).isEmpty());
+        assertEquals(Set.of("v4"), parser.tabCompletion(context("V")).orElseThrow().result());
+
+        assertEquals(4, source.calls);
+        assertEquals(0, parser.getIndexBuilds());
+    }
+
+    @Test
+    void cachedIsIndexedOnce() {
+        SourceParserImpl<Integer> parser = new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 60_000);
+
+        assertEquals(Integer.valueOf(1), parser.parse(context("v1")).orElseThrow().result());
+        assertEquals(OptionalInt.of(1), parser.tryParse(context("v1")));
+        assertEquals(Set.of("v1"), parser.tabCompletion(context("v")).orElseThrow().result());
+
+        assertEquals(1, parser.getIndexBuilds());
+    }
+
+    @Test
+    void refreshAheadRequiresExecutor() {
+        assertThrows(IllegalArgumentException.class, () -> new SourceParserImpl<>(source, "values", Integer.class, 0, handle, 1, 0, true, null));
+    }
+
+    private static CommandProcessingContext context(String... args) {
+        return new AbstractCommandProcessingContext(new TestSender(), "test", args, 0);
+    }
+
+    public static class Source implements CommandNode {
+
+        private int calls = 0;
+        private boolean fail = false;
+
+        public Map<String, Integer> values() {
+            if (fail)
+                throw new IllegalStateException("source is down");
+
+            calls++;
+            return Map.of("v" + calls, calls);
+        }
+
+    }
+
+}
@@ -16,6 +16,7 @@ public class TestSender implements Sender {
 
     List<String> messages = new ArrayList<>();
     private final Set<String> permissions = new HashSet<>();
+    private UUID uniqueId;
 
     @Override
     public Object getSender() {
@@ -33,6 +34,15 @@ public class TestSender implements Sender {
 
     }
 
+    @Override
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(UUID uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
     public List<String> getMessages() {
         return messages;
     }
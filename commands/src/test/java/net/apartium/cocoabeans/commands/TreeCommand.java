@@ -0,0 +1,32 @@
+package net.apartium.cocoabeans.commands;
+
+@Command("tree")
+public class TreeCommand implements CommandNode {
+
+    @SubCommand
+    public void tree(Sender sender) {
+        sender.sendMessage("tree");
+    }
+
+    @SubCommand("give <int>")
+    public void give(Sender sender, int amount) {
+        sender.sendMessage("give " + amount);
+    }
+
+    @SubCommand("give <int> <?string> now")
+    public void giveNow(Sender sender, int amount, String target) {
+        sender.sendMessage("give " + amount + " " + target + " now");
+    }
+
+    @WallRequirement
+    @SubCommand("secret")
+    public void secret(Sender sender) {
+        sender.sendMessage("secret");
+    }
+
+    @SubCommand(value = "Exact", ignoreCase = false)
+    public void exact(Sender sender) {
+        sender.sendMessage("exact");
+    }
+
+}
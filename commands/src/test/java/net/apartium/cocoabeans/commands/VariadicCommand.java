@@ -0,0 +1,38 @@
+package net.apartium.cocoabeans.commands;
+
+import java.util.Arrays;
+
+@Command("variadic")
+public class VariadicCommand implements CommandNode {
+
+    @SubCommand("sum <int...>")
+    public void sum(Sender sender, int[] values) {
+        sender.sendMessage("sum " + Arrays.stream(values).sum() + " of " + values.length);
+    }
+
+    @SubCommand("longs <long...> done")
+    public void longs(Sender sender, long[] values) {
+        sender.sendMessage("longs " + Arrays.toString(values));
+    }
+
+    @SubCommand("weights <double...> <string>")
+    public void weights(Sender sender, double[] values, String name) {
+        sender.sendMessage("weights " + name + " " + Arrays.toString(values));
+    }
+
+    @SubCommand("flags <boolean...>")
+    public void flags(Sender sender, boolean[] values) {
+        sender.sendMessage("flags " + Arrays.toString(values));
+    }
+
+    @SubCommand("words <string...>")
+    public void words(Sender sender, String[] values) {
+        sender.sendMessage("words " + String.join(",", values));
+    }
+
+    @SubCommand("maybe <?int...>")
+    public void maybe(Sender sender, int[] values) {
+        sender.sendMessage("maybe " + values.length);
+    }
+
+}
@@ -0,0 +1,101 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.parsers.IntParser;
+import net.apartium.cocoabeans.commands.parsers.VariadicParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariadicParserTest extends CommandTestBase {
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new VariadicCommand());
+    }
+
+    @Test
+    void primitiveInts() {
+        evaluate("sum 1 2 3");
+        assertEquals(List.of("sum 6 of 3"), sender.getMessages());
+
+        evaluate("sum 5");
+        assertEquals(List.of("sum 5 of 1"), sender.getMessages());
+
+        evaluate("sum");
+        assertNotInvoked();
+
+        evaluate("sum 1 x");
+        assertNotInvoked();
+    }
+
+    @Test
+    void followedByKeyword() {
+        evaluate("longs 1 9223372036854775807 done");
+        assertEquals(List.of("longs [1, 9223372036854775807]"), sender.getMessages());
+    }
+
+    @Test
+    void followedByArgument() {
+        evaluate("weights 0.5 1.5 heavy");
+        assertEquals(List.of("weights heavy [0.5, 1.5]"), sender.getMessages());
+    }
+
+    @Test
+    void objectParser() {
+        evaluate("flags true false true");
+        assertEquals(List.of("flags [true, false, true]"), sender.getMessages());
+
+        evaluate("words a b c");
+        assertEquals(List.of("words a,b,c"), sender.getMessages());
+    }
+
+    @Test
+    void optional() {
+        evaluate("maybe");
+        assertEquals(List.of("maybe 0"), sender.getMessages());
+
+        evaluate("maybe 1 2");
+        assertEquals(List.of("maybe 2"), sender.getMessages());
+    }
+
+    @Test
+    void tabCompletion() {
+        List<String> result = testCommandManager.handleTabComplete(sender, "variadic", new String[] {"longs", "1", ""});
+        assertTrue(result.contains("done"), result.toString());
+        assertTrue(result.contains("1"), result.toString());
+
+        result = testCommandManager.handleTabComplete(sender, "variadic", new String[] {"longs", "1", "d"});
+        assertEquals(List.of("done"), result);
+
+        result = testCommandManager.handleTabComplete(sender, "variadic", new String[] {"flags", "true", "f"});
+        assertEquals(List.of("false"), result);
+    }
+
+    @Test
+    void tryParse() {
+        VariadicParser<?> parser = VariadicParser.of(new IntParser(0));
+        assertEquals(int[].class, parser.getArgumentType());
+        assertEquals("int...", parser.getKeyword());
+
+        assertEquals(OptionalInt.of(2), parser.tryParse(new AbstractCommandProcessingContext(sender, "test", new String[] {"1", "2", "x"}, 0)));
+        assertEquals(OptionalInt.empty(), parser.tryParse(new AbstractCommandProcessingContext(sender, "test", new String[] {"x", "1"}, 0)));
+        assertEquals(VariadicParser.of(parser.getElementParser()), parser);
+    }
+
+    private void assertNotInvoked() {
+        for (String message : sender.getMessages())
+            assertFalse(message != null && message.startsWith("sum"), message);
+    }
+
+    private void evaluate(String args) {
+        sender.getMessages().clear();
+        testCommandManager.handle(sender, "variadic", args.split("\\s+"));
+    }
+
+}
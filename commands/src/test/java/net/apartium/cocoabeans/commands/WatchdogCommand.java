@@ -0,0 +1,49 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.watchdog.TimeBudget;
+
+import java.util.concurrent.TimeUnit;
+
+@Command("watched")
+public class WatchdogCommand implements CommandNode {
+
+    @SubCommand("fast")
+    public void fast(Sender sender) {
+        sender.sendMessage("fast");
+    }
+
+    @TimeBudget(1)
+    @SubCommand("slow")
+    public void slow(Sender sender) throws InterruptedException {
+        Thread.sleep(2);
+        sender.sendMessage("slow");
+    }
+
+    @TimeBudget(value = 1, async = true)
+    @SubCommand("offloadable")
+    public void offloadable(Sender sender) throws InterruptedException {
+        Thread.sleep(2);
+        sender.sendMessage("offloadable");
+    }
+
+    @TimeBudget(value = 1, async = true)
+    @SubCommand("refuse")
+    public boolean refuse(Sender sender) throws InterruptedException {
+        Thread.sleep(2);
+        return false;
+    }
+
+    @TimeBudget(value = 1, unit = TimeUnit.HOURS)
+    @SubCommand("generous")
+    public void generous(Sender sender) throws InterruptedException {
+        Thread.sleep(2);
+        sender.sendMessage("generous");
+    }
+
+    @Override
+    public boolean fallbackHandle(Sender sender, String label, String[] args) {
+        sender.sendMessage("fallback");
+        return true;
+    }
+
+}
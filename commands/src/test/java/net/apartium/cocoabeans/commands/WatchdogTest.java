@@ -0,0 +1,135 @@
+package net.apartium.cocoabeans.commands;
+
+import net.apartium.cocoabeans.commands.watchdog.BudgetViolation;
+import net.apartium.cocoabeans.commands.watchdog.CommandWatchdog;
+import net.apartium.cocoabeans.commands.watchdog.ExecutionBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchdogTest extends CommandTestBase {
+
+    private final List<BudgetViolation> violations = new ArrayList<>();
+    private final List<Runnable> asyncTasks = new ArrayList<>();
+
+    private CommandWatchdog watchdog;
+
+    @Override
+    @BeforeEach
+    public void before() {
+        super.before();
+        testCommandManager.addCommand(new WatchdogCommand());
+
+        watchdog = new CommandWatchdog(Duration.ZERO, violations::add);
+        testCommandManager.setWatchdog(watchdog);
+    }
+
+    @Test
+    void reportsViolations() {
+        evaluate("slow");
+        evaluate("slow");
+
+        assertEquals(2, violations.size());
+
+        BudgetViolation violation = violations.get(1);
+        assertEquals("watched", violation.commandName());
+        assertEquals(WatchdogCommand.class.getName() + "#slow", violation.budget().getName());
+        assertEquals(1_000_000, violation.budgetNanos());
+        assertTrue(violation.elapsedNanos() >= 2_000_000);
+        assertEquals(2, violation.strikes());
+        assertFalse(violation.async());
+
+        assertEquals(2, watchdog.getViolations());
+        assertEquals(List.of(violation.budget()), watchdog.getOffenders(10));
+        assertEquals(2, violation.budget().getInvocations());
+    }
+
+    @Test
+    void withinBudget() {
+        evaluate("fast");
+        evaluate("generous");
+
+        assertEquals(List.of(), violations);
+        assertEquals(List.of(), watchdog.getOffenders(10));
+    }
+
+    @Test
+    void defaultBudget() {
+        watchdog = new CommandWatchdog(Duration.ofNanos(1), violations::add);
+        testCommandManager.setWatchdog(watchdog);
+
+        evaluate("generous");
+        assertEquals(List.of(), violations);
+
+        assertEquals(List.of("fast"), evaluate("fast"));
+        assertEquals(1, violations.size());
+        assertEquals(1, violations.get(0).budgetNanos());
+    }
+
+    @Test
+    void offloadsRepeatOffenders() {
+        watchdog.setAsyncPolicy(asyncTasks::add, 2);
+
+        assertEquals(List.of("slow"), evaluate("slow"));
+        assertEquals(List.of("slow"), evaluate("slow"));
+        assertEquals(List.of("slow"), evaluate("slow"));
+
+        assertEquals(List.of("offloadable"), evaluate("offloadable"));
+        assertEquals(List.of("offloadable"), evaluate("offloadable"));
+        assertEquals(List.of(), evaluate("offloadable"));
+
+        assertEquals(1, asyncTasks.size());
+        asyncTasks.get(0).run();
+        assertEquals(List.of("offloadable"), sender.getMessages());
+        assertTrue(violations.get(violations.size() - 1).async());
+
+        ExecutionBudget budget = violations.get(violations.size() - 1).budget();
+        assertTrue(budget.isOffloaded());
+        budget.resetStrikes();
+        assertEquals(List.of("offloadable"), evaluate("offloadable"));
+    }
+
+    @Test
+    void runsSynchronouslyOnceAsyncPolicyIsCleared() {
+        watchdog.setAsyncPolicy(asyncTasks::add, 1);
+
+        evaluate("offloadable");
+        assertTrue(violations.get(0).budget().isOffloaded());
+
+        watchdog.setAsyncPolicy(null, 1);
+        assertEquals(List.of("offloadable"), evaluate("offloadable"));
+        assertEquals(List.of(), asyncTasks);
+    }
+
+    @Test
+    void offloadedFalseReachesFallback() {
+        watchdog.setAsyncPolicy(asyncTasks::add, 1);
+
+        assertEquals(List.of("fallback"), evaluate("refuse"));
+        assertEquals(List.of(), evaluate("refuse"));
+
+        assertEquals(1, asyncTasks.size());
+        asyncTasks.get(0).run();
+        assertEquals(List.of("fallback"), sender.getMessages());
+    }
+
+    @Test
+    void notMeasuredWithoutWatchdog() {
+        testCommandManager.setWatchdog(null);
+        evaluate("slow");
+
+        assertEquals(List.of(), violations);
+    }
+
+    private List<String> evaluate(String args) {
+        sender.getMessages().clear();
+        testCommandManager.handle(sender, "watched", args.split("\\s+"));
+        return List.copyOf(sender.getMessages());
+    }
+
+}
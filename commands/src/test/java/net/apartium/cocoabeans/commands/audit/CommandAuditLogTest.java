@@ -0,0 +1,259 @@
+package net.apartium.cocoabeans.commands.audit;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.RangeCommand;
+import net.apartium.cocoabeans.commands.TestCommandManager;
+import net.apartium.cocoabeans.commands.TestSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandAuditLogTest {
+
+    private static final UUID STAFF = new UUID(0, 7);
+
+    private Path directory;
+    private TestCommandManager commandManager;
+    private TestSender staff;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("audit");
+
+        commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new RangeCommand());
+
+        staff = new TestSender();
+        staff.setUniqueId(STAFF);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void recordsDispatches() throws IOException {
+        TestSender console = new TestSender();
+
+        try (CommandAuditLog auditLog = CommandAuditLog.open(directory)) {
+            commandManager.setAuditLog(auditLog);
+
+            commandManager.handle(staff, "range", new String[] {"int", "5"});
+            commandManager.handle(staff, "range", new String[] {"nope"});
+            commandManager.handle(console, "unknown", new String[0]);
+            commandManager.handleBatch(console, List.of("range int 0", "range int 3"));
+
+            assertTrue(auditLog.flush(Duration.ofSeconds(5)));
+            assertEquals(5, auditLog.getWritten());
+            assertEquals(0, auditLog.getDropped());
+            assertNull(auditLog.getError());
+
+            // readable while the log is open
+            List<AuditRecord> records = all(null);
+            assertEquals(5, records.size());
+
+            AuditRecord first = records.get(0);
+            assertEquals(STAFF, first.senderId());
+            assertEquals("range", first.commandName());
+            assertArrayEquals(new String[] {"int", "5"}, first.args());
+            assertEquals(BatchResult.Outcome.HANDLED, first.outcome());
+            assertFalse(first.truncated());
+            assertFalse(first.duration().isNegative());
+
+            assertEquals(BatchResult.Outcome.FAILED, records.get(1).outcome());
+
+            assertNull(records.get(2).senderId());
+            assertEquals(BatchResult.Outcome.UNKNOWN_COMMAND, records.get(2).outcome());
+            assertEquals(0, records.get(2).args().length);
+
+            assertEquals(BatchResult.Outcome.HANDLED, records.get(3).outcome());
+            assertEquals(BatchResult.Outcome.UNHANDLED, records.get(4).outcome());
+
+            assertEquals(2, all(STAFF).size());
+            assertEquals(0, all(new UUID(0, 8)).size());
+            assertEquals(0, AuditLogReader.query(directory, Instant.EPOCH, first.timestamp(), null).size());
+        }
+    }
+
+    @Test
+    void filter() throws IOException {
+        try (CommandAuditLog auditLog = CommandAuditLog.open(directory)) {
+            auditLog.setFilter((sender, commandName) -> sender.getUniqueId() != null);
+            commandManager.setAuditLog(auditLog);
+
+            commandManager.handle(new TestSender(), "range", new String[] {"int", "5"});
+            commandManager.handle(staff, "range", new String[] {"int", "0"});
+
+            assertTrue(auditLog.flush(Duration.ofSeconds(5)));
+        }
+
+        List<AuditRecord> records = all(null);
+        assertEquals(1, records.size());
+        assertEquals(STAFF, records.get(0).senderId());
+    }
+
+    @Test
+    void longArgsAreTruncated() throws IOException {
+        String unicode = "\u00e9\u4e2d\ud83d\ude00";
+        try (CommandAuditLog auditLog = CommandAuditLog.open(directory)) {
+            auditLog.record(staff, "say", new String[] {unicode, "x".repeat(300), "lost"}, BatchResult.Outcome.HANDLED, 5);
+            auditLog.record(staff, "say", new String[] {"a".repeat(AuditFormat.MAX_TEXT_LENGTH - 4)}, BatchResult.Outcome.HANDLED, 5);
+        }
+
+        List<AuditRecord> records = all(null);
+        assertEquals(2, records.size());
+
+        AuditRecord truncated = records.get(0);
+        assertTrue(truncated.truncated());
+        assertEquals(2, truncated.args().length);
+        assertEquals(unicode, truncated.args()[0]);
+        assertTrue(truncated.args()[1].startsWith("xxx"));
+        assertEquals(Duration.ofNanos(5), truncated.duration());
+
+        // fits exactly
+        assertFalse(records.get(1).truncated());
+        assertEquals(AuditFormat.MAX_TEXT_LENGTH - 4, records.get(1).args()[0].length());
+    }
+
+    @Test
+    void rollsAndDeletesOldSegments() throws IOException {
+        try (CommandAuditLog auditLog = new CommandAuditLog(directory, 16, 4, 2)) {
+            for (int i = 0; i < 10; i++)
+                auditLog.record(staff, "test", new String[] {String.valueOf(i)}, BatchResult.Outcome.HANDLED, i);
+        }
+
+        assertEquals(List.of(1L, 2L), AuditLogReader.segments(directory));
+
+        List<AuditRecord> records = all(null);
+        assertEquals(6, records.size());
+        for (int i = 0; i < records.size(); i++)
+            assertArrayEquals(new String[] {String.valueOf(i + 4)}, records.get(i).args());
+    }
+
+    @Test
+    void resumesLastSegment() throws IOException {
+        try (CommandAuditLog auditLog = new CommandAuditLog(directory, 16, 8, 4)) {
+            auditLog.record(staff, "first", new String[0], BatchResult.Outcome.HANDLED, 1);
+        }
+
+        try (CommandAuditLog auditLog = new CommandAuditLog(directory, 16, 8, 4)) {
+            auditLog.record(staff, "second", new String[0], BatchResult.Outcome.HANDLED, 1);
+        }
+
+        assertEquals(List.of(0L), AuditLogReader.segments(directory));
+
+        List<AuditRecord> records = all(null);
+        assertEquals(2, records.size());
+        assertEquals("first", records.get(0).commandName());
+        assertEquals("second", records.get(1).commandName());
+    }
+
+    @Test
+    void concurrentProducers() throws Exception {
+        int threads = 4;
+        int perThread = 2000;
+
+        try (CommandAuditLog auditLog = new CommandAuditLog(directory, 1 << 14, 1 << 12, 16)) {
+            Thread[] producers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                TestSender sender = new TestSender();
+                sender.setUniqueId(new UUID(1, t));
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++)
+                        auditLog.record(sender, "test", new String[] {String.valueOf(i)}, BatchResult.Outcome.HANDLED, i);
+                });
+                producers[t].start();
+            }
+
+            for (Thread producer : producers)
+                producer.join();
+
+            assertTrue(auditLog.flush(Duration.ofSeconds(5)));
+            assertEquals(threads * perThread, auditLog.getWritten() + auditLog.getDropped());
+        }
+
+        for (int t = 0; t < threads; t++) {
+            List<AuditRecord> records = all(new UUID(1, t));
+            int previous = -1;
+            for (AuditRecord record : records) {
+                int value = Integer.parseInt(record.args()[0]);
+                assertTrue(value > previous, "records of a producer are in order");
+                previous = value;
+            }
+        }
+    }
+
+    @Test
+    void throwingSenderDoesNotStallWriter() throws IOException {
+        TestSender broken = new TestSender() {
+            @Override
+            public UUID getUniqueId() {
+                throw new IllegalStateException("offline");
+            }
+        };
+
+        try (CommandAuditLog auditLog = CommandAuditLog.open(directory)) {
+            assertThrows(IllegalStateException.class, () -> auditLog.record(broken, "first", new String[0], BatchResult.Outcome.HANDLED, 0));
+            auditLog.record(staff, "second", new String[0], BatchResult.Outcome.HANDLED, 0);
+
+            assertTrue(auditLog.flush(Duration.ofSeconds(5)));
+            assertEquals(1, auditLog.getWritten());
+        }
+
+        List<AuditRecord> records = all(null);
+        assertEquals(1, records.size());
+        assertEquals("second", records.get(0).commandName());
+    }
+
+    @Test
+    void recordsRacingCloseAreCounted() throws Exception {
+        int threads = 4;
+        CommandAuditLog auditLog = new CommandAuditLog(directory, 1 << 14, 1 << 12, 16);
+        long[] attempts = new long[threads];
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            producers[t] = new Thread(() -> {
+                while (attempts[id] < 100_000) {
+                    auditLog.record(staff, "test", new String[0], BatchResult.Outcome.HANDLED, 0);
+                    attempts[id]++;
+                }
+            });
+            producers[t].start();
+        }
+
+        Thread.sleep(5);
+        auditLog.close();
+        for (Thread producer : producers)
+            producer.join();
+
+        long total = 0;
+        for (long attempt : attempts)
+            total += attempt;
+
+        assertEquals(total, auditLog.getWritten() + auditLog.getDropped());
+        assertEquals(auditLog.getWritten(), all(null).size());
+    }
+
+    private List<AuditRecord> all(UUID senderId) throws IOException {
+        return AuditLogReader.query(directory, Instant.EPOCH, Instant.now().plusSeconds(60), senderId);
+    }
+
+}
@@ -0,0 +1,251 @@
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.BatchResult;
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.RangeCommand;
+import net.apartium.cocoabeans.commands.TestCommandManager;
+import net.apartium.cocoabeans.commands.TestSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForwardingTest {
+
+    private TestCommandManager edge;
+    private TestCommandManager central;
+    private RemoteCommand centralCommand;
+
+    private LoopbackTransport edgeTransport;
+    private LoopbackTransport centralTransport;
+
+    private final Queue<Runnable> tick = new ArrayDeque<>();
+
+    @BeforeEach
+    void setup() {
+        edge = new TestCommandManager();
+        edge.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        edge.addCommand(new RemoteCommand());
+        edge.addCommand(new RangeCommand());
+
+        central = new TestCommandManager();
+        central.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        centralCommand = new RemoteCommand();
+        central.addCommand(centralCommand);
+
+        LoopbackTransport[] pair = LoopbackTransport.pair();
+        edgeTransport = pair[0];
+        centralTransport = pair[1];
+
+        new ForwardedCommandReceiver(central, centralTransport);
+    }
+
+    private CommandForwarder install(int maxBatchSize) {
+        CommandForwarder forwarder = new CommandForwarder(edgeTransport, tick::add, maxBatchSize);
+        forwarder.setSenderNames(sender -> "Steve");
+        edge.setForwarder(forwarder);
+        return forwarder;
+    }
+
+    private void runTick() {
+        Runnable task;
+        while ((task = tick.poll()) != null)
+            task.run();
+    }
+
+    @Test
+    void forwardsRemoteCommands() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender player = new TestSender();
+        player.setUniqueId(new UUID(4, 2));
+
+        assertTrue(edge.handle(player, "remote", new String[] {"echo", "hi"}));
+        assertEquals(List.of(), player.getMessages());
+
+        runTick();
+        assertEquals(List.of("hi from Steve " + new UUID(4, 2)), player.getMessages());
+    }
+
+    @Test
+    void runsLocalCommandsLocally() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender sender = new TestSender();
+        assertTrue(edge.handle(sender, "range", new String[] {"int", "5"}));
+        assertEquals(List.of("int 5"), sender.getMessages());
+
+        runTick();
+        assertEquals(0, edgeTransport.getSent());
+    }
+
+    @Test
+    void coalescesRequests() {
+        CommandForwarder forwarder = install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender first = new TestSender();
+        TestSender second = new TestSender();
+
+        CompletableFuture<ForwardResult> a = forwarder.forward(first, "remote", new String[] {"echo", "a"});
+        CompletableFuture<ForwardResult> b = forwarder.forward(second, "remote", new String[] {"echo", "b"});
+        CompletableFuture<ForwardResult> c = forwarder.forward(first, "remote", new String[] {"echo", "c"});
+
+        assertEquals(3, forwarder.getPending());
+        assertEquals(1, tick.size());
+
+        runTick();
+
+        assertEquals(1, edgeTransport.getSent());
+        assertEquals(1, centralTransport.getSent());
+        assertEquals(0, forwarder.getPending());
+
+        assertEquals(List.of("a from Steve null", "c from Steve null"), first.getMessages());
+        assertEquals(List.of("b from Steve null"), second.getMessages());
+
+        assertTrue(a.join().isHandled());
+        assertTrue(b.join().isHandled());
+        assertTrue(c.join().isHandled());
+    }
+
+    @Test
+    void sendsFullBatches() {
+        CommandForwarder forwarder = install(2);
+
+        TestSender sender = new TestSender();
+        forwarder.forward(sender, "remote", new String[] {"echo", "a"});
+        forwarder.forward(sender, "remote", new String[] {"echo", "b"});
+        assertEquals(1, edgeTransport.getSent());
+
+        forwarder.forward(sender, "remote", new String[] {"echo", "c"});
+        assertEquals(1, edgeTransport.getSent());
+
+        runTick();
+        assertEquals(2, edgeTransport.getSent());
+        assertEquals(List.of("a from Steve null", "b from Steve null", "c from Steve null"), sender.getMessages());
+    }
+
+    @Test
+    void unhandledResult() {
+        CommandForwarder forwarder = install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender sender = new TestSender();
+        CompletableFuture<ForwardResult> result = forwarder.forward(sender, "remote", new String[] {"nope"});
+        runTick();
+
+        assertEquals(BatchResult.Outcome.UNHANDLED, result.join().outcome());
+        assertFalse(result.join().isHandled());
+    }
+
+    @Test
+    void sendsLateMessages() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender sender = new TestSender();
+        edge.handle(sender, "remote", new String[] {"later"});
+        runTick();
+        assertEquals(List.of("started"), sender.getMessages());
+
+        centralCommand.lastSender.sendMessage("done");
+        assertEquals(List.of("started"), sender.getMessages(), "request is no longer pending");
+        assertEquals(2, centralTransport.getSent());
+    }
+
+    @Test
+    void expiresUnansweredRequests() {
+        LoopbackTransport transport = new LoopbackTransport();
+        transport.connect(new LoopbackTransport());
+
+        CommandForwarder forwarder = new CommandForwarder(transport);
+        TestSender sender = new TestSender();
+
+        CompletableFuture<ForwardResult> result = forwarder.forward(sender, "remote", new String[] {"echo", "a"});
+        assertEquals(1, transport.getSent());
+        assertEquals(1, forwarder.getPending());
+
+        assertEquals(0, forwarder.expire(Duration.ofMinutes(1)));
+        assertEquals(1, forwarder.expire(Duration.ZERO));
+
+        assertEquals(0, forwarder.getPending());
+        assertEquals(BatchResult.Outcome.FAILED, result.join().outcome());
+        assertEquals(List.of("Command timed out"), sender.getMessages());
+    }
+
+    @Test
+    void evaluatesRequirementsLocally() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender player = new TestSender();
+        assertFalse(edge.handle(player, "remote", new String[] {"secret"}));
+        runTick();
+        assertEquals(0, edgeTransport.getSent());
+        assertEquals(List.of("You don't have permission to execute this command"), player.getMessages());
+        player.getMessages().clear();
+
+        player.addPermission("cocoa-beans.remote.secret");
+        assertTrue(edge.handle(player, "remote", new String[] {"secret"}));
+
+        runTick();
+        assertEquals(1, edgeTransport.getSent());
+        assertEquals(List.of("secret for Steve"), player.getMessages(), "central server trusts the forwarding server");
+    }
+
+    @Test
+    void forwardedSendersAreNotTrustedOutsideTheReceiver() {
+        List<String> messages = new ArrayList<>();
+        ForwardedSender sender = new ForwardedSender(null, "Steve", messages::add);
+
+        assertFalse(central.handle(sender, "remote", new String[] {"secret"}));
+        assertEquals(List.of("You don't have permission to execute this command"), messages);
+    }
+
+    @Test
+    void invalidUsageIsNotForwarded() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        TestSender player = new TestSender();
+        assertFalse(edge.handle(player, "remote", new String[] {"nope"}));
+
+        runTick();
+        assertEquals(0, edgeTransport.getSent());
+    }
+
+    @Test
+    void failsRequestsOfUnsentBatches() {
+        CommandForwarder forwarder = new CommandForwarder(new CommandTransport() {
+            @Override
+            public void send(byte[] batch) {
+                throw new IllegalStateException("disconnected");
+            }
+
+            @Override
+            public void setReceiver(Consumer<byte[]> receiver) {
+
+            }
+        });
+
+        TestSender sender = new TestSender();
+        CompletableFuture<ForwardResult> result = forwarder.forward(sender, "remote", new String[] {"echo", "a"});
+
+        assertEquals(0, forwarder.getPending());
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(List.of("Failed to forward command"), sender.getMessages());
+    }
+
+    @Test
+    void dropsMalformedBatches() {
+        install(CommandForwarder.DEFAULT_MAX_BATCH_SIZE);
+
+        edgeTransport.send(new byte[] {42, 1, 2, 3});
+        assertEquals(0, centralTransport.getSent());
+    }
+
+}
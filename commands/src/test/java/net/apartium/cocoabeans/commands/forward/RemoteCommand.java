@@ -0,0 +1,32 @@
+package net.apartium.cocoabeans.commands.forward;
+
+import net.apartium.cocoabeans.commands.Command;
+import net.apartium.cocoabeans.commands.CommandNode;
+import net.apartium.cocoabeans.commands.Sender;
+import net.apartium.cocoabeans.commands.SubCommand;
+import net.apartium.cocoabeans.commands.multilayered.Permission;
+
+@Remote
+@Command("remote")
+public class RemoteCommand implements CommandNode {
+
+    Sender lastSender;
+
+    @SubCommand("echo <string>")
+    public void echo(Sender sender, String text) {
+        sender.sendMessage(text + " from " + sender.getSender() + " " + sender.getUniqueId());
+    }
+
+    @Permission("cocoa-beans.remote.secret")
+    @SubCommand("secret")
+    public void secret(Sender sender) {
+        sender.sendMessage("secret for " + sender.getSender());
+    }
+
+    @SubCommand("later")
+    public void later(Sender sender) {
+        lastSender = sender;
+        sender.sendMessage("started");
+    }
+
+}
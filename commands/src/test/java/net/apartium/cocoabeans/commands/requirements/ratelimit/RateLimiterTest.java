@@ -0,0 +1,105 @@
+package net.apartium.cocoabeans.commands.requirements.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final UUID STEVE = new UUID(0, 1);
+    private static final UUID ALEX = new UUID(0, 2);
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void burstThenSteadyRate() {
+        RateLimiter limiter = new RateLimiter(2, 100, 3, clock::get);
+
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        assertEquals(50, limiter.tryAcquire(STEVE));
+        assertEquals(0, limiter.tryAcquire(ALEX));
+
+        clock.addAndGet(30);
+        assertEquals(20, limiter.tryAcquire(STEVE));
+
+        clock.addAndGet(20);
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        assertEquals(50, limiter.tryAcquire(STEVE));
+    }
+
+    @Test
+    void peekDoesNotAcquire() {
+        RateLimiter limiter = new RateLimiter(1, 100, 1, clock::get);
+
+        assertEquals(0, limiter.peek(STEVE));
+        assertEquals(0, limiter.peek(STEVE));
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        assertEquals(100, limiter.peek(STEVE));
+        assertEquals(100, limiter.peek(STEVE));
+    }
+
+    @Test
+    void clockOverflow() {
+        clock.set(Long.MAX_VALUE - 10);
+        RateLimiter limiter = new RateLimiter(1, 100, 1, clock::get);
+
+        assertEquals(0, limiter.tryAcquire(STEVE));
+        clock.addAndGet(50);
+        assertEquals(50, limiter.tryAcquire(STEVE));
+        clock.addAndGet(50);
+        assertEquals(0, limiter.tryAcquire(STEVE));
+    }
+
+    @Test
+    void expiredBucketsAreEvicted() {
+        RateLimiter limiter = new RateLimiter(1, 100, 1, clock::get);
+
+        for (int i = 0; i < 1000; i++)
+            assertEquals(0, limiter.tryAcquire(new UUID(i, i * 31L)));
+
+        assertEquals(1000, limiter.activeBuckets());
+
+        clock.addAndGet(100);
+        assertEquals(0, limiter.activeBuckets());
+
+        for (int i = 0; i < 1000; i++)
+            assertEquals(0, limiter.tryAcquire(new UUID(i, i * 31L)));
+
+        assertEquals(1000, limiter.activeBuckets());
+    }
+
+    @Test
+    void concurrentAcquiresAreCounted() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(100, 1_000_000, 100, clock::get);
+        AtomicLong acquired = new AtomicLong();
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (limiter.tryAcquire(new UUID(0, j % 50)) == 0)
+                        acquired.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(50 * 100, acquired.get());
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 100, 1, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 0, 1, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 100, 0, clock::get));
+    }
+
+}
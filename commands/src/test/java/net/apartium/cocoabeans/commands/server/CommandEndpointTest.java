@@ -0,0 +1,138 @@
+package net.apartium.cocoabeans.commands.server;
+
+import net.apartium.cocoabeans.commands.RangeCommand;
+import net.apartium.cocoabeans.commands.TestCommandManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandEndpointTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<String> output = new ArrayList<>();
+
+    private TestCommandManager commandManager;
+
+    @BeforeEach
+    void setup() {
+        commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(TestCommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new RangeCommand());
+    }
+
+    @Test
+    void deniedSessionIsClosed() {
+        CommandEndpoint.Session session = endpoint(16).openSession(output::add);
+
+        assertTrue(session.receive("wrong"));
+        assertTrue(session.isClosed());
+        assertFalse(session.isAuthenticated());
+
+        assertTrue(session.receive("range int 5"));
+        assertEquals(List.of("= DENIED"), output);
+        assertEquals(List.of(), tasks);
+    }
+
+    @Test
+    void pipelinedLines() {
+        CommandEndpoint.Session session = endpoint(16).openSession(output::add);
+
+        session.receive("secret");
+        assertTrue(session.isAuthenticated());
+
+        session.receive("range int 5");
+        session.receive("range nope");
+        session.receive("/range int 3");
+        session.receive("nope");
+
+        assertEquals(List.of("= OK"), output);
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        assertEquals(List.of(
+                "= OK",
+                "> int 5",
+                "= HANDLED",
+                "= FAILED InvalidUsageException",
+                "= UNHANDLED",
+                "= UNKNOWN_COMMAND"
+        ), output);
+    }
+
+    @Test
+    void fullQueueRejectsLines() {
+        CommandEndpoint endpoint = endpoint(2);
+        CommandEndpoint.Session session = endpoint.openSession(output::add);
+        session.receive("secret");
+
+        assertTrue(session.receive("range int 0"));
+        assertTrue(session.receive("range int 5"));
+        assertFalse(session.receive("range int 10"));
+        assertEquals(2, endpoint.getQueueSize());
+
+        runTasks();
+        assertTrue(session.receive("range int -5"));
+        runTasks();
+
+        assertEquals(List.of("= OK", "> int 0", "= HANDLED", "> int 5", "= HANDLED", "> int -5", "= HANDLED"), output);
+    }
+
+    @Test
+    void drainIsBounded() {
+        CommandEndpoint endpoint = endpoint(128);
+        CommandEndpoint.Session session = endpoint.openSession(output::add);
+        session.receive("secret");
+
+        for (int i = 0; i < CommandEndpoint.MAX_LINES_PER_DRAIN + 6; i++)
+            session.receive("range int 0");
+
+        tasks.remove(0).run();
+        assertEquals(6, endpoint.getQueueSize());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(0, endpoint.getQueueSize());
+    }
+
+    @Test
+    void closedSessionLinesAreDropped() {
+        CommandEndpoint.Session session = endpoint(16).openSession(output::add);
+        session.receive("secret");
+        session.receive("range int 5");
+        session.close();
+
+        runTasks();
+        assertEquals(List.of("= OK"), output);
+    }
+
+    @Test
+    void multilineMessages() {
+        CommandEndpoint endpoint = new CommandEndpoint(commandManager, tasks::add, EndpointAuthenticator.token("ops", "secret"), (principal, output) -> new RemoteSender(principal, output) {
+            @Override
+            public void sendMessage(String text) {
+                super.sendMessage(principal + ": " + text + "\nbye");
+            }
+        }, 16);
+
+        CommandEndpoint.Session session = endpoint.openSession(output::add);
+        session.receive("secret");
+        session.receive("range int 5");
+        runTasks();
+
+        assertEquals(List.of("= OK", "> ops: int 5", "> bye", "= HANDLED"), output);
+    }
+
+    private CommandEndpoint endpoint(int capacity) {
+        return new CommandEndpoint(commandManager, tasks::add, EndpointAuthenticator.token("ops", "secret"), RemoteSender::new, capacity);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+    }
+
+}
@@ -0,0 +1,108 @@
+package net.apartium.cocoabeans.commands.server;
+
+import net.apartium.cocoabeans.commands.RangeCommand;
+import net.apartium.cocoabeans.commands.TestCommandManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandServerTest {
+
+    private CommandServer server;
+    private InetSocketAddress address;
+
+    @BeforeEach
+    void setup() throws IOException {
+        TestCommandManager commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(TestCommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new RangeCommand());
+
+        server = new CommandServer(new CommandEndpoint(commandManager, Runnable::run, EndpointAuthenticator.token("ops", "secret")));
+        address = (InetSocketAddress) server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void pipelinedConnection() throws IOException {
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write("secret\r\nrange int 5\nrange int 3\n".getBytes(StandardCharsets.UTF_8));
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals(List.of("= OK", "> int 5", "= HANDLED", "= UNHANDLED"), readLines(reader, 4));
+
+            socket.getOutputStream().write("range int -5\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals(List.of("> int -5", "= HANDLED"), readLines(reader, 2));
+        }
+    }
+
+    @Test
+    void halfClosedConnectionIsAnswered() throws IOException {
+        TestCommandManager commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(TestCommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new RangeCommand());
+
+        // lines run after the client already closed its output
+        Executor delayed = CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS);
+        CommandServer delayedServer = new CommandServer(new CommandEndpoint(commandManager, delayed, EndpointAuthenticator.token("ops", "secret")));
+        InetSocketAddress delayedAddress = (InetSocketAddress) delayedServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+        try (Socket socket = new Socket(delayedAddress.getAddress(), delayedAddress.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write("secret\nrange int 5\nrange int 3\n".getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals(List.of("= OK", "> int 5", "= HANDLED", "= UNHANDLED"), readLines(reader, 4));
+            assertNull(reader.readLine());
+        } finally {
+            delayedServer.close();
+        }
+    }
+
+    @Test
+    void deniedConnectionIsClosed() throws IOException {
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write("wrong\nrange int 5\n".getBytes(StandardCharsets.UTF_8));
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("= DENIED", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void onlyLocalAddresses() {
+        SocketAddress any = new InetSocketAddress(0);
+        CommandServer other = new CommandServer(new CommandEndpoint(new TestCommandManager(), Runnable::run, credentials -> null));
+        assertThrows(IllegalArgumentException.class, () -> other.bind(any));
+    }
+
+    private static List<String> readLines(BufferedReader reader, int count) throws IOException {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            lines.add(reader.readLine());
+
+        return lines;
+    }
+
+}
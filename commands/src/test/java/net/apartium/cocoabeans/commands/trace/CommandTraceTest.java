@@ -0,0 +1,193 @@
+package net.apartium.cocoabeans.commands.trace;
+
+import net.apartium.cocoabeans.commands.CommandManager;
+import net.apartium.cocoabeans.commands.RangeCommand;
+import net.apartium.cocoabeans.commands.TestCommandManager;
+import net.apartium.cocoabeans.commands.TestSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandTraceTest {
+
+    private TestCommandManager commandManager;
+
+    @BeforeEach
+    void setup() {
+        commandManager = new TestCommandManager();
+        commandManager.registerArgumentTypeHandler(CommandManager.COMMON_PARSERS);
+        commandManager.addCommand(new RangeCommand());
+    }
+
+    @Test
+    void recordAndRead() throws IOException {
+        TestSender console = new TestSender();
+        TestSender player = new TestSender();
+        player.setUniqueId(new UUID(4, 2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandTraceRecorder recorder = new CommandTraceRecorder(out);
+        commandManager.setTraceRecorder(recorder);
+
+        commandManager.handle(console, "range", new String[] {"int", "5"});
+        commandManager.handleTabComplete(player, "range", new String[] {"in"});
+        commandManager.handle(player, "unknown", new String[0]);
+        commandManager.handleBatch(player, List.of("range long 3"));
+
+        commandManager.setTraceRecorder(null);
+        commandManager.handle(console, "range", new String[] {"int", "6"});
+
+        assertEquals(4, recorder.getRecorded());
+        recorder.close();
+        assertNull(recorder.getError());
+
+        List<TraceEvent> events = read(out.toByteArray());
+        assertEquals(4, events.size());
+
+        assertEquals(TraceEvent.Kind.DISPATCH, events.get(0).kind());
+        assertEquals("range", events.get(0).commandName());
+        assertArrayEquals(new String[] {"int", "5"}, events.get(0).args());
+        assertEquals(new SenderProfile("TestSender", null), events.get(0).profile());
+
+        assertEquals(TraceEvent.Kind.TAB_COMPLETE, events.get(1).kind());
+        assertArrayEquals(new String[] {"in"}, events.get(1).args());
+        assertEquals(new SenderProfile("TestSender", new UUID(4, 2)), events.get(1).profile());
+
+        assertEquals("unknown", events.get(2).commandName());
+        assertEquals(0, events.get(2).args().length);
+
+        assertArrayEquals(new String[] {"long", "3"}, events.get(3).args());
+
+        for (int i = 1; i < events.size(); i++)
+            assertTrue(events.get(i).offsetNanos() >= events.get(i - 1).offsetNanos());
+    }
+
+    @Test
+    void repeatedValuesAreInterned() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TestSender sender = new TestSender();
+        String longArg = "x".repeat(100);
+
+        try (CommandTraceRecorder recorder = new CommandTraceRecorder(out)) {
+            for (int i = 0; i < 100; i++)
+                recorder.record(TraceEvent.Kind.DISPATCH, sender, "range", new String[] {"int", "5", longArg});
+        }
+
+        // the long arg is written every time, everything else only once
+        assertTrue(out.size() < 100 * (longArg.length() + 16), "trace size " + out.size());
+
+        List<TraceEvent> events = read(out.toByteArray());
+        assertEquals(100, events.size());
+        for (TraceEvent event : events)
+            assertArrayEquals(new String[] {"int", "5", longArg}, event.args());
+    }
+
+    @Test
+    void profilesAreBounded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int players = TraceFormat.MAX_INTERNED_PROFILES + 10;
+
+        try (CommandTraceRecorder recorder = new CommandTraceRecorder(out)) {
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < players; i++) {
+                    TestSender player = new TestSender();
+                    player.setUniqueId(new UUID(0, i));
+                    recorder.record(TraceEvent.Kind.DISPATCH, player, "range", new String[0]);
+                }
+            }
+        }
+
+        List<TraceEvent> events = read(out.toByteArray());
+        assertEquals(2 * players, events.size());
+        for (int i = 0; i < events.size(); i++)
+            assertEquals(new UUID(0, i % players), events.get(i).profile().uniqueId());
+    }
+
+    @Test
+    void truncatedRecordIsDropped() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CommandTraceRecorder recorder = new CommandTraceRecorder(out)) {
+            recorder.record(TraceEvent.Kind.DISPATCH, new TestSender(), "range", new String[] {"int", "5"});
+            recorder.record(TraceEvent.Kind.DISPATCH, new TestSender(), "range", new String[] {"int", "6"});
+        }
+
+        byte[] bytes = out.toByteArray();
+        List<TraceEvent> events = read(Arrays.copyOf(bytes, bytes.length - 1));
+        assertEquals(1, events.size());
+        assertArrayEquals(new String[] {"int", "5"}, events.get(0).args());
+    }
+
+    @Test
+    void invalidHeader() {
+        assertThrows(IOException.class, () -> read(new byte[] {1, 2, 3}));
+        assertThrows(IOException.class, () -> read(new byte[] {1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test
+    void replay() throws InterruptedException {
+        List<TraceEvent> events = new ArrayList<>();
+        SenderProfile profile = new SenderProfile("TestSender", null);
+        for (int i = 0; i < 200; i++) {
+            events.add(new TraceEvent(TraceEvent.Kind.DISPATCH, i, profile, "range", new String[] {"int", String.valueOf(i % 2 * 5)}));
+            events.add(new TraceEvent(TraceEvent.Kind.TAB_COMPLETE, i, profile, "range", new String[] {"int", ""}));
+        }
+
+        events.add(new TraceEvent(TraceEvent.Kind.DISPATCH, 200, profile, "range", new String[] {"nope"}));
+
+        AtomicInteger senders = new AtomicInteger();
+        CommandReplay replay = new CommandReplay(commandManager);
+        replay.setConcurrency(4);
+        replay.setSenderFactory(p -> {
+            senders.incrementAndGet();
+            return new TestSender();
+        });
+
+        ReplayReport report = replay.run(events);
+
+        assertEquals(401, report.getEvents());
+        assertEquals(1, report.getUnhandled());
+        assertEquals(0, report.getErrors());
+        assertEquals(1, senders.get());
+        assertTrue(report.getThroughput() > 0);
+        assertTrue(report.getLatencyPercentile(50) <= report.getLatencyPercentile(99));
+        assertTrue(report.getLatencyPercentile(99) <= report.getMaxLatency());
+        assertEquals(report.getMaxLatency(), report.getLatencyPercentile(100));
+        assertNotEquals(0, report.getAllocatedBytes());
+    }
+
+    @Test
+    void replayAtRate() throws InterruptedException {
+        List<TraceEvent> events = new ArrayList<>();
+        SenderProfile profile = new SenderProfile("TestSender", null);
+        for (int i = 0; i < 20; i++)
+            events.add(new TraceEvent(TraceEvent.Kind.DISPATCH, i, profile, "range", new String[] {"int", "10"}));
+
+        CommandReplay replay = new CommandReplay(commandManager);
+        replay.setRate(200);
+
+        ReplayReport report = replay.run(events);
+        assertEquals(20, report.getEvents());
+        assertTrue(report.getElapsed().toMillis() >= 90, "elapsed " + report.getElapsed());
+        assertThrows(IllegalArgumentException.class, () -> replay.setRate(-1));
+        assertThrows(IllegalArgumentException.class, () -> replay.setConcurrency(0));
+    }
+
+    private static List<TraceEvent> read(byte[] bytes) throws IOException {
+        List<TraceEvent> events = new ArrayList<>();
+        try (CommandTraceReader reader = new CommandTraceReader(new ByteArrayInputStream(bytes))) {
+            TraceEvent event;
+            while ((event = reader.next()) != null)
+                events.add(event);
+        }
+
+        return events;
+    }
+
+}
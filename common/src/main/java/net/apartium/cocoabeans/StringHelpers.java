@@ -11,6 +11,7 @@
 package net.apartium.cocoabeans;
 
 import net.apartium.cocoabeans.utils.OptionalFloat;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -22,6 +23,22 @@ import java.util.OptionalLong;
  */
 public class StringHelpers {
 
+    private static final int MAX_EXACT_DOUBLE_POWER = 22;
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
+    private static final int MAX_EXACT_FLOAT_POWER = 10;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
     /**
      * Attempts to parse given string arg as a number.
      *
@@ -29,11 +46,34 @@ public class StringHelpers {
      * @return empty if parsing was not successful, otherwise resulting number boxed with option
      */
     public static OptionalInt parseInteger(String arg) {
-        try {
-            return OptionalInt.of(Integer.parseInt(arg));
-        } catch (NumberFormatException e) {
+        return arg == null ? OptionalInt.empty() : parseInteger(arg, 0, arg.length());
+    }
+
+    /**
+     * Attempts to parse given range of a char sequence as a number, accepting the same input as {@link Integer#parseInt(String)} without throwing.
+     *
+     * @param seq char sequence
+     * @param from start index, inclusive
+     * @param to end index, exclusive
+     * @return empty if parsing was not successful, otherwise resulting number boxed with option
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static OptionalInt parseInteger(CharSequence seq, int from, int to) {
+        if (!isIntegral(seq, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE))
             return OptionalInt.empty();
-        }
+
+        return OptionalInt.of((int) integralValue(seq, from, to));
+    }
+
+    /**
+     * Checks if given char sequence can be parsed by {@link #parseInteger(String)}, without allocating.
+     *
+     * @param seq char sequence
+     * @return true if parsing would succeed, else false
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static boolean isInteger(CharSequence seq) {
+        return seq != null && isIntegral(seq, 0, seq.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     /**
@@ -43,11 +83,35 @@ public class StringHelpers {
      * @return empty if parsing was not successful, otherwise resulting number boxed with option
      */
     public static OptionalDouble parseDouble(String arg) {
-        try {
-            return OptionalDouble.of(Double.parseDouble(arg));
-        } catch (NumberFormatException e) {
+        return arg == null ? OptionalDouble.empty() : parseDouble(arg, 0, arg.length());
+    }
+
+    /**
+     * Attempts to parse given range of a char sequence as a number, accepting the same input and producing the same result as {@link Double#parseDouble(String)} without throwing.
+     * Decimals with up to 15 significant digits and small exponents are computed without allocating.
+     *
+     * @param seq char sequence
+     * @param from start index, inclusive
+     * @param to end index, exclusive
+     * @return empty if parsing was not successful, otherwise resulting number boxed with option
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static OptionalDouble parseDouble(CharSequence seq, int from, int to) {
+        if (!isFloatingPoint(seq, from, to))
             return OptionalDouble.empty();
-        }
+
+        return OptionalDouble.of(doubleValue(seq, from, to));
+    }
+
+    /**
+     * Checks if given char sequence can be parsed by {@link #parseDouble(String)}, without allocating.
+     *
+     * @param seq char sequence
+     * @return true if parsing would succeed, else false
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static boolean isDouble(CharSequence seq) {
+        return seq != null && isFloatingPoint(seq, 0, seq.length());
     }
 
     /**
@@ -57,11 +121,34 @@ public class StringHelpers {
      * @return empty if parsing was not successful, otherwise resulting number boxed with option
      */
     public static OptionalFloat parseFloat(String arg) {
-        try {
-            return OptionalFloat.of(Float.parseFloat(arg));
-        } catch (NumberFormatException e) {
+        return arg == null ? OptionalFloat.empty() : parseFloat(arg, 0, arg.length());
+    }
+
+    /**
+     * Attempts to parse given range of a char sequence as a number, accepting the same input and producing the same result as {@link Float#parseFloat(String)} without throwing.
+     *
+     * @param seq char sequence
+     * @param from start index, inclusive
+     * @param to end index, exclusive
+     * @return empty if parsing was not successful, otherwise resulting number boxed with option
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static OptionalFloat parseFloat(CharSequence seq, int from, int to) {
+        if (!isFloatingPoint(seq, from, to))
             return OptionalFloat.empty();
-        }
+
+        return OptionalFloat.of(floatValue(seq, from, to));
+    }
+
+    /**
+     * Checks if given char sequence can be parsed by {@link #parseFloat(String)}, without allocating.
+     *
+     * @param seq char sequence
+     * @return true if parsing would succeed, else false
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static boolean isFloat(CharSequence seq) {
+        return isDouble(seq);
     }
 
     /**
@@ -71,11 +158,34 @@ public class StringHelpers {
      * @return empty if parsing was not successful, otherwise resulting number boxed with option
      */
     public static OptionalLong parseLong(String arg) {
-        try {
-            return OptionalLong.of(Long.parseLong(arg));
-        } catch (NumberFormatException e) {
+        return arg == null ? OptionalLong.empty() : parseLong(arg, 0, arg.length());
+    }
+
+    /**
+     * Attempts to parse given range of a char sequence as a number, accepting the same input as {@link Long#parseLong(String)} without throwing.
+     *
+     * @param seq char sequence
+     * @param from start index, inclusive
+     * @param to end index, exclusive
+     * @return empty if parsing was not successful, otherwise resulting number boxed with option
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static OptionalLong parseLong(CharSequence seq, int from, int to) {
+        if (!isIntegral(seq, from, to, Long.MIN_VALUE, Long.MAX_VALUE))
             return OptionalLong.empty();
-        }
+
+        return OptionalLong.of(integralValue(seq, from, to));
+    }
+
+    /**
+     * Checks if given char sequence can be parsed by {@link #parseLong(String)}, without allocating.
+     *
+     * @param seq char sequence
+     * @return true if parsing would succeed, else false
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static boolean isLong(CharSequence seq) {
+        return seq != null && isIntegral(seq, 0, seq.length(), Long.MIN_VALUE, Long.MAX_VALUE);
     }
 
     /**
@@ -86,4 +196,291 @@ public class StringHelpers {
     public static boolean isNullOrEmpty(String arg) {
         return arg == null || arg.isEmpty();
     }
+
+    // same algorithm as Integer#parseInt, accumulating negatively to detect overflow on both ends
+    private static boolean isIntegral(CharSequence seq, int from, int to, long min, long max) {
+        if (seq == null || from < 0 || to > seq.length() || from >= to)
+            return false;
+
+        int i = from;
+        char first = seq.charAt(i);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (++i == to)
+                return false;
+        }
+
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = Character.digit(seq.charAt(i), 10);
+            if (digit < 0 || result < multiplyLimit)
+                return false;
+
+            result *= 10;
+            if (result < limit + digit)
+                return false;
+
+            result -= digit;
+        }
+
+        return true;
+    }
+
+    // expects a range validated by isIntegral
+    private static long integralValue(CharSequence seq, int from, int to) {
+        int i = from;
+        char first = seq.charAt(i);
+        boolean negative = first == '-';
+        if (negative || first == '+')
+            i++;
+
+        long result = 0;
+        for (; i < to; i++)
+            result = result * 10 - Character.digit(seq.charAt(i), 10);
+
+        return negative ? result : -result;
+    }
+
+    // grammar of Double#valueOf(String)
+    private static boolean isFloatingPoint(CharSequence seq, int from, int to) {
+        if (seq == null || from < 0 || to > seq.length())
+            return false;
+
+        while (from < to && seq.charAt(from) <= ' ')
+            from++;
+
+        while (to > from && seq.charAt(to - 1) <= ' ')
+            to--;
+
+        if (from == to)
+            return false;
+
+        int i = from;
+        char sign = seq.charAt(i);
+        if (sign == '+' || sign == '-') {
+            if (++i == to)
+                return false;
+        }
+
+        if (regionEquals(seq, i, to, "NaN") || regionEquals(seq, i, to, "Infinity"))
+            return true;
+
+        if (i + 1 < to && seq.charAt(i) == '0' && (seq.charAt(i + 1) | 0x20) == 'x')
+            return isHexFloatingPoint(seq, i + 2, to);
+
+        int digits = 0;
+        while (i < to && isDigit(seq.charAt(i))) {
+            i++;
+            digits++;
+        }
+
+        if (i < to && seq.charAt(i) == '.') {
+            i++;
+            while (i < to && isDigit(seq.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+
+        if (digits == 0)
+            return false;
+
+        if (i < to && (seq.charAt(i) | 0x20) == 'e') {
+            i = skipExponent(seq, i + 1, to);
+            if (i < 0)
+                return false;
+        }
+
+        if (i < to && isTypeSuffix(seq.charAt(i)))
+            i++;
+
+        return i == to;
+    }
+
+    private static boolean isHexFloatingPoint(CharSequence seq, int i, int to) {
+        int digits = 0;
+        while (i < to && Character.digit(seq.charAt(i), 16) >= 0 && seq.charAt(i) < 128) {
+            i++;
+            digits++;
+        }
+
+        if (i < to && seq.charAt(i) == '.') {
+            i++;
+            while (i < to && Character.digit(seq.charAt(i), 16) >= 0 && seq.charAt(i) < 128) {
+                i++;
+                digits++;
+            }
+        }
+
+        // binary exponent is mandatory for hex literals
+        if (digits == 0 || i == to || (seq.charAt(i) | 0x20) != 'p')
+            return false;
+
+        i = skipExponent(seq, i + 1, to);
+        if (i < 0)
+            return false;
+
+        if (i < to && isTypeSuffix(seq.charAt(i)))
+            i++;
+
+        return i == to;
+    }
+
+    // returns index after the exponent digits, or -1 if there are none
+    private static int skipExponent(CharSequence seq, int i, int to) {
+        if (i < to && (seq.charAt(i) == '+' || seq.charAt(i) == '-'))
+            i++;
+
+        int start = i;
+        while (i < to && isDigit(seq.charAt(i)))
+            i++;
+
+        return i == start ? -1 : i;
+    }
+
+    // expects a range validated by isFloatingPoint
+    private static double doubleValue(CharSequence seq, int from, int to) {
+        long decimal = scanDecimal(seq, from, to);
+        if (decimal == NOT_SIMPLE_DECIMAL)
+            return Double.parseDouble(seq.subSequence(from, to).toString());
+
+        long mantissa = simpleMantissa(decimal);
+        int exponent = simpleExponent(decimal);
+        if (mantissa > MAX_EXACT_DOUBLE_MANTISSA || exponent < -MAX_EXACT_DOUBLE_POWER || exponent > MAX_EXACT_DOUBLE_POWER)
+            return Double.parseDouble(seq.subSequence(from, to).toString());
+
+        // both operands are exact so the single rounding matches Double#parseDouble
+        double value = exponent < 0
+                ? mantissa / DOUBLE_POWERS_OF_TEN[-exponent]
+                : mantissa * DOUBLE_POWERS_OF_TEN[exponent];
+
+        return simpleNegative(decimal) ? -value : value;
+    }
+
+    // expects a range validated by isFloatingPoint
+    private static float floatValue(CharSequence seq, int from, int to) {
+        long decimal = scanDecimal(seq, from, to);
+        if (decimal == NOT_SIMPLE_DECIMAL)
+            return Float.parseFloat(seq.subSequence(from, to).toString());
+
+        long mantissa = simpleMantissa(decimal);
+        int exponent = simpleExponent(decimal);
+        if (mantissa > MAX_EXACT_FLOAT_MANTISSA || exponent < -MAX_EXACT_FLOAT_POWER || exponent > MAX_EXACT_FLOAT_POWER)
+            return Float.parseFloat(seq.subSequence(from, to).toString());
+
+        float value = exponent < 0
+                ? mantissa / FLOAT_POWERS_OF_TEN[-exponent]
+                : mantissa * FLOAT_POWERS_OF_TEN[exponent];
+
+        return simpleNegative(decimal) ? -value : value;
+    }
+
+    private static final long NOT_SIMPLE_DECIMAL = -1;
+
+    private static final int MANTISSA_BITS = 54;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+    private static final int EXPONENT_BITS = 8;
+    private static final int EXPONENT_BIAS = 1 << (EXPONENT_BITS - 1);
+
+    /*
+     * Scans a validated decimal literal, packing sign, mantissa and decimal exponent into a single long to avoid allocating.
+     * Layout: bit 62 negative, bits 54-61 biased exponent, bits 0-53 mantissa.
+     * Returns NOT_SIMPLE_DECIMAL for hex literals, NaN, Infinity, or when the mantissa or exponent do not fit.
+     */
+    private static long scanDecimal(CharSequence seq, int from, int to) {
+        while (seq.charAt(from) <= ' ')
+            from++;
+
+        while (seq.charAt(to - 1) <= ' ')
+            to--;
+
+        int i = from;
+        boolean negative = false;
+        char sign = seq.charAt(i);
+        if (sign == '+' || sign == '-') {
+            negative = sign == '-';
+            i++;
+        }
+
+        char first = seq.charAt(i);
+        if (first == 'N' || first == 'I' || (i + 1 < to && first == '0' && (seq.charAt(i + 1) | 0x20) == 'x'))
+            return NOT_SIMPLE_DECIMAL;
+
+        long mantissa = 0;
+        int exponent = 0;
+        for (; i < to && isDigit(seq.charAt(i)); i++) {
+            mantissa = mantissa * 10 + (seq.charAt(i) - '0');
+            if (mantissa > MAX_EXACT_DOUBLE_MANTISSA)
+                return NOT_SIMPLE_DECIMAL;
+        }
+
+        if (i < to && seq.charAt(i) == '.') {
+            for (i++; i < to && isDigit(seq.charAt(i)); i++) {
+                mantissa = mantissa * 10 + (seq.charAt(i) - '0');
+                exponent--;
+                if (mantissa > MAX_EXACT_DOUBLE_MANTISSA)
+                    return NOT_SIMPLE_DECIMAL;
+            }
+        }
+
+        if (i < to && (seq.charAt(i) | 0x20) == 'e') {
+            i++;
+            boolean negativeExponent = false;
+            if (seq.charAt(i) == '+' || seq.charAt(i) == '-') {
+                negativeExponent = seq.charAt(i) == '-';
+                i++;
+            }
+
+            int explicitExponent = 0;
+            for (; i < to && isDigit(seq.charAt(i)); i++) {
+                explicitExponent = explicitExponent * 10 + (seq.charAt(i) - '0');
+                if (explicitExponent >= EXPONENT_BIAS)
+                    return NOT_SIMPLE_DECIMAL;
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (exponent < -EXPONENT_BIAS || exponent >= EXPONENT_BIAS)
+            return NOT_SIMPLE_DECIMAL;
+
+        return (negative ? 1L << (MANTISSA_BITS + EXPONENT_BITS) : 0)
+                | ((long) (exponent + EXPONENT_BIAS) << MANTISSA_BITS)
+                | mantissa;
+    }
+
+    private static long simpleMantissa(long decimal) {
+        return decimal & MANTISSA_MASK;
+    }
+
+    private static int simpleExponent(long decimal) {
+        return (int) ((decimal >>> MANTISSA_BITS) & ((1 << EXPONENT_BITS) - 1)) - EXPONENT_BIAS;
+    }
+
+    private static boolean simpleNegative(long decimal) {
+        return (decimal >>> (MANTISSA_BITS + EXPONENT_BITS)) != 0;
+    }
+
+    private static boolean regionEquals(CharSequence seq, int from, int to, String expected) {
+        if (to - from != expected.length())
+            return false;
+
+        for (int i = 0; i < expected.length(); i++) {
+            if (seq.charAt(from + i) != expected.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+    }
+
 }
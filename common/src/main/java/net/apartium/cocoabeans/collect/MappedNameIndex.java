@@ -0,0 +1,726 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.collect;
+
+import net.apartium.cocoabeans.StringHelpers;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+
+/**
+ * A persistent name to uuid index kept on disk, allowing case-insensitive lookups and prefix searches without loading it to the heap.
+ * The index consists of a sorted base file which is memory mapped and binary searched, and a journal of entries added since it was written.
+ * Journal entries are kept in memory as well and shadow base entries with the same name or uuid, so a uuid is only ever mapped to its latest name.
+ * Calling {@link #compact()} merges the journal into a new base file of the next generation, older generations are deleted once unmapped.
+ * Lookups may be done from any thread, modifications are serialized.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class MappedNameIndex implements Closeable {
+
+    /**
+     * Default amount of journal entries after which {@link #needsCompaction()} returns true
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+
+    private static final String BASE_PREFIX = "names.";
+    private static final String BASE_SUFFIX = ".idx";
+    private static final String JOURNAL_FILE = "names.journal";
+
+    private static final int MAGIC = 0x43424e49; // CBNI
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private static final int MAX_NAME_LENGTH = 0xffff;
+
+    /**
+     * Opens the index stored in given directory, creating it if it doesn't exist
+     * @param directory directory holding the index files
+     * @return opened index
+     * @throws IOException if the index could not be read or is corrupted
+     */
+    public static MappedNameIndex open(Path directory) throws IOException {
+        return open(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens the index stored in given directory, creating it if it doesn't exist
+     * @param directory directory holding the index files
+     * @param compactionThreshold amount of journal entries after which {@link #needsCompaction()} returns true
+     * @return opened index
+     * @throws IOException if the index could not be read or is corrupted
+     */
+    public static MappedNameIndex open(Path directory, int compactionThreshold) throws IOException {
+        if (compactionThreshold <= 0)
+            throw new IllegalArgumentException("Compaction threshold must be positive: " + compactionThreshold);
+
+        Files.createDirectories(directory);
+        return new MappedNameIndex(directory, compactionThreshold);
+    }
+
+    private final Path directory;
+    private final int compactionThreshold;
+
+    // guards the journal and the active delta, held briefly by additions
+    private final Object lock = new Object();
+    // serializes compactions and rebuilds, held while a new base file is written
+    private final Object compactionLock = new Object();
+
+    private volatile State state;
+
+    private volatile long generation;
+
+    private FileChannel journal;
+    private boolean closed;
+
+    private MappedNameIndex(Path directory, int compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+
+        this.generation = latestGeneration(directory);
+        Base base = generation < 0 ? Base.EMPTY : Base.map(baseFile(generation));
+        deleteOldGenerations();
+
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        Delta active = Files.exists(journalFile) ? replayJournal(journalFile) : new Delta();
+        this.state = new State(base, Delta.EMPTY, active);
+
+        this.journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Checks whether the index has a base file or any journal entries
+     * @return true if the index holds no entries
+     */
+    public boolean isEmpty() {
+        State state = this.state;
+        return state.base.count == 0 && state.frozen.isEmpty() && state.active.isEmpty();
+    }
+
+    /**
+     * Looks up the uuid currently mapped to given name, ignoring case
+     * @param name name to look for
+     * @return uuid mapped to name, or null if there is none
+     */
+    public @Nullable UUID get(String name) {
+        String folded = PrefixIndex.fold(name);
+        State state = this.state;
+
+        Entry entry = state.active.names.get(folded);
+        if (entry != null)
+            return entry.uuid();
+
+        entry = state.frozen.names.get(folded);
+        if (entry != null)
+            return state.active.uuids.containsKey(entry.uuid()) ? null : entry.uuid();
+
+        Base base = state.base;
+        byte[] key = folded.getBytes(StandardCharsets.UTF_8);
+        int index = base.lowerBound(key);
+        if (index >= base.count || base.compareFolded(index, key) != 0)
+            return null;
+
+        UUID uuid = base.uuidAt(index);
+        return state.isShadowed(uuid) ? null : uuid;
+    }
+
+    /**
+     * Iterates over all entries whose name starts with given prefix, ignoring case.
+     * Order of iteration is unspecified.
+     * @param prefix prefix to look for
+     * @param consumer consumer of name and uuid
+     */
+    public void forEachStartingWith(String prefix, BiConsumer<? super String, ? super UUID> consumer) {
+        String folded = PrefixIndex.fold(prefix);
+        byte[] key = folded.getBytes(StandardCharsets.UTF_8);
+        State state = this.state;
+
+        Base base = state.base;
+        for (int i = base.lowerBound(key); i < base.count && base.foldedStartsWith(i, key); i++) {
+            UUID uuid = base.uuidAt(i);
+            if (state.isShadowed(uuid) || state.isShadowed(base.foldedAt(i)))
+                continue;
+
+            consumer.accept(base.nameAt(i), uuid);
+        }
+
+        for (Entry entry : state.frozen.startingWith(folded)) {
+            if (!state.active.uuids.containsKey(entry.uuid()) && !state.active.names.containsKey(entry.folded()))
+                consumer.accept(entry.name(), entry.uuid());
+        }
+
+        for (Entry entry : state.active.startingWith(folded))
+            consumer.accept(entry.name(), entry.uuid());
+    }
+
+    /**
+     * Returns up to limit names starting with given prefix, ignoring case
+     * @param prefix prefix to look for
+     * @param limit max amount of names to return
+     * @return names starting with prefix, in their original case
+     */
+    public List<String> namesStartingWith(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        if (limit <= 0)
+            return result;
+
+        String folded = PrefixIndex.fold(prefix);
+        byte[] key = folded.getBytes(StandardCharsets.UTF_8);
+        State state = this.state;
+
+        for (Entry entry : state.active.startingWith(folded)) {
+            if (result.size() >= limit)
+                return result;
+
+            result.add(entry.name());
+        }
+
+        for (Entry entry : state.frozen.startingWith(folded)) {
+            if (result.size() >= limit)
+                return result;
+
+            if (!state.active.uuids.containsKey(entry.uuid()) && !state.active.names.containsKey(entry.folded()))
+                result.add(entry.name());
+        }
+
+        Base base = state.base;
+        for (int i = base.lowerBound(key); i < base.count && result.size() < limit && base.foldedStartsWith(i, key); i++) {
+            if (state.isShadowed(base.uuidAt(i)) || state.isShadowed(base.foldedAt(i)))
+                continue;
+
+            result.add(base.nameAt(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Maps given name to given uuid, replacing any previous mapping of the name and of the uuid.
+     * The entry is appended to the journal before this method returns.
+     * @param name name, case is preserved
+     * @param uuid uuid
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    public void put(String name, UUID uuid) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(uuid, "uuid");
+        checkName(name);
+
+        synchronized (lock) {
+            ensureOpen();
+
+            // returning players are the common case and cost nothing
+            if (isCurrent(name, uuid))
+                return;
+
+            try {
+                ByteBuffer record = encode(name, uuid);
+                while (record.hasRemaining())
+                    journal.write(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to name index journal", e);
+            }
+
+            state.active.put(name, uuid);
+        }
+    }
+
+    /**
+     * Checks whether enough entries were added since the last compaction to be worth a new base file
+     * @return true if {@link #compact()} should be called
+     */
+    public boolean needsCompaction() {
+        return state.active.size() >= compactionThreshold;
+    }
+
+    /**
+     * Merges journal entries into a new base file and truncates the journal.
+     * Lookups and additions may continue while the new base file is written.
+     * @throws IOException if the new base file could not be written
+     */
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            State frozen = freeze();
+            if (frozen == null)
+                return;
+
+            Base base = frozen.base;
+            Delta snapshot = frozen.frozen;
+
+            Map<String, Entry> merged = new HashMap<>(base.count + snapshot.size());
+            for (int i = 0; i < base.count; i++) {
+                UUID uuid = base.uuidAt(i);
+                if (snapshot.uuids.containsKey(uuid))
+                    continue;
+
+                String name = base.nameAt(i);
+                String folded = PrefixIndex.fold(name);
+                merged.put(folded, new Entry(name, folded, uuid));
+            }
+
+            for (Entry entry : snapshot.names.values())
+                merged.put(entry.folded(), entry);
+
+            replaceBase(merged.values());
+        }
+    }
+
+    /**
+     * Replaces all entries of the index with given entries.
+     * Entries put since the last compaction are applied on top, as they may be newer than given entries,
+     * for example players who joined while the entries were collected. Entries put while the new base file is written are kept too.
+     * @param entries name to uuid entries
+     * @throws IOException if the new base file could not be written
+     */
+    public void rebuild(Map<String, UUID> entries) throws IOException {
+        Map<String, Entry> deduplicated = new HashMap<>(entries.size());
+        for (Map.Entry<String, UUID> entry : entries.entrySet()) {
+            checkName(entry.getKey());
+            String folded = PrefixIndex.fold(entry.getKey());
+            deduplicated.putIfAbsent(folded, new Entry(entry.getKey(), folded, entry.getValue()));
+        }
+
+        synchronized (compactionLock) {
+            State frozen = freeze();
+            if (frozen != null) {
+                Delta snapshot = frozen.frozen;
+                deduplicated.values().removeIf(entry -> snapshot.uuids.containsKey(entry.uuid()));
+                for (Entry entry : snapshot.names.values())
+                    deduplicated.put(entry.folded(), entry);
+            }
+
+            replaceBase(deduplicated.values());
+        }
+    }
+
+    /**
+     * Closes the journal, the index can no longer be modified afterwards.
+     * Lookups keep working on what was loaded.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed)
+                return;
+
+            closed = true;
+            journal.close();
+        }
+    }
+
+    // moves the active delta aside, so additions from now on are kept once the new base file replaces it
+    private @Nullable State freeze() {
+        synchronized (lock) {
+            State current = this.state;
+            if (current.active.isEmpty() && current.frozen.isEmpty())
+                return null;
+
+            ensureOpen();
+
+            Delta frozen = current.active;
+            if (!current.frozen.isEmpty()) {
+                // left over by a failed compaction, newer entries are applied on top of it
+                frozen = current.frozen;
+                for (Entry entry : current.active.names.values())
+                    frozen.put(entry.name(), entry.uuid());
+            }
+
+            State result = new State(current.base, frozen, new Delta());
+            this.state = result;
+            return result;
+        }
+    }
+
+    // frozen journal entries are dropped, the ones put since are kept
+    private void replaceBase(Collection<Entry> entries) throws IOException {
+        List<SortedEntry> sorted = new ArrayList<>(entries.size());
+        for (Entry entry : entries)
+            sorted.add(new SortedEntry(entry.name().getBytes(StandardCharsets.UTF_8), entry.folded().getBytes(StandardCharsets.UTF_8), entry.uuid()));
+
+        sorted.sort(null);
+
+        Path temp = Files.createTempFile(directory, BASE_PREFIX, ".tmp");
+        try {
+            writeBase(temp, sorted);
+            synchronized (lock) {
+                ensureOpen();
+
+                // a new file per generation, replacing a file which is still mapped fails on some platforms
+                Path baseFile = baseFile(generation + 1);
+                Files.move(temp, baseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                generation++;
+
+                // entries added while writing are kept, a crash before the journal is rewritten only replays entries already in base
+                Delta remaining = this.state.active;
+                rewriteJournal(remaining);
+                this.state = new State(Base.map(baseFile), Delta.EMPTY, remaining);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        deleteOldGenerations();
+    }
+
+    private Path baseFile(long generation) {
+        return directory.resolve(BASE_PREFIX + generation + BASE_SUFFIX);
+    }
+
+    private static long latestGeneration(Path directory) throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, BASE_PREFIX + "*" + BASE_SUFFIX)) {
+            for (Path file : files) {
+                long generation = parseGeneration(file);
+                if (generation > latest)
+                    latest = generation;
+            }
+        }
+
+        return latest;
+    }
+
+    private static long parseGeneration(Path file) {
+        String name = file.getFileName().toString();
+        String generation = name.substring(BASE_PREFIX.length(), name.length() - BASE_SUFFIX.length());
+        return StringHelpers.parseLong(generation).orElse(-1);
+    }
+
+    // older generations may still be mapped by concurrent readers, failing to delete them is fine as it will be retried on next open
+    private void deleteOldGenerations() {
+        long current = generation;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, BASE_PREFIX + "*" + BASE_SUFFIX)) {
+            for (Path file : files) {
+                long fileGeneration = parseGeneration(file);
+                if (fileGeneration < 0 || fileGeneration >= current)
+                    continue;
+
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // still mapped
+                }
+            }
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+
+    private void rewriteJournal(Delta remaining) throws IOException {
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        Path temp = Files.createTempFile(directory, JOURNAL_FILE, ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            for (Entry entry : remaining.names.values()) {
+                ByteBuffer record = encode(entry.name(), entry.uuid());
+                while (record.hasRemaining())
+                    channel.write(record);
+            }
+
+            channel.force(true);
+        }
+
+        journal.close();
+        Files.move(temp, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // checks whether name in its exact case is already mapped to uuid
+    private boolean isCurrent(String name, UUID uuid) {
+        String folded = PrefixIndex.fold(name);
+        State state = this.state;
+
+        for (Delta delta : List.of(state.active, state.frozen)) {
+            Entry entry = delta.names.get(folded);
+            if (entry != null)
+                return entry.name().equals(name) && entry.uuid().equals(uuid);
+
+            if (delta.uuids.containsKey(uuid))
+                return false;
+        }
+
+        Base base = state.base;
+        byte[] key = folded.getBytes(StandardCharsets.UTF_8);
+        int index = base.lowerBound(key);
+        return index < base.count && base.compareFolded(index, key) == 0 && base.nameAt(index).equals(name) && base.uuidAt(index).equals(uuid);
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("Name index is closed");
+    }
+
+    private static void checkName(String name) {
+        if (name.isEmpty()
+                || name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_LENGTH
+                || PrefixIndex.fold(name).getBytes(StandardCharsets.UTF_8).length > MAX_NAME_LENGTH)
+            throw new IllegalArgumentException("Invalid name length: " + name);
+    }
+
+    // journal record format: unsigned short name length, utf-8 name, uuid most & least significant bits
+    private static ByteBuffer encode(String name, UUID uuid) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(Short.BYTES + bytes.length + Long.BYTES * 2)
+                .putShort((short) bytes.length)
+                .put(bytes)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .flip();
+    }
+
+    private static Delta replayJournal(Path journalFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        Delta delta = new Delta();
+
+        // a partially written record at the end is the result of a crash mid write and is dropped
+        while (buffer.remaining() >= Short.BYTES) {
+            int length = buffer.getShort(buffer.position()) & 0xffff;
+            if (buffer.remaining() < Short.BYTES + length + Long.BYTES * 2)
+                break;
+
+            buffer.getShort();
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            delta.put(new String(bytes, StandardCharsets.UTF_8), new UUID(buffer.getLong(), buffer.getLong()));
+        }
+
+        return delta;
+    }
+
+    private static void writeBase(Path file, List<SortedEntry> sorted) throws IOException {
+        long size = HEADER_SIZE + (long) Integer.BYTES * sorted.size();
+        for (SortedEntry entry : sorted)
+            size += Base.recordSize(entry.name().length, entry.folded().length);
+
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Name index is too large: " + size + " bytes");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(sorted.size());
+
+            int offset = HEADER_SIZE + Integer.BYTES * sorted.size();
+            for (SortedEntry entry : sorted) {
+                buffer.putInt(offset);
+                offset += Base.recordSize(entry.name().length, entry.folded().length);
+            }
+
+            for (SortedEntry entry : sorted) {
+                buffer.putShort((short) entry.folded().length)
+                        .put(entry.folded())
+                        .putShort((short) entry.name().length)
+                        .put(entry.name())
+                        .putLong(entry.uuid().getMostSignificantBits())
+                        .putLong(entry.uuid().getLeastSignificantBits());
+            }
+
+            buffer.force();
+        }
+    }
+
+    /**
+     * Memory mapped base file, header followed by record offsets followed by records sorted by the utf-8 bytes of their folded name.
+     * Records hold the folded name, so lookups compare bytes in place instead of decoding and folding names.
+     */
+    private static final class Base {
+
+        static final Base EMPTY = new Base(ByteBuffer.allocate(0), 0);
+
+        static Base map(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE)
+                    throw new IOException("Name index file is truncated: " + file);
+
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+                    throw new IOException("Unknown name index format: " + file);
+
+                int count = buffer.getInt(8);
+                if (count < 0 || HEADER_SIZE + (long) Integer.BYTES * count > size)
+                    throw new IOException("Name index file is corrupted: " + file);
+
+                return new Base(buffer, count);
+            }
+        }
+
+        // record format: unsigned short folded length, utf-8 folded name, unsigned short name length, utf-8 name, uuid most & least significant bits
+        static int recordSize(int nameLength, int foldedLength) {
+            return Short.BYTES * 2 + foldedLength + nameLength + Long.BYTES * 2;
+        }
+
+        private final ByteBuffer buffer;
+        private final int count;
+
+        private Base(ByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.count = count;
+        }
+
+        // absolute reads only, so a single buffer can be shared by concurrent readers
+        private int offsetOf(int index) {
+            return buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+        }
+
+        private int nameOffset(int offset) {
+            return offset + Short.BYTES + (buffer.getShort(offset) & 0xffff);
+        }
+
+        String foldedAt(int index) {
+            int offset = offsetOf(index);
+            byte[] bytes = new byte[buffer.getShort(offset) & 0xffff];
+            buffer.get(offset + Short.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String nameAt(int index) {
+            int offset = nameOffset(offsetOf(index));
+            byte[] bytes = new byte[buffer.getShort(offset) & 0xffff];
+            buffer.get(offset + Short.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        UUID uuidAt(int index) {
+            int offset = nameOffset(offsetOf(index));
+            offset += Short.BYTES + (buffer.getShort(offset) & 0xffff);
+            return new UUID(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+        }
+
+        // compares the folded name at given position to key, as unsigned bytes
+        int compareFolded(int index, byte[] key) {
+            int offset = offsetOf(index);
+            int length = buffer.getShort(offset) & 0xffff;
+            offset += Short.BYTES;
+
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int result = Byte.compareUnsigned(buffer.get(offset + i), key[i]);
+                if (result != 0)
+                    return result;
+            }
+
+            return length - key.length;
+        }
+
+        boolean foldedStartsWith(int index, byte[] prefix) {
+            int offset = offsetOf(index);
+            if ((buffer.getShort(offset) & 0xffff) < prefix.length)
+                return false;
+
+            offset += Short.BYTES;
+            for (int i = 0; i < prefix.length; i++) {
+                if (buffer.get(offset + i) != prefix[i])
+                    return false;
+            }
+
+            return true;
+        }
+
+        int lowerBound(byte[] foldedPrefix) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareFolded(mid, foldedPrefix) < 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+
+            return low;
+        }
+
+    }
+
+    private record Entry(String name, String folded, UUID uuid) {}
+
+    private record SortedEntry(byte[] name, byte[] folded, UUID uuid) implements Comparable<SortedEntry> {
+
+        @Override
+        public int compareTo(SortedEntry other) {
+            int result = Arrays.compareUnsigned(folded, other.folded);
+            return result != 0 ? result : Arrays.compareUnsigned(name, other.name);
+        }
+
+    }
+
+    /**
+     * Entries added since the base file was written, names are unique ignoring case and so are uuids.
+     * Additions are applied in place in logarithmic time, readers may observe them concurrently.
+     */
+    private static final class Delta {
+
+        static final Delta EMPTY = new Delta();
+
+        // folded name to entry
+        final ConcurrentSkipListMap<String, Entry> names = new ConcurrentSkipListMap<>();
+        // uuid to folded name
+        final Map<UUID, String> uuids = new ConcurrentHashMap<>();
+
+        boolean isEmpty() {
+            return uuids.isEmpty();
+        }
+
+        int size() {
+            return uuids.size();
+        }
+
+        Iterable<Entry> startingWith(String foldedPrefix) {
+            return () -> names.tailMap(foldedPrefix).values().stream()
+                    .takeWhile(entry -> entry.folded().startsWith(foldedPrefix))
+                    .iterator();
+        }
+
+        // callers serialize modifications, the new name is visible before the previous one is removed
+        void put(String name, UUID uuid) {
+            String folded = PrefixIndex.fold(name);
+
+            Entry previousOwner = names.put(folded, new Entry(name, folded, uuid));
+            String previousName = uuids.put(uuid, folded);
+
+            // drop the previous name of this uuid
+            if (previousName != null && !previousName.equals(folded))
+                names.remove(previousName);
+
+            // and the previous owner of this name
+            if (previousOwner != null && !previousOwner.uuid().equals(uuid))
+                uuids.remove(previousOwner.uuid());
+        }
+
+    }
+
+    /**
+     * Layers of the index, from newest to oldest: the active delta additions go to, the delta being merged into a new base file, and the base file.
+     * Replaced as a whole, so readers never observe a base file together with a delta already merged into a previous one.
+     */
+    private record State(Base base, Delta frozen, Delta active) {
+
+        // whether an entry of the base file is replaced by a delta entry
+        boolean isShadowed(UUID uuid) {
+            return active.uuids.containsKey(uuid) || frozen.uuids.containsKey(uuid);
+        }
+
+        boolean isShadowed(String folded) {
+            return active.names.containsKey(folded) || frozen.names.containsKey(folded);
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.collect;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable case-insensitive string keyed lookup table using a minimal-probe perfect hash.
+ * Every key is placed in a slot computed from its hash and a per bucket displacement, so a lookup hashes the input once,
+ * reads a single slot and compares a single key, without allocating.
+ * Keys are compared the same way as {@link String#equalsIgnoreCase(String)}, using {@link PrefixIndex#fold(char)} so lookups agree with prefix completions.
+ * @param <V> value type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class PerfectHashIndex<V> {
+
+    private static final int MAX_SEEDS = 32;
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+
+    /**
+     * Constructs a new index from given map
+     * @param map keys mapped to their values, keys must be unique ignoring case
+     * @return a new index
+     * @param <V> value type
+     * @throws IllegalArgumentException if two keys are equal ignoring case
+     */
+    public static <V> PerfectHashIndex<V> of(Map<String, ? extends V> map) {
+        String[] keys = new String[map.size()];
+        Object[] values = new Object[map.size()];
+
+        int i = 0;
+        for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+            keys[i] = Objects.requireNonNull(entry.getKey(), "key");
+            values[i] = entry.getValue();
+            i++;
+        }
+
+        Set<String> folded = new HashSet<>();
+        for (String key : keys) {
+            if (!folded.add(PrefixIndex.fold(key)))
+                throw new IllegalArgumentException("Keys must be unique ignoring case: " + key);
+        }
+
+        for (long seed = 0; seed < MAX_SEEDS; seed++) {
+            PerfectHashIndex<V> index = tryBuild(keys, values, seed);
+            if (index != null)
+                return index;
+        }
+
+        throw new IllegalStateException("Failed to find a perfect hash for " + keys.length + " keys");
+    }
+
+    private static <V> @Nullable PerfectHashIndex<V> tryBuild(String[] keys, Object[] values, long seed) {
+        int slotCount = tableSize(keys.length * 2);
+        int bucketCount = tableSize((keys.length + 3) / 4);
+
+        long[] hashes = new long[keys.length];
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++)
+            buckets.add(new ArrayList<>(4));
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i], seed);
+            buckets.get(bucket(hashes[i], bucketCount)).add(i);
+        }
+
+        // largest buckets are hardest to place, so they are placed while the table is emptiest
+        Integer[] order = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++)
+            order[i] = i;
+
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] displacements = new int[bucketCount];
+        String[] slotKeys = new String[slotCount];
+        Object[] slotValues = new Object[slotCount];
+        int[] placed = new int[4];
+
+        for (int bucketIndex : order) {
+            List<Integer> bucket = buckets.get(bucketIndex);
+            if (bucket.isEmpty())
+                break;
+
+            if (placed.length < bucket.size())
+                placed = new int[bucket.size()];
+
+            int displacement = 0;
+            while (!fits(bucket, hashes, displacement, slotKeys, placed)) {
+                if (++displacement >= MAX_DISPLACEMENT)
+                    return null;
+            }
+
+            displacements[bucketIndex] = displacement;
+            for (int i = 0; i < bucket.size(); i++) {
+                int key = bucket.get(i);
+                slotKeys[placed[i]] = keys[key];
+                slotValues[placed[i]] = values[key];
+            }
+        }
+
+        return new PerfectHashIndex<>(seed, displacements, slotKeys, slotValues, keys.length);
+    }
+
+    private static boolean fits(List<Integer> bucket, long[] hashes, int displacement, String[] slotKeys, int[] placed) {
+        for (int i = 0; i < bucket.size(); i++) {
+            int slot = slot(hashes[bucket.get(i)], displacement, slotKeys.length);
+            if (slotKeys[slot] != null)
+                return false;
+
+            for (int j = 0; j < i; j++) {
+                if (placed[j] == slot)
+                    return false;
+            }
+
+            placed[i] = slot;
+        }
+
+        return true;
+    }
+
+    private static int tableSize(int minimum) {
+        return Math.max(1, Integer.highestOneBit(Math.max(1, minimum) - 1) << 1);
+    }
+
+    private static int bucket(long hash, int bucketCount) {
+        return (int) (hash >>> 32) & (bucketCount - 1);
+    }
+
+    private static int slot(long hash, int displacement, int slotCount) {
+        return (int) mix(hash + displacement * 0x9e3779b97f4a7c15L) & (slotCount - 1);
+    }
+
+    private static long hash(CharSequence key, long seed) {
+        long hash = mix(seed);
+        for (int i = 0; i < key.length(); i++)
+            hash = (hash ^ PrefixIndex.fold(key.charAt(i))) * 0x100000001b3L;
+
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private final long seed;
+    private final int[] displacements;
+    private final String[] keys;
+    private final Object[] values;
+    private final int size;
+
+    private PerfectHashIndex(long seed, int[] displacements, String[] keys, Object[] values, int size) {
+        this.seed = seed;
+        this.displacements = displacements;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @see Map#size()
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up given key ignoring case
+     * @param key key to look for
+     * @return mapped value, or null if not present
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(CharSequence key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * Checks whether given key is present ignoring case
+     * @param key key to look for
+     * @return true if present, else false
+     */
+    public boolean containsKey(CharSequence key) {
+        return indexOf(key) >= 0;
+    }
+
+    private int indexOf(CharSequence key) {
+        if (size == 0)
+            return -1;
+
+        long hash = hash(key, seed);
+        int slot = slot(hash, displacements[bucket(hash, displacements.length)], keys.length);
+
+        String candidate = keys[slot];
+        if (candidate == null || candidate.length() != key.length())
+            return -1;
+
+        for (int i = 0; i < candidate.length(); i++) {
+            char a = candidate.charAt(i);
+            char b = key.charAt(i);
+            if (a != b && PrefixIndex.fold(a) != PrefixIndex.fold(b))
+                return -1;
+        }
+
+        return slot;
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package net.apartium.cocoabeans.collect;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable index of string keys sorted by their case-folded form, allowing case-insensitive prefix lookups in logarithmic time.
+ * Keys are folded char by char the same way {@link String#equalsIgnoreCase(String)} compares them, see {@link #fold(char)}.
+ * Since instances are immutable they may be shared freely between threads, modifications return a new instance.
+ * @param <V> value type
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class PrefixIndex<V> {
+
+    private static final PrefixIndex<?> EMPTY = new PrefixIndex<>(new String[0], new String[0], new Object[0]);
+
+    /**
+     * Returns an empty instance.
+     * @return empty instance
+     * @param <V> value type
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PrefixIndex<V> of() {
+        return (PrefixIndex<V>) EMPTY;
+    }
+
+    /**
+     * Constructs a new index from given map, keys are indexed and mapped to their values
+     * @param map map to index
+     * @return a new index consisting of given map entries
+     * @param <V> value type
+     */
+    public static <V> PrefixIndex<V> of(Map<String, ? extends V> map) {
+        if (map.isEmpty())
+            return of();
+
+        IndexEntry[] entries = new IndexEntry[map.size()];
+        int i = 0;
+        for (Map.Entry<String, ? extends V> entry : map.entrySet())
+            entries[i++] = new IndexEntry(fold(entry.getKey()), entry.getKey(), entry.getValue());
+
+        return fromEntries(entries);
+    }
+
+    /**
+     * Constructs a new index from given keys, each key is mapped to itself
+     * @param keys keys to index
+     * @return a new index consisting of given keys
+     */
+    public static PrefixIndex<String> of(Collection<String> keys) {
+        if (keys.isEmpty())
+            return of();
+
+        IndexEntry[] entries = new IndexEntry[keys.size()];
+        int i = 0;
+        for (String key : keys)
+            entries[i++] = new IndexEntry(fold(key), key, key);
+
+        return fromEntries(entries);
+    }
+
+    private static <V> PrefixIndex<V> fromEntries(IndexEntry[] entries) {
+        Arrays.sort(entries);
+
+        String[] folded = new String[entries.length];
+        String[] keys = new String[entries.length];
+        Object[] values = new Object[entries.length];
+
+        for (int i = 0; i < entries.length; i++) {
+            folded[i] = entries[i].folded();
+            keys[i] = entries[i].key();
+            values[i] = entries[i].value();
+        }
+
+        return new PrefixIndex<>(folded, keys, values);
+    }
+
+    /**
+     * Folds given string the same way keys are folded by this index
+     * @param s string to fold
+     * @return folded string of the same length, or given string if it is already folded
+     */
+    public static String fold(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (fold(c) == c)
+                continue;
+
+            char[] chars = s.toCharArray();
+            for (int j = i; j < chars.length; j++)
+                chars[j] = fold(chars[j]);
+
+            return new String(chars);
+        }
+
+        return s;
+    }
+
+    /**
+     * Folds a single char, two chars are equal ignoring case if their folded forms are equal.
+     * Unlike {@link String#toLowerCase(Locale)} folding never changes the length of a string, so it is shared by lookups which can't allocate.
+     * @param c char to fold
+     * @return folded char
+     */
+    @ApiStatus.AvailableSince("0.0.29")
+    public static char fold(char c) {
+        // same per char comparison as String#equalsIgnoreCase
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private final String[] folded;
+    private final String[] keys;
+    private final Object[] values;
+
+    private PrefixIndex(String[] folded, String[] keys, Object[] values) {
+        this.folded = folded;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @see Collection#isEmpty()
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Returns the key at given position of the index
+     * @param index position in index
+     * @return key in its original case
+     */
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value at given position of the index
+     * @param index position in index
+     * @return value mapped to the key at given position
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Returns the position of the first key starting with given prefix, ignoring case
+     * @param prefix prefix to look for
+     * @return position of the first key starting with prefix, or the position it would have been inserted at if there is none
+     */
+    public int lowerBound(String prefix) {
+        return lowerBoundFolded(fold(prefix));
+    }
+
+    /**
+     * Returns the position after the last key starting with given prefix, ignoring case
+     * @param prefix prefix to look for
+     * @return exclusive end position of keys starting with prefix
+     */
+    public int upperBound(String prefix) {
+        String foldedPrefix = fold(prefix);
+        return upperBoundFolded(foldedPrefix, lowerBoundFolded(foldedPrefix));
+    }
+
+    /**
+     * Counts keys starting with given prefix, ignoring case
+     * @param prefix prefix to look for
+     * @return amount of keys starting with prefix
+     */
+    public int countStartingWith(String prefix) {
+        String foldedPrefix = fold(prefix);
+        int from = lowerBoundFolded(foldedPrefix);
+        return upperBoundFolded(foldedPrefix, from) - from;
+    }
+
+    /**
+     * Returns all keys starting with given prefix, ignoring case, in index order
+     * @param prefix prefix to look for
+     * @return keys starting with given prefix, in their original case
+     */
+    public List<String> keysStartingWith(String prefix) {
+        return keysStartingWith(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to limit keys starting with given prefix, ignoring case, in index order
+     * @param prefix prefix to look for
+     * @param limit max amount of keys to return
+     * @return keys starting with given prefix, in their original case
+     */
+    public List<String> keysStartingWith(String prefix, int limit) {
+        String foldedPrefix = fold(prefix);
+        int from = lowerBoundFolded(foldedPrefix);
+        int to = upperBoundFolded(foldedPrefix, from);
+        if (to - from > limit)
+            to = from + limit;
+
+        return Collections.unmodifiableList(Arrays.asList(keys).subList(from, to));
+    }
+
+    /**
+     * Iterates over all entries whose key starts with given prefix, ignoring case, in index order
+     * @param prefix prefix to look for
+     * @param consumer consumer of key and value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachStartingWith(String prefix, BiConsumer<? super String, ? super V> consumer) {
+        String foldedPrefix = fold(prefix);
+        int from = lowerBoundFolded(foldedPrefix);
+        int to = upperBoundFolded(foldedPrefix, from);
+        for (int i = from; i < to; i++)
+            consumer.accept(keys[i], (V) values[i]);
+    }
+
+    /**
+     * Looks up given key ignoring case, if multiple keys fold to the same string the first one in index order wins
+     * @param key key to look for
+     * @return mapped value, or null if not present
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V getIgnoreCase(String key) {
+        String foldedKey = fold(key);
+        int index = lowerBoundFolded(foldedKey);
+        if (index >= folded.length || !folded[index].equals(foldedKey))
+            return null;
+
+        return (V) values[index];
+    }
+
+    /**
+     * Returns a new index with given key added, replacing an existing key of the exact same case
+     * @param key key to add
+     * @param value value to map key to
+     * @return a new index
+     */
+    public PrefixIndex<V> with(String key, V value) {
+        String foldedKey = fold(key);
+        int existing = indexOfExact(foldedKey, key);
+        if (existing >= 0) {
+            Object[] newValues = Arrays.copyOf(values, values.length);
+            newValues[existing] = value;
+            return new PrefixIndex<>(folded, keys, newValues);
+        }
+
+        int insertAt = insertionPoint(foldedKey, key);
+        return new PrefixIndex<>(
+                insert(folded, new String[folded.length + 1], insertAt, foldedKey),
+                insert(keys, new String[keys.length + 1], insertAt, key),
+                insert(values, new Object[values.length + 1], insertAt, value)
+        );
+    }
+
+    /**
+     * Returns a new index without given key, matched in its exact case
+     * @param key key to remove
+     * @return a new index, or this instance if key is not present
+     */
+    public PrefixIndex<V> without(String key) {
+        int existing = indexOfExact(fold(key), key);
+        if (existing < 0)
+            return this;
+
+        if (keys.length == 1)
+            return of();
+
+        return new PrefixIndex<>(
+                remove(folded, new String[folded.length - 1], existing),
+                remove(keys, new String[keys.length - 1], existing),
+                remove(values, new Object[values.length - 1], existing)
+        );
+    }
+
+    private int lowerBoundFolded(String foldedPrefix) {
+        int low = 0;
+        int high = folded.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (folded[mid].compareTo(foldedPrefix) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    // keys starting with prefix are contiguous and begin at from
+    private int upperBoundFolded(String foldedPrefix, int from) {
+        int low = from;
+        int high = folded.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (folded[mid].startsWith(foldedPrefix))
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    private int indexOfExact(String foldedKey, String key) {
+        for (int i = lowerBoundFolded(foldedKey); i < folded.length && folded[i].equals(foldedKey); i++) {
+            if (keys[i].equals(key))
+                return i;
+        }
+
+        return -1;
+    }
+
+    private int insertionPoint(String foldedKey, String key) {
+        int i = lowerBoundFolded(foldedKey);
+        while (i < folded.length && folded[i].equals(foldedKey) && keys[i].compareTo(key) < 0)
+            i++;
+
+        return i;
+    }
+
+    private static <E> E[] insert(E[] source, E[] target, int index, E element) {
+        System.arraycopy(source, 0, target, 0, index);
+        target[index] = element;
+        System.arraycopy(source, index, target, index + 1, source.length - index);
+        return target;
+    }
+
+    private static <E> E[] remove(E[] source, E[] target, int index) {
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index + 1, target, index, source.length - index - 1);
+        return target;
+    }
+
+    private record IndexEntry(String folded, String key, Object value) implements Comparable<IndexEntry> {
+
+        @Override
+        public int compareTo(IndexEntry other) {
+            int result = folded.compareTo(other.folded);
+            return result != 0 ? result : key.compareTo(other.key);
+        }
+
+    }
+
+}
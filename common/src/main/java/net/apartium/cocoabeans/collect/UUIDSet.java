@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024 Apartium
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package net.apartium.cocoabeans.collect;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An immutable set of uuids stored as a sorted array of long pairs, using 16 bytes per uuid and looking up in logarithmic time.
+ * Optionally a bloom filter is kept in front of the array so most absent uuids are rejected without searching it.
+ * Since instances are immutable they may be shared freely between threads, a reloaded set should be swapped for a new instance.
+ */
+@ApiStatus.AvailableSince("0.0.29")
+public class UUIDSet {
+
+    /**
+     * Bits of the bloom filter per uuid, with {@link #BLOOM_HASHES} hashes about 1 in 100 absent uuids pass the filter
+     */
+    public static final int BLOOM_BITS_PER_ENTRY = 10;
+
+    /**
+     * Amount of bits checked by the bloom filter per lookup
+     */
+    public static final int BLOOM_HASHES = 4;
+
+    private static final UUIDSet EMPTY = new UUIDSet(new long[0], null);
+
+    /**
+     * Returns an empty instance.
+     * @return empty instance
+     */
+    public static UUIDSet of() {
+        return EMPTY;
+    }
+
+    /**
+     * Constructs a new set from given uuids, without a bloom filter
+     * @param uuids uuids to include, duplicates are ignored
+     * @return a new set consisting of given uuids
+     */
+    public static UUIDSet of(Collection<UUID> uuids) {
+        return of(uuids, false);
+    }
+
+    /**
+     * Constructs a new set from given uuids
+     * @param uuids uuids to include, duplicates are ignored
+     * @param bloomFilter true to keep a bloom filter in front of the set, worth it for large sets mostly queried with absent uuids
+     * @return a new set consisting of given uuids
+     */
+    public static UUIDSet of(Collection<UUID> uuids, boolean bloomFilter) {
+        if (uuids.isEmpty())
+            return of();
+
+        UUID[] sorted = uuids.toArray(UUID[]::new);
+        Arrays.sort(sorted, UUIDSet::compare);
+
+        long[] pairs = new long[sorted.length * 2];
+        int size = 0;
+        for (UUID uuid : sorted) {
+            long most = uuid.getMostSignificantBits();
+            long least = uuid.getLeastSignificantBits();
+            if (size > 0 && pairs[size * 2 - 2] == most && pairs[size * 2 - 1] == least)
+                continue;
+
+            pairs[size * 2] = most;
+            pairs[size * 2 + 1] = least;
+            size++;
+        }
+
+        if (size * 2 < pairs.length)
+            pairs = Arrays.copyOf(pairs, size * 2);
+
+        return new UUIDSet(pairs, bloomFilter ? bloomFilter(pairs, size) : null);
+    }
+
+    private static int compare(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static long[] bloomFilter(long[] pairs, int size) {
+        // power of two amount of bits, so positions are masked instead of divided
+        long bits = Long.highestOneBit(Math.max(64, (long) size * BLOOM_BITS_PER_ENTRY - 1) << 1);
+        long[] filter = new long[(int) Math.min(bits >>> 6, 1 << 30)];
+        long mask = ((long) filter.length << 6) - 1;
+
+        for (int i = 0; i < size; i++) {
+            long first = mix(pairs[i * 2] ^ Long.rotateLeft(pairs[i * 2 + 1], 32));
+            long second = mix(pairs[i * 2 + 1] + first) | 1;
+            for (int hash = 0; hash < BLOOM_HASHES; hash++) {
+                long bit = (first + hash * second) & mask;
+                filter[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        return filter;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private final long[] pairs;
+    private final long[] bloomFilter;
+
+    private UUIDSet(long[] pairs, long[] bloomFilter) {
+        this.pairs = pairs;
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    public int size() {
+        return pairs.length / 2;
+    }
+
+    /**
+     * @see Collection#isEmpty()
+     */
+    public boolean isEmpty() {
+        return pairs.length == 0;
+    }
+
+    /**
+     * Returns whether this set keeps a bloom filter in front of it
+     * @return true if there is a bloom filter
+     */
+    public boolean hasBloomFilter() {
+        return bloomFilter != null;
+    }
+
+    /**
+     * @see Collection#contains(Object)
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Checks whether the set contains a uuid given by its bits, without allocating it
+     * @param most most significant bits of the uuid
+     * @param least least significant bits of the uuid
+     * @return true if the set contains the uuid
+     */
+    public boolean contains(long most, long least) {
+        if (bloomFilter != null && !mightContain(most, least))
+            return false;
+
+        int low = 0;
+        int high = pairs.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = Long.compareUnsigned(pairs[mid * 2], most);
+            if (result == 0)
+                result = Long.compareUnsigned(pairs[mid * 2 + 1], least);
+
+            if (result < 0)
+                low = mid + 1;
+            else if (result > 0)
+                high = mid - 1;
+            else
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean mightContain(long most, long least) {
+        long mask = ((long) bloomFilter.length << 6) - 1;
+        long first = mix(most ^ Long.rotateLeft(least, 32));
+        long second = mix(least + first) | 1;
+        for (int hash = 0; hash < BLOOM_HASHES; hash++) {
+            long bit = (first + hash * second) & mask;
+            if ((bloomFilter[(int) (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Iterates over all uuids in the set, ordered by their unsigned bits
+     * @param action action to run for each uuid
+     */
+    public void forEach(Consumer<UUID> action) {
+        for (int i = 0; i < pairs.length; i += 2)
+            action.accept(new UUID(pairs[i], pairs[i + 1]));
+    }
+
+}
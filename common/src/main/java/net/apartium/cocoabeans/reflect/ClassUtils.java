@@ -23,8 +23,9 @@ public class ClassUtils {
 
     /**
      * Recursively find all super classes and super interfaces for given class object.
+     * The hierarchy is computed once per class and cached, so repeated lookups are cheap.
      * @param clazz clazz
-     * @return a collection of all super classes and super interfaces of given class
+     * @return an unmodifiable collection of all super classes and super interfaces of given class
      * @param <T> type arg for convenience
      */
     @ApiStatus.AvailableSince("0.0.29")
@@ -32,17 +33,7 @@ public class ClassUtils {
         if (clazz == null || clazz == Object.class)
             return Collections.emptyList();
 
-        Set<Class<? super T>> set = new LinkedHashSet<>();
-        set.add(clazz);
-
-        if (!clazz.isInterface()) {
-            set.addAll(getSuperClassAndInterfaces(clazz.getSuperclass()));
-        }
-
-        for (Class<?> anInterface : clazz.getInterfaces())
-            set.addAll(cast(getSuperClassAndInterfaces(anInterface)));
-
-        return set;
+        return cast(Collections.unmodifiableList(Arrays.asList(ReflectionCache.getSuperClassAndInterfaces(clazz))));
     }
 
     private static <IKFIR> IKFIR cast(Object object) {
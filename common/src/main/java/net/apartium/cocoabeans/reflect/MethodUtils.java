@@ -46,9 +46,10 @@ public class MethodUtils {
     }
 
     /**
-     * Get all methods from super class / interface
+     * Get all methods from super class / interface.
+     * Result is computed once per method and cached.
      * @param method method
-     * @return all methods from super class / interface
+     * @return an unmodifiable set of all methods from super class / interface
      */
     @ApiStatus.AvailableSince("0.0.29")
     public static Set<Method> getMethodsFromSuperClassAndInterface(Method method) {
@@ -60,6 +61,10 @@ public class MethodUtils {
         if (clazz == Object.class)
             return Collections.emptySet();
 
+        return ReflectionCache.getMethodsFromSuperClassAndInterface(method, MethodUtils::computeMethodsFromSuperClassAndInterface);
+    }
+
+    private static Set<Method> computeMethodsFromSuperClassAndInterface(Method method) {
         Set<Method> result = new HashSet<>();
 
         Method superClassMethod = getSuperClassMethod(method);
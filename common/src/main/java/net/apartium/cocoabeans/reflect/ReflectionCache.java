@@ -14,7 +14,9 @@ import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -103,6 +105,41 @@ import java.util.stream.Stream;
         return Stream.of(result.declaredMethods);
     }
 
+    /* package-private */ static Class<?>[] getSuperClassAndInterfaces(Class<?> clazz) {
+        ClassCachedData result = getCachedData(clazz);
+        if (result.superClassAndInterfaces == null) {
+            synchronized (result) {
+                if (result.superClassAndInterfaces == null) {
+                    Set<Class<?>> set = new LinkedHashSet<>();
+                    set.add(clazz);
+
+                    Class<?> superclass = clazz.getSuperclass();
+                    if (!clazz.isInterface() && superclass != null && superclass != Object.class)
+                        set.addAll(Arrays.asList(getSuperClassAndInterfaces(superclass)));
+
+                    for (Class<?> anInterface : clazz.getInterfaces())
+                        set.addAll(Arrays.asList(getSuperClassAndInterfaces(anInterface)));
+
+                    result.superClassAndInterfaces = set.toArray(new Class<?>[0]);
+                }
+            }
+        }
+        return result.superClassAndInterfaces;
+    }
+
+    /* package-private */ static Set<Method> getMethodsFromSuperClassAndInterface(Method method, Function<Method, Set<Method>> compute) {
+        Map<Method, Set<Method>> superMethods = getCachedData(method.getDeclaringClass()).superMethods;
+
+        Set<Method> result = superMethods.get(method);
+        if (result != null)
+            return result;
+
+        // computed outside of the map so recursive lookups into super types never hold a bin lock
+        result = Collections.unmodifiableSet(compute.apply(method));
+        Set<Method> previous = superMethods.putIfAbsent(method, result);
+        return previous == null ? result : previous;
+    }
+
     private static ClassCachedData getCachedData(Class<?> clazz) {
         return CLASS_CACHE_REF.get(clazz);
     }
@@ -127,5 +164,10 @@ import java.util.stream.Stream;
         private Constructor[]
                 constructors;
 
+        private Class<?>[]
+                superClassAndInterfaces;
+
+        private final Map<Method, Set<Method>> superMethods = new ConcurrentHashMap<>();
+
     }
 }
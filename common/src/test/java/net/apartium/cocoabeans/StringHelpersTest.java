@@ -12,6 +12,9 @@ package net.apartium.cocoabeans;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -71,6 +74,117 @@ class StringHelpersTest {
         assertEquals(5555, parsed.getAsLong());
     }
 
+    @Test
+    void parseIntegerOverflow() {
+        assertEquals(Integer.MAX_VALUE, StringHelpers.parseInteger("2147483647").getAsInt());
+        assertEquals(Integer.MIN_VALUE, StringHelpers.parseInteger("-2147483648").getAsInt());
+        assertTrue(StringHelpers.parseInteger("2147483648").isEmpty());
+        assertTrue(StringHelpers.parseInteger("-2147483649").isEmpty());
+        assertTrue(StringHelpers.parseInteger("99999999999999999999").isEmpty());
+
+        assertEquals(Long.MAX_VALUE, StringHelpers.parseLong("9223372036854775807").getAsLong());
+        assertEquals(Long.MIN_VALUE, StringHelpers.parseLong("-9223372036854775808").getAsLong());
+        assertTrue(StringHelpers.parseLong("9223372036854775808").isEmpty());
+        assertTrue(StringHelpers.parseLong("-9223372036854775809").isEmpty());
+    }
+
+    @Test
+    void parseRange() {
+        String s = "tp 12 -3.5 x";
+        assertEquals(12, StringHelpers.parseInteger(s, 3, 5).getAsInt());
+        assertEquals(12L, StringHelpers.parseLong(s, 3, 5).getAsLong());
+        assertEquals(-3.5, StringHelpers.parseDouble(s, 6, 10).getAsDouble());
+        assertEquals(-3.5f, StringHelpers.parseFloat(s, 6, 10).getAsFloat());
+        assertTrue(StringHelpers.parseInteger(s, 6, 10).isEmpty());
+        assertTrue(StringHelpers.parseDouble(s, 11, 12).isEmpty());
+        assertTrue(StringHelpers.parseInteger(s, 3, 3).isEmpty());
+        assertTrue(StringHelpers.parseDouble(s, 3, 3).isEmpty());
+        assertTrue(StringHelpers.parseInteger(s, 10, 50).isEmpty());
+    }
+
+    @Test
+    void integralMatchesJdk() {
+        List<String> inputs = List.of("0", "-0", "+0", "+", "-", "", " 1", "1 ", "007", "-12", "+12", "1a", "a1", "1.0", "1e3",
+                "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808",
+                "-9223372036854775808", "-9223372036854775809", "\u0661\u0662", "12\u0663", "--1", "+-1");
+
+        for (String input : inputs) {
+            assertEquals(jdkInteger(input), StringHelpers.parseInteger(input).isPresent() ? (Object) StringHelpers.parseInteger(input).getAsInt() : null, input);
+            assertEquals(jdkInteger(input) != null, StringHelpers.isInteger(input), input);
+            assertEquals(jdkLong(input), StringHelpers.parseLong(input).isPresent() ? (Object) StringHelpers.parseLong(input).getAsLong() : null, input);
+            assertEquals(jdkLong(input) != null, StringHelpers.isLong(input), input);
+        }
+    }
+
+    @Test
+    void floatingPointMatchesJdk() {
+        List<String> inputs = List.of("0", "-0", "-0.0", "+0.0", "1", "1.", ".5", ".", "-.5e1", "1e", "1e+", "1e-5", "1E5", "1.5f", "1.5D", "1.5x",
+                " 2.5 ", "\t3\n", "", " ", "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "infinity", "nan", "Infinityf",
+                "0x1p3", "0X1.8P-2", "-0x.8p1d", "0x1", "0xp1", "0x1.p", "1e308", "1e309", "-1e400", "4.9e-324", "2e-324", "1e-400",
+                "0.1", "0.2", "0.3", "3.4028235e38", "3.4028236e38", "1.4e-45", "123456789012345678901234567890",
+                "9007199254740993", "9007199254740992", "1.7976931348623157e308", "1e22", "1e23", "12345678901234.5", "0.000000000000000000001",
+                "1_000", "1,5", "--1", "1e5.5", "\u0661", "e5", "+", "-");
+
+        for (String input : inputs)
+            assertFloatingPointMatchesJdk(input);
+
+        Random random = new Random(2024);
+        for (int i = 0; i < 10_000; i++) {
+            assertFloatingPointMatchesJdk(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertFloatingPointMatchesJdk(Double.toString(random.nextDouble() * 1000));
+            assertFloatingPointMatchesJdk(Float.toString(random.nextFloat() * 100));
+            assertFloatingPointMatchesJdk((random.nextInt(2_000_000) - 1_000_000) + "." + random.nextInt(100_000));
+            assertFloatingPointMatchesJdk(random.nextInt(100_000) + "e" + (random.nextInt(60) - 30));
+        }
+    }
+
+    private static void assertFloatingPointMatchesJdk(String input) {
+        Double expectedDouble = jdkDouble(input);
+        var parsedDouble = StringHelpers.parseDouble(input);
+        assertEquals(expectedDouble != null, parsedDouble.isPresent(), input);
+        assertEquals(expectedDouble != null, StringHelpers.isDouble(input), input);
+        if (expectedDouble != null)
+            assertEquals(Double.doubleToRawLongBits(expectedDouble), Double.doubleToRawLongBits(parsedDouble.getAsDouble()), input);
+
+        Float expectedFloat = jdkFloat(input);
+        var parsedFloat = StringHelpers.parseFloat(input);
+        assertEquals(expectedFloat != null, parsedFloat.isPresent(), input);
+        if (expectedFloat != null)
+            assertEquals(Float.floatToRawIntBits(expectedFloat), Float.floatToRawIntBits(parsedFloat.getAsFloat()), input);
+    }
+
+    private static Integer jdkInteger(String input) {
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long jdkLong(String input) {
+        try {
+            return Long.parseLong(input);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double jdkDouble(String input) {
+        try {
+            return Double.parseDouble(input);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Float jdkFloat(String input) {
+        try {
+            return Float.parseFloat(input);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     @Test
     void isNullOrEmpty() {
         assertTrue(StringHelpers.isNullOrEmpty(null));
@@ -0,0 +1,285 @@
+package net.apartium.cocoabeans.collect;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedNameIndexTest {
+
+    private static final UUID STEVE = new UUID(0, 1);
+    private static final UUID ALEX = new UUID(0, 2);
+    private static final UUID BOB = new UUID(0, 3);
+
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("name-index");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void emptyIndex() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertTrue(index.isEmpty());
+            assertNull(index.get("steve"));
+            assertEquals(List.of(), index.namesStartingWith("", 10));
+        }
+    }
+
+    @Test
+    void rebuildAndLookup() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.rebuild(Map.of("Steve", STEVE, "alex", ALEX, "Bob", BOB));
+
+            assertEquals(STEVE, index.get("steve"));
+            assertEquals(ALEX, index.get("ALEX"));
+            assertNull(index.get("ste"));
+            assertEquals(List.of("Steve"), index.namesStartingWith("st", 10));
+            assertEquals(List.of("alex", "Bob", "Steve"), index.namesStartingWith("", 10));
+            assertEquals(List.of("alex", "Bob"), index.namesStartingWith("", 2));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(BOB, index.get("bob"));
+            assertEquals(List.of("Bob"), index.namesStartingWith("B", 10));
+        }
+    }
+
+    @Test
+    void rebuildKeepsEntriesPutBefore() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            // put while the entries to rebuild with were collected
+            index.put("alex", ALEX);
+            index.put("Stevie", STEVE);
+
+            index.rebuild(Map.of("Steve", STEVE, "Bob", BOB));
+
+            assertEquals(ALEX, index.get("alex"));
+            assertEquals(STEVE, index.get("stevie"));
+            assertNull(index.get("steve"));
+            assertEquals(List.of("alex", "Bob", "Stevie"), index.namesStartingWith("", 10));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(ALEX, index.get("alex"));
+            assertNull(index.get("steve"));
+            assertEquals(List.of("alex", "Bob", "Stevie"), index.namesStartingWith("", 10));
+        }
+    }
+
+    @Test
+    void journalSurvivesReopen() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.rebuild(Map.of("Steve", STEVE));
+            index.put("alex", ALEX);
+            assertEquals(ALEX, index.get("Alex"));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(ALEX, index.get("alex"));
+            assertEquals(STEVE, index.get("steve"));
+        }
+    }
+
+    @Test
+    void renameShadowsOldName() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.rebuild(Map.of("Steve", STEVE));
+            index.put("Stevie", STEVE);
+
+            assertNull(index.get("steve"));
+            assertEquals(STEVE, index.get("stevie"));
+
+            Map<String, UUID> found = new HashMap<>();
+            index.forEachStartingWith("st", found::put);
+            assertEquals(Map.of("Stevie", STEVE), found);
+
+            index.compact();
+            assertNull(index.get("steve"));
+            assertEquals(List.of("Stevie"), index.namesStartingWith("", 10));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertNull(index.get("steve"));
+            assertEquals(STEVE, index.get("STEVIE"));
+        }
+    }
+
+    @Test
+    void nameTakenByAnotherUuid() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.put("Steve", STEVE);
+            index.put("steve", BOB);
+
+            assertEquals(BOB, index.get("Steve"));
+            assertEquals(List.of("steve"), index.namesStartingWith("s", 10));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(BOB, index.get("Steve"));
+            assertEquals(List.of("steve"), index.namesStartingWith("s", 10));
+        }
+    }
+
+    @Test
+    void compactionMergesJournal() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory, 2)) {
+            index.rebuild(Map.of("Steve", STEVE));
+            index.put("alex", ALEX);
+            assertFalse(index.needsCompaction());
+
+            index.put("Bob", BOB);
+            assertTrue(index.needsCompaction());
+
+            index.compact();
+            assertFalse(index.needsCompaction());
+            assertEquals(List.of("alex", "Bob", "Steve"), index.namesStartingWith("", 10));
+            assertEquals(0, Files.size(directory.resolve("names.journal")));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(List.of("alex", "Bob", "Steve"), index.namesStartingWith("", 10));
+        }
+    }
+
+    @Test
+    void returningPlayerIsNotJournaled() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.rebuild(Map.of("Steve", STEVE));
+            index.put("Steve", STEVE);
+
+            assertEquals(0, Files.size(directory.resolve("names.journal")));
+
+            index.put("steve", STEVE);
+            assertTrue(Files.size(directory.resolve("names.journal")) > 0);
+            assertEquals(List.of("steve"), index.namesStartingWith("", 10));
+        }
+    }
+
+    @Test
+    void truncatedJournalRecordIsDropped() throws IOException {
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            index.put("alex", ALEX);
+        }
+
+        Files.write(directory.resolve("names.journal"), new byte[] {0, 5, 'b', 'o'}, StandardOpenOption.APPEND);
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            assertEquals(ALEX, index.get("alex"));
+            assertNull(index.get("bo"));
+        }
+    }
+
+    @Test
+    void closedIndexRejectsModifications() throws IOException {
+        MappedNameIndex index = MappedNameIndex.open(directory);
+        index.put("alex", ALEX);
+        index.close();
+
+        assertEquals(ALEX, index.get("alex"));
+        assertThrows(IllegalStateException.class, () -> index.put("Bob", BOB));
+    }
+
+    @Test
+    void concurrentCompactionsKeepAdditions() throws Exception {
+        int count = 2000;
+        try (MappedNameIndex index = MappedNameIndex.open(directory, 16)) {
+            index.rebuild(Map.of("Steve", STEVE));
+
+            AtomicBoolean done = new AtomicBoolean();
+            List<Throwable> errors = new CopyOnWriteArrayList<>();
+            List<Thread> compactors = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Thread compactor = new Thread(() -> {
+                    try {
+                        while (!done.get())
+                            index.compact();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                });
+
+                compactor.start();
+                compactors.add(compactor);
+            }
+
+            for (int i = 0; i < count; i++)
+                index.put("player" + i, new UUID(1, i));
+
+            done.set(true);
+            for (Thread compactor : compactors)
+                compactor.join();
+
+            assertEquals(List.of(), errors);
+            for (int i = 0; i < count; i++)
+                assertEquals(new UUID(1, i), index.get("Player" + i));
+
+            assertEquals(STEVE, index.get("steve"));
+        }
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory)) {
+            for (int i = 0; i < count; i++)
+                assertEquals(new UUID(1, i), index.get("player" + i));
+
+            assertEquals(count + 1, index.namesStartingWith("", Integer.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void matchesPrefixIndex() throws IOException {
+        Random random = new Random(7);
+        Map<String, UUID> expected = new HashMap<>();
+
+        try (MappedNameIndex index = MappedNameIndex.open(directory, 64)) {
+            for (int i = 0; i < 500; i++) {
+                StringBuilder name = new StringBuilder();
+                int length = 1 + random.nextInt(4);
+                for (int j = 0; j < length; j++)
+                    name.append((char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(3)));
+
+                UUID uuid = new UUID(0, random.nextInt(200));
+
+                // keep expected unique by uuid and by folded name, as the index does
+                expected.values().removeIf(uuid::equals);
+                expected.keySet().removeIf(name.toString()::equalsIgnoreCase);
+                expected.put(name.toString(), uuid);
+
+                index.put(name.toString(), uuid);
+                if (index.needsCompaction())
+                    index.compact();
+            }
+
+            PrefixIndex<UUID> reference = PrefixIndex.of(expected);
+            for (String prefix : List.of("", "a", "B", "ab", "Cc", "abc")) {
+                Map<String, UUID> found = new HashMap<>();
+                index.forEachStartingWith(prefix, found::put);
+
+                Map<String, UUID> referenceFound = new HashMap<>();
+                reference.forEachStartingWith(prefix, referenceFound::put);
+                assertEquals(referenceFound, found);
+            }
+
+            for (Map.Entry<String, UUID> entry : expected.entrySet())
+                assertEquals(entry.getValue(), index.get(entry.getKey().toUpperCase(Locale.ROOT)));
+        }
+    }
+
+}
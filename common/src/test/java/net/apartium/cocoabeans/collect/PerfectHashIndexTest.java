@@ -0,0 +1,67 @@
+package net.apartium.cocoabeans.collect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfectHashIndexTest {
+
+    @Test
+    void empty() {
+        PerfectHashIndex<Integer> index = PerfectHashIndex.of(Map.of());
+        assertEquals(0, index.size());
+        assertNull(index.get("a"));
+        assertNull(index.get(""));
+    }
+
+    @Test
+    void ignoresCase() {
+        PerfectHashIndex<Integer> index = PerfectHashIndex.of(Map.of("STONE", 1, "grass_block", 2, "Dirt", 3));
+
+        assertEquals(3, index.size());
+        assertEquals(Integer.valueOf(1), index.get("stone"));
+        assertEquals(Integer.valueOf(2), index.get("GRASS_BLOCK"));
+        assertEquals(Integer.valueOf(3), index.get(new StringBuilder("dIRT")));
+        assertTrue(index.containsKey("Stone"));
+
+        assertNull(index.get("ston"));
+        assertNull(index.get("stones"));
+        assertNull(index.get(""));
+    }
+
+    @Test
+    void duplicateIgnoringCase() {
+        assertThrows(IllegalArgumentException.class, () -> PerfectHashIndex.of(Map.of("stone", 1, "STONE", 2)));
+    }
+
+    @Test
+    void agreesWithPrefixIndex() {
+        // dotless i, dotted capital i, sharp s and kelvin sign have special casing
+        Map<String, Integer> map = Map.of("\u0131ron", 1, "\u0130ce", 2, "stra\u00dfe", 3, "\u212a", 4);
+        PerfectHashIndex<Integer> lookup = PerfectHashIndex.of(map);
+        PrefixIndex<Integer> completions = PrefixIndex.of(map);
+
+        for (String key : new String[] {"iron", "IRON", "\u0131ron", "ice", "\u0130CE", "strasse", "STRA\u00dfE", "k", "K", "\u212a"})
+            assertEquals(completions.getIgnoreCase(key), lookup.get(key), key);
+    }
+
+    @Test
+    void manyKeys() {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 5000; i++)
+            map.put("KEY_" + Integer.toString(i, 36), i);
+
+        PerfectHashIndex<Integer> index = PerfectHashIndex.of(map);
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            assertEquals(entry.getValue(), index.get(entry.getKey()));
+            assertEquals(entry.getValue(), index.get(entry.getKey().toLowerCase()));
+        }
+
+        for (int i = 5000; i < 10000; i++)
+            assertNull(index.get("key_" + Integer.toString(i, 36)));
+    }
+
+}
@@ -0,0 +1,81 @@
+package net.apartium.cocoabeans.collect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    @Test
+    void ofEmpty() {
+        PrefixIndex<String> empty = PrefixIndex.of();
+        assertSame(empty, PrefixIndex.of(Set.of()));
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.countStartingWith(""));
+        assertEquals(List.of(), empty.keysStartingWith("a"));
+        assertNull(empty.getIgnoreCase("a"));
+    }
+
+    @Test
+    void prefixRange() {
+        PrefixIndex<String> index = PrefixIndex.of(List.of("Steve", "alex", "STEVEN", "bob", "stella"));
+
+        assertEquals(5, index.size());
+        assertEquals(List.of("alex", "bob", "stella", "Steve", "STEVEN"), index.keysStartingWith(""));
+        assertEquals(List.of("Steve", "STEVEN"), index.keysStartingWith("stev"));
+        assertEquals(List.of("stella", "Steve", "STEVEN"), index.keysStartingWith("ST"));
+        assertEquals(3, index.countStartingWith("st"));
+        assertEquals(0, index.countStartingWith("z"));
+        assertEquals(1, index.keysStartingWith("st", 1).size());
+
+        int from = index.lowerBound("st");
+        int to = index.upperBound("st");
+        assertEquals(3, to - from);
+        for (int i = from; i < to; i++)
+            assertTrue(index.keyAt(i).toLowerCase().startsWith("st"));
+    }
+
+    @Test
+    void mapValues() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("one", 1);
+        map.put("Two", 2);
+        map.put("three", 3);
+
+        PrefixIndex<Integer> index = PrefixIndex.of(map);
+        assertEquals(Integer.valueOf(2), index.getIgnoreCase("TWO"));
+        assertEquals(Integer.valueOf(1), index.getIgnoreCase("one"));
+        assertNull(index.getIgnoreCase("tw"));
+
+        List<Integer> values = new ArrayList<>();
+        index.forEachStartingWith("t", (key, value) -> values.add(value));
+        assertEquals(List.of(3, 2), values);
+    }
+
+    @Test
+    void withAndWithout() {
+        PrefixIndex<String> index = PrefixIndex.of(List.of("alex", "steve"));
+
+        PrefixIndex<String> added = index.with("Stella", "Stella");
+        assertEquals(2, index.size());
+        assertEquals(3, added.size());
+        assertEquals(List.of("Stella", "steve"), added.keysStartingWith("ste"));
+
+        PrefixIndex<String> replaced = added.with("Stella", "other");
+        assertEquals(3, replaced.size());
+        assertEquals("other", replaced.getIgnoreCase("stella"));
+
+        PrefixIndex<String> removed = added.without("steve");
+        assertEquals(List.of("Stella"), removed.keysStartingWith("ste"));
+        assertSame(removed, removed.without("steve"));
+        assertSame(removed, removed.without("STELLA"));
+        assertTrue(removed.without("Stella").without("alex").isEmpty());
+    }
+
+}
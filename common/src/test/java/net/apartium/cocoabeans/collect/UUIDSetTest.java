@@ -0,0 +1,87 @@
+package net.apartium.cocoabeans.collect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UUIDSetTest {
+
+    @Test
+    void ofEmpty() {
+        UUIDSet empty = UUIDSet.of();
+        assertSame(empty, UUIDSet.of(Set.of(), true));
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.size());
+        assertFalse(empty.contains(new UUID(0, 0)));
+    }
+
+    @Test
+    void containsAndDuplicates() {
+        UUID a = new UUID(1, 2);
+        UUID b = new UUID(-1, 5);
+        UUID c = new UUID(1, -2);
+
+        UUIDSet set = UUIDSet.of(List.of(b, a, c, a));
+        assertEquals(3, set.size());
+        assertFalse(set.hasBloomFilter());
+
+        assertTrue(set.contains(a));
+        assertTrue(set.contains(b));
+        assertTrue(set.contains(c));
+        assertTrue(set.contains(1, 2));
+
+        assertFalse(set.contains(new UUID(1, 3)));
+        assertFalse(set.contains(new UUID(2, 2)));
+        assertFalse(set.contains(new UUID(-1, 4)));
+
+        List<UUID> ordered = new ArrayList<>();
+        set.forEach(ordered::add);
+        assertEquals(List.of(a, c, b), ordered);
+    }
+
+    @Test
+    void bloomFilter() {
+        Random random = new Random(42);
+        Set<UUID> members = new HashSet<>();
+        while (members.size() < 10_000)
+            members.add(new UUID(random.nextLong(), random.nextLong()));
+
+        UUIDSet set = UUIDSet.of(members, true);
+        assertTrue(set.hasBloomFilter());
+        assertEquals(members.size(), set.size());
+
+        for (UUID member : members)
+            assertTrue(set.contains(member), member.toString());
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID absent = new UUID(random.nextLong(), random.nextLong());
+            assertEquals(members.contains(absent), set.contains(absent));
+        }
+    }
+
+    @Test
+    void randomUUIDs() {
+        Set<UUID> members = new HashSet<>();
+        for (int i = 0; i < 1000; i++)
+            members.add(UUID.randomUUID());
+
+        UUIDSet plain = UUIDSet.of(members);
+        UUIDSet filtered = UUIDSet.of(members, true);
+        for (UUID member : members) {
+            assertTrue(plain.contains(member));
+            assertTrue(filtered.contains(member));
+        }
+
+        UUID absent = UUID.randomUUID();
+        assertFalse(plain.contains(absent));
+        assertFalse(filtered.contains(absent));
+    }
+
+}
@@ -65,6 +65,34 @@ public class MethodUtilsTest {
 
     }
 
+    @Test
+    void getMethodsFromSuperClassAndInterface() throws NoSuchMethodException {
+        Method method = ChildClass.class.getMethod("run");
+
+        Set<Method> methods = MethodUtils.getMethodsFromSuperClassAndInterface(method);
+        Assertions.assertEquals(2, methods.size());
+        Assertions.assertTrue(methods.contains(Runnable.class.getMethod("run")));
+        Assertions.assertTrue(methods.contains(ParentClass.class.getMethod("run")));
+
+        Assertions.assertSame(methods, MethodUtils.getMethodsFromSuperClassAndInterface(ChildClass.class.getMethod("run")));
+        Assertions.assertThrows(UnsupportedOperationException.class, methods::clear);
+    }
+
+    public static class ParentClass implements Runnable {
+
+        @Override
+        public void run() {
+
+        }
+    }
+
+    public static class ChildClass extends ParentClass {
+
+        @Override
+        public void run() {
+
+        }
+    }
 
     public static class TestClass {
 